@@ -28,6 +28,11 @@ public class JsonRpcPromise<R> {
   private BiConsumer<String, JsonRpcError> failureConsumer;
   private Runnable timeoutRunnable;
 
+  private boolean completed;
+  private String completedEndpointId;
+  private R completedResult;
+  private JsonRpcError completedError;
+
   public Optional<BiConsumer<String, R>> getSuccessConsumer() {
     return Optional.ofNullable(successConsumer);
   }
@@ -40,6 +45,47 @@ public class JsonRpcPromise<R> {
     return Optional.ofNullable(timeoutRunnable);
   }
 
+  /**
+   * Resolves this promise with the result. Success consumer is called right away if it is already
+   * set, otherwise it is called as soon as it is set. Subsequent resolutions and rejections are
+   * ignored.
+   *
+   * @param endpointId endpoint identifier
+   * @param result result value
+   */
+  public synchronized void resolve(String endpointId, R result) {
+    if (completed) {
+      return;
+    }
+    completed = true;
+    completedEndpointId = endpointId;
+    completedResult = result;
+    if (successConsumer != null) {
+      successConsumer.accept(endpointId, result);
+    }
+  }
+
+  /**
+   * Rejects this promise with the error. Failure consumer is called right away if it is already
+   * set, otherwise it is called as soon as it is set. Subsequent resolutions and rejections are
+   * ignored.
+   *
+   * @param endpointId endpoint identifier
+   * @param error error value
+   */
+  public synchronized void reject(String endpointId, JsonRpcError error) {
+    checkNotNull(error, "JSON RPC error argument must not be null");
+    if (completed) {
+      return;
+    }
+    completed = true;
+    completedEndpointId = endpointId;
+    completedError = error;
+    if (failureConsumer != null) {
+      failureConsumer.accept(endpointId, error);
+    }
+  }
+
   /**
    * Set timeout runnable to be called on this promise timeout.
    *
@@ -64,7 +110,7 @@ public class JsonRpcPromise<R> {
   public JsonRpcPromise<R> onSuccess(BiConsumer<String, R> biConsumer) {
     checkNotNull(biConsumer, "JSON RPC success consumer argument must not be null");
     checkState(this.successConsumer == null, "JSON RPC success field must not be set");
-    this.successConsumer = biConsumer;
+    setSuccessConsumer(biConsumer);
     return this;
   }
 
@@ -79,7 +125,7 @@ public class JsonRpcPromise<R> {
   public JsonRpcPromise<R> onSuccess(Consumer<R> consumer) {
     checkNotNull(consumer, "JSON RPC success consumer argument must not be null");
     checkState(this.successConsumer == null, "JSON RPC success consumer field must not be set");
-    this.successConsumer = (s, r) -> consumer.accept(r);
+    setSuccessConsumer((s, r) -> consumer.accept(r));
     return this;
   }
 
@@ -93,7 +139,7 @@ public class JsonRpcPromise<R> {
   public JsonRpcPromise<R> onSuccess(Runnable runnable) {
     checkNotNull(runnable, "JSON RPC success runnable argument must not be null");
     checkState(this.successConsumer == null, "JSON RPC success field must not be set");
-    this.successConsumer = (s, r) -> runnable.run();
+    setSuccessConsumer((s, r) -> runnable.run());
     return this;
   }
 
@@ -108,7 +154,7 @@ public class JsonRpcPromise<R> {
   public JsonRpcPromise<R> onFailure(BiConsumer<String, JsonRpcError> biConsumer) {
     checkNotNull(biConsumer, "JSON RPC failure consumer argument must not be null");
     checkState(this.failureConsumer == null, "JSON RPC failure consumer field must not be set");
-    this.failureConsumer = biConsumer;
+    setFailureConsumer(biConsumer);
     return this;
   }
 
@@ -123,7 +169,7 @@ public class JsonRpcPromise<R> {
   public JsonRpcPromise<R> onFailure(Consumer<JsonRpcError> consumer) {
     checkNotNull(consumer, "JSON RPC failure consumer argument must not be null");
     checkState(this.failureConsumer == null, "JSON RPC failure consumer field must not be set");
-    this.failureConsumer = (s, e) -> consumer.accept(e);
+    setFailureConsumer((s, e) -> consumer.accept(e));
     return this;
   }
 
@@ -140,4 +186,18 @@ public class JsonRpcPromise<R> {
     this.successConsumer = (s, e) -> runnable.run();
     return this;
   }
+
+  private synchronized void setSuccessConsumer(BiConsumer<String, R> successConsumer) {
+    this.successConsumer = successConsumer;
+    if (completed && completedError == null) {
+      successConsumer.accept(completedEndpointId, completedResult);
+    }
+  }
+
+  private synchronized void setFailureConsumer(BiConsumer<String, JsonRpcError> failureConsumer) {
+    this.failureConsumer = failureConsumer;
+    if (completed && completedError != null) {
+      failureConsumer.accept(completedEndpointId, completedError);
+    }
+  }
 }
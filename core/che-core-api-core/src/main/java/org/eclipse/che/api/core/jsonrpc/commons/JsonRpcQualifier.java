@@ -1,19 +0,0 @@
-/*
- * Copyright (c) 2012-2018 Red Hat, Inc.
- * All rights reserved. This program and the accompanying materials
- * are made available under the terms of the Eclipse Public License v1.0
- * which accompanies this distribution, and is available at
- * http://www.eclipse.org/legal/epl-v10.html
- *
- * Contributors:
- *   Red Hat, Inc. - initial API and implementation
- */
-package org.eclipse.che.api.core.jsonrpc.commons;
-
-public interface JsonRpcQualifier {
-  boolean isValidJson(String message);
-
-  boolean isJsonRpcRequest(String message);
-
-  boolean isJsonRpcResponse(String message);
-}
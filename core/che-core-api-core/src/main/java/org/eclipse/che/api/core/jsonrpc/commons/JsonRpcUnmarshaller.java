@@ -10,18 +10,25 @@
  */
 package org.eclipse.che.api.core.jsonrpc.commons;
 
-import java.util.List;
+import java.util.function.Consumer;
 
 /** Transforms plain text messages into JSON RPC structures. */
 public interface JsonRpcUnmarshaller {
   /**
-   * Creates an array of stringified JSON RPC structures, which can further be unmarshalled
-   * separately.
+   * Unmarshals a message that contains a single JSON RPC request or response or an array of them
+   * in a single pass. Unmarshalled requests and responses are passed to corresponding consumers in
+   * the order they appear in the message.
    *
    * @param message incoming message
-   * @return array of serialized JSON RPC
+   * @param requestConsumer consumer of unmarshalled requests
+   * @param responseConsumer consumer of unmarshalled responses
+   * @throws JsonRpcException if the message is not a valid JSON or it contains an entity that is
+   *     neither a request nor a response
    */
-  List<String> unmarshalArray(String message);
+  void unmarshal(
+      String message,
+      Consumer<JsonRpcRequest> requestConsumer,
+      Consumer<JsonRpcResponse> responseConsumer);
 
   /**
    * Creates a request out of a plain text message
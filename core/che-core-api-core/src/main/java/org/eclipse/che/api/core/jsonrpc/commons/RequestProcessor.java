@@ -18,4 +18,18 @@ public interface RequestProcessor {
    * @param runnable runnable to be called for processing of a request
    */
   void process(Runnable runnable);
+
+  /**
+   * Process a runnable interface that handles a request with specified method name. Implementations
+   * may use the method name to prioritize or account processing, by default the method name is
+   * ignored.
+   *
+   * @param method JSON RPC method name of a request
+   * @param runnable runnable to be called for processing of a request
+   * @throws JsonRpcException if the request can not be accepted for processing, e.g. when the
+   *     processor is overloaded
+   */
+  default void process(String method, Runnable runnable) {
+    process(runnable);
+  }
 }
@@ -32,6 +32,7 @@ public class ResponseDispatcher {
 
   private final Map<String, SingleTypedPromise<?>> singleTypedPromises = new ConcurrentHashMap<>();
   private final Map<String, ListTypedPromise<?>> listTypedPromises = new ConcurrentHashMap<>();
+  private final Map<String, TimeoutActionRunner.Cancellable> timeouts = new ConcurrentHashMap<>();
 
   @Inject
   public ResponseDispatcher(JsonRpcComposer composer, TimeoutActionRunner timeoutActionRunner) {
@@ -64,6 +65,7 @@ public class ResponseDispatcher {
     }
 
     String key = generateKey(endpointId, responseId);
+    cancelTimeout(key);
 
     if (response.hasResult()) {
       dispatchResult(endpointId, response, key);
@@ -82,8 +84,8 @@ public class ResponseDispatcher {
     String key = generateKey(endpointId, requestId);
     singleTypedPromises.put(key, promise);
     if (timeoutInMillis > 0) {
-      timeoutActionRunner.schedule(
-          timeoutInMillis, () -> runTimeoutConsumer(singleTypedPromises.remove(key)));
+      scheduleTimeout(
+          key, timeoutInMillis, () -> runTimeoutConsumer(singleTypedPromises.remove(key)));
     }
     return promise;
   }
@@ -96,12 +98,32 @@ public class ResponseDispatcher {
     String key = generateKey(endpointId, requestId);
     listTypedPromises.put(key, promise);
     if (timeoutInMillis > 0) {
-      timeoutActionRunner.schedule(
-          timeoutInMillis, () -> runTimeoutConsumer(listTypedPromises.remove(key)));
+      scheduleTimeout(
+          key, timeoutInMillis, () -> runTimeoutConsumer(listTypedPromises.remove(key)));
     }
     return promise;
   }
 
+  private void scheduleTimeout(String key, int timeoutInMillis, Runnable timeoutAction) {
+    PendingTimeout timeout = new PendingTimeout();
+    timeouts.put(key, timeout);
+    timeout.attach(
+        timeoutActionRunner.schedule(
+            timeoutInMillis,
+            () -> {
+              if (timeouts.remove(key, timeout)) {
+                timeoutAction.run();
+              }
+            }));
+  }
+
+  private void cancelTimeout(String key) {
+    TimeoutActionRunner.Cancellable timeout = timeouts.remove(key);
+    if (timeout != null) {
+      timeout.cancel();
+    }
+  }
+
   private void runTimeoutConsumer(JsonRpcPromise<?> promise) {
     Optional.ofNullable(promise)
         .flatMap(JsonRpcPromise::getTimeoutRunnable)
@@ -170,4 +192,28 @@ public class ResponseDispatcher {
       return Optional.ofNullable(type);
     }
   }
+
+  /**
+   * Timeout that is registered before it is scheduled, so a response that comes while the timeout
+   * is being scheduled still cancels it.
+   */
+  private static class PendingTimeout implements TimeoutActionRunner.Cancellable {
+    private TimeoutActionRunner.Cancellable scheduled;
+    private boolean cancelled;
+
+    synchronized void attach(TimeoutActionRunner.Cancellable scheduled) {
+      this.scheduled = scheduled;
+      if (cancelled && scheduled != null) {
+        scheduled.cancel();
+      }
+    }
+
+    @Override
+    public synchronized void cancel() {
+      cancelled = true;
+      if (scheduled != null) {
+        scheduled.cancel();
+      }
+    }
+  }
 }
@@ -12,5 +12,16 @@ package org.eclipse.che.api.core.jsonrpc.commons;
 
 /** Executes operation on timeout */
 public interface TimeoutActionRunner {
-  void schedule(int timeoutInMillis, Runnable runnable);
+  /**
+   * Schedules an operation to be executed after the specified timeout.
+   *
+   * @return handle that allows to cancel the operation before it is executed
+   */
+  Cancellable schedule(int timeoutInMillis, Runnable runnable);
+
+  /** Handle of a scheduled operation */
+  interface Cancellable {
+    /** Cancels the operation, does nothing if it is already executed or cancelled */
+    void cancel();
+  }
 }
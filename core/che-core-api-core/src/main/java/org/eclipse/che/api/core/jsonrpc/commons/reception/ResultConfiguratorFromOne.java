@@ -51,6 +51,20 @@ public class ResultConfiguratorFromOne<P> {
     return new FunctionConfiguratorOneToMany<>(requestHandlerManager, method, pClass, rClass);
   }
 
+  public <R> PromiseConfigurationOneToMany<P, R> resultAsPromiseListOfDto(Class<R> rClass) {
+    checkNotNull(rClass, "Result class must not be null");
+
+    LOGGER.debug(
+        "Configuring incoming request result: "
+            + "method: "
+            + method
+            + ", "
+            + "result list items class: "
+            + rClass);
+
+    return new PromiseConfigurationOneToMany<>(requestHandlerManager, method, pClass, rClass);
+  }
+
   public FunctionConfiguratorOneToMany<P, String> resultAsListOfString() {
     LOGGER.debug(
         "Configuring incoming request result: "
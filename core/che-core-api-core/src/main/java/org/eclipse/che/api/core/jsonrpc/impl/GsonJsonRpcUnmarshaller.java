@@ -12,26 +12,40 @@ package org.eclipse.che.api.core.jsonrpc.impl;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
-import static java.util.Collections.singletonList;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import java.io.IOException;
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcError;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcException;
 import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcParams;
 import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcRequest;
 import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcResponse;
 import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcResult;
 import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcUnmarshaller;
 
+/**
+ * Gson based unmarshaller. Method {@link #unmarshal(String, Consumer, Consumer)} reads a message
+ * with a streaming {@link JsonReader}, so that each message is parsed only once, while only
+ * params, results and errors are materialized as JSON trees.
+ */
 @Singleton
 public class GsonJsonRpcUnmarshaller implements JsonRpcUnmarshaller {
+  private static final int PARSE_ERROR = -32700;
+  private static final int INVALID_REQUEST = -32600;
+
   private final JsonParser jsonParser;
 
   @Inject
@@ -40,8 +54,86 @@ public class GsonJsonRpcUnmarshaller implements JsonRpcUnmarshaller {
   }
 
   @Override
-  public List<String> unmarshalArray(String message) {
-    return getArray(message, jsonParser.parse(message).isJsonArray());
+  public void unmarshal(
+      String message,
+      Consumer<JsonRpcRequest> requestConsumer,
+      Consumer<JsonRpcResponse> responseConsumer) {
+    checkNotNull(message, "Message must not be null");
+    checkArgument(!message.isEmpty(), "Message must not be empty");
+
+    List<Object> entities = new ArrayList<>();
+    try (JsonReader reader = new JsonReader(new StringReader(message))) {
+      reader.setLenient(true);
+
+      if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+        reader.beginArray();
+        while (reader.hasNext()) {
+          entities.add(readEntity(reader));
+        }
+        reader.endArray();
+      } else {
+        entities.add(readEntity(reader));
+      }
+
+      if (reader.peek() != JsonToken.END_DOCUMENT) {
+        throw new JsonRpcException(PARSE_ERROR, "Unexpected content after JSON RPC message");
+      }
+    } catch (IOException | JsonParseException | IllegalStateException e) {
+      throw new JsonRpcException(
+          PARSE_ERROR, "An error occurred on the server while parsing the JSON text");
+    }
+
+    for (Object entity : entities) {
+      if (entity instanceof JsonRpcRequest) {
+        requestConsumer.accept((JsonRpcRequest) entity);
+      } else {
+        responseConsumer.accept((JsonRpcResponse) entity);
+      }
+    }
+  }
+
+  private Object readEntity(JsonReader reader) throws IOException {
+    String id = null;
+    String method = null;
+    JsonElement params = null;
+    JsonElement result = null;
+    JsonElement error = null;
+
+    reader.beginObject();
+    while (reader.hasNext()) {
+      switch (reader.nextName()) {
+        case "id":
+          if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+          } else {
+            id = reader.nextString();
+          }
+          break;
+        case "method":
+          method = reader.nextString();
+          break;
+        case "params":
+          params = jsonParser.parse(reader);
+          break;
+        case "result":
+          result = jsonParser.parse(reader);
+          break;
+        case "error":
+          error = jsonParser.parse(reader);
+          break;
+        default:
+          reader.skipValue();
+      }
+    }
+    reader.endObject();
+
+    if (method != null) {
+      return new JsonRpcRequest(id, method, toParams(params));
+    } else if ((result != null) != (error != null)) {
+      return new JsonRpcResponse(id, toResult(result), toError(error));
+    } else {
+      throw new JsonRpcException(INVALID_REQUEST, "Message is neither request nor response");
+    }
   }
 
   @Override
@@ -73,21 +165,28 @@ public class GsonJsonRpcUnmarshaller implements JsonRpcUnmarshaller {
   }
 
   private JsonRpcError getError(JsonObject response) {
-    if (!response.has("error")) {
+    return toError(response.get("error"));
+  }
+
+  private JsonRpcError toError(JsonElement jsonElement) {
+    if (jsonElement == null) {
       return null;
     }
 
-    int code = response.get("error").getAsJsonObject().get("code").getAsInt();
-    String errorMessage = response.get("error").getAsJsonObject().get("message").getAsString();
+    int code = jsonElement.getAsJsonObject().get("code").getAsInt();
+    String errorMessage = jsonElement.getAsJsonObject().get("message").getAsString();
     return new JsonRpcError(code, errorMessage);
   }
 
   private JsonRpcResult getResult(JsonObject response) {
-    if (!response.has("result")) {
+    return toResult(response.get("result"));
+  }
+
+  private JsonRpcResult toResult(JsonElement jsonElement) {
+    if (jsonElement == null) {
       return null;
     }
 
-    JsonElement jsonElement = response.get("result");
     if (!jsonElement.isJsonArray()) {
       return new JsonRpcResult(getInnerItem(jsonElement));
     }
@@ -104,11 +203,14 @@ public class GsonJsonRpcUnmarshaller implements JsonRpcUnmarshaller {
   }
 
   private JsonRpcParams getParams(JsonObject jsonObject) {
-    if (!jsonObject.has("params")) {
+    return toParams(jsonObject.get("params"));
+  }
+
+  private JsonRpcParams toParams(JsonElement jsonElement) {
+    if (jsonElement == null) {
       return null;
     }
 
-    JsonElement jsonElement = jsonObject.get("params");
     if (!jsonElement.isJsonArray()) {
       return new JsonRpcParams(getInnerItem(jsonElement));
     }
@@ -132,21 +234,6 @@ public class GsonJsonRpcUnmarshaller implements JsonRpcUnmarshaller {
     return jsonObject.get("method").getAsString();
   }
 
-  private List<String> getArray(String message, boolean isArray) {
-    if (!isArray) {
-      return singletonList(message);
-    }
-
-    JsonArray jsonArray = jsonParser.parse(message).getAsJsonArray();
-    int size = jsonArray.size();
-    List<String> result = new ArrayList<>(size);
-    for (int i = 0; i < size; i++) {
-      JsonElement jsonElement = jsonArray.get(i);
-      result.add(jsonElement.toString());
-    }
-    return result;
-  }
-
   private Object getInnerItem(JsonElement jsonElement) {
     if (jsonElement.isJsonNull()) {
       return null;
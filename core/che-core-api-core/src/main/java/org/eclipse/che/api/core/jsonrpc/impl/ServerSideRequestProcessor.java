@@ -10,32 +10,104 @@
  */
 package org.eclipse.che.api.core.jsonrpc.impl;
 
-import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.stream.Collectors.toList;
+import static org.slf4j.LoggerFactory.getLogger;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Singleton;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadFactory;
-import javax.annotation.PostConstruct;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcException;
 import org.eclipse.che.api.core.jsonrpc.commons.RequestProcessor;
 import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.eclipse.che.commons.schedule.ScheduleRate;
+import org.slf4j.Logger;
 
+/**
+ * Processes JSON RPC requests using a bounded pool of threads. Pending requests are ordered by the
+ * priority of their methods, so interactive requests (e.g. code completion) are not queued behind
+ * bulk notifications. When the queue is full a request is rejected with a JSON RPC server busy
+ * error instead of being processed in the calling thread, as the calling thread receives all the
+ * messages of a connection, including responses that a running request may wait for.
+ *
+ * <p>On JDKs that support virtual threads a virtual thread per request mode may be enabled
+ * instead, in this mode requests are not queued and priorities are not applied.
+ */
 @Singleton
 public class ServerSideRequestProcessor implements RequestProcessor {
-  private ExecutorService executorService;
+  private static final Logger LOG = getLogger(ServerSideRequestProcessor.class);
+
+  private static final String UNKNOWN_METHOD = "<unknown>";
+  private static final int SERVER_BUSY = -32000;
+
+  private static final int HIGH_PRIORITY = 0;
+  private static final int NORMAL_PRIORITY = 1;
+  private static final int LOW_PRIORITY = 2;
+
+  private final ExecutorService executorService;
+  private final PriorityBlockingQueue<Runnable> queue;
+  private final int queueCapacity;
+  private final List<String> highPriorityMethods;
+  private final List<String> lowPriorityMethods;
+
+  private final AtomicLong sequence = new AtomicLong();
+  private final Map<String, MethodMetrics> methodMetrics = new ConcurrentHashMap<>();
+
+  @Inject
+  public ServerSideRequestProcessor(
+      @Named("che.core.jsonrpc.processor_max_pool_size") int maxPoolSize,
+      @Named("che.core.jsonrpc.processor_queue_capacity") int queueCapacity,
+      @Named("che.core.jsonrpc.processor_virtual_threads") boolean virtualThreads,
+      @Named("che.core.jsonrpc.processor_high_priority_methods") String highPriorityMethods,
+      @Named("che.core.jsonrpc.processor_low_priority_methods") String lowPriorityMethods) {
+    this.queueCapacity = queueCapacity;
+    this.highPriorityMethods = splitMethods(highPriorityMethods);
+    this.lowPriorityMethods = splitMethods(lowPriorityMethods);
+
+    ExecutorService virtualThreadExecutor = virtualThreads ? newVirtualThreadExecutor() : null;
+    if (virtualThreadExecutor != null) {
+      LOG.info("JSON RPC requests are processed using virtual threads");
 
-  @PostConstruct
-  private void postConstruct() {
-    ThreadFactory factory =
-        new ThreadFactoryBuilder()
-            .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
-            .setNameFormat(ServerSideRequestProcessor.class.getSimpleName())
-            .setDaemon(true)
-            .build();
+      queue = null;
+      executorService = virtualThreadExecutor;
+    } else {
+      ThreadFactory factory =
+          new ThreadFactoryBuilder()
+              .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+              .setNameFormat(ServerSideRequestProcessor.class.getSimpleName() + "-%d")
+              .setDaemon(true)
+              .build();
 
-    executorService = newCachedThreadPool(factory);
+      queue = new PriorityBlockingQueue<>();
+      ThreadPoolExecutor executor =
+          new ThreadPoolExecutor(
+              maxPoolSize,
+              maxPoolSize,
+              60,
+              SECONDS,
+              queue,
+              factory,
+              (runnable, pool) -> {
+                throw new RejectedExecutionException();
+              });
+      executor.allowCoreThreadTimeOut(true);
+      executorService = executor;
+    }
   }
 
   @PreDestroy
@@ -54,6 +126,166 @@ public class ServerSideRequestProcessor implements RequestProcessor {
 
   @Override
   public void process(Runnable runnable) {
-    executorService.execute(runnable);
+    process(UNKNOWN_METHOD, runnable);
+  }
+
+  @Override
+  public void process(String method, Runnable runnable) {
+    String methodName = method == null ? UNKNOWN_METHOD : method;
+    MethodMetrics metrics = methodMetrics.computeIfAbsent(methodName, k -> new MethodMetrics());
+    PrioritizedRequest request =
+        new PrioritizedRequest(
+            getPriority(methodName), sequence.getAndIncrement(), metrics, runnable);
+
+    if (queue != null && queue.size() >= queueCapacity) {
+      LOG.debug("Request queue is full, rejecting '{}'", methodName);
+
+      throw serverBusy(methodName);
+    }
+
+    try {
+      executorService.execute(request);
+    } catch (RejectedExecutionException e) {
+      LOG.debug("Request '{}' is rejected", methodName);
+
+      throw serverBusy(methodName);
+    }
+  }
+
+  /** Returns the number of requests waiting for a thread, zero in virtual threads mode. */
+  public int getQueueDepth() {
+    return queue == null ? 0 : queue.size();
+  }
+
+  /** Returns processing metrics grouped by JSON RPC method name. */
+  public Map<String, MethodMetrics> getMethodMetrics() {
+    return new HashMap<>(methodMetrics);
+  }
+
+  @ScheduleRate(initialDelay = 60, period = 60)
+  void logMetrics() {
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("JSON RPC request queue depth: {}", getQueueDepth());
+      methodMetrics.forEach((method, metrics) -> LOG.debug("Method '{}': {}", method, metrics));
+    }
+  }
+
+  private static JsonRpcException serverBusy(String method) {
+    return new JsonRpcException(
+        SERVER_BUSY, "Server is busy, request '" + method + "' is rejected, try again later");
+  }
+
+  private int getPriority(String method) {
+    if (matches(method, highPriorityMethods)) {
+      return HIGH_PRIORITY;
+    }
+    if (matches(method, lowPriorityMethods)) {
+      return LOW_PRIORITY;
+    }
+    return NORMAL_PRIORITY;
+  }
+
+  private static boolean matches(String method, List<String> patterns) {
+    for (String pattern : patterns) {
+      if (pattern.endsWith("*")
+          ? method.startsWith(pattern.substring(0, pattern.length() - 1))
+          : method.equals(pattern)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static List<String> splitMethods(String methods) {
+    return Arrays.stream(methods.split(","))
+        .map(String::trim)
+        .filter(it -> !it.isEmpty())
+        .collect(toList());
+  }
+
+  private static ExecutorService newVirtualThreadExecutor() {
+    try {
+      return (ExecutorService)
+          Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException e) {
+      LOG.warn(
+          "Virtual threads are not supported by the current JVM, "
+              + "JSON RPC requests are processed using a bounded pool of threads");
+      return null;
+    }
+  }
+
+  private static class PrioritizedRequest implements Runnable, Comparable<PrioritizedRequest> {
+    private final int priority;
+    private final long sequence;
+    private final MethodMetrics metrics;
+    private final Runnable runnable;
+    private final long submitNanos;
+
+    private PrioritizedRequest(
+        int priority, long sequence, MethodMetrics metrics, Runnable runnable) {
+      this.priority = priority;
+      this.sequence = sequence;
+      this.metrics = metrics;
+      this.runnable = runnable;
+      this.submitNanos = System.nanoTime();
+    }
+
+    @Override
+    public void run() {
+      long startNanos = System.nanoTime();
+      try {
+        runnable.run();
+      } finally {
+        metrics.record(startNanos - submitNanos, System.nanoTime() - startNanos);
+      }
+    }
+
+    @Override
+    public int compareTo(PrioritizedRequest other) {
+      int result = Integer.compare(priority, other.priority);
+      return result != 0 ? result : Long.compare(sequence, other.sequence);
+    }
+  }
+
+  /** Processing metrics of requests with the same JSON RPC method name. */
+  public static class MethodMetrics {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAdder totalExecutionNanos = new LongAdder();
+
+    private void record(long waitNanos, long executionNanos) {
+      count.increment();
+      totalWaitNanos.add(waitNanos);
+      totalExecutionNanos.add(executionNanos);
+    }
+
+    /** Number of processed requests. */
+    public long getCount() {
+      return count.sum();
+    }
+
+    /** Total time requests spent in queue waiting for a thread. */
+    public long getTotalWaitNanos() {
+      return totalWaitNanos.sum();
+    }
+
+    /** Total time spent on requests processing. */
+    public long getTotalExecutionNanos() {
+      return totalExecutionNanos.sum();
+    }
+
+    @Override
+    public String toString() {
+      long count = getCount();
+      return "MethodMetrics{"
+          + "count="
+          + count
+          + ", averageWaitMillis="
+          + (count == 0 ? 0 : getTotalWaitNanos() / count / 1_000_000)
+          + ", averageExecutionMillis="
+          + (count == 0 ? 0 : getTotalExecutionNanos() / count / 1_000_000)
+          + '}';
+    }
   }
 }
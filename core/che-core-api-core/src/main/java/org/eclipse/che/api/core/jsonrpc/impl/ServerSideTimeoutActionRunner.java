@@ -10,24 +10,90 @@
  */
 package org.eclipse.che.api.core.jsonrpc.impl;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Singleton;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PreDestroy;
 import org.eclipse.che.api.core.jsonrpc.commons.TimeoutActionRunner;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.slf4j.Logger;
 
+/**
+ * Runs timeout actions using a single shared timer thread. Cancelled actions are removed from the
+ * timer queue immediately, so requests that are answered in time do not occupy any resources.
+ */
 @Singleton
 public class ServerSideTimeoutActionRunner implements TimeoutActionRunner {
+  private static final Logger LOG = getLogger(ServerSideTimeoutActionRunner.class);
+
+  private final ScheduledThreadPoolExecutor executor;
+
+  private final AtomicLong scheduledCount = new AtomicLong();
+  private final AtomicLong executedCount = new AtomicLong();
+  private final AtomicLong cancelledCount = new AtomicLong();
+
+  public ServerSideTimeoutActionRunner() {
+    executor =
+        new ScheduledThreadPoolExecutor(
+            1,
+            new ThreadFactoryBuilder()
+                .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                .setNameFormat(ServerSideTimeoutActionRunner.class.getSimpleName())
+                .setDaemon(true)
+                .build());
+    executor.setRemoveOnCancelPolicy(true);
+  }
 
   @Override
-  public void schedule(int timeoutInMillis, Runnable runnable) {
-    new Timer()
-        .schedule(
-            new TimerTask() {
-              @Override
-              public void run() {
+  public Cancellable schedule(int timeoutInMillis, Runnable runnable) {
+    scheduledCount.incrementAndGet();
+    ScheduledFuture<?> future =
+        executor.schedule(
+            () -> {
+              executedCount.incrementAndGet();
+              try {
                 runnable.run();
+              } catch (RuntimeException e) {
+                LOG.error("Error while running JSON RPC timeout action", e);
               }
             },
-            timeoutInMillis);
+            timeoutInMillis,
+            MILLISECONDS);
+
+    return () -> {
+      if (future.cancel(false)) {
+        cancelledCount.incrementAndGet();
+      }
+    };
+  }
+
+  /** Returns the number of actions waiting for their timeout. */
+  public int getPendingCount() {
+    return executor.getQueue().size();
+  }
+
+  /** Returns the number of actions scheduled since start. */
+  public long getScheduledCount() {
+    return scheduledCount.get();
+  }
+
+  /** Returns the number of actions executed on timeout since start. */
+  public long getExecutedCount() {
+    return executedCount.get();
+  }
+
+  /** Returns the number of actions cancelled before timeout since start. */
+  public long getCancelledCount() {
+    return cancelledCount.get();
+  }
+
+  @PreDestroy
+  private void preDestroy() {
+    executor.shutdownNow();
   }
 }
@@ -36,6 +36,9 @@ import org.slf4j.LoggerFactory;
 public abstract class BasicWebSocketEndpoint {
   private static final Logger LOG = LoggerFactory.getLogger(BasicWebSocketEndpoint.class);
 
+  /** Query parameter with the number of messages a reconnecting client has received so far. */
+  private static final String LAST_SEQUENCE_PARAM = "lastSequence";
+
   private final WebSocketSessionRegistry registry;
   private final MessagesReSender reSender;
   private final WebSocketMessageReceiver receiver;
@@ -63,9 +66,20 @@ public abstract class BasicWebSocketEndpoint {
 
     session.setMaxIdleTimeout(0);
 
-    registry.add(combinedEndpointId, session);
-    reSender.resend(combinedEndpointId);
     sessionMessagesBuffer.put(session, new StringBuffer());
+
+    // session is registered by re-sender, so replayed messages go before any new ones
+    String lastSequence = getQueryParamsMap(session.getQueryString()).get(LAST_SEQUENCE_PARAM);
+    if (lastSequence == null) {
+      reSender.open(combinedEndpointId, session);
+    } else {
+      try {
+        reSender.open(combinedEndpointId, session, Long.parseLong(lastSequence));
+      } catch (NumberFormatException e) {
+        LOG.warn("Illegal last received message sequence number: {}", lastSequence);
+        reSender.open(combinedEndpointId, session);
+      }
+    }
   }
 
   @OnMessage
@@ -112,7 +126,7 @@ public abstract class BasicWebSocketEndpoint {
       LOG.debug("Endpoint: {}", combinedEndpointId);
       LOG.debug("Close reason: {}:{}", closeReason.getReasonPhrase(), closeReason.getCloseCode());
 
-      registry.remove(combinedEndpointId);
+      reSender.close(combinedEndpointId);
       sessionMessagesBuffer.remove(session);
     } else {
       LOG.warn("Closing unidentified session");
@@ -21,9 +21,13 @@ import org.eclipse.che.api.core.websocket.commons.WebSocketMessageTransmitter;
 import org.slf4j.Logger;
 
 /**
- * Transmits messages over WEB SOCKET to a specific endpoint or broadcasts them. If WEB SOCKET
- * session is not opened adds messages to re-sender to try to send them when session will be opened
- * again.
+ * Transmits messages over WEB SOCKET to a specific endpoint or broadcasts them. Messages are kept
+ * by re-sender to be replayed when a client reconnects, if WEB SOCKET session is not opened they
+ * are re-sent when session will be opened again.
+ *
+ * <p>When outbound queues are enabled (see {@link WebSocketOutboundQueueRegistry}) messages are
+ * put into a bounded per session queue and sent asynchronously, otherwise they are sent with the
+ * blocking basic remote endpoint.
  *
  * @author Dmitry Kuleshov
  */
@@ -33,21 +37,44 @@ public class BasicWebSocketMessageTransmitter implements WebSocketMessageTransmi
 
   private final WebSocketSessionRegistry registry;
   private final MessagesReSender reSender;
+  private final WebSocketOutboundQueueRegistry outboundQueues;
 
   @Inject
   public BasicWebSocketMessageTransmitter(
-      WebSocketSessionRegistry registry, MessagesReSender reSender) {
+      WebSocketSessionRegistry registry,
+      MessagesReSender reSender,
+      WebSocketOutboundQueueRegistry outboundQueues) {
     this.registry = registry;
     this.reSender = reSender;
+    this.outboundQueues = outboundQueues;
   }
 
   @Override
-  public synchronized void transmit(String endpointId, String message) {
-    Optional<Session> sessionOptional = registry.get(endpointId);
+  public void transmit(String endpointId, String message) {
+    if (outboundQueues.isEnabled()) {
+      enqueue(endpointId, message);
+    } else {
+      send(endpointId, message);
+    }
+  }
 
-    if (!sessionOptional.isPresent()) {
-      sessionOptional = registry.getByPartialMatch(endpointId).stream().findFirst();
+  private void enqueue(String endpointId, String message) {
+    Optional<Session> sessionOptional = getSession(endpointId);
+
+    if (!sessionOptional.isPresent()
+        || !sessionOptional.get().isOpen()
+        || !outboundQueues.offer(
+            getSessionEndpointId(endpointId, sessionOptional.get()),
+            sessionOptional.get(),
+            message)) {
+      LOG.debug("Session is not registered or closed, adding message to pending");
+
+      reSender.add(endpointId, message);
     }
+  }
+
+  private synchronized void send(String endpointId, String message) {
+    Optional<Session> sessionOptional = getSession(endpointId);
 
     if (!sessionOptional.isPresent() || !sessionOptional.get().isOpen()) {
       LOG.debug("Session is not registered or closed, adding message to pending");
@@ -56,11 +83,30 @@ public class BasicWebSocketMessageTransmitter implements WebSocketMessageTransmi
     } else {
       LOG.debug("Session registered and open, sending message");
 
+      Session session = sessionOptional.get();
       try {
-        sessionOptional.get().getBasicRemote().sendText(message);
+        reSender.send(getSessionEndpointId(endpointId, session), session, message);
       } catch (IOException e) {
         LOG.error("Error while trying to send a message to a basic websocket remote endpoint", e);
       }
     }
   }
+
+  private Optional<Session> getSession(String endpointId) {
+    Optional<Session> sessionOptional = registry.get(endpointId);
+
+    if (!sessionOptional.isPresent()) {
+      sessionOptional = registry.getByPartialMatch(endpointId).stream().findFirst();
+    }
+
+    return sessionOptional;
+  }
+
+  /**
+   * Returns the identifier the session is registered with, messages may be transmitted to an
+   * endpoint identified partially.
+   */
+  private String getSessionEndpointId(String endpointId, Session session) {
+    return registry.get(session).orElse(endpointId);
+  }
 }
@@ -10,95 +10,360 @@
  */
 package org.eclipse.che.api.core.websocket.impl;
 
-import com.google.common.collect.EvictingQueue;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
 import javax.websocket.Session;
+import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.commons.schedule.ScheduleDelay;
+import org.slf4j.Logger;
 
 /**
- * Instance is responsible for re-sending messages that were not sent during the period when WEB
- * SOCKET session was closed. If session is closed during re-send process it stops and left messages
- * will be re-sent as WEB SOCKET session becomes open again.
+ * Instance is responsible for re-sending messages that were not sent or not received during the
+ * period when WEB SOCKET session was closed.
+ *
+ * <p>Each message transmitted to an endpoint gets a monotonic sequence number and is kept in a
+ * bounded replay buffer of the endpoint, the buffer is limited both by number of messages and by
+ * their total size, the oldest messages are evicted first. A client that reconnects with the
+ * number of messages it has received so far gets only the messages it missed, a client that does
+ * not provide it gets messages that were not sent at all. Replayed messages and messages sent
+ * with {@link #send(String, Session, String)} are sent under the lock of the endpoint buffer, so
+ * they are never interleaved. A session that is opened with {@link #open(String, Session, long)}
+ * is registered under the same lock, so messages transmitted to the new session are sent only
+ * after the replayed ones.
+ *
+ * <p>An endpoint which session is closed for longer than the messages are kept is considered gone,
+ * its buffer is removed and {@link WebSocketEndpointRemovedEvent} is published.
  *
  * @author Dmitry Kuleshov
  */
 @Singleton
 public class MessagesReSender {
+  private static final Logger LOG = getLogger(MessagesReSender.class);
 
-  private static final int MAX_MESSAGES = 100;
+  private static final long MESSAGE_TTL_MILLIS = 60_000;
 
   private final WebSocketSessionRegistry registry;
+  private final EventService eventService;
+  private final int maxMessages;
+  private final long maxBytes;
 
-  private final Map<String, Queue<DelayedMessage>> delayedMessageRegistry =
-      new ConcurrentHashMap<>();
+  private final Map<String, ReplayBuffer> buffers = new ConcurrentHashMap<>();
 
   @Inject
-  public MessagesReSender(WebSocketSessionRegistry registry) {
+  public MessagesReSender(
+      WebSocketSessionRegistry registry,
+      EventService eventService,
+      @Named("che.websocket.replay_buffer.max_messages") int maxMessages,
+      @Named("che.websocket.replay_buffer.max_bytes") long maxBytes) {
     this.registry = registry;
+    this.eventService = eventService;
+    this.maxMessages = maxMessages;
+    this.maxBytes = maxBytes;
   }
 
   @ScheduleDelay(initialDelay = 60, delay = 60)
   void cleanStaleMessages() {
-    long currentTimeMillis = System.currentTimeMillis();
+    long threshold = System.currentTimeMillis() - MESSAGE_TTL_MILLIS;
 
-    delayedMessageRegistry
-        .values()
-        .forEach(it -> it.removeIf(m -> currentTimeMillis - m.timeMillis > 60_000));
+    List<String> removed = new ArrayList<>();
+    for (Map.Entry<String, ReplayBuffer> entry : buffers.entrySet()) {
+      ReplayBuffer buffer = entry.getValue();
+      synchronized (buffer) {
+        buffer.removeOlderThan(threshold);
 
-    delayedMessageRegistry.values().removeIf(Queue::isEmpty);
+        if (!buffer.opened
+            && buffer.closedMillis < threshold
+            && !registry.get(entry.getKey()).isPresent()) {
+          buffer.removed = true;
+          buffers.remove(entry.getKey(), buffer);
+          removed.add(entry.getKey());
+        }
+      }
+    }
+    for (String endpointId : removed) {
+      LOG.debug("Endpoint {} is gone", endpointId);
+      eventService.publish(new WebSocketEndpointRemovedEvent(endpointId));
+    }
   }
 
+  /** Adds a message that was not sent to the endpoint, it is sent when session is opened again. */
   public void add(String endpointId, String message) {
+    withBuffer(endpointId, buffer -> buffer.append(message, false));
+  }
 
-    delayedMessageRegistry
-        .computeIfAbsent(endpointId, k -> EvictingQueue.create(MAX_MESSAGES))
-        .offer(new DelayedMessage(message));
+  /**
+   * Sends a message with the blocking remote endpoint of the session and keeps it for replay. If
+   * sending fails the message is re-sent when session is opened again.
+   */
+  public void send(String endpointId, Session session, String message) throws IOException {
+    withBuffer(
+        endpointId,
+        buffer -> {
+          Message sent = buffer.append(message, true);
+          try {
+            session.getBasicRemote().sendText(message);
+          } catch (IOException e) {
+            sent.delivered = false;
+            throw e;
+          }
+          return sent;
+        });
   }
 
+  /**
+   * Keeps for replay a message that is about to be sent to the endpoint by other means.
+   *
+   * @return sequence number of the message
+   * @see #markUndelivered(String, long)
+   */
+  public long record(String endpointId, String message) {
+    return withBuffer(endpointId, buffer -> buffer.append(message, true)).sequence;
+  }
+
+  /** Marks a recorded message as not sent, so it is re-sent when session is opened again. */
+  public void markUndelivered(String endpointId, long sequence) {
+    ReplayBuffer buffer = buffers.get(endpointId);
+    if (buffer != null) {
+      synchronized (buffer) {
+        buffer.markUndelivered(sequence);
+      }
+    }
+  }
+
+  /** Re-sends messages of the endpoint that were not sent. */
   public void resend(String endpointId) {
-    Queue<DelayedMessage> delayedMessages = delayedMessageRegistry.remove(endpointId);
+    if (buffers.containsKey(endpointId)) {
+      replay(endpointId, ReplayBuffer::getUndelivered);
+    }
+  }
 
-    if (delayedMessages == null || delayedMessages.isEmpty()) {
-      return;
+  /**
+   * Re-sends messages of the endpoint that the client has not received.
+   *
+   * @param endpointId endpoint identifier
+   * @param lastSequence number of messages the client has received from the endpoint
+   */
+  public void resend(String endpointId, long lastSequence) {
+    replay(endpointId, buffer -> buffer.getAfter(lastSequence));
+  }
+
+  /**
+   * Registers an opened session of the endpoint and re-sends messages that were not sent.
+   *
+   * @see #open(String, Session, long)
+   */
+  public void open(String endpointId, Session session) {
+    open(endpointId, session, ReplayBuffer::getUndelivered);
+  }
+
+  /**
+   * Registers an opened session of the endpoint and re-sends messages the client has not received.
+   * The session is registered while the lock of the endpoint buffer is held, so no message can be
+   * sent to the session before the replayed ones or sent twice.
+   *
+   * @param endpointId endpoint identifier
+   * @param session opened session
+   * @param lastSequence number of messages the client has received from the endpoint
+   */
+  public void open(String endpointId, Session session, long lastSequence) {
+    open(endpointId, session, buffer -> buffer.getAfter(lastSequence));
+  }
+
+  /**
+   * Unregisters the closed session of the endpoint. If the endpoint does not open a session again
+   * in {@link #MESSAGE_TTL_MILLIS} it is considered gone.
+   */
+  public void close(String endpointId) {
+    withBuffer(
+        endpointId,
+        buffer -> {
+          registry.remove(endpointId);
+          buffer.opened = false;
+          buffer.closedMillis = System.currentTimeMillis();
+          return null;
+        });
+  }
+
+  private void open(
+      String endpointId, Session session, Function<ReplayBuffer, List<Message>> selector) {
+    try {
+      withBuffer(
+          endpointId,
+          buffer -> {
+            registry.add(endpointId, session);
+            buffer.opened = true;
+            sendAll(endpointId, session, selector.apply(buffer));
+            return null;
+          });
+    } catch (IOException e) {
+      LOG.error("Error while trying to re-send messages to endpoint {}", endpointId, e);
     }
+  }
 
+  private void replay(String endpointId, Function<ReplayBuffer, List<Message>> selector) {
     Optional<Session> sessionOptional = registry.get(endpointId);
 
     if (!sessionOptional.isPresent()) {
       return;
     }
 
-    Queue<DelayedMessage> backingQueue = EvictingQueue.create(delayedMessages.size());
-    while (!delayedMessages.isEmpty()) {
-      backingQueue.offer(delayedMessages.poll());
+    Session session = sessionOptional.get();
+    try {
+      withBuffer(
+          endpointId,
+          buffer -> {
+            sendAll(endpointId, session, selector.apply(buffer));
+            return null;
+          });
+    } catch (IOException e) {
+      LOG.error("Error while trying to re-send messages to endpoint {}", endpointId, e);
     }
+  }
 
-    Session session = sessionOptional.get();
-    for (DelayedMessage delayedMessage : backingQueue) {
-      if (session.isOpen()) {
-        session.getAsyncRemote().sendText(delayedMessage.message);
-      } else {
-        delayedMessages.add(delayedMessage);
+  private void sendAll(String endpointId, Session session, List<Message> messages)
+      throws IOException {
+    if (!messages.isEmpty()) {
+      LOG.debug("Re-sending {} messages to endpoint {}", messages.size(), endpointId);
+    }
+    for (Message message : messages) {
+      if (!session.isOpen()) {
+        break;
       }
+      session.getBasicRemote().sendText(message.text);
+      message.delivered = true;
     }
+  }
 
-    if (!delayedMessages.isEmpty()) {
-      delayedMessageRegistry.put(endpointId, delayedMessages);
+  /**
+   * Applies an action to the buffer of the endpoint holding its lock, the buffer is created if it
+   * does not exist or was removed concurrently.
+   */
+  private <T, E extends Exception> T withBuffer(String endpointId, BufferAction<T, E> action)
+      throws E {
+    while (true) {
+      ReplayBuffer buffer =
+          buffers.computeIfAbsent(endpointId, k -> new ReplayBuffer(maxMessages, maxBytes));
+      synchronized (buffer) {
+        if (!buffer.removed) {
+          return action.apply(buffer);
+        }
+      }
     }
   }
 
-  private static class DelayedMessage {
+  private interface BufferAction<T, E extends Exception> {
+    T apply(ReplayBuffer buffer) throws E;
+  }
+
+  /**
+   * Ring of the latest messages of a single endpoint. Sequence numbers the client reports are
+   * numbers of messages it has received, when messages the client missed were already evicted the
+   * difference is remembered, so following reconnects of the client are still resolved correctly.
+   * Not thread safe, guarded by its own monitor.
+   */
+  private static class ReplayBuffer {
+    private final int maxMessages;
+    private final long maxBytes;
+    private final Deque<Message> messages = new ArrayDeque<>();
+
+    private long bytes;
+    private long lastSequence;
+    private long clientSequenceOffset;
+    private boolean removed;
+    /** Whether the endpoint has an opened session, otherwise the time it was closed is kept. */
+    private boolean opened;
+    private long closedMillis = System.currentTimeMillis();
+
+    private ReplayBuffer(int maxMessages, long maxBytes) {
+      this.maxMessages = maxMessages;
+      this.maxBytes = maxBytes;
+    }
+
+    private Message append(String text, boolean delivered) {
+      Message message = new Message(++lastSequence, text, delivered);
+      messages.offerLast(message);
+      bytes += text.length();
+
+      // the latest message is always kept even if it exceeds the limit by itself
+      while (messages.size() > 1 && (messages.size() > maxMessages || bytes > maxBytes)) {
+        bytes -= messages.pollFirst().text.length();
+      }
+      return message;
+    }
+
+    private void markUndelivered(long sequence) {
+      for (Message message : messages) {
+        if (message.sequence == sequence) {
+          message.delivered = false;
+          return;
+        }
+      }
+    }
+
+    private List<Message> getUndelivered() {
+      List<Message> result = new ArrayList<>();
+      for (Message message : messages) {
+        if (!message.delivered) {
+          result.add(message);
+        }
+      }
+      return result;
+    }
+
+    private List<Message> getAfter(long clientSequence) {
+      long sequence = clientSequence + clientSequenceOffset;
+
+      if (sequence > lastSequence) {
+        // buffer was re-created after the client received messages
+        clientSequenceOffset = lastSequence - clientSequence;
+        sequence = lastSequence;
+      }
+
+      long firstSequence = messages.isEmpty() ? lastSequence + 1 : messages.peekFirst().sequence;
+      if (sequence < firstSequence - 1) {
+        // messages the client missed were evicted, it never receives them
+        clientSequenceOffset += firstSequence - 1 - sequence;
+        sequence = firstSequence - 1;
+      }
+
+      List<Message> result = new ArrayList<>();
+      for (Message message : messages) {
+        if (message.sequence > sequence) {
+          result.add(message);
+        }
+      }
+      return result;
+    }
+
+    private void removeOlderThan(long timeMillis) {
+      while (!messages.isEmpty() && messages.peekFirst().timeMillis < timeMillis) {
+        bytes -= messages.pollFirst().text.length();
+      }
+    }
+  }
 
+  private static class Message {
+    private final long sequence;
+    private final String text;
     private final long timeMillis;
-    private final String message;
+    private boolean delivered;
 
-    private DelayedMessage(String message) {
-      this.message = message;
+    private Message(long sequence, String text, boolean delivered) {
+      this.sequence = sequence;
+      this.text = text;
+      this.delivered = delivered;
       this.timeMillis = System.currentTimeMillis();
     }
   }
@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.websocket.impl;
+
+/**
+ * Published when an endpoint is gone: its WEB SOCKET session is closed and it has not opened a new
+ * one while its messages could still be re-sent, see {@link MessagesReSender}. Components that keep
+ * state of the endpoint, e.g. subscriptions, can drop it, a client that reconnects earlier keeps
+ * it.
+ */
+public class WebSocketEndpointRemovedEvent {
+  private final String endpointId;
+
+  public WebSocketEndpointRemovedEvent(String endpointId) {
+    this.endpointId = endpointId;
+  }
+
+  /** Returns combined identifier of the endpoint, see {@link WebsocketIdService}. */
+  public String getEndpointId() {
+    return endpointId;
+  }
+}
@@ -0,0 +1,338 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.websocket.impl;
+
+import static javax.websocket.CloseReason.CloseCodes.TRY_AGAIN_LATER;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.websocket.CloseReason;
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+import org.slf4j.Logger;
+
+/**
+ * Bounded outbound message queue of a single WEB SOCKET session. Messages are sent one by one with
+ * the asynchronous remote endpoint so a slow client never blocks the transmitting thread, the next
+ * message is sent only when the previous one is acknowledged which preserves the order of
+ * messages. When the queue is full the configured {@link OverflowPolicy} is applied.
+ */
+public class WebSocketOutboundQueue {
+  private static final Logger LOG = getLogger(WebSocketOutboundQueue.class);
+
+  /** Defines what happens when a message is offered to a full queue. */
+  public enum OverflowPolicy {
+    /** The oldest pending message is dropped to free space for the new one. */
+    DROP_OLDEST,
+    /**
+     * The new message is dropped if an identical message is already pending, otherwise the oldest
+     * pending message is dropped.
+     */
+    COALESCE,
+    /**
+     * The session is closed, pending messages are handed over to {@link MessagesReSender} to be
+     * delivered when the client reconnects.
+     */
+    DISCONNECT
+  }
+
+  private final String endpointId;
+  private final Session session;
+  private final int capacity;
+  private final OverflowPolicy overflowPolicy;
+  private final MessagesReSender reSender;
+  private final Executor executor;
+
+  private final Deque<OutboundMessage> messages = new ArrayDeque<>();
+  private boolean sending;
+  private boolean closed;
+
+  private final AtomicLong sentCount = new AtomicLong();
+  private final AtomicLong droppedCount = new AtomicLong();
+  private final AtomicLong failedCount = new AtomicLong();
+  private final AtomicLong totalLatencyMillis = new AtomicLong();
+  private final AtomicLong maxLatencyMillis = new AtomicLong();
+  private volatile int maxDepth;
+
+  WebSocketOutboundQueue(
+      String endpointId,
+      Session session,
+      int capacity,
+      OverflowPolicy overflowPolicy,
+      MessagesReSender reSender,
+      Executor executor) {
+    this.endpointId = endpointId;
+    this.session = session;
+    this.capacity = capacity;
+    this.overflowPolicy = overflowPolicy;
+    this.reSender = reSender;
+    this.executor = executor;
+  }
+
+  /**
+   * Adds a message to the queue and starts sending if the queue is idle.
+   *
+   * @return false if the queue is already closed and message was not accepted
+   */
+  boolean offer(String message) {
+    boolean startSending = false;
+    boolean disconnect = false;
+
+    synchronized (this) {
+      if (closed) {
+        return false;
+      }
+
+      if (messages.size() >= capacity) {
+        switch (overflowPolicy) {
+          case COALESCE:
+            if (messages.stream().anyMatch(it -> it.text.equals(message))) {
+              droppedCount.incrementAndGet();
+              return true;
+            }
+            messages.pollFirst();
+            droppedCount.incrementAndGet();
+            break;
+          case DISCONNECT:
+            disconnect = true;
+            break;
+          case DROP_OLDEST:
+          default:
+            messages.pollFirst();
+            droppedCount.incrementAndGet();
+        }
+      }
+
+      messages.offerLast(new OutboundMessage(message));
+      maxDepth = Math.max(maxDepth, messages.size());
+
+      if (!disconnect && !sending) {
+        sending = true;
+        startSending = true;
+      }
+    }
+
+    if (disconnect) {
+      LOG.warn("Outbound queue of endpoint {} overflowed, closing session", endpointId);
+      close();
+      try {
+        session.close(new CloseReason(TRY_AGAIN_LATER, "Outbound message queue overflow"));
+      } catch (IOException e) {
+        LOG.error("Error while trying to close a web socket session", e);
+      }
+    } else if (startSending) {
+      executor.execute(this::sendNext);
+    }
+
+    return true;
+  }
+
+  /**
+   * Closes the queue, all pending messages are handed over to {@link MessagesReSender} so they are
+   * re-sent when the session is opened again.
+   */
+  void close() {
+    List<OutboundMessage> pending;
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      pending = new ArrayList<>(messages);
+      messages.clear();
+    }
+
+    pending.forEach(it -> reSender.add(endpointId, it.text));
+  }
+
+  boolean isClosed() {
+    synchronized (this) {
+      return closed;
+    }
+  }
+
+  Session getSession() {
+    return session;
+  }
+
+  /** Returns a snapshot of the queue metrics. */
+  public Metrics getMetrics() {
+    int depth;
+    synchronized (this) {
+      depth = messages.size();
+    }
+    long sent = sentCount.get();
+    return new Metrics(
+        endpointId,
+        depth,
+        maxDepth,
+        sent,
+        droppedCount.get(),
+        failedCount.get(),
+        sent == 0 ? 0 : totalLatencyMillis.get() / sent,
+        maxLatencyMillis.get());
+  }
+
+  private void sendNext() {
+    OutboundMessage message;
+    synchronized (this) {
+      message = closed ? null : messages.pollFirst();
+      if (message == null) {
+        sending = false;
+        return;
+      }
+    }
+
+    if (!session.isOpen()) {
+      synchronized (this) {
+        messages.offerFirst(message);
+        sending = false;
+      }
+      close();
+      return;
+    }
+
+    message.sequence = reSender.record(endpointId, message.text);
+    try {
+      session.getAsyncRemote().sendText(message.text, result -> onSent(message, result));
+    } catch (RuntimeException e) {
+      LOG.error("Error while trying to send a message to an async websocket remote endpoint", e);
+      onSent(message, new SendResult(e));
+    }
+  }
+
+  private void onSent(OutboundMessage message, SendResult result) {
+    if (result.isOK()) {
+      long latency = System.currentTimeMillis() - message.timeMillis;
+      sentCount.incrementAndGet();
+      totalLatencyMillis.addAndGet(latency);
+      maxLatencyMillis.accumulateAndGet(latency, Math::max);
+    } else {
+      failedCount.incrementAndGet();
+      LOG.debug("Error while sending a message to endpoint {}", endpointId, result.getException());
+
+      if (!session.isOpen()) {
+        reSender.markUndelivered(endpointId, message.sequence);
+      }
+    }
+
+    // continue in executor thread, send handler may be called by the container
+    // in the same thread that sent the message, this prevents deep recursion
+    executor.execute(this::sendNext);
+  }
+
+  private static class OutboundMessage {
+    private final String text;
+    private final long timeMillis;
+    private long sequence;
+
+    private OutboundMessage(String text) {
+      this.text = text;
+      this.timeMillis = System.currentTimeMillis();
+    }
+  }
+
+  /** Snapshot of outbound queue metrics of a single endpoint. */
+  public static class Metrics {
+    private final String endpointId;
+    private final int depth;
+    private final int maxDepth;
+    private final long sent;
+    private final long dropped;
+    private final long failed;
+    private final long averageLatencyMillis;
+    private final long maxLatencyMillis;
+
+    Metrics(
+        String endpointId,
+        int depth,
+        int maxDepth,
+        long sent,
+        long dropped,
+        long failed,
+        long averageLatencyMillis,
+        long maxLatencyMillis) {
+      this.endpointId = endpointId;
+      this.depth = depth;
+      this.maxDepth = maxDepth;
+      this.sent = sent;
+      this.dropped = dropped;
+      this.failed = failed;
+      this.averageLatencyMillis = averageLatencyMillis;
+      this.maxLatencyMillis = maxLatencyMillis;
+    }
+
+    public String getEndpointId() {
+      return endpointId;
+    }
+
+    /** Number of messages currently waiting to be sent. */
+    public int getDepth() {
+      return depth;
+    }
+
+    /** The biggest number of pending messages observed. */
+    public int getMaxDepth() {
+      return maxDepth;
+    }
+
+    public long getSent() {
+      return sent;
+    }
+
+    /** Number of messages dropped because of queue overflow. */
+    public long getDropped() {
+      return dropped;
+    }
+
+    public long getFailed() {
+      return failed;
+    }
+
+    /** Average time between queueing of a message and its acknowledgement by the container. */
+    public long getAverageLatencyMillis() {
+      return averageLatencyMillis;
+    }
+
+    public long getMaxLatencyMillis() {
+      return maxLatencyMillis;
+    }
+
+    @Override
+    public String toString() {
+      return "Metrics{"
+          + "endpointId='"
+          + endpointId
+          + '\''
+          + ", depth="
+          + depth
+          + ", maxDepth="
+          + maxDepth
+          + ", sent="
+          + sent
+          + ", dropped="
+          + dropped
+          + ", failed="
+          + failed
+          + ", averageLatencyMillis="
+          + averageLatencyMillis
+          + ", maxLatencyMillis="
+          + maxLatencyMillis
+          + '}';
+    }
+  }
+}
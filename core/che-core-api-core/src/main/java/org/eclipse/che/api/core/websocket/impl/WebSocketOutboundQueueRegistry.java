@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.websocket.impl;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.stream.Collectors.toList;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import javax.websocket.Session;
+import org.eclipse.che.api.core.websocket.impl.WebSocketOutboundQueue.Metrics;
+import org.eclipse.che.api.core.websocket.impl.WebSocketOutboundQueue.OverflowPolicy;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.eclipse.che.commons.schedule.ScheduleRate;
+import org.slf4j.Logger;
+
+/**
+ * Keeps a bounded {@link WebSocketOutboundQueue} for each opened WEB SOCKET session. Queues are
+ * drained by a small shared pool of threads, so transmitting a message never waits for a remote
+ * endpoint.
+ */
+@Singleton
+public class WebSocketOutboundQueueRegistry {
+  private static final Logger LOG = getLogger(WebSocketOutboundQueueRegistry.class);
+
+  private final boolean enabled;
+  private final int capacity;
+  private final OverflowPolicy overflowPolicy;
+  private final MessagesReSender reSender;
+  private final ExecutorService executor;
+
+  private final Map<Session, WebSocketOutboundQueue> queues = new ConcurrentHashMap<>();
+
+  @Inject
+  public WebSocketOutboundQueueRegistry(
+      @Named("che.websocket.outbound_queue.enabled") boolean enabled,
+      @Named("che.websocket.outbound_queue.capacity") int capacity,
+      @Named("che.websocket.outbound_queue.overflow_policy") String overflowPolicy,
+      @Named("che.websocket.outbound_queue.threads") int threads,
+      MessagesReSender reSender) {
+    this.enabled = enabled;
+    this.capacity = capacity;
+    this.overflowPolicy = OverflowPolicy.valueOf(overflowPolicy.trim().toUpperCase());
+    this.reSender = reSender;
+    this.executor =
+        Executors.newFixedThreadPool(
+            threads,
+            new ThreadFactoryBuilder()
+                .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                .setNameFormat(WebSocketOutboundQueueRegistry.class.getSimpleName() + "-%d")
+                .setDaemon(true)
+                .build());
+  }
+
+  /** Whether messages should be transmitted through outbound queues. */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Offers a message to the outbound queue of a session, the queue is created if it does not
+   * exist yet.
+   *
+   * @return false if the session queue is closed and message was not accepted
+   */
+  public boolean offer(String endpointId, Session session, String message) {
+    WebSocketOutboundQueue queue =
+        queues.computeIfAbsent(
+            session,
+            s ->
+                new WebSocketOutboundQueue(
+                    endpointId, s, capacity, overflowPolicy, reSender, executor));
+
+    if (queue.offer(message)) {
+      return true;
+    }
+
+    queues.remove(session, queue);
+    return false;
+  }
+
+  /** Returns metrics snapshots of all existing outbound queues. */
+  public List<Metrics> getMetrics() {
+    return queues.values().stream().map(WebSocketOutboundQueue::getMetrics).collect(toList());
+  }
+
+  @ScheduleRate(initialDelay = 60, period = 60)
+  void cleanClosedQueues() {
+    queues
+        .values()
+        .removeIf(
+            queue -> {
+              if (!queue.getSession().isOpen()) {
+                queue.close();
+              }
+              return queue.isClosed();
+            });
+
+    if (LOG.isDebugEnabled()) {
+      getMetrics().forEach(it -> LOG.debug("Outbound queue: {}", it));
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdown();
+    try {
+      if (!executor.awaitTermination(5, SECONDS)) {
+        executor.shutdownNow();
+      }
+    } catch (InterruptedException ie) {
+      executor.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
+}
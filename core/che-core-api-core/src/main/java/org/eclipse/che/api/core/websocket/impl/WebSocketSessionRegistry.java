@@ -10,14 +10,18 @@
  */
 package org.eclipse.che.api.core.websocket.impl;
 
+import static java.util.Collections.emptySet;
 import static java.util.stream.Collectors.toSet;
+import static org.eclipse.che.api.core.websocket.impl.WebsocketIdService.SEPARATOR;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import java.util.HashSet;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import javax.inject.Singleton;
 import javax.websocket.Session;
 import org.slf4j.Logger;
@@ -25,6 +29,11 @@ import org.slf4j.Logger;
 /**
  * Binds WEB SOCKET session to a specific endpoint form which it was opened.
  *
+ * <p>Besides the primary endpoint to session mapping the registry keeps a reverse session to
+ * endpoint index, an index of identifier segments (client and endpoint parts of a combined
+ * identifier, see {@link WebsocketIdService}) and a sorted index of identifiers, so that all
+ * lookups are done without iterating over all registered sessions.
+ *
  * @author Dmitry Kuleshov
  */
 @Singleton
@@ -32,46 +41,88 @@ public class WebSocketSessionRegistry {
   private static final Logger LOG = getLogger(WebSocketSessionRegistry.class);
 
   private final Map<String, Session> sessionsMap = new ConcurrentHashMap<>();
+  private final Map<Session, String> endpointIdsMap = new ConcurrentHashMap<>();
+  private final Map<String, Set<String>> segmentsIndex = new ConcurrentHashMap<>();
+  private final NavigableMap<String, Session> sortedSessionsMap = new ConcurrentSkipListMap<>();
+
+  public synchronized void add(String endpointId, Session session) {
+    LOG.debug("Registering session {} with endpoint {}", session.getId(), endpointId);
 
-  public void add(String endpointId, Session session) {
-    LOG.debug("Registering session with endpoint {}", session.getId(), endpointId);
+    Session replaced = sessionsMap.put(endpointId, session);
+    if (replaced != null) {
+      endpointIdsMap.remove(replaced, endpointId);
+    }
 
-    sessionsMap.put(endpointId, session);
+    String previousEndpointId = endpointIdsMap.put(session, endpointId);
+    if (previousEndpointId != null && !previousEndpointId.equals(endpointId)) {
+      unIndex(previousEndpointId);
+    }
+
+    sortedSessionsMap.put(endpointId, session);
+    for (String segment : endpointId.split(SEPARATOR)) {
+      segmentsIndex.computeIfAbsent(segment, k -> ConcurrentHashMap.newKeySet()).add(endpointId);
+    }
   }
 
-  public Optional<Session> remove(String endpointId) {
+  public synchronized Optional<Session> remove(String endpointId) {
     LOG.debug("Cancelling registration for session with endpoint {}", endpointId);
 
-    return Optional.ofNullable(sessionsMap.remove(endpointId));
+    Session session = unIndex(endpointId);
+    if (session != null) {
+      endpointIdsMap.remove(session, endpointId);
+    }
+
+    return Optional.ofNullable(session);
   }
 
-  public Optional<Session> remove(Session session) {
-    return get(session).flatMap(id -> Optional.ofNullable(sessionsMap.remove(id)));
+  public synchronized Optional<Session> remove(Session session) {
+    return get(session).flatMap(this::remove);
   }
 
   public Optional<Session> get(String endpointId) {
     return Optional.ofNullable(sessionsMap.get(endpointId));
   }
 
+  /**
+   * Finds sessions by a part of an endpoint identifier. A part may be a whole segment of a combined
+   * identifier (e.g. the client identifier or the endpoint identifier) or a prefix of the
+   * identifier.
+   */
   public Set<Session> getByPartialMatch(String partialEndpointId) {
-    return sessionsMap
-        .entrySet()
-        .stream()
-        .filter(it -> it.getKey().contains(partialEndpointId))
-        .map(Map.Entry::getValue)
-        .collect(toSet());
+    Set<String> endpointIds = segmentsIndex.getOrDefault(partialEndpointId, emptySet());
+    if (!endpointIds.isEmpty()) {
+      return endpointIds
+          .stream()
+          .map(sessionsMap::get)
+          .filter(it -> it != null)
+          .collect(toSet());
+    }
+
+    NavigableMap<String, Session> prefixed =
+        sortedSessionsMap.subMap(
+            partialEndpointId, true, partialEndpointId + Character.MAX_VALUE, false);
+    return prefixed.isEmpty() ? emptySet() : new HashSet<>(prefixed.values());
   }
 
   public Optional<String> get(Session session) {
-    return sessionsMap
-        .entrySet()
-        .stream()
-        .filter(entry -> entry.getValue().equals(session))
-        .map(Map.Entry::getKey)
-        .findAny();
+    return Optional.ofNullable(endpointIdsMap.get(session));
   }
 
   public Set<Session> getSessions() {
     return new HashSet<>(sessionsMap.values());
   }
+
+  private Session unIndex(String endpointId) {
+    sortedSessionsMap.remove(endpointId);
+    for (String segment : endpointId.split(SEPARATOR)) {
+      segmentsIndex.computeIfPresent(
+          segment,
+          (k, ids) -> {
+            ids.remove(endpointId);
+            return ids.isEmpty() ? null : ids;
+          });
+    }
+
+    return sessionsMap.remove(endpointId);
+  }
 }
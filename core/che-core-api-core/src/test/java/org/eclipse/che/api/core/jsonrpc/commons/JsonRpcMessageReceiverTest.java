@@ -10,13 +10,16 @@
  */
 package org.eclipse.che.api.core.jsonrpc.commons;
 
-import static java.util.Collections.singletonList;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.function.Consumer;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -34,21 +37,22 @@ public class JsonRpcMessageReceiverTest {
   @Mock RequestDispatcher requestDispatcher;
   @Mock ResponseDispatcher responseDispatcher;
   @Mock JsonRpcErrorTransmitter errorTransmitter;
-  @Mock JsonRpcQualifier jsonRpcQualifier;
   @Mock JsonRpcUnmarshaller jsonRpcUnmarshaller;
   @Mock RequestProcessor requestProcessor;
   @InjectMocks JsonRpcMessageReceiver jsonRpcMessageReceiver;
 
   @Test
-  public void shouldValidateMessage() throws Exception {
+  public void shouldUnmarshalMessage() throws Exception {
     jsonRpcMessageReceiver.receive(ENDPOINT_ID, MESSAGE);
 
-    verify(jsonRpcQualifier).isValidJson(MESSAGE);
+    verify(jsonRpcUnmarshaller).unmarshal(eq(MESSAGE), any(), any());
   }
 
   @Test
-  public void shouldTransmitErrorWhenValidationFailed() throws Exception {
-    when(jsonRpcQualifier.isValidJson(MESSAGE)).thenReturn(false);
+  public void shouldTransmitErrorWhenUnmarshallingFailed() throws Exception {
+    doThrow(new JsonRpcException(-32700, "error"))
+        .when(jsonRpcUnmarshaller)
+        .unmarshal(eq(MESSAGE), any(), any());
 
     jsonRpcMessageReceiver.receive(ENDPOINT_ID, MESSAGE);
 
@@ -56,42 +60,68 @@ public class JsonRpcMessageReceiverTest {
   }
 
   @Test
-  public void shouldNotTransmitErrorWhenValidationSucceeded() throws Exception {
-    when(jsonRpcQualifier.isValidJson(MESSAGE)).thenReturn(true);
-
+  public void shouldNotTransmitErrorWhenUnmarshallingSucceeded() throws Exception {
     jsonRpcMessageReceiver.receive(ENDPOINT_ID, MESSAGE);
 
     verify(errorTransmitter, never()).transmit(eq(ENDPOINT_ID), any(JsonRpcException.class));
   }
 
   @Test
-  public void shouldUnmarshalArray() throws Exception {
+  public void shouldDispatchResponseIfResponseReceived() throws Exception {
+    JsonRpcResponse jsonRpcResponse = Mockito.mock(JsonRpcResponse.class);
+    doAnswer(
+            invocation -> {
+              Consumer<JsonRpcResponse> consumer = invocation.getArgument(2);
+              consumer.accept(jsonRpcResponse);
+              return null;
+            })
+        .when(jsonRpcUnmarshaller)
+        .unmarshal(eq(MESSAGE), any(), any());
+
     jsonRpcMessageReceiver.receive(ENDPOINT_ID, MESSAGE);
 
-    verify(jsonRpcUnmarshaller).unmarshalArray(MESSAGE);
+    verify(responseDispatcher).dispatch(ENDPOINT_ID, jsonRpcResponse);
   }
 
   @Test
-  public void shouldDispatchResponseIfResponseReceived() throws Exception {
-    when(jsonRpcQualifier.isJsonRpcResponse(MESSAGE)).thenReturn(true);
-    when(jsonRpcQualifier.isJsonRpcRequest(MESSAGE)).thenReturn(false);
-    when(jsonRpcUnmarshaller.unmarshalArray(any())).thenReturn(singletonList(MESSAGE));
-    JsonRpcResponse jsonRpcResponse = Mockito.mock(JsonRpcResponse.class);
-    when(jsonRpcUnmarshaller.unmarshalResponse(any())).thenReturn(jsonRpcResponse);
+  public void shouldDispatchRequestIfRequestReceived() throws Exception {
+    JsonRpcRequest jsonRpcRequest = Mockito.mock(JsonRpcRequest.class);
+    when(jsonRpcRequest.getMethod()).thenReturn("method");
+    doAnswer(
+            invocation -> {
+              Consumer<JsonRpcRequest> consumer = invocation.getArgument(1);
+              consumer.accept(jsonRpcRequest);
+              return null;
+            })
+        .when(jsonRpcUnmarshaller)
+        .unmarshal(eq(MESSAGE), any(), any());
 
     jsonRpcMessageReceiver.receive(ENDPOINT_ID, MESSAGE);
 
-    verify(responseDispatcher).dispatch(eq(ENDPOINT_ID), any(JsonRpcResponse.class));
+    verify(requestProcessor).process(eq("method"), any());
   }
 
   @Test
-  public void shouldDispatchRequestIfRequestReceived() throws Exception {
-    when(jsonRpcQualifier.isJsonRpcRequest(MESSAGE)).thenReturn(true);
-    when(jsonRpcQualifier.isJsonRpcResponse(MESSAGE)).thenReturn(false);
-    when(jsonRpcUnmarshaller.unmarshalArray(any())).thenReturn(singletonList(MESSAGE));
+  public void shouldTransmitErrorWhenRequestIsNotAcceptedForProcessing() throws Exception {
+    JsonRpcRequest jsonRpcRequest = Mockito.mock(JsonRpcRequest.class);
+    when(jsonRpcRequest.getMethod()).thenReturn("method");
+    when(jsonRpcRequest.getId()).thenReturn("id");
+    doAnswer(
+            invocation -> {
+              Consumer<JsonRpcRequest> consumer = invocation.getArgument(1);
+              consumer.accept(jsonRpcRequest);
+              return null;
+            })
+        .when(jsonRpcUnmarshaller)
+        .unmarshal(eq(MESSAGE), any(), any());
+    doThrow(new JsonRpcException(-32000, "busy"))
+        .when(requestProcessor)
+        .process(eq("method"), any());
 
     jsonRpcMessageReceiver.receive(ENDPOINT_ID, MESSAGE);
 
-    verify(requestProcessor).process(any());
+    verify(errorTransmitter)
+        .transmit(
+            eq(ENDPOINT_ID), argThat(e -> e.getCode() == -32000 && "id".equals(e.getId())));
   }
 }
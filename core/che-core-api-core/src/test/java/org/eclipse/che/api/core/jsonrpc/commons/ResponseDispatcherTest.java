@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.jsonrpc.commons;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/** Tests for {@link ResponseDispatcher} */
+@Listeners(MockitoTestNGListener.class)
+public class ResponseDispatcherTest {
+  static final String ENDPOINT_ID = "endpoint-id";
+  static final String REQUEST_ID = "request-id";
+  static final int TIMEOUT = 1000;
+
+  @Mock JsonRpcComposer composer;
+  @Mock TimeoutActionRunner timeoutActionRunner;
+  @InjectMocks ResponseDispatcher responseDispatcher;
+
+  @Mock TimeoutActionRunner.Cancellable cancellable;
+  @Mock JsonRpcResponse response;
+  @Mock JsonRpcResult result;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    when(timeoutActionRunner.schedule(anyInt(), any(Runnable.class))).thenReturn(cancellable);
+  }
+
+  @Test
+  public void shouldCancelTimeoutWhenResponseIsDispatched() throws Exception {
+    when(response.getId()).thenReturn(REQUEST_ID);
+    when(response.hasResult()).thenReturn(true);
+    when(response.getResult()).thenReturn(result);
+
+    responseDispatcher.registerPromiseForSingleObject(
+        ENDPOINT_ID, REQUEST_ID, String.class, TIMEOUT);
+    responseDispatcher.dispatch(ENDPOINT_ID, response);
+
+    verify(timeoutActionRunner).schedule(eq(TIMEOUT), any(Runnable.class));
+    verify(cancellable).cancel();
+  }
+
+  @Test
+  public void shouldRunTimeoutRunnableOnTimeout() throws Exception {
+    Runnable timeoutRunnable = mock(Runnable.class);
+    ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+
+    responseDispatcher
+        .registerPromiseForSingleObject(ENDPOINT_ID, REQUEST_ID, String.class, TIMEOUT)
+        .onTimeout(timeoutRunnable);
+
+    verify(timeoutActionRunner).schedule(eq(TIMEOUT), captor.capture());
+    captor.getValue().run();
+
+    verify(timeoutRunnable).run();
+    verify(cancellable, never()).cancel();
+  }
+
+  @Test
+  public void shouldCancelTimeoutWhenResponseIsDispatchedWhileTimeoutIsScheduled()
+      throws Exception {
+    when(response.getId()).thenReturn(REQUEST_ID);
+    when(response.hasResult()).thenReturn(true);
+    when(response.getResult()).thenReturn(result);
+    when(timeoutActionRunner.schedule(anyInt(), any(Runnable.class)))
+        .thenAnswer(
+            invocation -> {
+              responseDispatcher.dispatch(ENDPOINT_ID, response);
+              return cancellable;
+            });
+
+    responseDispatcher.registerPromiseForSingleObject(
+        ENDPOINT_ID, REQUEST_ID, String.class, TIMEOUT);
+
+    verify(cancellable).cancel();
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.jsonrpc.impl;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcException;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcRequest;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcResponse;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Tests for {@link GsonJsonRpcUnmarshaller} */
+public class GsonJsonRpcUnmarshallerTest {
+  private GsonJsonRpcUnmarshaller unmarshaller;
+
+  private List<JsonRpcRequest> requests;
+  private List<JsonRpcResponse> responses;
+
+  @BeforeMethod
+  public void setUp() {
+    unmarshaller = new GsonJsonRpcUnmarshaller(new JsonParser());
+    requests = new ArrayList<>();
+    responses = new ArrayList<>();
+  }
+
+  @Test
+  public void shouldUnmarshalRequest() {
+    unmarshal(
+        "{\"jsonrpc\":\"2.0\",\"id\":\"1\",\"method\":\"method\",\"params\":{\"key\":\"value\"}}");
+
+    assertEquals(requests.size(), 1);
+    assertTrue(responses.isEmpty());
+    JsonRpcRequest request = requests.get(0);
+    assertEquals(request.getId(), "1");
+    assertEquals(request.getMethod(), "method");
+    assertTrue(request.getParams().isSingle());
+    assertEquals(((JsonObject) request.getParams().getOne()).get("key").getAsString(), "value");
+  }
+
+  @Test
+  public void shouldUnmarshalNotificationWithListParams() {
+    unmarshal("{\"jsonrpc\":\"2.0\",\"method\":\"method\",\"params\":[\"a\",1,true]}");
+
+    JsonRpcRequest request = requests.get(0);
+    assertFalse(request.hasId());
+    assertFalse(request.getParams().isSingle());
+    assertEquals(request.getParams().getMany().size(), 3);
+  }
+
+  @Test
+  public void shouldUnmarshalResponses() {
+    unmarshal(
+        "[{\"jsonrpc\":\"2.0\",\"id\":2,\"result\":\"value\"},"
+            + "{\"jsonrpc\":\"2.0\",\"id\":\"3\",\"error\":{\"code\":-1,\"message\":\"m\"}}]");
+
+    assertTrue(requests.isEmpty());
+    assertEquals(responses.size(), 2);
+    assertEquals(responses.get(0).getId(), "2");
+    assertEquals(responses.get(0).getResult().getOne(), "value");
+    assertNull(responses.get(0).getError());
+    assertEquals(responses.get(1).getError().getCode(), -1);
+    assertEquals(responses.get(1).getError().getMessage(), "m");
+  }
+
+  @Test
+  public void shouldUnmarshalBatchInOrder() {
+    unmarshal(
+        "[{\"id\":\"1\",\"method\":\"first\"},{\"id\":\"2\",\"result\":null},"
+            + "{\"method\":\"second\"}]");
+
+    assertEquals(requests.size(), 2);
+    assertEquals(requests.get(0).getMethod(), "first");
+    assertEquals(requests.get(1).getMethod(), "second");
+    assertEquals(responses.size(), 1);
+  }
+
+  @Test(expectedExceptions = JsonRpcException.class)
+  public void shouldThrowExceptionOnInvalidJson() {
+    unmarshal("{\"id\":\"1\",\"method\":");
+  }
+
+  @Test(expectedExceptions = JsonRpcException.class)
+  public void shouldThrowExceptionOnEntityThatIsNeitherRequestNorResponse() {
+    unmarshal("{\"id\":\"1\"}");
+  }
+
+  private void unmarshal(String message) {
+    unmarshaller.unmarshal(message, requests::add, responses::add);
+  }
+}
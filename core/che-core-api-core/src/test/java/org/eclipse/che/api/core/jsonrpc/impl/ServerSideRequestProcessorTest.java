@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.jsonrpc.impl;
+
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcException;
+import org.testng.annotations.Test;
+
+/** Tests for {@link ServerSideRequestProcessor} */
+public class ServerSideRequestProcessorTest {
+
+  @Test
+  public void shouldProcessQueuedRequestsOrderedByPriority() throws Exception {
+    ServerSideRequestProcessor processor =
+        new ServerSideRequestProcessor(1, 100, false, "textDocument/*", "track/*");
+    CountDownLatch blocker = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(4);
+    List<String> processed = new CopyOnWriteArrayList<>();
+
+    processor.process("blocking", () -> await(blocker));
+    processor.process("track/project-tree", record(processed, "low", done));
+    processor.process("other", record(processed, "normal", done));
+    processor.process("textDocument/completion", record(processed, "high", done));
+    processor.process("track/git-index", record(processed, "low2", done));
+    blocker.countDown();
+
+    assertTrue(done.await(5, SECONDS));
+    assertEquals(processed, asList("high", "normal", "low", "low2"));
+  }
+
+  @Test
+  public void shouldRejectRequestWhenQueueIsFull() throws Exception {
+    ServerSideRequestProcessor processor = new ServerSideRequestProcessor(1, 1, false, "", "");
+    CountDownLatch blocker = new CountDownLatch(1);
+    List<String> processed = new CopyOnWriteArrayList<>();
+
+    processor.process("blocking", () -> await(blocker));
+    processor.process("queued", () -> {});
+    try {
+      processor.process("method", () -> processed.add("method"));
+      fail("Request must be rejected");
+    } catch (JsonRpcException e) {
+      assertEquals(e.getCode(), -32000);
+    } finally {
+      blocker.countDown();
+    }
+
+    assertTrue(processed.isEmpty());
+  }
+
+  @Test
+  public void shouldCollectMetricsPerMethod() throws Exception {
+    ServerSideRequestProcessor processor = new ServerSideRequestProcessor(1, 10, false, "", "");
+    CountDownLatch done = new CountDownLatch(2);
+
+    processor.process("method", done::countDown);
+    processor.process("method", done::countDown);
+
+    assertTrue(done.await(5, SECONDS));
+    // metrics are recorded right after runnable completes
+    long deadline = System.currentTimeMillis() + 5_000;
+    while (processor.getMethodMetrics().get("method").getCount() < 2
+        && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(processor.getMethodMetrics().get("method").getCount(), 2);
+  }
+
+  private static Runnable record(List<String> processed, String name, CountDownLatch done) {
+    return () -> {
+      processed.add(name);
+      done.countDown();
+    };
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -40,6 +40,7 @@ public class BasicWebSocketMessageTransmitterTest {
 
   @Mock private WebSocketSessionRegistry registry;
   @Mock private MessagesReSender reSender;
+  @Mock private WebSocketOutboundQueueRegistry outboundQueues;
   @InjectMocks private BasicWebSocketMessageTransmitter transmitter;
 
   @Mock private Session session;
@@ -47,7 +48,6 @@ public class BasicWebSocketMessageTransmitterTest {
 
   @BeforeMethod
   public void setUp() throws Exception {
-    when(session.getBasicRemote()).thenReturn(remote);
     when(session.isOpen()).thenReturn(true);
 
     when(registry.get(ENDPOINT_ID)).thenReturn(Optional.of(session));
@@ -58,8 +58,7 @@ public class BasicWebSocketMessageTransmitterTest {
   public void shouldSendDirectMessageIfSessionIsOpenAndEndpointIsSet() throws IOException {
     transmitter.transmit(ENDPOINT_ID, MESSAGE);
 
-    verify(session).getBasicRemote();
-    verify(remote).sendText(MESSAGE);
+    verify(reSender).send(ENDPOINT_ID, session, MESSAGE);
     verify(reSender, never()).add(eq(ENDPOINT_ID), anyString());
   }
 
@@ -69,7 +68,29 @@ public class BasicWebSocketMessageTransmitterTest {
 
     transmitter.transmit(ENDPOINT_ID, MESSAGE);
 
-    verify(session, never()).getBasicRemote();
+    verify(reSender, never()).send(ENDPOINT_ID, session, MESSAGE);
+    verify(reSender).add(ENDPOINT_ID, MESSAGE);
+  }
+
+  @Test
+  public void shouldOfferMessageToOutboundQueueIfQueuesAreEnabled() throws IOException {
+    when(outboundQueues.isEnabled()).thenReturn(true);
+    when(outboundQueues.offer(ENDPOINT_ID, session, MESSAGE)).thenReturn(true);
+
+    transmitter.transmit(ENDPOINT_ID, MESSAGE);
+
+    verify(outboundQueues).offer(ENDPOINT_ID, session, MESSAGE);
+    verify(remote, never()).sendText(MESSAGE);
+    verify(reSender, never()).add(eq(ENDPOINT_ID), anyString());
+  }
+
+  @Test
+  public void shouldAddMessageToPendingIfOutboundQueueIsClosed() throws IOException {
+    when(outboundQueues.isEnabled()).thenReturn(true);
+    when(outboundQueues.offer(ENDPOINT_ID, session, MESSAGE)).thenReturn(false);
+
+    transmitter.transmit(ENDPOINT_ID, MESSAGE);
+
     verify(remote, never()).sendText(MESSAGE);
     verify(reSender).add(ENDPOINT_ID, MESSAGE);
   }
@@ -10,15 +10,31 @@
  */
 package org.eclipse.che.api.core.websocket.impl;
 
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.websocket.RemoteEndpoint;
 import javax.websocket.Session;
+import org.eclipse.che.api.core.notification.EventService;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
@@ -37,25 +53,27 @@ public class MessagesReSenderTest {
   private static final String ENDPOINT_ID = "id";
 
   @Mock private WebSocketSessionRegistry sessionRegistry;
+  @Mock private EventService eventService;
   @InjectMocks private MessagesReSender reSender;
 
   @Mock private Session session;
-  @Mock private RemoteEndpoint.Async endpoint;
+  @Mock private RemoteEndpoint.Basic endpoint;
+  @Mock private WebSocketOutboundQueueRegistry outboundQueues;
 
   @BeforeMethod
-  public void beforeMethod() {
+  public void beforeMethod() throws Exception {
     when(sessionRegistry.get(anyString())).thenReturn(Optional.of(session));
-    when(session.getAsyncRemote()).thenReturn(endpoint);
+    when(session.getBasicRemote()).thenReturn(endpoint);
     when(session.isOpen()).thenReturn(true);
   }
 
   @BeforeMethod
-  public void before() {
-    reSender = new MessagesReSender(sessionRegistry);
+  public void before() throws Exception {
+    reSender = new MessagesReSender(sessionRegistry, eventService, 100, 1024);
   }
 
   @Test
-  public void shouldStopIfSessionIsNotRegistered() {
+  public void shouldStopIfSessionIsNotRegistered() throws Exception {
     when(sessionRegistry.get(anyString())).thenReturn(Optional.empty());
 
     reSender.add(ENDPOINT_ID, MESSAGE);
@@ -63,40 +81,40 @@ public class MessagesReSenderTest {
     reSender.resend(ENDPOINT_ID);
 
     verify(sessionRegistry).get(ENDPOINT_ID);
-    verify(session, never()).getAsyncRemote();
+    verify(session, never()).getBasicRemote();
     verify(endpoint, never()).sendText(MESSAGE);
   }
 
   @Test
-  public void shouldKeepMessagesIfSessionIsClosed() {
+  public void shouldKeepMessagesIfSessionIsClosed() throws Exception {
     reSender.add(ENDPOINT_ID, MESSAGE);
 
     when(session.isOpen()).thenReturn(false);
     reSender.resend(ENDPOINT_ID);
 
-    verify(session, never()).getAsyncRemote();
+    verify(session, never()).getBasicRemote();
     verify(endpoint, never()).sendText(MESSAGE);
 
     when(session.isOpen()).thenReturn(true);
     reSender.resend(ENDPOINT_ID);
 
-    verify(session).getAsyncRemote();
+    verify(session).getBasicRemote();
     verify(endpoint).sendText(MESSAGE);
   }
 
   @Test
-  public void shouldProperlyAddForSingleEndpoint() {
+  public void shouldProperlyAddForSingleEndpoint() throws Exception {
     reSender.add(ENDPOINT_ID, MESSAGE);
 
     reSender.resend(ENDPOINT_ID);
 
     verify(sessionRegistry).get(ENDPOINT_ID);
-    verify(session).getAsyncRemote();
+    verify(session).getBasicRemote();
     verify(endpoint).sendText(MESSAGE);
   }
 
   @Test
-  public void shouldProperlyAddForSeveralEndpoints() {
+  public void shouldProperlyAddForSeveralEndpoints() throws Exception {
     reSender.add(ENDPOINT_ID, MESSAGE);
     reSender.add("1", MESSAGE);
 
@@ -105,27 +123,27 @@ public class MessagesReSenderTest {
 
     verify(sessionRegistry).get(ENDPOINT_ID);
     verify(sessionRegistry).get("1");
-    verify(session, times(2)).getAsyncRemote();
+    verify(session, times(2)).getBasicRemote();
     verify(endpoint, times(2)).sendText(MESSAGE);
   }
 
   @Test
-  public void shouldClearOnExtractionForSingleEndpoint() {
+  public void shouldClearOnExtractionForSingleEndpoint() throws Exception {
     reSender.add(ENDPOINT_ID, MESSAGE);
 
     reSender.resend(ENDPOINT_ID);
     verify(sessionRegistry).get(ENDPOINT_ID);
-    verify(session).getAsyncRemote();
+    verify(session).getBasicRemote();
     verify(endpoint).sendText(MESSAGE);
 
     reSender.resend(ENDPOINT_ID);
     verify(sessionRegistry).get(ENDPOINT_ID);
-    verify(session).getAsyncRemote();
+    verify(session).getBasicRemote();
     verify(endpoint).sendText(MESSAGE);
   }
 
   @Test
-  public void shouldClearOnExtractionForSeveralEndpoint() {
+  public void shouldClearOnExtractionForSeveralEndpoint() throws Exception {
     reSender.add(ENDPOINT_ID, MESSAGE);
     reSender.add("1", MESSAGE);
 
@@ -134,7 +152,7 @@ public class MessagesReSenderTest {
 
     verify(sessionRegistry).get(ENDPOINT_ID);
     verify(sessionRegistry).get("1");
-    verify(session, times(2)).getAsyncRemote();
+    verify(session, times(2)).getBasicRemote();
     verify(endpoint, times(2)).sendText(MESSAGE);
 
     reSender.resend(ENDPOINT_ID);
@@ -142,7 +160,143 @@ public class MessagesReSenderTest {
 
     verify(sessionRegistry).get(ENDPOINT_ID);
     verify(sessionRegistry).get("1");
-    verify(session, times(2)).getAsyncRemote();
+    verify(session, times(2)).getBasicRemote();
     verify(endpoint, times(2)).sendText(MESSAGE);
   }
+
+  @Test
+  public void shouldNotResendDeliveredMessagesIfLastSequenceIsNotProvided() throws Exception {
+    reSender.send(ENDPOINT_ID, session, "delivered");
+    reSender.add(ENDPOINT_ID, MESSAGE);
+
+    reSender.resend(ENDPOINT_ID);
+
+    verify(endpoint).sendText("delivered");
+    verify(endpoint).sendText(MESSAGE);
+  }
+
+  @Test
+  public void shouldResendMessagesAfterLastReceivedSequence() throws Exception {
+    reSender.send(ENDPOINT_ID, session, "1");
+    reSender.send(ENDPOINT_ID, session, "2");
+    reSender.send(ENDPOINT_ID, session, "3");
+    reSender.add(ENDPOINT_ID, "4");
+
+    reSender.resend(ENDPOINT_ID, 1);
+
+    InOrder inOrder = inOrder(endpoint);
+    inOrder.verify(endpoint).sendText("1");
+    inOrder.verify(endpoint).sendText("2");
+    inOrder.verify(endpoint).sendText("3");
+    inOrder.verify(endpoint).sendText("2");
+    inOrder.verify(endpoint).sendText("3");
+    inOrder.verify(endpoint).sendText("4");
+  }
+
+  @Test
+  public void shouldEvictOldestMessagesAndKeepClientSequenceConsistent() throws Exception {
+    reSender = new MessagesReSender(sessionRegistry, eventService, 2, 1024);
+    reSender.add(ENDPOINT_ID, "1");
+    reSender.add(ENDPOINT_ID, "2");
+    reSender.add(ENDPOINT_ID, "3");
+
+    // message "1" is evicted, client receives "2" and "3" only
+    reSender.resend(ENDPOINT_ID, 0);
+    reSender.add(ENDPOINT_ID, "4");
+    reSender.resend(ENDPOINT_ID, 2);
+
+    InOrder inOrder = inOrder(endpoint);
+    inOrder.verify(endpoint).sendText("2");
+    inOrder.verify(endpoint).sendText("3");
+    inOrder.verify(endpoint).sendText("4");
+    verify(endpoint, never()).sendText("1");
+  }
+
+  @Test
+  public void shouldEvictOldestMessagesWhenBufferSizeIsExceeded() throws Exception {
+    reSender = new MessagesReSender(sessionRegistry, eventService, 100, 10);
+    reSender.add(ENDPOINT_ID, "12345");
+    reSender.add(ENDPOINT_ID, "67890");
+    reSender.add(ENDPOINT_ID, "abcde");
+
+    reSender.resend(ENDPOINT_ID);
+
+    verify(endpoint, never()).sendText("12345");
+    verify(endpoint).sendText("67890");
+    verify(endpoint).sendText("abcde");
+  }
+
+  @Test
+  public void shouldKeepEndpointThatReopensSessionAfterItIsClosed() throws Exception {
+    reSender.open(ENDPOINT_ID, session);
+    reSender.close(ENDPOINT_ID);
+    reSender.add(ENDPOINT_ID, MESSAGE);
+    reSender.open(ENDPOINT_ID, session);
+
+    reSender.cleanStaleMessages();
+    reSender.add(ENDPOINT_ID, "other");
+    reSender.resend(ENDPOINT_ID);
+
+    verify(sessionRegistry).remove(ENDPOINT_ID);
+    verify(eventService, never()).publish(any());
+    InOrder inOrder = inOrder(endpoint);
+    inOrder.verify(endpoint).sendText(MESSAGE);
+    inOrder.verify(endpoint).sendText("other");
+  }
+
+  @Test
+  public void shouldNotRemoveEndpointRightAfterItsSessionIsClosed() throws Exception {
+    when(sessionRegistry.get(anyString())).thenReturn(Optional.empty());
+    reSender.open(ENDPOINT_ID, session);
+    reSender.close(ENDPOINT_ID);
+
+    reSender.cleanStaleMessages();
+
+    verify(eventService, never()).publish(any());
+  }
+
+  @Test
+  public void shouldSendMessageTransmittedWhileSessionIsOpenedAfterReplayedMessages()
+      throws Exception {
+    List<String> received = new CopyOnWriteArrayList<>();
+    doAnswer(
+            invocation -> {
+              received.add(invocation.getArgument(0));
+              return null;
+            })
+        .when(endpoint)
+        .sendText(anyString());
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    AtomicReference<BasicWebSocketMessageTransmitter> transmitter = new AtomicReference<>();
+    AtomicReference<Future<?>> transmitted = new AtomicReference<>();
+    WebSocketSessionRegistry registry =
+        new WebSocketSessionRegistry() {
+          @Override
+          public synchronized void add(String endpointId, Session session) {
+            super.add(endpointId, session);
+            // transmits a message concurrently right after the session is registered
+            transmitted.set(executor.submit(() -> transmitter.get().transmit(ENDPOINT_ID, "3")));
+            try {
+              transmitted.get().get(200, MILLISECONDS);
+            } catch (TimeoutException e) {
+              // transmission waits for the replay
+            } catch (Exception e) {
+              throw new IllegalStateException(e);
+            }
+          }
+        };
+    reSender = new MessagesReSender(registry, eventService, 100, 1024);
+    transmitter.set(new BasicWebSocketMessageTransmitter(registry, reSender, outboundQueues));
+    reSender.add(ENDPOINT_ID, "1");
+    reSender.add(ENDPOINT_ID, "2");
+
+    try {
+      reSender.open(ENDPOINT_ID, session, 0);
+      transmitted.get().get(5, SECONDS);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(received, asList("1", "2", "3"));
+  }
 }
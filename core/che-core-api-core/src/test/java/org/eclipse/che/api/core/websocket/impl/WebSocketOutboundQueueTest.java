@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.websocket.impl;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.websocket.CloseReason;
+import javax.websocket.RemoteEndpoint;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+import org.eclipse.che.api.core.websocket.impl.WebSocketOutboundQueue.OverflowPolicy;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/** Tests for {@link WebSocketOutboundQueue} */
+@Listeners(MockitoTestNGListener.class)
+public class WebSocketOutboundQueueTest {
+  private static final String ENDPOINT_ID = "id";
+
+  @Mock private Session session;
+  @Mock private RemoteEndpoint.Async remote;
+  @Mock private MessagesReSender reSender;
+
+  private List<SendHandler> pendingHandlers;
+
+  @BeforeMethod
+  public void setUp() {
+    pendingHandlers = new ArrayList<>();
+
+    when(session.isOpen()).thenReturn(true);
+    when(session.getAsyncRemote()).thenReturn(remote);
+    doAnswer(
+            invocation -> {
+              pendingHandlers.add(invocation.getArgument(1));
+              return null;
+            })
+        .when(remote)
+        .sendText(anyString(), any(SendHandler.class));
+  }
+
+  @Test
+  public void shouldSendMessagesInOrderOneByOne() {
+    WebSocketOutboundQueue queue = createQueue(10, OverflowPolicy.DROP_OLDEST);
+
+    queue.offer("1");
+    queue.offer("2");
+    queue.offer("3");
+
+    assertEquals(queue.getMetrics().getDepth(), 2);
+    completePending();
+    completePending();
+    completePending();
+
+    InOrder inOrder = inOrder(remote);
+    inOrder.verify(remote).sendText(eq("1"), any(SendHandler.class));
+    inOrder.verify(remote).sendText(eq("2"), any(SendHandler.class));
+    inOrder.verify(remote).sendText(eq("3"), any(SendHandler.class));
+    assertEquals(queue.getMetrics().getSent(), 3);
+    assertEquals(queue.getMetrics().getDepth(), 0);
+  }
+
+  @Test
+  public void shouldDropOldestMessageWhenQueueIsFull() {
+    WebSocketOutboundQueue queue = createQueue(2, OverflowPolicy.DROP_OLDEST);
+
+    queue.offer("in-flight");
+    queue.offer("1");
+    queue.offer("2");
+    queue.offer("3");
+
+    completePending();
+    completePending();
+    completePending();
+
+    verify(remote, never()).sendText(eq("1"), any(SendHandler.class));
+    verify(remote).sendText(eq("2"), any(SendHandler.class));
+    verify(remote).sendText(eq("3"), any(SendHandler.class));
+    assertEquals(queue.getMetrics().getDropped(), 1);
+  }
+
+  @Test
+  public void shouldCoalesceIdenticalMessagesWhenQueueIsFull() {
+    WebSocketOutboundQueue queue = createQueue(2, OverflowPolicy.COALESCE);
+
+    queue.offer("in-flight");
+    queue.offer("1");
+    queue.offer("2");
+    queue.offer("1");
+
+    assertEquals(queue.getMetrics().getDepth(), 2);
+    assertEquals(queue.getMetrics().getDropped(), 1);
+  }
+
+  @Test
+  public void shouldCloseSessionAndKeepMessagesWhenQueueIsFull() throws Exception {
+    WebSocketOutboundQueue queue = createQueue(1, OverflowPolicy.DISCONNECT);
+
+    queue.offer("in-flight");
+    queue.offer("1");
+    queue.offer("2");
+
+    verify(session).close(any(CloseReason.class));
+    verify(reSender).add(ENDPOINT_ID, "1");
+    verify(reSender).add(ENDPOINT_ID, "2");
+    assertFalse(queue.offer("3"));
+  }
+
+  @Test
+  public void shouldPassMessagesToReSenderWhenSessionIsClosed() {
+    WebSocketOutboundQueue queue = createQueue(10, OverflowPolicy.DROP_OLDEST);
+
+    queue.offer("in-flight");
+    queue.offer("1");
+    when(session.isOpen()).thenReturn(false);
+    completePending();
+
+    verify(reSender).add(ENDPOINT_ID, "1");
+    assertFalse(queue.offer("2"));
+  }
+
+  private WebSocketOutboundQueue createQueue(int capacity, OverflowPolicy policy) {
+    return new WebSocketOutboundQueue(
+        ENDPOINT_ID, session, capacity, policy, reSender, Runnable::run);
+  }
+
+  private void completePending() {
+    pendingHandlers.remove(0).onResult(new SendResult());
+  }
+}
@@ -10,9 +10,11 @@
  */
 package org.eclipse.che.api.core.websocket.impl;
 
+import static java.util.Collections.singleton;
 import static org.mockito.Mockito.mock;
 import static org.testng.Assert.*;
 
+import com.google.common.collect.ImmutableSet;
 import java.util.Optional;
 import javax.websocket.Session;
 import org.mockito.Mock;
@@ -82,4 +84,44 @@ public class WebSocketSessionRegistryTest {
     assertFalse(registry.getSessions().isEmpty());
     assertEquals(2, registry.getSessions().size());
   }
+
+  @Test
+  public void shouldGetEndpointIdBySession() {
+    registry.add("0", session);
+
+    assertEquals(registry.get(session), Optional.of("0"));
+
+    registry.remove(session);
+
+    assertFalse(registry.get(session).isPresent());
+    assertFalse(registry.get("0").isPresent());
+  }
+
+  @Test
+  public void shouldGetSessionsByIdentifierSegment() {
+    Session another = mock(Session.class);
+    registry.add("client<-:->endpoint", session);
+    registry.add("another<-:->endpoint", another);
+
+    assertEquals(registry.getByPartialMatch("client"), singleton(session));
+    assertEquals(registry.getByPartialMatch("endpoint"), ImmutableSet.of(session, another));
+  }
+
+  @Test
+  public void shouldGetSessionsByIdentifierPrefix() {
+    registry.add("client<-:->endpoint", session);
+
+    assertEquals(registry.getByPartialMatch("client<-:->"), singleton(session));
+    assertTrue(registry.getByPartialMatch("unknown").isEmpty());
+  }
+
+  @Test
+  public void shouldNotGetSessionsByPartialMatchAfterRemoval() {
+    registry.add("client<-:->endpoint", session);
+
+    registry.remove("client<-:->endpoint");
+
+    assertTrue(registry.getByPartialMatch("client").isEmpty());
+    assertTrue(registry.getByPartialMatch("client<-:->").isEmpty());
+  }
 }
@@ -19,6 +19,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import org.eclipse.che.dto.server.DtoTypeAdapter;
 import org.eclipse.che.dto.server.JsonArrayImpl;
 import org.eclipse.che.dto.server.JsonSerializable;
 import org.eclipse.che.dto.server.JsonStringMapImpl;
@@ -34,6 +35,8 @@ public class DtoImplServerTemplate extends DtoImpl {
   private static final String JSON_MAP_IMPL = JsonStringMapImpl.class.getCanonicalName();
   private static final String SERVER_DTO_MARKER =
       "  @" + DTOImpl.class.getCanonicalName() + "(\"server\")\n";
+  private static final String TYPE_ADAPTER = "GsonAdapter";
+  private static final String DTO_TYPE_ADAPTER = DtoTypeAdapter.class.getCanonicalName();
 
   DtoImplServerTemplate(DtoTemplate template, Class<?> superInterface) {
     super(template, superInterface);
@@ -68,6 +71,9 @@ public class DtoImplServerTemplate extends DtoImpl {
     emitSerializer(methods, builder);
     emitDeserializer(methods, builder);
     emitDeserializerShortcut(builder);
+    if (hasTypeAdapter()) {
+      emitTypeAdapter(getters, superGetterNames, builder);
+    }
     emitCopyConstructor(methods, builder);
     // Delegation DTO methods.
     emitDelegateMethods(builder);
@@ -390,17 +396,10 @@ public class DtoImplServerTemplate extends DtoImpl {
     builder.append("  public static class ");
     builder.append(getImplClassName());
 
-    Class<?> superType = getSuperDtoInterface(getDtoInterface());
-    if (superType != null && superType != JsonSerializable.class) {
+    String superImplName = getSuperImplName();
+    if (superImplName != null) {
       // We need to extend something.
-      builder.append(" extends ");
-
-      final Class<?> superTypeImpl = getEnclosingTemplate().getDtoImplementation(superType);
-      if (superTypeImpl == null) {
-        builder.append(superType.getSimpleName()).append("Impl");
-      } else {
-        builder.append(superTypeImpl.getCanonicalName());
-      }
+      builder.append(" extends ").append(superImplName);
     }
     builder.append(" implements ");
     builder.append(dtoInterface.getCanonicalName());
@@ -410,6 +409,188 @@ public class DtoImplServerTemplate extends DtoImpl {
     emitDefaultConstructor(builder);
   }
 
+  /** Returns the name of the impl class to extend or null if there is no super DTO. */
+  private String getSuperImplName() {
+    Class<?> superType = getSuperDtoInterface(getDtoInterface());
+    if (superType == null || superType == JsonSerializable.class) {
+      return null;
+    }
+    final Class<?> superTypeImpl = getEnclosingTemplate().getDtoImplementation(superType);
+    if (superTypeImpl == null) {
+      return superType.getSimpleName() + "Impl";
+    }
+    return superTypeImpl.getCanonicalName();
+  }
+
+  /**
+   * Tests whether or not a streaming Gson adapter is generated for this impl. Adapters of impl
+   * classes extend adapters of their super impl classes, so it is not possible if the super impl
+   * class is already compiled without an adapter.
+   */
+  boolean hasTypeAdapter() {
+    Class<?> superType = getSuperDtoInterface(getDtoInterface());
+    while (superType != null && superType != JsonSerializable.class) {
+      final Class<?> superTypeImpl = getEnclosingTemplate().getDtoImplementation(superType);
+      if (superTypeImpl != null) {
+        for (Class<?> nested : superTypeImpl.getDeclaredClasses()) {
+          if (nested.getSimpleName().equals(TYPE_ADAPTER)) {
+            return true;
+          }
+        }
+        return false;
+      }
+      superType = getSuperDtoInterface(superType);
+    }
+    return true;
+  }
+
+  /**
+   * Generates a streaming Gson adapter which reads and writes fields declared in this impl class
+   * and delegates the rest to the adapter of the super impl class.
+   */
+  private void emitTypeAdapter(
+      List<Method> getters, Set<String> superGetterNames, StringBuilder builder) {
+    List<Method> fields = new ArrayList<>();
+    for (Method getter : getters) {
+      if (!superGetterNames.contains(getter.getName())) {
+        fields.add(getter);
+      }
+    }
+    String superImplName = getSuperImplName();
+    String typeParam = "T extends " + getImplClassName();
+
+    builder.append("    public static class ").append(TYPE_ADAPTER).append("<").append(typeParam);
+    builder.append("> extends ");
+    if (superImplName == null) {
+      builder.append(DTO_TYPE_ADAPTER);
+    } else {
+      builder.append(superImplName).append(".").append(TYPE_ADAPTER);
+    }
+    builder.append("<T> {\n");
+    for (Method getter : fields) {
+      if (!isStreamedDirectly(getter.getReturnType())) {
+        builder
+            .append("      private final com.google.gson.TypeAdapter<")
+            .append(getAdapterTypeName(getter))
+            .append("> ")
+            .append(getJavaFieldName(getter.getName()))
+            .append("Adapter;\n");
+      }
+    }
+    builder.append("\n");
+
+    builder.append("      public ").append(TYPE_ADAPTER).append("(Gson gson) {\n");
+    builder.append("        super(gson);\n");
+    for (Method getter : fields) {
+      if (!isStreamedDirectly(getter.getReturnType())) {
+        builder
+            .append("        ")
+            .append(getJavaFieldName(getter.getName()))
+            .append("Adapter = gson.getAdapter(");
+        if (getter.getGenericReturnType() instanceof Class<?>) {
+          builder.append(getAdapterTypeName(getter)).append(".class");
+        } else {
+          builder
+              .append("new com.google.gson.reflect.TypeToken<")
+              .append(getAdapterTypeName(getter))
+              .append(">() {}");
+        }
+        builder.append(");\n");
+      }
+    }
+    builder.append("      }\n\n");
+
+    builder.append("      @Override\n");
+    builder.append("      protected T newInstance() {\n");
+    builder.append("        return (T) new ").append(getImplClassName()).append("();\n");
+    builder.append("      }\n\n");
+
+    // Fields of this impl go first, then fields of the super impl, as Gson does it
+    builder.append("      @Override\n");
+    builder.append(
+        "      protected void writeFields(com.google.gson.stream.JsonWriter out, T dto)"
+            + " throws java.io.IOException {\n");
+    for (Method getter : fields) {
+      String fieldName = getJavaFieldName(getter.getName());
+      String jsonName = quoteStringLiteral(getJsonFieldName(getter));
+      Class<?> type = getter.getReturnType();
+      builder.append("        out.name(").append(jsonName).append(")");
+      if (isStreamedDirectly(type)) {
+        builder.append(".value(dto.").append(fieldName).append(");\n");
+      } else if (getEnclosingTemplate().isDtoInterface(type)) {
+        builder.append(";\n");
+        builder.append("        writeDto(out, ").append(fieldName).append("Adapter, dto.");
+        builder.append(fieldName).append(");\n");
+      } else {
+        builder.append(";\n");
+        builder.append("        ").append(fieldName).append("Adapter.write(out, dto.");
+        builder.append(fieldName).append(");\n");
+      }
+    }
+    if (superImplName != null) {
+      builder.append("        super.writeFields(out, dto);\n");
+    }
+    builder.append("      }\n\n");
+
+    builder.append("      @Override\n");
+    builder.append(
+        "      protected boolean readField("
+            + "String name, com.google.gson.stream.JsonReader in, T dto)"
+            + " throws java.io.IOException {\n");
+    builder.append("        switch (name) {\n");
+    for (Method getter : fields) {
+      String fieldName = getJavaFieldName(getter.getName());
+      Class<?> type = getter.getReturnType();
+      builder.append("          case ").append(quoteStringLiteral(getJsonFieldName(getter)));
+      builder.append(":\n");
+      builder.append("            ");
+      if (type == String.class) {
+        builder.append("dto.").append(fieldName).append(" = readString(in);\n");
+      } else if (type.isPrimitive()) {
+        // keep default value of primitive field if JSON value is null
+        builder.append("if (!skipNull(in)) {\n");
+        builder.append("              dto.").append(fieldName).append(" = ");
+        if (isStreamedDirectly(type)) {
+          String typeName = type.getName();
+          builder.append("read").append(Character.toUpperCase(typeName.charAt(0)));
+          builder.append(typeName.substring(1)).append("(in);\n");
+        } else {
+          builder.append(fieldName).append("Adapter.read(in);\n");
+        }
+        builder.append("            }\n");
+      } else {
+        builder.append("dto.").append(fieldName).append(" = ").append(fieldName);
+        builder.append("Adapter.read(in);\n");
+      }
+      builder.append("            return true;\n");
+    }
+    builder.append("          default:\n");
+    if (superImplName == null) {
+      builder.append("            return false;\n");
+    } else {
+      builder.append("            return super.readField(name, in, dto);\n");
+    }
+    builder.append("        }\n");
+    builder.append("      }\n");
+    builder.append("    }\n\n");
+  }
+
+  /** Returns the type of values of the Gson adapter for the field of the given getter. */
+  private String getAdapterTypeName(Method getter) {
+    if (getter.getReturnType().isPrimitive()) {
+      return Primitives.wrap(getter.getReturnType()).getCanonicalName();
+    }
+    return getImplName(getter.getGenericReturnType(), false);
+  }
+
+  /**
+   * Tests whether or not a field of the given type is written and read by the generated adapter
+   * itself. Values of other types are handled by the adapters provided by Gson.
+   */
+  private static boolean isStreamedDirectly(Class<?> type) {
+    return type == String.class || type == boolean.class || type == int.class || type == long.class;
+  }
+
   private void emitPostamble(StringBuilder builder) {
     builder.append("  }\n\n");
   }
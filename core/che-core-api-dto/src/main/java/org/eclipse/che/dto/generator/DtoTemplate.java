@@ -290,6 +290,16 @@ public class DtoTemplate {
             .append(dto.getImplClassName())
             .append("(origin);\n");
         builder.append("        }\n");
+        if (((DtoImplServerTemplate) dto).hasTypeAdapter()) {
+          builder
+              .append("\n        public com.google.gson.TypeAdapter<?> getTypeAdapter(Gson gson) {\n")
+              .append("            return new ")
+              .append(dto.getImplClassName())
+              .append(".GsonAdapter<")
+              .append(dto.getImplClassName())
+              .append(">(gson);\n");
+          builder.append("        }\n");
+        }
         builder.append("    });\n");
       }
       builder.append("  }\n\n");
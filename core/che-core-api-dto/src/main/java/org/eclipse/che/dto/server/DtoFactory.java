@@ -106,6 +106,7 @@ public final class DtoFactory {
               new NullAsEmptyTAF<>(Collection.class, Collections.emptyList()))
           .registerTypeAdapterFactory(new NullAsEmptyTAF<>(Map.class, Collections.emptyMap()))
           .registerTypeAdapterFactory(new DtoInterfaceTAF())
+          .registerTypeAdapterFactory(new DtoImplTAF())
           .create();
 
   /**
@@ -447,6 +448,24 @@ public final class DtoFactory {
     }
   }
 
+  /**
+   * Uses streaming adapters generated for DTO implementation classes instead of Gson's reflective
+   * ones. Implementations that have no generated adapter are still serialized reflectively.
+   *
+   * @see DtoTypeAdapter
+   */
+  private class DtoImplTAF implements TypeAdapterFactory {
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+      DtoProvider<?> prov = dtoImpl2Providers.get(type.getRawType());
+      if (prov != null) {
+        return (TypeAdapter<T>) prov.getTypeAdapter(gson);
+      }
+      return null;
+    }
+  }
+
   /**
    * Wraps Gson's default List/Map adapter factories serialize null List/Map fields as empty
    * instead.
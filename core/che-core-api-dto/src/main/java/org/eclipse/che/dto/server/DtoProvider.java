@@ -10,7 +10,9 @@
  */
 package org.eclipse.che.dto.server;
 
+import com.google.gson.Gson;
 import com.google.gson.JsonElement;
+import com.google.gson.TypeAdapter;
 
 /**
  * Provides implementation of DTO interface.
@@ -27,4 +29,14 @@ public interface DtoProvider<DTO> {
   DTO newInstance();
 
   DTO clone(DTO origin);
+
+  /**
+   * Returns streaming Gson adapter of the DTO implementation class or {@code null} if the
+   * implementation should be serialized by Gson's reflective adapter.
+   *
+   * @see DtoTypeAdapter
+   */
+  default TypeAdapter<?> getTypeAdapter(Gson gson) {
+    return null;
+  }
 }
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.dto.server;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+
+/**
+ * Base class of streaming Gson adapters generated for server DTO implementations.
+ *
+ * <p>Generated adapters access fields of DTO implementations directly instead of using reflection.
+ * JSON produced by them is the same as produced by Gson's reflective adapter: fields of an
+ * implementation are written before fields of its super implementation, null fields are omitted
+ * unless they are lists or maps and unknown fields are skipped while reading.
+ *
+ * @param <T> type of DTO implementation
+ */
+public abstract class DtoTypeAdapter<T> extends TypeAdapter<T> {
+  protected final Gson gson;
+
+  protected DtoTypeAdapter(Gson gson) {
+    this.gson = gson;
+  }
+
+  /** Creates a new empty DTO implementation instance. */
+  protected abstract T newInstance();
+
+  /** Writes fields of the given DTO as JSON object members. */
+  protected abstract void writeFields(JsonWriter out, T dto) throws IOException;
+
+  /**
+   * Reads value of the JSON object member with the given name into the DTO.
+   *
+   * @return false if DTO has no field with such name and the value was not consumed
+   */
+  protected abstract boolean readField(String name, JsonReader in, T dto) throws IOException;
+
+  @Override
+  public void write(JsonWriter out, T dto) throws IOException {
+    if (dto == null) {
+      out.nullValue();
+      return;
+    }
+    out.beginObject();
+    writeFields(out, dto);
+    out.endObject();
+  }
+
+  @Override
+  public T read(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    T dto = newInstance();
+    try {
+      in.beginObject();
+      while (in.hasNext()) {
+        if (!readField(in.nextName(), in, dto)) {
+          in.skipValue();
+        }
+      }
+      in.endObject();
+    } catch (IllegalStateException e) {
+      throw new JsonSyntaxException(e);
+    }
+    return dto;
+  }
+
+  /**
+   * Writes a DTO value using adapter of its runtime type, so fields of DTO sub-implementations are
+   * not lost, the same way Gson does it for fields of reflectively serialized objects.
+   */
+  @SuppressWarnings("unchecked")
+  protected <V> void writeDto(JsonWriter out, TypeAdapter<V> declaredAdapter, V value)
+      throws IOException {
+    if (value != null) {
+      TypeAdapter<?> runtimeAdapter = gson.getAdapter(value.getClass());
+      if (runtimeAdapter instanceof DtoTypeAdapter) {
+        ((TypeAdapter<V>) runtimeAdapter).write(out, value);
+        return;
+      }
+    }
+    declaredAdapter.write(out, value);
+  }
+
+  /**
+   * Consumes JSON null value if it is the next token. Used for primitive fields which keep their
+   * values when JSON contains null.
+   */
+  protected static boolean skipNull(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return true;
+    }
+    return false;
+  }
+
+  protected static String readString(JsonReader in) throws IOException {
+    JsonToken token = in.peek();
+    if (token == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    if (token == JsonToken.BOOLEAN) {
+      return Boolean.toString(in.nextBoolean());
+    }
+    return in.nextString();
+  }
+
+  protected static boolean readBoolean(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.STRING) {
+      return Boolean.parseBoolean(in.nextString());
+    }
+    return in.nextBoolean();
+  }
+
+  protected static int readInt(JsonReader in) throws IOException {
+    try {
+      return in.nextInt();
+    } catch (NumberFormatException e) {
+      throw new JsonSyntaxException(e);
+    }
+  }
+
+  protected static long readLong(JsonReader in) throws IOException {
+    try {
+      return in.nextLong();
+    } catch (NumberFormatException e) {
+      throw new JsonSyntaxException(e);
+    }
+  }
+}
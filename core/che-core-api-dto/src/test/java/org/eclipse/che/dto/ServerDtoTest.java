@@ -35,6 +35,7 @@ import org.eclipse.che.dto.definitions.model.Model;
 import org.eclipse.che.dto.definitions.model.ModelComponentDto;
 import org.eclipse.che.dto.definitions.model.ModelDto;
 import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.dto.server.DtoTypeAdapter;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -102,6 +103,22 @@ public class ServerDtoTest {
     checkSimpleDto(dto, fooString, fooId, _default);
   }
 
+  @Test
+  public void testSimpleDtoDeserializerSkipsUnknownFieldsAndNullPrimitives() throws Exception {
+    final String json = "{\"unknown\":{\"a\":[1,2]},\"id\":null,\"name\":\"Something\"}";
+
+    SimpleDto dto = dtoFactory.createDtoFromJson(json, SimpleDto.class);
+
+    checkSimpleDto(dto, "Something", 0, null);
+  }
+
+  @Test
+  public void testGeneratedTypeAdapterIsUsedForDtoImplementation() throws Exception {
+    SimpleDto dto = dtoFactory.createDto(SimpleDto.class);
+
+    assertTrue(dtoFactory.getGson().getAdapter(dto.getClass()) instanceof DtoTypeAdapter);
+  }
+
   @Test
   public void testSerializerWithFieldNames() throws Exception {
     final String fooString = "Something";
@@ -210,6 +227,19 @@ public class ServerDtoTest {
     return jsonArray;
   }
 
+  @Test
+  public void testSerializerUsesRuntimeTypeOfDtoFields() throws Exception {
+    GrandchildDto grandchild = dtoFactory.createDto(GrandchildDto.class);
+    grandchild.setParentField("parent-field");
+    DTOHierarchy.ChildDto child = dtoFactory.createDto(DTOHierarchy.ChildDto.class);
+    child.setShadowedField(grandchild);
+
+    DTOHierarchy.ChildDto copy =
+        dtoFactory.createDtoFromJson(dtoFactory.toJson(child), DTOHierarchy.ChildDto.class);
+
+    assertEquals(copy.getShadowedField().getParentField(), "parent-field");
+  }
+
   @Test
   public void testListSimpleDtoDeserializer() throws Exception {
     final String fooString_1 = "Something 1";
@@ -14,7 +14,6 @@ import com.google.gwt.inject.client.AbstractGinModule;
 import com.google.gwt.inject.client.assistedinject.GinFactoryModuleBuilder;
 import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcComposer;
 import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcMarshaller;
-import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcQualifier;
 import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcUnmarshaller;
 import org.eclipse.che.api.core.jsonrpc.commons.RequestHandlerConfigurator;
 import org.eclipse.che.api.core.jsonrpc.commons.RequestProcessor;
@@ -39,7 +38,6 @@ public class JsonRpcModule extends AbstractGinModule {
     bind(JsonRpcMarshaller.class).to(ElementalJsonRpcMarshaller.class);
     bind(JsonRpcUnmarshaller.class).to(ElementalJsonRpcUnmarshaller.class);
     bind(JsonRpcComposer.class).to(ElementalJsonRpcComposer.class);
-    bind(JsonRpcQualifier.class).to(ElementalJsonRpcQualifier.class);
 
     bind(RequestProcessor.class).to(ClientSideRequestProcessor.class);
     bind(TimeoutActionRunner.class).to(ClientSideTimeoutActionRunner.class);
@@ -15,19 +15,22 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static elemental.json.JsonType.ARRAY;
 import static elemental.json.JsonType.BOOLEAN;
 import static elemental.json.JsonType.NUMBER;
+import static elemental.json.JsonType.OBJECT;
 import static elemental.json.JsonType.STRING;
-import static java.util.Collections.singletonList;
 
 import elemental.json.JsonArray;
+import elemental.json.JsonException;
 import elemental.json.JsonFactory;
 import elemental.json.JsonObject;
 import elemental.json.JsonType;
 import elemental.json.JsonValue;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcError;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcException;
 import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcParams;
 import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcRequest;
 import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcResponse;
@@ -44,8 +47,37 @@ public class ElementalJsonRpcUnmarshaller implements JsonRpcUnmarshaller {
   }
 
   @Override
-  public List<String> unmarshalArray(String message) {
-    return getArray(message, jsonFactory.parse(message));
+  public void unmarshal(
+      String message,
+      Consumer<JsonRpcRequest> requestConsumer,
+      Consumer<JsonRpcResponse> responseConsumer) {
+    checkNotNull(message, "Message must not be null");
+    checkArgument(!message.isEmpty(), "Message must not be empty");
+
+    JsonValue jsonValue;
+    try {
+      jsonValue = jsonFactory.parse(message);
+    } catch (JsonException e) {
+      throw new JsonRpcException(-32700, "An error occurred while parsing the JSON text");
+    }
+
+    List<JsonObject> entities = new ArrayList<>();
+    if (ARRAY.equals(jsonValue.getType())) {
+      JsonArray jsonArray = (JsonArray) jsonValue;
+      for (int i = 0; i < jsonArray.length(); i++) {
+        entities.add(asObject(jsonArray.get(i)));
+      }
+    } else {
+      entities.add(asObject(jsonValue));
+    }
+
+    for (JsonObject entity : entities) {
+      if (entity.hasKey("method")) {
+        requestConsumer.accept(toRequest(entity));
+      } else {
+        responseConsumer.accept(toResponse(entity));
+      }
+    }
   }
 
   @Override
@@ -53,8 +85,17 @@ public class ElementalJsonRpcUnmarshaller implements JsonRpcUnmarshaller {
     checkNotNull(message, "Message must not be null");
     checkArgument(!message.isEmpty(), "Message must not be empty");
 
-    JsonObject jsonObject = jsonFactory.parse(message);
+    return toRequest(jsonFactory.parse(message));
+  }
+
+  private JsonObject asObject(JsonValue jsonValue) {
+    if (!OBJECT.equals(jsonValue.getType())) {
+      throw new JsonRpcException(-32600, "Message is neither request nor response");
+    }
+    return (JsonObject) jsonValue;
+  }
 
+  private JsonRpcRequest toRequest(JsonObject jsonObject) {
     String id = getId(jsonObject);
     String method = getMethod(jsonObject);
     JsonRpcParams params = getParams(jsonObject);
@@ -67,8 +108,10 @@ public class ElementalJsonRpcUnmarshaller implements JsonRpcUnmarshaller {
     checkNotNull(message, "Message must not be null");
     checkArgument(!message.isEmpty(), "Message must not be empty");
 
-    JsonObject response = jsonFactory.parse(message);
+    return toResponse(jsonFactory.parse(message));
+  }
 
+  private JsonRpcResponse toResponse(JsonObject response) {
     String id = getId(response);
     JsonRpcResult result = getResult(response);
     JsonRpcError error = getError(response);
@@ -152,20 +195,4 @@ public class ElementalJsonRpcUnmarshaller implements JsonRpcUnmarshaller {
       return jsonElement;
     }
   }
-
-  private List<String> getArray(String message, JsonValue jsonValue) {
-    if (!ARRAY.equals(jsonValue.getType())) {
-      return singletonList(message);
-    }
-
-    JsonArray jsonArray = jsonFactory.parse(message);
-    int size = jsonArray.length();
-    List<String> result = new ArrayList<>(size);
-    for (int i = 0; i < size; i++) {
-      JsonValue jsonElement = jsonArray.get(i);
-      result.add(jsonElement.toString());
-    }
-
-    return result;
-  }
 }
@@ -16,22 +16,28 @@ import javax.inject.Inject;
 import org.eclipse.che.ide.util.loging.Log;
 
 /**
- * Web socket connection that can be established or reestablished with a delay
+ * Web socket connection that can be established or reestablished with a delay. Connection counts
+ * received messages and reports their number when it is reestablished, so the server re-sends only
+ * messages that were missed.
  *
  * @author Dmitry Kuleshov
  */
 public class DelayableWebSocketConnection implements WebSocketConnection {
+  private static final String LAST_SEQUENCE_PARAM = "lastSequence";
+
   private final WebSocketPropertyManager propertyManager;
   private final WebSocketEndpoint endpoint;
   private final String url;
 
   private WebSocketJsoWrapper webSocketJsoWrapper;
+  private boolean wasOpened;
+  private long receivedMessages;
 
   @Inject
   public DelayableWebSocketConnection(
       WebSocketPropertyManager propertyManager, WebSocketEndpoint endpoint, @Assisted String url) {
     this.propertyManager = propertyManager;
-    this.endpoint = endpoint;
+    this.endpoint = new SequenceTrackingEndpoint(endpoint);
     this.url = url;
   }
 
@@ -41,12 +47,12 @@ public class DelayableWebSocketConnection implements WebSocketConnection {
 
     if (isClosed() || isClosing()) {
       if (delay == 0) {
-        webSocketJsoWrapper = WebSocketJsoWrapper.connect(url, endpoint);
+        webSocketJsoWrapper = WebSocketJsoWrapper.connect(getConnectionUrl(), endpoint);
       } else {
         new Timer() {
           @Override
           public void run() {
-            webSocketJsoWrapper = WebSocketJsoWrapper.connect(url, endpoint);
+            webSocketJsoWrapper = WebSocketJsoWrapper.connect(getConnectionUrl(), endpoint);
           }
         }.schedule(delay);
       }
@@ -92,4 +98,46 @@ public class DelayableWebSocketConnection implements WebSocketConnection {
   public boolean isConnecting() {
     return webSocketJsoWrapper != null && webSocketJsoWrapper.isConnecting();
   }
+
+  private String getConnectionUrl() {
+    if (!wasOpened) {
+      return url;
+    }
+    String separator = url.contains("?") ? "&" : "?";
+    return url + separator + LAST_SEQUENCE_PARAM + "=" + receivedMessages;
+  }
+
+  /**
+   * Counts messages received over the connection and always passes the original URL of the
+   * connection, not the one it was reestablished with.
+   */
+  private class SequenceTrackingEndpoint implements WebSocketEndpoint {
+    private final WebSocketEndpoint delegate;
+
+    private SequenceTrackingEndpoint(WebSocketEndpoint delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void onOpen(String connectionUrl) {
+      wasOpened = true;
+      delegate.onOpen(url);
+    }
+
+    @Override
+    public void onClose(String connectionUrl) {
+      delegate.onClose(url);
+    }
+
+    @Override
+    public void onError(String connectionUrl) {
+      delegate.onError(url);
+    }
+
+    @Override
+    public void onMessage(String connectionUrl, String message) {
+      receivedMessages++;
+      delegate.onMessage(url, message);
+    }
+  }
 }
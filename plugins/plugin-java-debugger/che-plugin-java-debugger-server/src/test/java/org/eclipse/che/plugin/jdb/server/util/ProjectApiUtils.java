@@ -82,6 +82,25 @@ public class ProjectApiUtils {
                 bind(File.class)
                     .annotatedWith(Names.named("vfs.local.fs_index_root_dir"))
                     .toInstance(indexDir);
+                bind(Integer.class)
+                    .annotatedWith(Names.named("che.search.indexing_threads"))
+                    .toInstance(0);
+                bind(Boolean.class)
+                    .annotatedWith(Names.named("che.fs.tree_walker.event_driven"))
+                    .toInstance(false);
+                bind(Long.class)
+                    .annotatedWith(Names.named("che.fs.tree_walker.reconcile_period_sec"))
+                    .toInstance(600L);
+                bind(Long.class)
+                    .annotatedWith(Names.named("che.fs.watcher.event_window_ms"))
+                    .toInstance(100L);
+                bind(Integer.class)
+                    .annotatedWith(Names.named("che.fs.zip.threads"))
+                    .toInstance(0);
+                bind(String.class)
+                    .annotatedWith(Names.named("che.fs.zip.stored_extensions"))
+                    .toInstance("zip,jar,gz,png");
+                bind(String.class).annotatedWith(Names.named("che.fs.zip.excludes")).toInstance("");
                 bind(String.class).annotatedWith(Names.named("che.api")).toInstance("api-endpoint");
                 bind(String.class)
                     .annotatedWith(Names.named("project.importer.default_importer_id"))
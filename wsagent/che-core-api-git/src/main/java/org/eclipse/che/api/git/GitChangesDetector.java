@@ -10,18 +10,25 @@
  */
 package org.eclipse.che.api.git;
 
-import static java.util.Collections.singletonList;
+import static com.google.common.collect.Sets.newConcurrentHashSet;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.eclipse.che.api.fs.server.WsPathUtils.absolutize;
 import static org.eclipse.che.api.git.shared.Constants.EVENT_GIT_FILE_CHANGED;
-import static org.eclipse.che.api.git.shared.FileChangedEventDto.Status.ADDED;
-import static org.eclipse.che.api.git.shared.FileChangedEventDto.Status.MODIFIED;
-import static org.eclipse.che.api.git.shared.FileChangedEventDto.Status.NOT_MODIFIED;
-import static org.eclipse.che.api.git.shared.FileChangedEventDto.Status.UNTRACKED;
 import static org.eclipse.che.dto.server.DtoFactory.newDto;
 import static org.slf4j.LoggerFactory.getLogger;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
@@ -35,16 +42,22 @@ import org.eclipse.che.api.fs.server.PathTransformer;
 import org.eclipse.che.api.git.exception.GitCommitInProgressException;
 import org.eclipse.che.api.git.exception.GitInvalidRepositoryException;
 import org.eclipse.che.api.git.shared.FileChangedEventDto;
-import org.eclipse.che.api.git.shared.Status;
 import org.eclipse.che.api.project.server.ProjectManager;
+import org.eclipse.che.api.project.server.VcsStatusProvider.VcsStatus;
 import org.eclipse.che.api.project.shared.dto.event.FileTrackingOperationDto;
 import org.eclipse.che.api.watcher.server.FileWatcherManager;
 import org.eclipse.che.api.watcher.server.detectors.FileTrackingOperationEvent;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
 import org.slf4j.Logger;
 
 /**
  * Detects changes in files and sends message to client Git handler.
  *
+ * <p>A file is watched once no matter how many endpoints track it, its consumers are notified once
+ * per batch of coalesced file watcher events. Changes are collected for a short time, then status
+ * of all changed files of a project is taken from {@link GitStatusCache} at once and the same event
+ * is sent to each endpoint tracking the file.
+ *
  * @author Igor Vinokur
  */
 @Singleton
@@ -52,15 +65,31 @@ public class GitChangesDetector {
 
   private static final Logger LOG = getLogger(GitChangesDetector.class);
 
+  private static final long FLUSH_DELAY_MS = 50;
+
   private final RequestTransmitter transmitter;
   private final FileWatcherManager manager;
   private final ProjectManager projectManager;
   private final PathTransformer pathTransformer;
   private final GitConnectionFactory gitConnectionFactory;
+  private final GitStatusCache statusCache;
   private final EventService eventService;
   private final EventSubscriber<FileTrackingOperationEvent> eventSubscriber;
 
+  /** Path -> Watch ID */
   private final Map<String, Integer> watchIdRegistry = new HashMap<>();
+  /** Path -> IDs of endpoints tracking the path */
+  private final Map<String, Set<String>> endpointIds = new ConcurrentHashMap<>();
+
+  private final Set<String> changedPaths = newConcurrentHashSet();
+  private final AtomicBoolean flushScheduled = new AtomicBoolean();
+  private final ScheduledExecutorService executor =
+      newSingleThreadScheduledExecutor(
+          new ThreadFactoryBuilder()
+              .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+              .setNameFormat(GitChangesDetector.class.getSimpleName())
+              .setDaemon(true)
+              .build());
 
   @Inject
   public GitChangesDetector(
@@ -69,12 +98,14 @@ public class GitChangesDetector {
       ProjectManager projectManager,
       PathTransformer pathTransformer,
       GitConnectionFactory gitConnectionFactory,
+      GitStatusCache statusCache,
       EventService eventService) {
     this.transmitter = transmitter;
     this.manager = manager;
     this.projectManager = projectManager;
     this.pathTransformer = pathTransformer;
     this.gitConnectionFactory = gitConnectionFactory;
+    this.statusCache = statusCache;
     this.eventService = eventService;
 
     eventSubscriber =
@@ -88,7 +119,7 @@ public class GitChangesDetector {
     eventService.subscribe(eventSubscriber);
   }
 
-  private void onFileTrackingOperationReceived(
+  private synchronized void onFileTrackingOperationReceived(
       String endpointId, FileTrackingOperationDto operation) {
     FileTrackingOperationDto.Type type = operation.getType();
     String path = operation.getPath();
@@ -97,44 +128,18 @@ public class GitChangesDetector {
     switch (type) {
       case START:
         {
-          String key = path + endpointId;
-          if (watchIdRegistry.containsKey(key)) {
-            return;
-          }
-          int id =
-              manager.registerByPath(
-                  path,
-                  createConsumer(endpointId, path),
-                  modifyConsumer(endpointId, path),
-                  deleteConsumer(endpointId, path));
-          watchIdRegistry.put(key, id);
-
+          startTracking(path, endpointId);
           break;
         }
       case STOP:
         {
-          Integer id = watchIdRegistry.remove(path + endpointId);
-          if (id != null) {
-            manager.unRegisterByPath(id);
-          }
-
+          stopTracking(path, endpointId);
           break;
         }
       case MOVE:
         {
-          Integer oldId = watchIdRegistry.remove(oldPath + endpointId);
-          if (oldId != null) {
-            manager.unRegisterByPath(oldId);
-          }
-
-          int newId =
-              manager.registerByPath(
-                  path,
-                  createConsumer(endpointId, path),
-                  modifyConsumer(endpointId, path),
-                  deleteConsumer(endpointId, path));
-          watchIdRegistry.put(path + endpointId, newId);
-
+          stopTracking(oldPath, endpointId);
+          startTracking(path, endpointId);
           break;
         }
       default:
@@ -142,62 +147,115 @@ public class GitChangesDetector {
     }
   }
 
+  private void startTracking(String path, String endpointId) {
+    endpointIds.computeIfAbsent(path, it -> newConcurrentHashSet()).add(endpointId);
+    if (!watchIdRegistry.containsKey(path)) {
+      int id =
+          manager.registerBatchByPath(
+              path, createConsumer(path), modifyConsumer(path), deleteConsumer(path));
+      watchIdRegistry.put(path, id);
+    }
+  }
+
+  private void stopTracking(String path, String endpointId) {
+    Set<String> endpoints = endpointIds.get(path);
+    if (endpoints == null || !endpoints.remove(endpointId) || !endpoints.isEmpty()) {
+      return;
+    }
+    endpointIds.remove(path);
+    Integer id = watchIdRegistry.remove(path);
+    if (id != null) {
+      manager.unRegisterByPath(id);
+    }
+  }
+
   @PreDestroy
   public void stopWatcher() {
     eventService.unsubscribe(eventSubscriber);
+    executor.shutdownNow();
   }
 
-  private Consumer<String> createConsumer(String endpointId, String path) {
-    return fsEventConsumer(endpointId, path);
+  private Consumer<List<String>> createConsumer(String path) {
+    return fsEventConsumer(path);
   }
 
-  private Consumer<String> modifyConsumer(String endpointId, String path) {
-    return fsEventConsumer(endpointId, path);
+  private Consumer<List<String>> modifyConsumer(String path) {
+    return fsEventConsumer(path);
   }
 
-  private Consumer<String> deleteConsumer(String endpointId, String path) {
+  private Consumer<List<String>> deleteConsumer(String path) {
     return it -> {};
   }
 
-  private Consumer<String> fsEventConsumer(String endpointId, String wsPath) {
+  private Consumer<List<String>> fsEventConsumer(String wsPath) {
     return it -> {
-      try {
-        String normalizedPath = wsPath.startsWith("/") ? wsPath.substring(1) : wsPath;
-        String itemPath = normalizedPath.substring(normalizedPath.indexOf("/") + 1);
-        String projectName = normalizedPath.split("/")[0];
-        if (!projectManager.isRegistered(absolutize(projectName))) {
-          throw new NotFoundException("Project '" + projectName + "' is not found");
-        }
-        String projectFsPath = pathTransformer.transform(projectName).toString();
-        GitConnection gitConnection = gitConnectionFactory.getConnection(projectFsPath);
-        Status status = gitConnection.status(singletonList(itemPath));
-        FileChangedEventDto.Status fileStatus;
-        if (status.getAdded().contains(itemPath)) {
-          fileStatus = ADDED;
-        } else if (status.getUntracked().contains(itemPath)) {
-          fileStatus = UNTRACKED;
-        } else if (status.getModified().contains(itemPath)
-            || status.getChanged().contains(itemPath)) {
-          fileStatus = MODIFIED;
-        } else {
-          fileStatus = NOT_MODIFIED;
-        }
-
-        transmitter
-            .newRequest()
-            .endpointId(endpointId)
-            .methodName(EVENT_GIT_FILE_CHANGED)
-            .paramsAsDto(
-                newDto(FileChangedEventDto.class)
-                    .withPath(wsPath)
-                    .withStatus(fileStatus)
-                    .withEditedRegions(gitConnection.getEditedRegions(itemPath)))
-            .sendAndSkipResult();
-      } catch (GitCommitInProgressException | GitInvalidRepositoryException e) {
-        // Silent ignore
-      } catch (ServerException | NotFoundException e) {
-        LOG.error(e.getMessage());
+      changedPaths.add(wsPath);
+      if (flushScheduled.compareAndSet(false, true)) {
+        executor.schedule(this::flush, FLUSH_DELAY_MS, MILLISECONDS);
       }
     };
   }
+
+  /** Sends status of changed files to endpoints tracking them. */
+  private void flush() {
+    flushScheduled.set(false);
+
+    Map<String, Map<String, String>> itemPathsByProject = new LinkedHashMap<>();
+    for (Iterator<String> it = changedPaths.iterator(); it.hasNext(); ) {
+      String wsPath = it.next();
+      it.remove();
+      String normalizedPath = wsPath.startsWith("/") ? wsPath.substring(1) : wsPath;
+      String itemPath = normalizedPath.substring(normalizedPath.indexOf("/") + 1);
+      String projectName = normalizedPath.split("/")[0];
+      itemPathsByProject
+          .computeIfAbsent(projectName, k -> new LinkedHashMap<>())
+          .put(itemPath, wsPath);
+    }
+
+    itemPathsByProject.forEach(this::sendStatus);
+  }
+
+  /**
+   * @param projectName name of the project
+   * @param itemPaths item path relative to the project -> item workspace path
+   */
+  private void sendStatus(String projectName, Map<String, String> itemPaths) {
+    try {
+      if (!projectManager.isRegistered(absolutize(projectName))) {
+        throw new NotFoundException("Project '" + projectName + "' is not found");
+      }
+      String projectFsPath = pathTransformer.transform(projectName).toString();
+      List<String> paths = new ArrayList<>(itemPaths.keySet());
+      statusCache.invalidate(projectFsPath, paths);
+      Map<String, VcsStatus> status = statusCache.getStatus(projectFsPath, paths);
+      try (GitConnection gitConnection = gitConnectionFactory.getConnection(projectFsPath)) {
+        for (Map.Entry<String, String> entry : itemPaths.entrySet()) {
+          String itemPath = entry.getKey();
+          String wsPath = entry.getValue();
+          Set<String> endpoints = endpointIds.get(wsPath);
+          if (endpoints == null || endpoints.isEmpty()) {
+            continue;
+          }
+
+          FileChangedEventDto event =
+              newDto(FileChangedEventDto.class)
+                  .withPath(wsPath)
+                  .withStatus(FileChangedEventDto.Status.valueOf(status.get(itemPath).name()))
+                  .withEditedRegions(gitConnection.getEditedRegions(itemPath));
+          for (String endpointId : endpoints) {
+            transmitter
+                .newRequest()
+                .endpointId(endpointId)
+                .methodName(EVENT_GIT_FILE_CHANGED)
+                .paramsAsDto(event)
+                .sendAndSkipResult();
+          }
+        }
+      }
+    } catch (GitCommitInProgressException | GitInvalidRepositoryException e) {
+      // Silent ignore
+    } catch (ServerException | NotFoundException e) {
+      LOG.error(e.getMessage());
+    }
+  }
 }
@@ -13,7 +13,11 @@ package org.eclipse.che.api.git;
 import static com.google.inject.multibindings.Multibinder.newSetBinder;
 
 import com.google.inject.AbstractModule;
+import com.google.inject.TypeLiteral;
 import com.google.inject.multibindings.Multibinder;
+import com.google.inject.name.Names;
+import java.nio.file.Path;
+import java.util.function.Consumer;
 import org.eclipse.che.api.project.server.ProjectImporter;
 import org.eclipse.che.api.project.server.VcsStatusProvider;
 import org.eclipse.che.api.project.server.type.ProjectTypeDef;
@@ -59,6 +63,17 @@ public class GitModule extends AbstractModule {
         .addBinding()
         .to(GitBasicAuthenticationCredentialsProvider.class);
 
+    bind(GitStatusCache.class);
+    newSetBinder(binder(), new TypeLiteral<Consumer<Path>>() {}, Names.named("che.fs.file.create"))
+        .addBinding()
+        .to(GitStatusCache.class);
+    newSetBinder(binder(), new TypeLiteral<Consumer<Path>>() {}, Names.named("che.fs.file.update"))
+        .addBinding()
+        .to(GitStatusCache.class);
+    newSetBinder(binder(), new TypeLiteral<Consumer<Path>>() {}, Names.named("che.fs.file.delete"))
+        .addBinding()
+        .to(GitStatusCache.class);
+
     bind(GitCheckoutDetector.class).asEagerSingleton();
     bind(GitChangesDetector.class).asEagerSingleton();
     bind(GitStatusChangedDetector.class).asEagerSingleton();
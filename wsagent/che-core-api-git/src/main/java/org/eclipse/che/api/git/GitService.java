@@ -331,7 +331,8 @@ public class GitService {
       @QueryParam("since") String revisionRangeSince,
       @QueryParam("until") String revisionRangeUntil,
       @QueryParam("skip") @DefaultValue("0") int skip,
-      @QueryParam("maxCount") @DefaultValue(Constants.DEFAULT_PAGE_SIZE_QUERY_PARAM) int maxCount)
+      @QueryParam("maxCount") @DefaultValue(Constants.DEFAULT_PAGE_SIZE_QUERY_PARAM) int maxCount,
+      @QueryParam("diffCommitFiles") @DefaultValue("true") boolean diffCommitFiles)
       throws ApiException {
     try (GitConnection gitConnection = getGitConnection()) {
       return gitConnection.log(
@@ -340,7 +341,8 @@ public class GitService {
               .withRevisionRangeSince(revisionRangeSince)
               .withRevisionRangeUntil(revisionRangeUntil)
               .withMaxCount(maxCount)
-              .withSkip(skip));
+              .withSkip(skip)
+              .withDiffCommitFiles(diffCommitFiles));
     }
   }
 
@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.git;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.eclipse.che.api.project.server.VcsStatusProvider.VcsStatus.ADDED;
+import static org.eclipse.che.api.project.server.VcsStatusProvider.VcsStatus.MODIFIED;
+import static org.eclipse.che.api.project.server.VcsStatusProvider.VcsStatus.NOT_MODIFIED;
+import static org.eclipse.che.api.project.server.VcsStatusProvider.VcsStatus.UNTRACKED;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.eclipse.che.api.git.exception.GitException;
+import org.eclipse.che.api.git.shared.Status;
+import org.eclipse.che.api.project.server.VcsStatusProvider.VcsStatus;
+
+/**
+ * Keeps VCS status of files of git repositories, so status of a file doesn't require a walk over
+ * the whole repository each time it is requested.
+ *
+ * <p>Status of a repository is computed once and then only status of paths marked as changed is
+ * recomputed. Paths are marked when file tree events are received for them or by {@link
+ * #invalidate(String, Collection)}. Whole status is recomputed when index, {@code HEAD} or the
+ * current branch reference of the repository change, which is detected by their modification time
+ * and size on each request, so commits, checkouts, resets and other git operations are taken into
+ * account even if no events are received for them.
+ *
+ * <p>The instance is also registered as consumer of file tree create, update and delete events.
+ */
+@Singleton
+public class GitStatusCache implements Consumer<Path> {
+
+  private static final String GIT_DIR = ".git";
+
+  private final GitConnectionFactory gitConnectionFactory;
+
+  /** Repository work dir -> Status of the repository */
+  private final Map<Path, RepositoryStatus> repositories = new ConcurrentHashMap<>();
+
+  @Inject
+  public GitStatusCache(GitConnectionFactory gitConnectionFactory) {
+    this.gitConnectionFactory = gitConnectionFactory;
+  }
+
+  /**
+   * Returns status of files of a repository.
+   *
+   * @param workDir repository work dir
+   * @param paths file paths relative to the work dir
+   * @return map with given path as a key and its status as a value
+   * @throws GitException if status of the repository can't be computed
+   */
+  public Map<String, VcsStatus> getStatus(String workDir, Collection<String> paths)
+      throws GitException {
+    Path root = normalize(Paths.get(workDir));
+    RepositoryStatus repository = repositories.computeIfAbsent(root, RepositoryStatus::new);
+    Map<String, VcsStatus> result = new HashMap<>();
+    synchronized (repository) {
+      repository.update();
+      for (String path : paths) {
+        result.put(path, repository.changed.getOrDefault(path, NOT_MODIFIED));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns whole status of a repository. Status is recomputed only if the repository state changed
+   * or some of its paths were marked as changed since the last computation.
+   *
+   * @param workDir repository work dir
+   * @throws GitException if status of the repository can't be computed
+   */
+  public Status getStatus(String workDir) throws GitException {
+    Path root = normalize(Paths.get(workDir));
+    RepositoryStatus repository = repositories.computeIfAbsent(root, RepositoryStatus::new);
+    synchronized (repository) {
+      return repository.updateAll();
+    }
+  }
+
+  /**
+   * Marks paths of a repository as changed, so their status is recomputed on the next request.
+   *
+   * @param workDir repository work dir
+   * @param paths file or directory paths relative to the work dir
+   */
+  public void invalidate(String workDir, Collection<String> paths) {
+    RepositoryStatus repository = repositories.get(normalize(Paths.get(workDir)));
+    if (repository != null) {
+      repository.markDirty(paths);
+    }
+  }
+
+  /**
+   * Forgets status of a repository, e.g. when the repository is removed or re-initialized.
+   *
+   * @param workDir repository work dir
+   */
+  public void invalidate(String workDir) {
+    repositories.remove(normalize(Paths.get(workDir)));
+  }
+
+  @Override
+  public void accept(Path fsPath) {
+    Path path = normalize(fsPath);
+    for (Path parent = path.getParent(); parent != null; parent = parent.getParent()) {
+      RepositoryStatus repository = repositories.get(parent);
+      if (repository != null) {
+        Path relative = parent.relativize(path);
+        if (!GIT_DIR.equals(relative.getName(0).toString())) {
+          repository.markDirty(singletonList(relative.toString()));
+        }
+        return;
+      }
+    }
+  }
+
+  private static Path normalize(Path path) {
+    return path.toAbsolutePath().normalize();
+  }
+
+  private class RepositoryStatus {
+    final Path root;
+    /** Relative path -> Status, files that are not modified are not kept */
+    final Map<String, VcsStatus> changed = new HashMap<>();
+
+    /** Guards dirty paths, so marking them doesn't wait for status computation */
+    final Object dirtyLock = new Object();
+
+    Set<String> dirty = new HashSet<>();
+    List<Object> stamp;
+    /** Last whole status, null if status of some paths was recomputed after it */
+    Status status;
+
+    RepositoryStatus(Path root) {
+      this.root = root;
+    }
+
+    void markDirty(Collection<String> paths) {
+      synchronized (dirtyLock) {
+        dirty.addAll(paths);
+      }
+    }
+
+    Set<String> takeDirty() {
+      synchronized (dirtyLock) {
+        Set<String> result = dirty;
+        dirty = new HashSet<>();
+        return result;
+      }
+    }
+
+    /** Recomputes status if the repository state changed or some paths were marked as changed. */
+    void update() throws GitException {
+      List<Object> currentStamp = readStamp();
+      Set<String> dirtyPaths = takeDirty();
+      if (!currentStamp.equals(stamp)) {
+        recompute(currentStamp);
+      } else if (!dirtyPaths.isEmpty()) {
+        List<String> filter = new ArrayList<>(dirtyPaths);
+        Status status;
+        try (GitConnection connection = gitConnectionFactory.getConnection(root.toFile())) {
+          status = connection.status(filter);
+        } catch (GitException e) {
+          markDirty(dirtyPaths);
+          throw e;
+        }
+        changed
+            .keySet()
+            .removeIf(path -> dirtyPaths.contains(path) || isUnderAny(path, dirtyPaths));
+        put(status);
+        this.status = null;
+      }
+    }
+
+    /** Recomputes whole status unless it is known and nothing changed since it was computed. */
+    Status updateAll() throws GitException {
+      List<Object> currentStamp = readStamp();
+      Set<String> dirtyPaths = takeDirty();
+      if (status == null || !dirtyPaths.isEmpty() || !currentStamp.equals(stamp)) {
+        recompute(currentStamp);
+      }
+      return status;
+    }
+
+    private void recompute(List<Object> currentStamp) throws GitException {
+      stamp = null;
+      status = null;
+      Status computed;
+      try (GitConnection connection = gitConnectionFactory.getConnection(root.toFile())) {
+        computed = connection.status(emptyList());
+      }
+      changed.clear();
+      put(computed);
+      status = computed;
+      stamp = currentStamp;
+    }
+
+    private boolean isUnderAny(String path, Set<String> dirs) {
+      for (int i = path.indexOf('/'); i != -1; i = path.indexOf('/', i + 1)) {
+        if (dirs.contains(path.substring(0, i))) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private void put(Status status) {
+      status.getModified().forEach(path -> changed.put(path, MODIFIED));
+      status.getChanged().forEach(path -> changed.put(path, MODIFIED));
+      status.getAdded().forEach(path -> changed.put(path, ADDED));
+      status.getUntracked().forEach(path -> changed.put(path, UNTRACKED));
+    }
+
+    /** Returns modification time and size of index, HEAD and the current branch reference. */
+    private List<Object> readStamp() {
+      Path gitDir = root.resolve(GIT_DIR);
+      List<Object> result = new ArrayList<>();
+      addStamp(result, gitDir.resolve("index"));
+      addStamp(result, gitDir.resolve("HEAD"));
+      addStamp(result, gitDir.resolve("packed-refs"));
+      try {
+        String head = new String(Files.readAllBytes(gitDir.resolve("HEAD")), UTF_8).trim();
+        if (head.startsWith("ref: ")) {
+          addStamp(result, gitDir.resolve(head.substring("ref: ".length())));
+        } else {
+          result.add(head);
+        }
+      } catch (IOException e) {
+        result.add(null);
+      }
+      return result;
+    }
+
+    private void addStamp(List<Object> stamp, Path file) {
+      try {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        stamp.add(attributes.lastModifiedTime());
+        stamp.add(attributes.size());
+      } catch (IOException e) {
+        stamp.add(null);
+        stamp.add(null);
+      }
+    }
+  }
+}
@@ -12,7 +12,6 @@ package org.eclipse.che.api.git;
 
 import static com.google.common.collect.Sets.newConcurrentHashSet;
 import static java.nio.file.Files.isDirectory;
-import static java.util.Collections.emptyList;
 import static org.eclipse.che.dto.server.DtoFactory.newDto;
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -63,6 +62,7 @@ public class GitStatusChangedDetector implements EventSubscriber<StatusChangedEv
   private final PathTransformer pathTransformer;
   private final ProjectManager projectManager;
   private final GitConnectionFactory gitConnectionFactory;
+  private final GitStatusCache statusCache;
   private final EventService eventService;
 
   private final Set<String> endpointIds = newConcurrentHashSet();
@@ -77,12 +77,14 @@ public class GitStatusChangedDetector implements EventSubscriber<StatusChangedEv
       PathTransformer pathTransformer,
       ProjectManager projectManager,
       GitConnectionFactory gitConnectionFactory,
+      GitStatusCache statusCache,
       EventService eventService) {
     this.transmitter = transmitter;
     this.manager = manager;
     this.pathTransformer = pathTransformer;
     this.projectManager = projectManager;
     this.gitConnectionFactory = gitConnectionFactory;
+    this.statusCache = statusCache;
     this.eventService = eventService;
   }
 
@@ -143,20 +145,30 @@ public class GitStatusChangedDetector implements EventSubscriber<StatusChangedEv
   }
 
   private Consumer<String> fsEventConsumer() {
-    return it -> endpointIds.forEach(transmitConsumer(it));
+    return it -> {
+      if (!endpointIds.isEmpty()) {
+        StatusChangedEventDto statusChangedEventDto = computeStatus(it);
+        if (statusChangedEventDto != null) {
+          endpointIds.forEach(id -> transmit(statusChangedEventDto, id));
+        }
+      }
+    };
   }
 
-  private Consumer<String> transmitConsumer(String wsPath) {
-    return id -> {
-      try {
-        RegisteredProject project =
-            projectManager
-                .getClosest(wsPath)
-                .orElseThrow(() -> new NotFoundException("Can't find a project"));
-
-        String projectFsPath = pathTransformer.transform(project.getPath()).toString();
-        GitConnection connection = gitConnectionFactory.getConnection(projectFsPath);
-        Status status = connection.status(emptyList());
+  /**
+   * Takes status from {@link GitStatusCache} once for all endpoints, returns null if status is not
+   * available.
+   */
+  private StatusChangedEventDto computeStatus(String wsPath) {
+    try {
+      RegisteredProject project =
+          projectManager
+              .getClosest(wsPath)
+              .orElseThrow(() -> new NotFoundException("Can't find a project"));
+
+      String projectFsPath = pathTransformer.transform(project.getPath()).toString();
+      Status status = statusCache.getStatus(projectFsPath);
+      try (GitConnection connection = gitConnectionFactory.getConnection(projectFsPath)) {
         Status statusDto = newDto(Status.class);
         statusDto.setAdded(status.getAdded());
         statusDto.setUntracked(status.getUntracked());
@@ -174,21 +186,19 @@ public class GitStatusChangedDetector implements EventSubscriber<StatusChangedEv
           modifiedFiles.put(file, connection.getEditedRegions(file));
         }
 
-        StatusChangedEventDto statusChangeEventDto =
-            newDto(StatusChangedEventDto.class)
-                .withProjectName(connection.getWorkingDir().getName())
-                .withStatus(status)
-                .withModifiedFiles(modifiedFiles);
-
-        transmit(statusChangeEventDto, id);
-      } catch (GitCommitInProgressException
-          | GitCheckoutInProgressException
-          | GitInvalidRepositoryException e) {
-        // Silent ignore
-      } catch (ServerException | NotFoundException e) {
-        LOG.error(e.getMessage());
+        return newDto(StatusChangedEventDto.class)
+            .withProjectName(connection.getWorkingDir().getName())
+            .withStatus(status)
+            .withModifiedFiles(modifiedFiles);
       }
-    };
+    } catch (GitCommitInProgressException
+        | GitCheckoutInProgressException
+        | GitInvalidRepositoryException e) {
+      // Silent ignore
+    } catch (ServerException | NotFoundException e) {
+      LOG.error(e.getMessage());
+    }
+    return null;
   }
 
   @Override
@@ -26,10 +26,12 @@ public class LogParams {
   private String filePath;
   private int skip;
   private int maxCount;
+  private boolean diffCommitFiles;
 
   private LogParams() {
     skip = -1;
     maxCount = -1;
+    diffCommitFiles = true;
   }
 
   /** Create new {@link LogParams} instance with default parameters. */
@@ -171,4 +173,26 @@ public class LogParams {
     this.fileFilter = fileFilter;
     return this;
   }
+
+  /** Returns {@code true} if changed files of each commit should be returned by log command. */
+  public boolean isDiffCommitFiles() {
+    return diffCommitFiles;
+  }
+
+  /** Set {@code true} if changed files of each commit should be returned by log command. */
+  public void setDiffCommitFiles(boolean diffCommitFiles) {
+    this.diffCommitFiles = diffCommitFiles;
+  }
+
+  /**
+   * Create a {@link LogParams} object based on a given flag of returning of changed files of each
+   * commit. Changed files of a commit can be fetched separately with diff of the commit and its
+   * parent, so log page can be loaded without them.
+   *
+   * @param diffCommitFiles {@code true} if changed files of each commit should be returned
+   */
+  public LogParams withDiffCommitFiles(boolean diffCommitFiles) {
+    this.diffCommitFiles = diffCommitFiles;
+    return this;
+  }
 }
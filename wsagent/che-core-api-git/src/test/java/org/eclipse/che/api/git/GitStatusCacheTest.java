@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.git;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.eclipse.che.api.project.server.VcsStatusProvider.VcsStatus.MODIFIED;
+import static org.eclipse.che.api.project.server.VcsStatusProvider.VcsStatus.NOT_MODIFIED;
+import static org.eclipse.che.api.project.server.VcsStatusProvider.VcsStatus.UNTRACKED;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.eclipse.che.api.core.util.LineConsumerFactory;
+import org.eclipse.che.api.git.shared.Status;
+import org.eclipse.che.api.project.server.VcsStatusProvider.VcsStatus;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/** Tests for {@link GitStatusCache} */
+@Listeners(MockitoTestNGListener.class)
+public class GitStatusCacheTest {
+
+  @Mock private GitConnectionFactory gitConnectionFactory;
+  @Mock private GitConnection gitConnection;
+
+  private GitStatusCache statusCache;
+  private Path workDir;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    workDir = Files.createTempDirectory("git-status-cache");
+    Files.createDirectories(workDir.resolve(".git/refs/heads"));
+    Files.write(workDir.resolve(".git/HEAD"), "ref: refs/heads/master\n".getBytes());
+    Files.write(workDir.resolve(".git/refs/heads/master"), "0000\n".getBytes());
+    Files.write(workDir.resolve(".git/index"), new byte[] {1});
+
+    when(gitConnectionFactory.getConnection(any(File.class), any(LineConsumerFactory.class)))
+        .thenReturn(gitConnection);
+    statusCache = new GitStatusCache(gitConnectionFactory);
+  }
+
+  @AfterMethod
+  public void tearDown() throws Exception {
+    try (Stream<Path> paths = Files.walk(workDir)) {
+      paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+  }
+
+  @Test
+  public void shouldComputeStatusOfRepositoryOnce() throws Exception {
+    Status status = status(singletonList("a.txt"), singletonList("new.txt"));
+    when(gitConnection.status(emptyList())).thenReturn(status);
+
+    statusCache.getStatus(workDir.toString(), singletonList("a.txt"));
+    Map<String, VcsStatus> result =
+        statusCache.getStatus(workDir.toString(), asList("a.txt", "new.txt", "b.txt"));
+
+    verify(gitConnection, times(1)).status(any());
+    verify(gitConnection).close();
+    assertEquals(result.get("a.txt"), MODIFIED);
+    assertEquals(result.get("new.txt"), UNTRACKED);
+    assertEquals(result.get("b.txt"), NOT_MODIFIED);
+  }
+
+  @Test
+  public void shouldRecomputeStatusOfChangedPathsOnly() throws Exception {
+    Status full = status(singletonList("a.txt"), emptyList());
+    Status changed = status(singletonList("src/b.txt"), emptyList());
+    when(gitConnection.status(emptyList())).thenReturn(full);
+    when(gitConnection.status(singletonList("src/b.txt"))).thenReturn(changed);
+    statusCache.getStatus(workDir.toString(), singletonList("a.txt"));
+
+    statusCache.accept(workDir.resolve("src/b.txt"));
+    Map<String, VcsStatus> result =
+        statusCache.getStatus(workDir.toString(), asList("a.txt", "src/b.txt"));
+
+    verify(gitConnection).status(singletonList("src/b.txt"));
+    assertEquals(result.get("a.txt"), MODIFIED);
+    assertEquals(result.get("src/b.txt"), MODIFIED);
+  }
+
+  @Test
+  public void shouldRecomputeWholeStatusWhenIndexChanges() throws Exception {
+    Status before = status(singletonList("a.txt"), emptyList());
+    Status after = status(emptyList(), emptyList());
+    when(gitConnection.status(emptyList())).thenReturn(before, after);
+    statusCache.getStatus(workDir.toString(), singletonList("a.txt"));
+
+    Path index = workDir.resolve(".git/index");
+    Files.write(index, new byte[] {1, 2});
+    Files.setLastModifiedTime(index, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+    Map<String, VcsStatus> result =
+        statusCache.getStatus(workDir.toString(), singletonList("a.txt"));
+
+    verify(gitConnection, times(2)).status(emptyList());
+    assertEquals(result.get("a.txt"), NOT_MODIFIED);
+  }
+
+  @Test
+  public void shouldReuseWholeStatusUntilRepositoryChanges() throws Exception {
+    Status before = status(singletonList("a.txt"), emptyList());
+    Status after = status(emptyList(), emptyList());
+    when(gitConnection.status(emptyList())).thenReturn(before, after);
+
+    Status first = statusCache.getStatus(workDir.toString());
+    Status second = statusCache.getStatus(workDir.toString());
+    statusCache.accept(workDir.resolve("a.txt"));
+    Status third = statusCache.getStatus(workDir.toString());
+
+    verify(gitConnection, times(2)).status(emptyList());
+    assertSame(first, before);
+    assertSame(second, before);
+    assertSame(third, after);
+  }
+
+  @Test
+  public void shouldIgnoreChangesInGitDirectory() throws Exception {
+    Status status = status(emptyList(), emptyList());
+    when(gitConnection.status(emptyList())).thenReturn(status);
+    statusCache.getStatus(workDir.toString(), singletonList("a.txt"));
+
+    statusCache.accept(workDir.resolve(".git/objects/ab"));
+    statusCache.getStatus(workDir.toString(), singletonList("a.txt"));
+
+    verify(gitConnection, times(1)).status(any());
+  }
+
+  private static Status status(List<String> modified, List<String> untracked) {
+    Status status = mock(Status.class);
+    when(status.getModified()).thenReturn(modified);
+    when(status.getUntracked()).thenReturn(untracked);
+    when(status.getChanged()).thenReturn(emptyList());
+    when(status.getAdded()).thenReturn(emptyList());
+    return status;
+  }
+}
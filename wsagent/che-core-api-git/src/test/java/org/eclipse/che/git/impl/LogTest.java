@@ -10,24 +10,29 @@
  */
 package org.eclipse.che.git.impl;
 
+import static java.util.stream.Collectors.toSet;
 import static org.eclipse.che.git.impl.GitTestUtil.addFile;
 import static org.eclipse.che.git.impl.GitTestUtil.cleanupTestRepo;
 import static org.eclipse.che.git.impl.GitTestUtil.connectToInitializedGitRepository;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.io.Files;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import org.eclipse.che.api.git.GitConnection;
 import org.eclipse.che.api.git.GitConnectionFactory;
 import org.eclipse.che.api.git.exception.GitException;
 import org.eclipse.che.api.git.params.AddParams;
 import org.eclipse.che.api.git.params.CommitParams;
 import org.eclipse.che.api.git.params.LogParams;
+import org.eclipse.che.api.git.shared.Branch;
 import org.eclipse.che.api.git.shared.Revision;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
@@ -344,4 +349,55 @@ public class LogTest {
     assertEquals(thirdAndFourthCommits.get(0).getMessage(), "add 4.txt file");
     assertEquals(thirdAndFourthCommits.get(1).getMessage(), "add 3.txt file");
   }
+
+  @Test(
+    dataProvider = "GitConnectionFactory",
+    dataProviderClass = GitConnectionFactoryProvider.class
+  )
+  public void testLogBranchesOfCommits(GitConnectionFactory connectionFactory)
+      throws GitException, IOException {
+    // given
+    GitConnection connection = connectToInitializedGitRepository(connectionFactory, repository);
+    addFile(connection, "1.txt", "someChanges");
+    connection.add(AddParams.create(ImmutableList.of("1.txt")));
+    connection.commit(CommitParams.create("add 1.txt file"));
+    connection.branchCreate("feature", null);
+
+    addFile(connection, "2.txt", "someChanges");
+    connection.add(AddParams.create(ImmutableList.of("2.txt")));
+    connection.commit(CommitParams.create("add 2.txt file"));
+
+    // when
+    List<Revision> commits = connection.log(LogParams.create()).getCommits();
+
+    // then
+    assertEquals(branchNames(commits.get(0)), ImmutableSet.of("refs/heads/master"));
+    assertEquals(
+        branchNames(commits.get(1)), ImmutableSet.of("refs/heads/master", "refs/heads/feature"));
+  }
+
+  @Test(
+    dataProvider = "GitConnectionFactory",
+    dataProviderClass = GitConnectionFactoryProvider.class
+  )
+  public void testLogWithoutDiffCommitFiles(GitConnectionFactory connectionFactory)
+      throws GitException, IOException {
+    // given
+    GitConnection connection = connectToInitializedGitRepository(connectionFactory, repository);
+    addFile(connection, "1.txt", "someChanges");
+    connection.add(AddParams.create(ImmutableList.of("1.txt")));
+    connection.commit(CommitParams.create("add 1.txt file"));
+
+    // when
+    List<Revision> commits =
+        connection.log(LogParams.create().withDiffCommitFiles(false)).getCommits();
+
+    // then
+    assertEquals(commits.size(), 1);
+    assertTrue(commits.get(0).getDiffCommitFile().isEmpty());
+  }
+
+  private static Set<String> branchNames(Revision revision) {
+    return revision.getBranches().stream().map(Branch::getName).collect(toSet());
+  }
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.languageserver.shared.model;
+
+/**
+ * Result of a text document request produced by a single language server, sent to subscribed
+ * clients as soon as the server answers and before results of all servers are merged into the
+ * response of the request.
+ */
+public class PartialResult {
+  private String method;
+  private String uri;
+  private String languageServerId;
+  private Object result;
+
+  public PartialResult() {}
+
+  public PartialResult(String method, String uri, String languageServerId, Object result) {
+    this.method = method;
+    this.uri = uri;
+    this.languageServerId = languageServerId;
+    this.result = result;
+  }
+
+  /** Returns name of the request method, e.g. {@code textDocument/references}. */
+  public String getMethod() {
+    return method;
+  }
+
+  public void setMethod(String method) {
+    this.method = method;
+  }
+
+  /** Returns uri of the document the request was sent for. */
+  public String getUri() {
+    return uri;
+  }
+
+  public void setUri(String uri) {
+    this.uri = uri;
+  }
+
+  public String getLanguageServerId() {
+    return languageServerId;
+  }
+
+  public void setLanguageServerId(String languageServerId) {
+    this.languageServerId = languageServerId;
+  }
+
+  /** Returns result of the language server, it has the same type as the result of the request. */
+  public Object getResult() {
+    return result;
+  }
+
+  public void setResult(Object result) {
+    this.result = result;
+  }
+}
@@ -14,6 +14,7 @@ import com.google.inject.AbstractModule;
 import com.google.inject.assistedinject.FactoryModuleBuilder;
 import com.google.inject.multibindings.Multibinder;
 import org.eclipse.che.api.languageserver.launcher.LanguageServerLauncher;
+import org.eclipse.che.api.languageserver.messager.PartialResultJsonRpcTransmitter;
 import org.eclipse.che.api.languageserver.messager.PublishDiagnosticsParamsJsonRpcTransmitter;
 import org.eclipse.che.api.languageserver.messager.ShowMessageJsonRpcTransmitter;
 import org.eclipse.che.api.languageserver.registry.CheLanguageClientFactory;
@@ -47,6 +48,7 @@ public class LanguageServerModule extends AbstractModule {
     bind(TextDocumentService.class).asEagerSingleton();
     bind(PublishDiagnosticsParamsJsonRpcTransmitter.class).asEagerSingleton();
     bind(ShowMessageJsonRpcTransmitter.class).asEagerSingleton();
+    bind(PartialResultJsonRpcTransmitter.class).asEagerSingleton();
     Multibinder.newSetBinder(binder(), LanguageDescription.class);
 
     bind(LanguageServerInitializationHandler.class).asEagerSingleton();
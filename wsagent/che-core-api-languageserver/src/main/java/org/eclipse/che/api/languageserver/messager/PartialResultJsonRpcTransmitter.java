@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.languageserver.messager;
+
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.eclipse.che.api.core.jsonrpc.commons.RequestHandlerConfigurator;
+import org.eclipse.che.api.core.jsonrpc.commons.RequestTransmitter;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.core.websocket.impl.WebSocketEndpointRemovedEvent;
+import org.eclipse.che.api.languageserver.server.dto.DtoServerImpls.PartialResultDto;
+
+/**
+ * Transmits 'textDocument/partialResult' over the JSON-RPC to endpoints that opted in with
+ * 'textDocument/partialResult/subscribe'. Partial result is sent as soon as a language server
+ * answers a request, while the response of the request is sent when all servers have answered.
+ * Partial results are not sent for requests answered from the cache of responses, see {@link
+ * org.eclipse.che.api.languageserver.service.TextDocumentResponseCache}. Endpoint is unsubscribed
+ * when it is gone, see {@link WebSocketEndpointRemovedEvent}, so it stays subscribed if its web
+ * socket session is reopened shortly after it was closed.
+ */
+@Singleton
+public class PartialResultJsonRpcTransmitter {
+  private final Set<String> endpointIds = new CopyOnWriteArraySet<>();
+
+  private final RequestTransmitter requestTransmitter;
+
+  @Inject
+  public PartialResultJsonRpcTransmitter(RequestTransmitter requestTransmitter) {
+    this.requestTransmitter = requestTransmitter;
+  }
+
+  /** Returns true if the endpoint has subscribed for partial results. */
+  public boolean isSubscribed(String endpointId) {
+    return endpointIds.contains(endpointId);
+  }
+
+  /**
+   * Sends result of a single language server to the endpoint if it has subscribed for partial
+   * results.
+   *
+   * @param endpointId endpoint that sent the request
+   * @param method request method
+   * @param uri uri of the document the request was sent for
+   * @param languageServerId id of the language server which produced the result
+   * @param result DTO or list of DTOs of the same type as the request result
+   */
+  public void transmit(
+      String endpointId, String method, String uri, String languageServerId, Object result) {
+    if (!endpointIds.contains(endpointId)) {
+      return;
+    }
+    PartialResultDto partialResult = new PartialResultDto();
+    partialResult.setMethod(method);
+    partialResult.setUri(uri);
+    partialResult.setLanguageServerId(languageServerId);
+    partialResult.setResult(result);
+    requestTransmitter
+        .newRequest()
+        .endpointId(endpointId)
+        .methodName("textDocument/partialResult")
+        .paramsAsDto(partialResult)
+        .sendAndSkipResult();
+  }
+
+  @Inject
+  private void subscribe(EventService eventService) {
+    eventService.subscribe(
+        event -> unsubscribeEndpoint(event.getEndpointId()), WebSocketEndpointRemovedEvent.class);
+  }
+
+  @Inject
+  private void configureSubscribeHandler(RequestHandlerConfigurator requestHandler) {
+    requestHandler
+        .newConfiguration()
+        .methodName("textDocument/partialResult/subscribe")
+        .noParams()
+        .noResult()
+        .withConsumer(this::subscribeEndpoint);
+  }
+
+  @Inject
+  private void configureUnSubscribeHandler(RequestHandlerConfigurator requestHandler) {
+    requestHandler
+        .newConfiguration()
+        .methodName("textDocument/partialResult/unsubscribe")
+        .noParams()
+        .noResult()
+        .withConsumer(this::unsubscribeEndpoint);
+  }
+
+  void subscribeEndpoint(String endpointId) {
+    endpointIds.add(endpointId);
+  }
+
+  void unsubscribeEndpoint(String endpointId) {
+    endpointIds.remove(endpointId);
+  }
+}
@@ -10,40 +10,62 @@
  */
 package org.eclipse.che.api.languageserver.messager;
 
+import static org.eclipse.che.api.languageserver.service.LanguageServiceUtils.removePrefixUri;
+
+import com.google.gson.JsonElement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.CopyOnWriteArraySet;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.eclipse.che.api.core.jsonrpc.commons.RequestHandlerConfigurator;
 import org.eclipse.che.api.core.jsonrpc.commons.RequestTransmitter;
 import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.core.websocket.impl.WebSocketEndpointRemovedEvent;
 import org.eclipse.che.api.languageserver.server.dto.DtoServerImpls.ExtendedPublishDiagnosticsParamsDto;
 import org.eclipse.che.api.languageserver.shared.model.ExtendedPublishDiagnosticsParams;
+import org.eclipse.che.api.project.shared.dto.event.FileTrackingOperationDto;
+import org.eclipse.che.api.watcher.server.detectors.FileTrackingOperationEvent;
 import org.eclipse.lsp4j.PublishDiagnosticsParams;
 
-/** Transmits 'textDocument/publishDiagnostics' over the JSON-RPC */
+/**
+ * Transmits 'textDocument/publishDiagnostics' over the JSON-RPC to subscribed endpoints that track
+ * the document, see {@link FileTrackingOperationEvent}. Diagnostics are serialized once and are
+ * not sent again if they are the same as the diagnostics of the document last published by the
+ * same language server. Latest not empty diagnostics of each document are kept and sent to an
+ * endpoint when it starts tracking the document. Subscription and tracked documents of an endpoint
+ * are dropped when the endpoint is gone, see {@link WebSocketEndpointRemovedEvent}, so they are
+ * kept if its web socket session is reopened shortly after it was closed.
+ */
 @Singleton
 public class PublishDiagnosticsParamsJsonRpcTransmitter {
-  private final Set<String> endpointIds = new CopyOnWriteArraySet<>();
+  private final RequestTransmitter requestTransmitter;
+
+  /** IDs of subscribed endpoints, guarded by this */
+  private final Set<String> endpointIds = new HashSet<>();
+  /** Document path -> IDs of endpoints tracking the document, guarded by this */
+  private final Map<String, Set<String>> trackingEndpoints = new HashMap<>();
+  /** Document path -> Language server ID -> Latest diagnostics, guarded by this */
+  private final Map<String, Map<String, JsonElement>> diagnostics = new HashMap<>();
 
   @Inject
-  private void subscribe(EventService eventService, RequestTransmitter requestTransmitter) {
+  public PublishDiagnosticsParamsJsonRpcTransmitter(RequestTransmitter requestTransmitter) {
+    this.requestTransmitter = requestTransmitter;
+  }
+
+  @Inject
+  private void subscribe(EventService eventService) {
+    eventService.subscribe(this::publish, ExtendedPublishDiagnosticsParams.class);
+    eventService.subscribe(
+        event -> onFileTrackingOperation(event.getEndpointId(), event.getFileTrackingOperation()),
+        FileTrackingOperationEvent.class);
     eventService.subscribe(
-        event -> {
-          PublishDiagnosticsParams params = event.getParams();
-          if (params.getUri() != null) {
-            params.setUri(params.getUri().substring(16));
-          }
-          endpointIds.forEach(
-              endpointId ->
-                  requestTransmitter
-                      .newRequest()
-                      .endpointId(endpointId)
-                      .methodName("textDocument/publishDiagnostics")
-                      .paramsAsDto(new ExtendedPublishDiagnosticsParamsDto(event))
-                      .sendAndSkipResult());
-        },
-        ExtendedPublishDiagnosticsParams.class);
+        event -> removeEndpoint(event.getEndpointId()), WebSocketEndpointRemovedEvent.class);
   }
 
   @Inject
@@ -53,7 +75,7 @@ public class PublishDiagnosticsParamsJsonRpcTransmitter {
         .methodName("textDocument/publishDiagnostics/subscribe")
         .noParams()
         .noResult()
-        .withConsumer(endpointIds::add);
+        .withConsumer(this::subscribeEndpoint);
   }
 
   @Inject
@@ -63,6 +85,128 @@ public class PublishDiagnosticsParamsJsonRpcTransmitter {
         .methodName("textDocument/publishDiagnostics/unsubscribe")
         .noParams()
         .noResult()
-        .withConsumer(endpointIds::remove);
+        .withConsumer(this::unsubscribeEndpoint);
+  }
+
+  void publish(ExtendedPublishDiagnosticsParams event) {
+    PublishDiagnosticsParams params = event.getParams();
+    if (params.getUri() == null) {
+      return;
+    }
+    String path = removePrefixUri(params.getUri());
+    params.setUri(path);
+    JsonElement json = new ExtendedPublishDiagnosticsParamsDto(event).toJsonElement();
+    boolean empty = params.getDiagnostics() == null || params.getDiagnostics().isEmpty();
+
+    List<String> receivers;
+    synchronized (this) {
+      Map<String, JsonElement> byServer = diagnostics.get(path);
+      JsonElement previous = byServer == null ? null : byServer.get(event.getLanguageServerId());
+      if (empty) {
+        if (previous == null) {
+          return;
+        }
+        byServer.remove(event.getLanguageServerId());
+        if (byServer.isEmpty()) {
+          diagnostics.remove(path);
+        }
+      } else {
+        if (json.equals(previous)) {
+          return;
+        }
+        diagnostics
+            .computeIfAbsent(path, k -> new HashMap<>())
+            .put(event.getLanguageServerId(), json);
+      }
+      receivers = getReceivers(path);
+    }
+    receivers.forEach(endpointId -> transmit(endpointId, json));
+  }
+
+  void onFileTrackingOperation(String endpointId, FileTrackingOperationDto operation) {
+    switch (operation.getType()) {
+      case START:
+        startTracking(operation.getPath(), endpointId);
+        break;
+      case STOP:
+        stopTracking(operation.getPath(), endpointId);
+        break;
+      case MOVE:
+        stopTracking(operation.getOldPath(), endpointId);
+        startTracking(operation.getPath(), endpointId);
+        break;
+      default:
+        break;
+    }
+  }
+
+  void subscribeEndpoint(String endpointId) {
+    List<JsonElement> latest = new ArrayList<>();
+    synchronized (this) {
+      if (!endpointIds.add(endpointId)) {
+        return;
+      }
+      trackingEndpoints.forEach(
+          (path, endpoints) -> {
+            if (endpoints.contains(endpointId)) {
+              latest.addAll(getDiagnostics(path));
+            }
+          });
+    }
+    latest.forEach(json -> transmit(endpointId, json));
+  }
+
+  synchronized void unsubscribeEndpoint(String endpointId) {
+    endpointIds.remove(endpointId);
+  }
+
+  synchronized void removeEndpoint(String endpointId) {
+    endpointIds.remove(endpointId);
+    trackingEndpoints
+        .values()
+        .removeIf(endpoints -> endpoints.remove(endpointId) && endpoints.isEmpty());
+  }
+
+  private void startTracking(String path, String endpointId) {
+    Collection<JsonElement> latest;
+    synchronized (this) {
+      if (!trackingEndpoints.computeIfAbsent(path, k -> new HashSet<>()).add(endpointId)
+          || !endpointIds.contains(endpointId)) {
+        return;
+      }
+      latest = getDiagnostics(path);
+    }
+    latest.forEach(json -> transmit(endpointId, json));
+  }
+
+  private synchronized void stopTracking(String path, String endpointId) {
+    Set<String> endpoints = trackingEndpoints.get(path);
+    if (endpoints != null && endpoints.remove(endpointId) && endpoints.isEmpty()) {
+      trackingEndpoints.remove(path);
+    }
+  }
+
+  private List<String> getReceivers(String path) {
+    Set<String> endpoints = trackingEndpoints.get(path);
+    if (endpoints == null) {
+      return Collections.emptyList();
+    }
+    List<String> receivers = new ArrayList<>(endpoints);
+    receivers.retainAll(endpointIds);
+    return receivers;
+  }
+
+  private Collection<JsonElement> getDiagnostics(String path) {
+    Map<String, JsonElement> byServer = diagnostics.get(path);
+    return byServer == null ? Collections.emptyList() : new ArrayList<>(byServer.values());
+  }
+
+  private void transmit(String endpointId, JsonElement params) {
+    requestTransmitter
+        .newRequest()
+        .endpointId(endpointId)
+        .methodName("textDocument/publishDiagnostics")
+        .paramsAsDto(params)
+        .sendAndSkipResult();
   }
 }
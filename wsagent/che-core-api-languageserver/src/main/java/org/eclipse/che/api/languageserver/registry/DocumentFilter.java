@@ -10,14 +10,22 @@
  */
 package org.eclipse.che.api.languageserver.registry;
 
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 public class DocumentFilter {
+  private static final Logger LOG = LoggerFactory.getLogger(DocumentFilter.class);
 
   private final String pathRegex;
+  private final Pattern pathPattern;
   private final String languageId;
   private final String scheme;
 
   public DocumentFilter(String languageId, String pathRegex, String scheme) {
     this.pathRegex = pathRegex;
+    this.pathPattern = compile(pathRegex);
     this.languageId = languageId;
     this.scheme = scheme;
   }
@@ -30,7 +38,27 @@ public class DocumentFilter {
     return pathRegex;
   }
 
+  /**
+   * Returns {@link #getPathRegex()} compiled once when the filter is created, or null if the filter
+   * has no path regex or the regex is not valid.
+   */
+  public Pattern getPathPattern() {
+    return pathPattern;
+  }
+
   public String getScheme() {
     return scheme;
   }
+
+  private static Pattern compile(String pathRegex) {
+    if (pathRegex == null) {
+      return null;
+    }
+    try {
+      return Pattern.compile(pathRegex);
+    } catch (PatternSyntaxException e) {
+      LOG.warn("Invalid path regex of document filter: {}", pathRegex, e);
+      return null;
+    }
+  }
 }
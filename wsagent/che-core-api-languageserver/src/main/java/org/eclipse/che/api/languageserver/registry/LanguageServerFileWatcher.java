@@ -13,8 +13,6 @@ package org.eclipse.che.api.languageserver.registry;
 import static org.eclipse.che.api.languageserver.service.LanguageServiceUtils.prefixURI;
 
 import com.google.common.annotations.VisibleForTesting;
-import java.nio.file.FileSystem;
-import java.nio.file.FileSystems;
 import java.nio.file.PathMatcher;
 import java.util.Collections;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -22,7 +20,9 @@ import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.eclipse.che.api.languageserver.launcher.LanguageServerLauncher;
+import org.eclipse.che.api.languageserver.service.TextDocumentResponseCache;
 import org.eclipse.che.api.watcher.server.FileWatcherManager;
+import org.eclipse.che.api.watcher.server.GlobPathMatcher;
 import org.eclipse.lsp4j.DidChangeWatchedFilesParams;
 import org.eclipse.lsp4j.FileChangeType;
 import org.eclipse.lsp4j.FileEvent;
@@ -38,17 +38,22 @@ import org.eclipse.lsp4j.services.LanguageServer;
 public class LanguageServerFileWatcher {
 
   private final FileWatcherManager watcherManager;
+  private final TextDocumentResponseCache responseCache;
 
   private CopyOnWriteArrayList<Integer> watcherIds = new CopyOnWriteArrayList<>();
 
   @Inject
   public LanguageServerFileWatcher(
-      FileWatcherManager watcherManager, ServerInitializer serverInitializer) {
+      FileWatcherManager watcherManager,
+      ServerInitializer serverInitializer,
+      TextDocumentResponseCache responseCache) {
     this.watcherManager = watcherManager;
+    this.responseCache = responseCache;
     serverInitializer.addObserver(this::onServerInitialized);
   }
 
   private void send(LanguageServer server, String filePath, FileChangeType changeType) {
+    responseCache.invalidate();
     DidChangeWatchedFilesParams params =
         new DidChangeWatchedFilesParams(
             Collections.singletonList(new FileEvent(prefixURI(filePath), changeType)));
@@ -69,9 +74,8 @@ public class LanguageServerFileWatcher {
       ServerCapabilities capabilities,
       String projectPath) {
     LanguageServerDescription description = launcher.getDescription();
-    FileSystem fileSystem = FileSystems.getDefault();
     for (String pattern : description.getFileWatchPatterns()) {
-      PathMatcher matcher = fileSystem.getPathMatcher(pattern);
+      PathMatcher matcher = GlobPathMatcher.of(pattern);
       int watcherId =
           watcherManager.registerByMatcher(
               matcher,
@@ -19,7 +19,9 @@ import org.eclipse.lsp4j.ServerCapabilities;
 /** @author Anatoliy Bazko */
 public interface LanguageServerRegistry {
   /**
-   * Finds appropriate language servers according to file uri.
+   * Finds appropriate language servers according to file uri. Servers are grouped by how well they
+   * match the file, best matching first. Returned lists are unmodifiable and may be shared between
+   * callers.
    *
    * @throws LanguageServerException
    */
@@ -23,6 +23,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -56,6 +57,9 @@ public class LanguageServerRegistryImpl implements LanguageServerRegistry {
 
   private static final Logger LOG = LoggerFactory.getLogger(LanguageServerRegistryImpl.class);
 
+  /** Maximum number of files whose applicable servers are cached for the current snapshot. */
+  private static final int MAX_CACHED_ROUTES = 10_000;
+
   private final String workspaceId;
   private final String apiEndpoint;
   private final HttpJsonRequestFactory httpJsonRequestFactory;
@@ -64,10 +68,17 @@ public class LanguageServerRegistryImpl implements LanguageServerRegistry {
   private final List<LanguageServerLauncher> launchers;
   private final AtomicInteger serverId = new AtomicInteger();
 
-  /** Started {@link LanguageServer} by project. */
+  /** Started {@link LanguageServer} by project, guarded by {@link #lock}. */
   private final Map<String, List<LanguageServerLauncher>> launchedServers;
 
-  private final Map<String, List<InitializedLanguageServer>> initializedServers;
+  /** Guards launching of servers, notified when a server is initialized or fails to initialize. */
+  private final Object lock = new Object();
+
+  /**
+   * Immutable snapshot of initialized servers, replaced under {@link #lock} when a server is
+   * initialized, so routing of requests to servers does not need the lock.
+   */
+  private volatile Routing routing = new Routing(Collections.emptyMap());
 
   private final Provider<ProjectManager> projectManagerProvider;
   private final ServerInitializer initializer;
@@ -101,7 +112,6 @@ public class LanguageServerRegistryImpl implements LanguageServerRegistry {
     this.clientFactory = clientFactory;
     this.languageRecognizer = languageRecognizer;
     this.launchedServers = new HashMap<>();
-    this.initializedServers = new HashMap<>();
   }
 
   @Override
@@ -125,7 +135,7 @@ public class LanguageServerRegistryImpl implements LanguageServerRegistry {
     // launchers is the set of things we need to have initialized
 
     for (LanguageServerLauncher launcher : new ArrayList<>(requiredToLaunch)) {
-      synchronized (initializedServers) {
+      synchronized (lock) {
         List<LanguageServerLauncher> servers =
             launchedServers.computeIfAbsent(projectPath, k -> new ArrayList<>());
 
@@ -136,13 +146,13 @@ public class LanguageServerRegistryImpl implements LanguageServerRegistry {
               .initialize(launcher, clientFactory.create(id), projectPath)
               .thenAccept(
                   pair -> {
-                    synchronized (initializedServers) {
-                      List<InitializedLanguageServer> initialized =
-                          initializedServers.computeIfAbsent(projectPath, k -> new ArrayList<>());
-                      initialized.add(
-                          new InitializedLanguageServer(id, pair.first, pair.second, launcher));
+                    synchronized (lock) {
+                      routing =
+                          routing.with(
+                              projectPath,
+                              new InitializedLanguageServer(id, pair.first, pair.second, launcher));
                       requiredToLaunch.remove(launcher);
-                      initializedServers.notifyAll();
+                      lock.notifyAll();
                     }
                   })
               .exceptionally(
@@ -155,10 +165,10 @@ public class LanguageServerRegistryImpl implements LanguageServerRegistry {
                                 + ": "
                                 + t.getMessage()));
                     LOG.error("Error launching language server " + launcher, t);
-                    synchronized (initializedServers) {
+                    synchronized (lock) {
                       requiredToLaunch.remove(launcher);
                       servers.remove(launcher);
-                      initializedServers.notifyAll();
+                      lock.notifyAll();
                     }
                     return null;
                   });
@@ -170,8 +180,8 @@ public class LanguageServerRegistryImpl implements LanguageServerRegistry {
     // eventually, all launchers will either fail or succeed, regardless of
     // which request thread started them. Thus the loop below will
     // end.
-    synchronized (initializedServers) {
-      List<InitializedLanguageServer> initForProject = initializedServers.get(projectPath);
+    synchronized (lock) {
+      List<InitializedLanguageServer> initForProject = routing.servers.get(projectPath);
       if (initForProject != null) {
         for (InitializedLanguageServer initialized : initForProject) {
           requiredToLaunch.remove(initialized.getLauncher());
@@ -179,8 +189,8 @@ public class LanguageServerRegistryImpl implements LanguageServerRegistry {
       }
       while (!requiredToLaunch.isEmpty()) {
         try {
-          initializedServers.wait();
-          initForProject = initializedServers.get(projectPath);
+          lock.wait();
+          initForProject = routing.servers.get(projectPath);
           if (initForProject != null) {
             for (InitializedLanguageServer initialized : initForProject) {
               requiredToLaunch.remove(initialized.getLauncher());
@@ -264,22 +274,37 @@ public class LanguageServerRegistryImpl implements LanguageServerRegistry {
   public List<Collection<InitializedLanguageServer>> getApplicableLanguageServers(String fileUri)
       throws LanguageServerException {
     String projectPath = extractProjectPath(fileUri);
+    if (projectPath == null) {
+      return Collections.emptyList();
+    }
+    Routing current = routing;
+    Route route = current.routes.get(fileUri);
+    if (route != null && route.projectPath.equals(projectPath)) {
+      return route.servers;
+    }
+
+    List<Collection<InitializedLanguageServer>> servers =
+        Collections.unmodifiableList(
+            findApplicableLanguageServers(current.servers.get(projectPath), fileUri));
+    if (current.routes.size() >= MAX_CACHED_ROUTES) {
+      current.routes.clear();
+    }
+    current.routes.put(fileUri, new Route(projectPath, servers));
+    return servers;
+  }
+
+  private List<Collection<InitializedLanguageServer>> findApplicableLanguageServers(
+      List<InitializedLanguageServer> servers, String fileUri) {
+    if (servers == null) {
+      return Collections.emptyList();
+    }
     String wsPath = absolutize(LanguageServiceUtils.removePrefixUri(fileUri));
     LanguageDescription language = languageRecognizer.recognizeByPath(wsPath);
-    if (projectPath == null || language == null) {
+    if (language == null) {
       return Collections.emptyList();
     }
 
     Map<Integer, List<InitializedLanguageServer>> result = new HashMap<>();
-
-    List<InitializedLanguageServer> servers = null;
-    synchronized (initializedServers) {
-      List<InitializedLanguageServer> list = initializedServers.get(projectPath);
-      if (list == null) {
-        return Collections.emptyList();
-      }
-      servers = new ArrayList<InitializedLanguageServer>(list);
-    }
     for (InitializedLanguageServer server : servers) {
       int score =
           matchScore(server.getLauncher().getDescription(), fileUri, language.getLanguageId());
@@ -297,7 +322,7 @@ public class LanguageServerRegistryImpl implements LanguageServerRegistry {
         .entrySet()
         .stream()
         .sorted((left, right) -> right.getKey() - left.getKey())
-        .map(entry -> entry.getValue())
+        .map(entry -> Collections.unmodifiableCollection(entry.getValue()))
         .collect(Collectors.toList());
   }
 
@@ -322,8 +347,8 @@ public class LanguageServerRegistryImpl implements LanguageServerRegistry {
         if (pattern.equals(path)) {
           return 10;
         }
-        Pattern regex = Pattern.compile(pattern);
-        if (regex.matcher(path).matches()) {
+        Pattern regex = filter.getPathPattern();
+        if (regex != null && regex.matcher(path).matches()) {
           match = Math.max(match, 5);
         }
       }
@@ -359,16 +384,14 @@ public class LanguageServerRegistryImpl implements LanguageServerRegistry {
 
   @PreDestroy
   protected void shutdown() {
-    List<LanguageServer> allServers;
-    synchronized (initializedServers) {
-      allServers =
-          initializedServers
-              .values()
-              .stream()
-              .flatMap(l -> l.stream())
-              .map(s -> s.getServer())
-              .collect(Collectors.toList());
-    }
+    List<LanguageServer> allServers =
+        routing
+            .servers
+            .values()
+            .stream()
+            .flatMap(l -> l.stream())
+            .map(s -> s.getServer())
+            .collect(Collectors.toList());
     for (LanguageServer server : allServers) {
       server.shutdown();
       server.exit();
@@ -377,14 +400,7 @@ public class LanguageServerRegistryImpl implements LanguageServerRegistry {
 
   @Override
   public InitializedLanguageServer getServer(String id) {
-    for (List<InitializedLanguageServer> list : initializedServers.values()) {
-      for (InitializedLanguageServer initializedLanguageServer : list) {
-        if (initializedLanguageServer.getId().equals(id)) {
-          return initializedLanguageServer;
-        }
-      }
-    }
-    return null;
+    return routing.serversById.get(id);
   }
 
   private void initWorkspaceConfiguration() {
@@ -406,4 +422,49 @@ public class LanguageServerRegistryImpl implements LanguageServerRegistry {
       LOG.error("Did not manage to get workspace configuration: {}", workspaceId, e);
     }
   }
+
+  /**
+   * Initialized servers by project together with applicable servers of files computed from them.
+   * Computed routes are valid as long as the snapshot is current, a new snapshot starts with no
+   * routes.
+   */
+  private static class Routing {
+    /** Project path -> Initialized servers, never modified */
+    final Map<String, List<InitializedLanguageServer>> servers;
+    /** Server id -> Initialized server, never modified */
+    final Map<String, InitializedLanguageServer> serversById;
+    /** File uri -> Applicable servers */
+    final Map<String, Route> routes = new ConcurrentHashMap<>();
+
+    Routing(Map<String, List<InitializedLanguageServer>> servers) {
+      this.servers = servers;
+      Map<String, InitializedLanguageServer> byId = new HashMap<>();
+      for (List<InitializedLanguageServer> list : servers.values()) {
+        for (InitializedLanguageServer server : list) {
+          byId.put(server.getId(), server);
+        }
+      }
+      this.serversById = Collections.unmodifiableMap(byId);
+    }
+
+    /** Returns a new snapshot that also contains the given server. */
+    Routing with(String projectPath, InitializedLanguageServer server) {
+      Map<String, List<InitializedLanguageServer>> copy = new HashMap<>(servers);
+      List<InitializedLanguageServer> projectServers =
+          new ArrayList<>(copy.getOrDefault(projectPath, Collections.emptyList()));
+      projectServers.add(server);
+      copy.put(projectPath, Collections.unmodifiableList(projectServers));
+      return new Routing(Collections.unmodifiableMap(copy));
+    }
+  }
+
+  private static class Route {
+    final String projectPath;
+    final List<Collection<InitializedLanguageServer>> servers;
+
+    Route(String projectPath, List<Collection<InitializedLanguageServer>> servers) {
+      this.projectPath = projectPath;
+      this.servers = servers;
+    }
+  }
 }
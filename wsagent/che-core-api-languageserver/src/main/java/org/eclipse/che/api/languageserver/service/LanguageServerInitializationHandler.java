@@ -10,6 +10,8 @@
  */
 package org.eclipse.che.api.languageserver.service;
 
+import static org.eclipse.che.api.languageserver.util.OperationUtil.LANGUAGE_SERVER_ERROR;
+
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcException;
@@ -37,7 +39,7 @@ public class LanguageServerInitializationHandler {
                     registry.initialize(LanguageServiceUtils.prefixURI(path));
                 return capabilities == null ? null : new ServerCapabilitiesDto(capabilities);
               } catch (LanguageServerException e) {
-                throw new JsonRpcException(-27000, e.getMessage());
+                throw new JsonRpcException(LANGUAGE_SERVER_ERROR, e.getMessage());
               }
             });
   }
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.languageserver.service;
+
+import static java.lang.Thread.currentThread;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.eclipse.lsp4j.DidChangeTextDocumentParams;
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stage between {@code textDocument/didChange} notifications of clients and language servers.
+ * Consecutive changes of a document received during a configurable window are merged into a single
+ * notification with the version of the latest change, a full content change drops the changes of
+ * the document received before it. Pending changes are flushed with {@link #flush()} before any
+ * other request or notification is forwarded to language servers, so servers see the changes in
+ * the order they were made and before requests that depend on them.
+ */
+@Singleton
+public class TextDocumentChangeCoalescer {
+  private static final Logger LOG = LoggerFactory.getLogger(TextDocumentChangeCoalescer.class);
+
+  private final long windowMillis;
+
+  private final AtomicLong changesIn = new AtomicLong();
+  private final AtomicLong changesOut = new AtomicLong();
+
+  /** Serializes sending of changes, so changes of a document are never sent out of order. */
+  private final Object sendLock = new Object();
+
+  /** Document uri -> Merged changes of the document, guarded by this */
+  private Map<String, PendingChange> pending = new LinkedHashMap<>();
+
+  private boolean flushScheduled;
+
+  private ScheduledExecutorService executor;
+
+  @Inject
+  public TextDocumentChangeCoalescer(
+      @Named("che.languageserver.did_change.window_ms") long windowMillis) {
+    this.windowMillis = windowMillis;
+  }
+
+  @PostConstruct
+  void start() {
+    executor =
+        newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                .setNameFormat(TextDocumentChangeCoalescer.class.getSimpleName())
+                .setDaemon(true)
+                .build());
+  }
+
+  @PreDestroy
+  void stop() {
+    flush();
+    executor.shutdown();
+    try {
+      if (!executor.awaitTermination(5, SECONDS)) {
+        executor.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      executor.shutdownNow();
+      currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Adds a change of a document to the current window, the window is started by the first change
+   * added after the previous flush. Change is passed to the sender immediately if coalescing is
+   * disabled.
+   *
+   * @param params change of a document with already resolved uri
+   * @param sender forwards the merged change to language servers
+   */
+  void change(DidChangeTextDocumentParams params, Consumer<DidChangeTextDocumentParams> sender) {
+    changesIn.incrementAndGet();
+    if (windowMillis <= 0 || executor == null) {
+      send(params, sender);
+      return;
+    }
+
+    String uri = params.getTextDocument().getUri();
+    synchronized (this) {
+      PendingChange previous = pending.get(uri);
+      if (previous == null) {
+        pending.put(uri, new PendingChange(params, sender));
+      } else {
+        merge(previous.params, params);
+      }
+      if (!flushScheduled) {
+        try {
+          executor.schedule(this::flush, windowMillis, MILLISECONDS);
+          flushScheduled = true;
+        } catch (RejectedExecutionException e) {
+          LOG.debug("Change coalescer is stopped, sending change of '{}' immediately", uri);
+          pending.remove(uri);
+          send(params, sender);
+        }
+      }
+    }
+  }
+
+  /** Sends pending changes of all documents, returns immediately if there are none. */
+  public void flush() {
+    synchronized (sendLock) {
+      Map<String, PendingChange> batch;
+      synchronized (this) {
+        if (pending.isEmpty()) {
+          return;
+        }
+        batch = pending;
+        pending = new LinkedHashMap<>();
+        flushScheduled = false;
+      }
+
+      for (PendingChange change : batch.values()) {
+        send(change.params, change.sender);
+      }
+    }
+    LOG.debug(
+        "Sent coalesced document changes, changes in: {}, changes out: {}",
+        changesIn.get(),
+        changesOut.get());
+  }
+
+  /** Returns number of changes received from clients. */
+  public long getChangesIn() {
+    return changesIn.get();
+  }
+
+  /** Returns number of merged changes sent to language servers. */
+  public long getChangesOut() {
+    return changesOut.get();
+  }
+
+  /** Returns ratio of received changes that were merged into other changes. */
+  public double getMergeRatio() {
+    long in = changesIn.get();
+    return in == 0 ? 0 : 1 - (double) changesOut.get() / in;
+  }
+
+  /**
+   * Appends content changes of the next change to the previous one. Full content change makes all
+   * changes before it obsolete.
+   */
+  private static void merge(
+      DidChangeTextDocumentParams previous, DidChangeTextDocumentParams next) {
+    List<TextDocumentContentChangeEvent> changes = new ArrayList<>(previous.getContentChanges());
+    for (TextDocumentContentChangeEvent change : next.getContentChanges()) {
+      if (change.getRange() == null) {
+        changes.clear();
+      }
+      changes.add(change);
+    }
+    previous.setContentChanges(changes);
+    previous.setTextDocument(next.getTextDocument());
+    previous.setUri(next.getUri());
+  }
+
+  private void send(
+      DidChangeTextDocumentParams params, Consumer<DidChangeTextDocumentParams> sender) {
+    changesOut.incrementAndGet();
+    try {
+      sender.accept(params);
+    } catch (RuntimeException e) {
+      LOG.error("Failed to send change of document '{}'", params.getTextDocument().getUri(), e);
+    }
+  }
+
+  private static class PendingChange {
+    final DidChangeTextDocumentParams params;
+    final Consumer<DidChangeTextDocumentParams> sender;
+
+    PendingChange(
+        DidChangeTextDocumentParams params, Consumer<DidChangeTextDocumentParams> sender) {
+      this.params = params;
+      this.sender = sender;
+    }
+  }
+}
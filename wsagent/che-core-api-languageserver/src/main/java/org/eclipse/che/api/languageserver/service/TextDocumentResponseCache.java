@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.languageserver.service;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import org.eclipse.che.dto.server.JsonSerializable;
+import org.eclipse.lsp4j.Position;
+
+/**
+ * Cache of responses of language servers to read only text document requests, e.g. hover or
+ * document symbols, keyed by method, document uri and position in the document. Identical request
+ * that is received while the previous one is not answered yet shares its response.
+ *
+ * <p>Responses depend not only on the requested document but also on documents it refers to, so
+ * all responses are dropped with {@link #invalidate()} when any document is opened, changed, saved
+ * or closed, or when a file is changed on disk. Invalidation is done after the notification is sent
+ * to language servers, so a response to a request sent before the notification is not cached. Cache
+ * is bounded by number of responses and by their total size in characters of JSON, least recently
+ * used responses are evicted first.
+ *
+ * <p>Cached response is shared by all endpoints. Partial results are sent only to the endpoint
+ * whose request is sent to language servers, while identical requests answered from the cache or
+ * sharing a pending response get only the merged response.
+ */
+@Singleton
+public class TextDocumentResponseCache {
+
+  private final int maxEntries;
+  private final long maxBytes;
+
+  /** Key -> Response, in access order, guarded by this */
+  private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  /** Method -> Statistics of the method */
+  private final Map<String, Statistics> statistics = new ConcurrentHashMap<>();
+
+  /** Incremented on each invalidation, guarded by this */
+  private long generation;
+  /** Total size of completed responses, guarded by this */
+  private long bytes;
+
+  @Inject
+  public TextDocumentResponseCache(
+      @Named("che.languageserver.response_cache.max_entries") int maxEntries,
+      @Named("che.languageserver.response_cache.max_bytes") long maxBytes) {
+    this.maxEntries = maxEntries;
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * Returns cached response of the request or sends the request and caches its response.
+   *
+   * @param method name of the request method
+   * @param uri uri of the requested document
+   * @param position requested position in the document or null if the request is not bound to a
+   *     position
+   * @param request sends the request to language servers
+   */
+  <R> CompletableFuture<R> get(
+      String method, String uri, Position position, Supplier<CompletableFuture<R>> request) {
+    if (maxEntries <= 0) {
+      return request.get();
+    }
+
+    Statistics methodStatistics = statistics.computeIfAbsent(method, k -> new Statistics());
+    Key key = new Key(method, uri, position);
+    long requestGeneration;
+    synchronized (this) {
+      Entry entry = entries.get(key);
+      if (entry != null) {
+        methodStatistics.hits.incrementAndGet();
+        @SuppressWarnings("unchecked")
+        CompletableFuture<R> response = (CompletableFuture<R>) entry.response;
+        return response;
+      }
+      requestGeneration = generation;
+    }
+    methodStatistics.misses.incrementAndGet();
+
+    CompletableFuture<R> response = request.get();
+    Entry entry = new Entry(response);
+    synchronized (this) {
+      if (requestGeneration != generation) {
+        return response;
+      }
+      entries.put(key, entry);
+      evict();
+    }
+    response.whenComplete(
+        (result, error) -> {
+          synchronized (this) {
+            if (entries.get(key) != entry) {
+              return;
+            }
+            if (error != null) {
+              entries.remove(key);
+            } else {
+              entry.bytes = sizeOf(result);
+              bytes += entry.bytes;
+              evict();
+            }
+          }
+        });
+    return response;
+  }
+
+  /** Drops all cached responses. */
+  public synchronized void invalidate() {
+    generation++;
+    entries.clear();
+    bytes = 0;
+  }
+
+  /** Returns number of requests of the method answered from the cache. */
+  public long getHits(String method) {
+    Statistics methodStatistics = statistics.get(method);
+    return methodStatistics == null ? 0 : methodStatistics.hits.get();
+  }
+
+  /** Returns number of requests of the method sent to language servers. */
+  public long getMisses(String method) {
+    Statistics methodStatistics = statistics.get(method);
+    return methodStatistics == null ? 0 : methodStatistics.misses.get();
+  }
+
+  /** Returns ratio of requests of the method answered from the cache. */
+  public double getHitRate(String method) {
+    long hitCount = getHits(method);
+    long total = hitCount + getMisses(method);
+    return total == 0 ? 0 : (double) hitCount / total;
+  }
+
+  /** Returns number of cached responses. */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  private void evict() {
+    Iterator<Entry> it = entries.values().iterator();
+    while ((entries.size() > maxEntries || bytes > maxBytes) && it.hasNext()) {
+      Entry entry = it.next();
+      it.remove();
+      bytes -= entry.bytes;
+    }
+  }
+
+  /** Returns approximate size of the response as number of characters of its JSON. */
+  private static long sizeOf(Object result) {
+    if (result instanceof JsonSerializable) {
+      return ((JsonSerializable) result).toJson().length();
+    }
+    if (result instanceof Collection) {
+      long size = 0;
+      for (Object element : (Collection<?>) result) {
+        size += sizeOf(element);
+      }
+      return size;
+    }
+    return result == null ? 0 : String.valueOf(result).length();
+  }
+
+  private static class Key {
+    final String method;
+    final String uri;
+    final int line;
+    final int character;
+
+    Key(String method, String uri, Position position) {
+      this.method = method;
+      this.uri = uri;
+      this.line = position == null ? -1 : position.getLine();
+      this.character = position == null ? -1 : position.getCharacter();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) obj;
+      return line == other.line
+          && character == other.character
+          && method.equals(other.method)
+          && Objects.equals(uri, other.uri);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(method, uri, line, character);
+    }
+  }
+
+  private static class Entry {
+    final CompletableFuture<?> response;
+    long bytes;
+
+    Entry(CompletableFuture<?> response) {
+      this.response = response;
+    }
+  }
+
+  private static class Statistics {
+    final AtomicLong hits = new AtomicLong();
+    final AtomicLong misses = new AtomicLong();
+  }
+}
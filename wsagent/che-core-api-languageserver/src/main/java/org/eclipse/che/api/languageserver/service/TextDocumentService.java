@@ -15,6 +15,7 @@ import static org.eclipse.che.api.languageserver.service.LanguageServiceUtils.pr
 import static org.eclipse.che.api.languageserver.service.LanguageServiceUtils.prefixURI;
 import static org.eclipse.che.api.languageserver.service.LanguageServiceUtils.removePrefixUri;
 import static org.eclipse.che.api.languageserver.service.LanguageServiceUtils.removeUriScheme;
+import static org.eclipse.che.api.languageserver.util.OperationUtil.LANGUAGE_SERVER_ERROR;
 
 import com.google.inject.Singleton;
 import java.io.File;
@@ -31,6 +32,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -39,6 +41,7 @@ import javax.inject.Inject;
 import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcException;
 import org.eclipse.che.api.core.jsonrpc.commons.RequestHandlerConfigurator;
 import org.eclipse.che.api.languageserver.exception.LanguageServerException;
+import org.eclipse.che.api.languageserver.messager.PartialResultJsonRpcTransmitter;
 import org.eclipse.che.api.languageserver.registry.InitializedLanguageServer;
 import org.eclipse.che.api.languageserver.registry.LanguageServerRegistry;
 import org.eclipse.che.api.languageserver.registry.LanguageServerRegistryImpl;
@@ -103,31 +106,54 @@ public class TextDocumentService {
 
   private final LanguageServerRegistry languageServerRegistry;
   private final RequestHandlerConfigurator requestHandler;
+  private final PartialResultJsonRpcTransmitter partialResults;
+  private final TextDocumentChangeCoalescer changes;
+  private final TextDocumentResponseCache responses;
 
   @Inject
   public TextDocumentService(
-      LanguageServerRegistry languageServerRegistry, RequestHandlerConfigurator requestHandler) {
+      LanguageServerRegistry languageServerRegistry,
+      RequestHandlerConfigurator requestHandler,
+      PartialResultJsonRpcTransmitter partialResults,
+      TextDocumentChangeCoalescer changes,
+      TextDocumentResponseCache responses) {
     this.languageServerRegistry = languageServerRegistry;
     this.requestHandler = requestHandler;
+    this.partialResults = partialResults;
+    this.changes = changes;
+    this.responses = responses;
   }
 
   @PostConstruct
   public void configureMethods() {
-    dtoToDtoList(
-        "definition", TextDocumentPositionParams.class, LocationDto.class, this::definition);
-    dtoToDtoList("codeAction", CodeActionParams.class, CommandDto.class, this::codeAction);
-    dtoToDtoList(
+    dtoToPromiseDtoList(
+        "definition",
+        TextDocumentPositionParams.class,
+        LocationDto.class,
+        (endpointId, params) -> definition(params));
+    dtoToPromiseDtoList(
+        "codeAction",
+        CodeActionParams.class,
+        CommandDto.class,
+        (endpointId, params) -> codeAction(params));
+    dtoToPromiseDtoList(
         "documentSymbol",
         DocumentSymbolParams.class,
         SymbolInformationDto.class,
-        this::documentSymbol);
+        (endpointId, params) ->
+            responses.get(
+                "documentSymbol",
+                prefixURI(params.getTextDocument().getUri()),
+                null,
+                () -> documentSymbol(endpointId, params)));
     dtoToDtoList("formatting", DocumentFormattingParams.class, TextEditDto.class, this::formatting);
     dtoToDtoList(
         "rangeFormatting",
         DocumentRangeFormattingParams.class,
         TextEditDto.class,
         this::rangeFormatting);
-    dtoToDtoList("references", ReferenceParams.class, LocationDto.class, this::references);
+    dtoToPromiseDtoList(
+        "references", ReferenceParams.class, LocationDto.class, this::references);
     dtoToDtoList(
         "onTypeFormatting",
         DocumentOnTypeFormattingParams.class,
@@ -139,32 +165,61 @@ public class TextDocumentService {
         ExtendedCompletionItem.class,
         ExtendedCompletionItemDto.class,
         this::completionItemResolve);
-    dtoToDto(
+    dtoToPromiseDto(
         "documentHighlight",
         TextDocumentPositionParams.class,
-        DocumentHighlight.class,
-        this::documentHighlight);
-    dtoToDto(
+        DocumentHighlightDto.class,
+        (endpointId, params) ->
+            responses.get(
+                "documentHighlight",
+                prefixURI(params.getTextDocument().getUri()),
+                params.getPosition(),
+                () -> documentHighlight(params)));
+    dtoToPromiseDto(
         "completion",
         TextDocumentPositionParams.class,
         ExtendedCompletionListDto.class,
         this::completion);
-    dtoToDto("hover", TextDocumentPositionParams.class, HoverDto.class, this::hover);
-    dtoToDto(
+    dtoToPromiseDto(
+        "hover",
+        TextDocumentPositionParams.class,
+        HoverDto.class,
+        (endpointId, params) ->
+            responses.get(
+                "hover",
+                prefixURI(params.getTextDocument().getUri()),
+                params.getPosition(),
+                () -> hover(endpointId, params)));
+    dtoToPromiseDto(
         "signatureHelp",
         TextDocumentPositionParams.class,
         SignatureHelpDto.class,
-        this::signatureHelp);
-
-    dtoToDto("rename", RenameParams.class, RenameResultDto.class, this::rename);
-
-    dtoToNothing("didChange", DidChangeTextDocumentParams.class, this::didChange);
+        (endpointId, params) ->
+            responses.get(
+                "signatureHelp",
+                prefixURI(params.getTextDocument().getUri()),
+                params.getPosition(),
+                () -> signatureHelp(params)));
+
+    dtoToPromiseDto(
+        "rename",
+        RenameParams.class,
+        RenameResultDto.class,
+        (endpointId, params) -> rename(params));
+
+    // changes are not flushed before didChange, they are merged with the pending ones instead
+    requestHandler
+        .newConfiguration()
+        .methodName("textDocument/didChange")
+        .paramsAsDto(DidChangeTextDocumentParams.class)
+        .noResult()
+        .withConsumer(this::didChange);
     dtoToNothing("didClose", DidCloseTextDocumentParams.class, this::didClose);
     dtoToNothing("didOpen", DidOpenTextDocumentParams.class, this::didOpen);
     dtoToNothing("didSave", DidSaveTextDocumentParams.class, this::didSave);
   }
 
-  private List<CommandDto> codeAction(CodeActionParams params) {
+  private CompletableFuture<List<CommandDto>> codeAction(CodeActionParams params) {
     TextDocumentIdentifier textDocument = params.getTextDocument();
     String uri = prefixURI(textDocument.getUri());
     textDocument.setUri(uri);
@@ -198,18 +253,18 @@ public class TextDocumentService {
               return false;
             };
           };
-      OperationUtil.doInParallel(servers, op, 10000);
-      return result;
+      return OperationUtil.doInParallel(servers, op, 10000).thenApply(done -> result);
     } catch (LanguageServerException e) {
-      throw new JsonRpcException(-27000, e.getMessage());
+      throw new JsonRpcException(LANGUAGE_SERVER_ERROR, e.getMessage());
     }
   }
 
-  private ExtendedCompletionListDto completion(
-      TextDocumentPositionParams textDocumentPositionParams) {
+  private CompletableFuture<ExtendedCompletionListDto> completion(
+      String endpointId, TextDocumentPositionParams textDocumentPositionParams) {
     try {
       TextDocumentIdentifier textDocument = textDocumentPositionParams.getTextDocument();
-      String uri = prefixURI(textDocument.getUri());
+      String clientUri = textDocument.getUri();
+      String uri = prefixURI(clientUri);
       textDocument.setUri(uri);
       textDocumentPositionParams.setUri(prefixURI(textDocumentPositionParams.getUri()));
       ExtendedCompletionListDto[] result = new ExtendedCompletionListDto[1];
@@ -225,63 +280,71 @@ public class TextDocumentService {
             @Override
             public CompletableFuture<ExtendedCompletionListDto> start(
                 Collection<InitializedLanguageServer> element) {
-              return CompletableFuture.supplyAsync(
-                  () -> {
-                    ExtendedCompletionListDto res = new ExtendedCompletionListDto();
-                    List<ExtendedCompletionItem> items = new ArrayList<>();
-                    res.setItems(items);
-                    LSOperation<
-                            InitializedLanguageServer, Either<List<CompletionItem>, CompletionList>>
-                        op2 =
-                            new LSOperation<
-                                InitializedLanguageServer,
-                                Either<List<CompletionItem>, CompletionList>>() {
-
-                              @Override
-                              public boolean canDo(InitializedLanguageServer element) {
-                                return element
-                                        .getInitializeResult()
-                                        .getCapabilities()
-                                        .getCompletionProvider()
-                                    != null;
-                              }
-
-                              @Override
-                              public CompletableFuture<Either<List<CompletionItem>, CompletionList>>
-                                  start(InitializedLanguageServer element) {
-                                return element
-                                    .getServer()
-                                    .getTextDocumentService()
-                                    .completion(textDocumentPositionParams);
-                              }
-
-                              @Override
-                              public boolean handleResult(
-                                  InitializedLanguageServer element,
-                                  Either<List<CompletionItem>, CompletionList> result) {
-                                List<CompletionItem> itemList;
-                                if (result.isRight()) {
-                                  res.setInComplete(
-                                      res.isInComplete() && result.getRight().isIncomplete());
-                                  itemList = result.getRight().getItems();
-                                } else {
-                                  itemList = result.getLeft();
-                                }
-
-                                for (CompletionItem item : itemList) {
-                                  ExtendedCompletionItemDto exItem =
-                                      new ExtendedCompletionItemDto();
-                                  exItem.setItem(new CompletionItemDto(item));
-                                  exItem.setLanguageServerId(element.getId());
-                                  items.add(exItem);
-                                }
-                                return false;
-                              }
-                            };
-                    OperationUtil.doInParallel(element, op2, 30000);
-
-                    return res;
-                  });
+              ExtendedCompletionListDto res = new ExtendedCompletionListDto();
+              List<ExtendedCompletionItem> items = new ArrayList<>();
+              res.setItems(items);
+              LSOperation<InitializedLanguageServer, Either<List<CompletionItem>, CompletionList>>
+                  op2 =
+                      new LSOperation<
+                          InitializedLanguageServer,
+                          Either<List<CompletionItem>, CompletionList>>() {
+
+                        @Override
+                        public boolean canDo(InitializedLanguageServer element) {
+                          return element
+                                  .getInitializeResult()
+                                  .getCapabilities()
+                                  .getCompletionProvider()
+                              != null;
+                        }
+
+                        @Override
+                        public CompletableFuture<Either<List<CompletionItem>, CompletionList>>
+                            start(InitializedLanguageServer element) {
+                          return element
+                              .getServer()
+                              .getTextDocumentService()
+                              .completion(textDocumentPositionParams);
+                        }
+
+                        @Override
+                        public boolean handleResult(
+                            InitializedLanguageServer element,
+                            Either<List<CompletionItem>, CompletionList> result) {
+                          List<CompletionItem> itemList;
+                          if (result.isRight()) {
+                            res.setInComplete(
+                                res.isInComplete() && result.getRight().isIncomplete());
+                            itemList = result.getRight().getItems();
+                          } else {
+                            itemList = result.getLeft();
+                          }
+
+                          List<ExtendedCompletionItem> serverItems = new ArrayList<>();
+                          for (CompletionItem item : itemList) {
+                            ExtendedCompletionItemDto exItem = new ExtendedCompletionItemDto();
+                            exItem.setItem(new CompletionItemDto(item));
+                            exItem.setLanguageServerId(element.getId());
+                            serverItems.add(exItem);
+                          }
+                          items.addAll(serverItems);
+
+                          if (partialResults.isSubscribed(endpointId)) {
+                            ExtendedCompletionListDto partial = new ExtendedCompletionListDto();
+                            partial.setItems(serverItems);
+                            partial.setInComplete(
+                                result.isRight() && result.getRight().isIncomplete());
+                            partialResults.transmit(
+                                endpointId,
+                                "textDocument/completion",
+                                clientUri,
+                                element.getId(),
+                                partial);
+                          }
+                          return false;
+                        }
+                      };
+              return OperationUtil.doInParallel(element, op2, 30000).thenApply(done -> res);
             }
 
             @Override
@@ -291,16 +354,18 @@ public class TextDocumentService {
               return !list.getItems().isEmpty();
             }
           };
-      OperationUtil.doInSequence(
-          languageServerRegistry.getApplicableLanguageServers(uri), op, 10000);
-      return result[0];
+      return OperationUtil.doInSequence(
+              languageServerRegistry.getApplicableLanguageServers(uri), op, 10000)
+          .thenApply(done -> result[0]);
     } catch (LanguageServerException e) {
-      throw new JsonRpcException(-27000, e.getMessage());
+      throw new JsonRpcException(LANGUAGE_SERVER_ERROR, e.getMessage());
     }
   }
 
-  private List<SymbolInformationDto> documentSymbol(DocumentSymbolParams documentSymbolParams) {
-    String uri = prefixURI(documentSymbolParams.getTextDocument().getUri());
+  private CompletableFuture<List<SymbolInformationDto>> documentSymbol(
+      String endpointId, DocumentSymbolParams documentSymbolParams) {
+    String clientUri = documentSymbolParams.getTextDocument().getUri();
+    String uri = prefixURI(clientUri);
     documentSymbolParams.getTextDocument().setUri(uri);
     List<SymbolInformationDto> result = new ArrayList<>();
     try {
@@ -310,46 +375,56 @@ public class TextDocumentService {
               .stream()
               .flatMap(Collection::stream)
               .collect(Collectors.toList());
-      OperationUtil.doInParallel(
-          servers,
-          new LSOperation<InitializedLanguageServer, List<? extends SymbolInformation>>() {
-
-            @Override
-            public boolean canDo(InitializedLanguageServer element) {
-              return truish(
-                  element.getInitializeResult().getCapabilities().getDocumentSymbolProvider());
-            }
-
-            @Override
-            public CompletableFuture<List<? extends SymbolInformation>> start(
-                InitializedLanguageServer element) {
-              return element
-                  .getServer()
-                  .getTextDocumentService()
-                  .documentSymbol(documentSymbolParams);
-            }
+      return OperationUtil.doInParallel(
+              servers,
+              new LSOperation<InitializedLanguageServer, List<? extends SymbolInformation>>() {
+
+                @Override
+                public boolean canDo(InitializedLanguageServer element) {
+                  return truish(
+                      element.getInitializeResult().getCapabilities().getDocumentSymbolProvider());
+                }
 
-            @Override
-            public boolean handleResult(
-                InitializedLanguageServer element, List<? extends SymbolInformation> locations) {
-              locations.forEach(
-                  o -> {
-                    o.getLocation().setUri(removePrefixUri(o.getLocation().getUri()));
-                    result.add(new SymbolInformationDto(o));
-                  });
-              return true;
-            }
-          },
-          10000);
-      return result;
+                @Override
+                public CompletableFuture<List<? extends SymbolInformation>> start(
+                    InitializedLanguageServer element) {
+                  return element
+                      .getServer()
+                      .getTextDocumentService()
+                      .documentSymbol(documentSymbolParams);
+                }
 
+                @Override
+                public boolean handleResult(
+                    InitializedLanguageServer element,
+                    List<? extends SymbolInformation> locations) {
+                  List<SymbolInformationDto> serverResult = new ArrayList<>();
+                  locations.forEach(
+                      o -> {
+                        o.getLocation().setUri(removePrefixUri(o.getLocation().getUri()));
+                        serverResult.add(new SymbolInformationDto(o));
+                      });
+                  result.addAll(serverResult);
+                  partialResults.transmit(
+                      endpointId,
+                      "textDocument/documentSymbol",
+                      clientUri,
+                      element.getId(),
+                      serverResult);
+                  return true;
+                }
+              },
+              10000)
+          .thenApply(done -> result);
     } catch (LanguageServerException e) {
-      throw new JsonRpcException(-27000, e.getMessage());
+      throw new JsonRpcException(LANGUAGE_SERVER_ERROR, e.getMessage());
     }
   }
 
-  private List<LocationDto> references(ReferenceParams referenceParams) {
-    String uri = prefixURI(referenceParams.getTextDocument().getUri());
+  private CompletableFuture<List<LocationDto>> references(
+      String endpointId, ReferenceParams referenceParams) {
+    String clientUri = referenceParams.getTextDocument().getUri();
+    String uri = prefixURI(clientUri);
     referenceParams.getTextDocument().setUri(uri);
     List<LocationDto> result = new ArrayList<>();
     try {
@@ -359,41 +434,50 @@ public class TextDocumentService {
               .stream()
               .flatMap(Collection::stream)
               .collect(Collectors.toList());
-      OperationUtil.doInParallel(
-          servers,
-          new LSOperation<InitializedLanguageServer, List<? extends Location>>() {
-
-            @Override
-            public boolean canDo(InitializedLanguageServer element) {
-              return truish(
-                  element.getInitializeResult().getCapabilities().getReferencesProvider());
-            }
+      return OperationUtil.doInParallel(
+              servers,
+              new LSOperation<InitializedLanguageServer, List<? extends Location>>() {
+
+                @Override
+                public boolean canDo(InitializedLanguageServer element) {
+                  return truish(
+                      element.getInitializeResult().getCapabilities().getReferencesProvider());
+                }
 
-            @Override
-            public CompletableFuture<List<? extends Location>> start(
-                InitializedLanguageServer element) {
-              return element.getServer().getTextDocumentService().references(referenceParams);
-            }
+                @Override
+                public CompletableFuture<List<? extends Location>> start(
+                    InitializedLanguageServer element) {
+                  return element.getServer().getTextDocumentService().references(referenceParams);
+                }
 
-            @Override
-            public boolean handleResult(
-                InitializedLanguageServer element, List<? extends Location> locations) {
-              locations.forEach(
-                  o -> {
-                    o.setUri(removePrefixUri(o.getUri()));
-                    result.add(new LocationDto(o));
-                  });
-              return true;
-            }
-          },
-          30000);
-      return result;
+                @Override
+                public boolean handleResult(
+                    InitializedLanguageServer element, List<? extends Location> locations) {
+                  List<LocationDto> serverResult = new ArrayList<>();
+                  locations.forEach(
+                      o -> {
+                        o.setUri(removePrefixUri(o.getUri()));
+                        serverResult.add(new LocationDto(o));
+                      });
+                  result.addAll(serverResult);
+                  partialResults.transmit(
+                      endpointId,
+                      "textDocument/references",
+                      clientUri,
+                      element.getId(),
+                      serverResult);
+                  return true;
+                }
+              },
+              30000)
+          .thenApply(done -> result);
     } catch (LanguageServerException e) {
-      throw new JsonRpcException(-27000, e.getMessage());
+      throw new JsonRpcException(LANGUAGE_SERVER_ERROR, e.getMessage());
     }
   }
 
-  private List<LocationDto> definition(TextDocumentPositionParams textDocumentPositionParams) {
+  private CompletableFuture<List<LocationDto>> definition(
+      TextDocumentPositionParams textDocumentPositionParams) {
     String uri = prefixURI(textDocumentPositionParams.getTextDocument().getUri());
     textDocumentPositionParams.getTextDocument().setUri(uri);
     try {
@@ -404,40 +488,40 @@ public class TextDocumentService {
               .flatMap(Collection::stream)
               .collect(Collectors.toList());
       List<LocationDto> result = new ArrayList<>();
-      OperationUtil.doInParallel(
-          servers,
-          new LSOperation<InitializedLanguageServer, List<? extends Location>>() {
-
-            @Override
-            public boolean canDo(InitializedLanguageServer element) {
-              return truish(
-                  element.getInitializeResult().getCapabilities().getDefinitionProvider());
-            }
+      return OperationUtil.doInParallel(
+              servers,
+              new LSOperation<InitializedLanguageServer, List<? extends Location>>() {
+
+                @Override
+                public boolean canDo(InitializedLanguageServer element) {
+                  return truish(
+                      element.getInitializeResult().getCapabilities().getDefinitionProvider());
+                }
 
-            @Override
-            public CompletableFuture<List<? extends Location>> start(
-                InitializedLanguageServer element) {
-              return element
-                  .getServer()
-                  .getTextDocumentService()
-                  .definition(textDocumentPositionParams);
-            }
+                @Override
+                public CompletableFuture<List<? extends Location>> start(
+                    InitializedLanguageServer element) {
+                  return element
+                      .getServer()
+                      .getTextDocumentService()
+                      .definition(textDocumentPositionParams);
+                }
 
-            @Override
-            public boolean handleResult(
-                InitializedLanguageServer element, List<? extends Location> locations) {
-              locations.forEach(
-                  o -> {
-                    o.setUri(removePrefixUri(o.getUri()));
-                    result.add(new LocationDto(o));
-                  });
-              return true;
-            }
-          },
-          30000);
-      return result;
+                @Override
+                public boolean handleResult(
+                    InitializedLanguageServer element, List<? extends Location> locations) {
+                  locations.forEach(
+                      o -> {
+                        o.setUri(removePrefixUri(o.getUri()));
+                        result.add(new LocationDto(o));
+                      });
+                  return true;
+                }
+              },
+              30000)
+          .thenApply(done -> result);
     } catch (LanguageServerException e) {
-      throw new JsonRpcException(-27000, e.getMessage());
+      throw new JsonRpcException(LANGUAGE_SERVER_ERROR, e.getMessage());
     }
   }
 
@@ -459,12 +543,14 @@ public class TextDocumentService {
       }
       return new ExtendedCompletionItemDto(unresolved);
     } catch (InterruptedException | ExecutionException e) {
-      throw new JsonRpcException(-27000, e.getMessage());
+      throw new JsonRpcException(LANGUAGE_SERVER_ERROR, e.getMessage());
     }
   }
 
-  private HoverDto hover(TextDocumentPositionParams positionParams) {
-    String uri = prefixURI(positionParams.getTextDocument().getUri());
+  private CompletableFuture<HoverDto> hover(
+      String endpointId, TextDocumentPositionParams positionParams) {
+    String clientUri = positionParams.getTextDocument().getUri();
+    String uri = prefixURI(clientUri);
     positionParams.getTextDocument().setUri(uri);
     positionParams.setUri(prefixURI(positionParams.getUri()));
     HoverDto result = new HoverDto();
@@ -477,37 +563,40 @@ public class TextDocumentService {
               .stream()
               .flatMap(Collection::stream)
               .collect(Collectors.toList());
-      OperationUtil.doInParallel(
-          servers,
-          new LSOperation<InitializedLanguageServer, Hover>() {
+      return OperationUtil.doInParallel(
+              servers,
+              new LSOperation<InitializedLanguageServer, Hover>() {
 
-            @Override
-            public boolean canDo(InitializedLanguageServer element) {
-              return truish(element.getInitializeResult().getCapabilities().getHoverProvider());
-            }
+                @Override
+                public boolean canDo(InitializedLanguageServer element) {
+                  return truish(element.getInitializeResult().getCapabilities().getHoverProvider());
+                }
 
-            @Override
-            public CompletableFuture<Hover> start(InitializedLanguageServer element) {
-              return element.getServer().getTextDocumentService().hover(positionParams);
-            }
+                @Override
+                public CompletableFuture<Hover> start(InitializedLanguageServer element) {
+                  return element.getServer().getTextDocumentService().hover(positionParams);
+                }
 
-            @Override
-            public boolean handleResult(InitializedLanguageServer element, Hover hover) {
-              if (hover != null) {
-                HoverDto hoverDto = new HoverDto(hover);
-                result.getContents().addAll(hoverDto.getContents());
-              }
-              return true;
-            }
-          },
-          10000);
-      return result;
+                @Override
+                public boolean handleResult(InitializedLanguageServer element, Hover hover) {
+                  if (hover != null) {
+                    HoverDto hoverDto = new HoverDto(hover);
+                    result.getContents().addAll(hoverDto.getContents());
+                    partialResults.transmit(
+                        endpointId, "textDocument/hover", clientUri, element.getId(), hoverDto);
+                  }
+                  return true;
+                }
+              },
+              10000)
+          .thenApply(done -> result);
     } catch (LanguageServerException e) {
-      throw new JsonRpcException(-27000, e.getMessage());
+      throw new JsonRpcException(LANGUAGE_SERVER_ERROR, e.getMessage());
     }
   }
 
-  private SignatureHelpDto signatureHelp(TextDocumentPositionParams positionParams) {
+  private CompletableFuture<SignatureHelpDto> signatureHelp(
+      TextDocumentPositionParams positionParams) {
     String uri = prefixURI(positionParams.getTextDocument().getUri());
     positionParams.getTextDocument().setUri(uri);
     positionParams.setUri(prefixURI(positionParams.getUri()));
@@ -542,10 +631,9 @@ public class TextDocumentService {
               return false;
             }
           };
-      OperationUtil.doInSequence(servers, op, 10000);
-      return result[0];
+      return OperationUtil.doInSequence(servers, op, 10000).thenApply(done -> result[0]);
     } catch (LanguageServerException e) {
-      throw new JsonRpcException(-27000, e.getMessage());
+      throw new JsonRpcException(LANGUAGE_SERVER_ERROR, e.getMessage());
     }
   }
 
@@ -581,7 +669,7 @@ public class TextDocumentService {
         | ExecutionException
         | LanguageServerException
         | TimeoutException e) {
-      throw new JsonRpcException(-27000, e.getMessage());
+      throw new JsonRpcException(LANGUAGE_SERVER_ERROR, e.getMessage());
     }
   }
 
@@ -614,7 +702,7 @@ public class TextDocumentService {
               .map(TextEditDto::new)
               .collect(Collectors.toList());
     } catch (InterruptedException | ExecutionException | LanguageServerException e) {
-      throw new JsonRpcException(-27000, e.getMessage());
+      throw new JsonRpcException(LANGUAGE_SERVER_ERROR, e.getMessage());
     }
   }
 
@@ -647,15 +735,21 @@ public class TextDocumentService {
               .map(TextEditDto::new)
               .collect(Collectors.toList());
     } catch (InterruptedException | ExecutionException | LanguageServerException e) {
-      throw new JsonRpcException(-27000, e.getMessage());
+      throw new JsonRpcException(LANGUAGE_SERVER_ERROR, e.getMessage());
     }
   }
 
   private void didChange(DidChangeTextDocumentParams didChangeTextDocumentParams) {
+    String uri = prefixURI(didChangeTextDocumentParams.getTextDocument().getUri());
+    didChangeTextDocumentParams.getTextDocument().setUri(uri);
+    didChangeTextDocumentParams.setUri(prefixURI(didChangeTextDocumentParams.getUri()));
+    responses.invalidate();
+    changes.change(didChangeTextDocumentParams, this::sendDidChange);
+  }
+
+  private void sendDidChange(DidChangeTextDocumentParams didChangeTextDocumentParams) {
     try {
-      String uri = prefixURI(didChangeTextDocumentParams.getTextDocument().getUri());
-      didChangeTextDocumentParams.getTextDocument().setUri(uri);
-      didChangeTextDocumentParams.setUri(prefixURI(didChangeTextDocumentParams.getUri()));
+      String uri = didChangeTextDocumentParams.getTextDocument().getUri();
       languageServerRegistry
           .getApplicableLanguageServers(uri)
           .stream()
@@ -667,6 +761,8 @@ public class TextDocumentService {
               });
     } catch (LanguageServerException e) {
       LOG.error("Error trying to process textDocument/didChange", e);
+    } finally {
+      responses.invalidate();
     }
   }
 
@@ -685,6 +781,8 @@ public class TextDocumentService {
               });
     } catch (LanguageServerException e) {
       LOG.error("Error trying to process textDocument/didOpen", e);
+    } finally {
+      responses.invalidate();
     }
   }
 
@@ -703,6 +801,8 @@ public class TextDocumentService {
               });
     } catch (LanguageServerException e) {
       LOG.error("Error trying to process textDocument/didOpen", e);
+    } finally {
+      responses.invalidate();
     }
   }
 
@@ -721,16 +821,18 @@ public class TextDocumentService {
               });
     } catch (LanguageServerException e) {
       LOG.error("Error trying to process textDocument/didSave", e);
+    } finally {
+      responses.invalidate();
     }
   }
 
-  private DocumentHighlightDto documentHighlight(
+  private CompletableFuture<DocumentHighlightDto> documentHighlight(
       TextDocumentPositionParams textDocumentPositionParams) {
     try {
       String uri = prefixURI(textDocumentPositionParams.getTextDocument().getUri());
       textDocumentPositionParams.getTextDocument().setUri(uri);
       @SuppressWarnings("unchecked")
-      List<DocumentHighlightDto>[] result = new List[1];
+      List<DocumentHighlightDto>[] result = new List[] {new ArrayList<>()};
       LSOperation<Collection<InitializedLanguageServer>, List<DocumentHighlightDto>> op =
           new LSOperation<Collection<InitializedLanguageServer>, List<DocumentHighlightDto>>() {
 
@@ -742,43 +844,39 @@ public class TextDocumentService {
             @Override
             public CompletableFuture<List<DocumentHighlightDto>> start(
                 Collection<InitializedLanguageServer> element) {
-              return CompletableFuture.supplyAsync(
-                  () -> {
-                    List<DocumentHighlightDto> res = new ArrayList<>();
-                    LSOperation<InitializedLanguageServer, List<? extends DocumentHighlight>> op2 =
-                        new LSOperation<
-                            InitializedLanguageServer, List<? extends DocumentHighlight>>() {
-
-                          @Override
-                          public boolean canDo(InitializedLanguageServer element) {
-                            return truish(
-                                element
-                                    .getInitializeResult()
-                                    .getCapabilities()
-                                    .getDocumentHighlightProvider());
-                          }
-
-                          @Override
-                          public CompletableFuture<List<? extends DocumentHighlight>> start(
-                              InitializedLanguageServer element) {
-                            return element
-                                .getServer()
-                                .getTextDocumentService()
-                                .documentHighlight(textDocumentPositionParams);
-                          }
-
-                          @Override
-                          public boolean handleResult(
-                              InitializedLanguageServer element,
-                              List<? extends DocumentHighlight> result) {
-
-                            return false;
-                          }
-                        };
-                    OperationUtil.doInParallel(element, op2, 10000);
-
-                    return res;
-                  });
+              List<DocumentHighlightDto> res = new ArrayList<>();
+              LSOperation<InitializedLanguageServer, List<? extends DocumentHighlight>> op2 =
+                  new LSOperation<InitializedLanguageServer, List<? extends DocumentHighlight>>() {
+
+                    @Override
+                    public boolean canDo(InitializedLanguageServer element) {
+                      return truish(
+                          element
+                              .getInitializeResult()
+                              .getCapabilities()
+                              .getDocumentHighlightProvider());
+                    }
+
+                    @Override
+                    public CompletableFuture<List<? extends DocumentHighlight>> start(
+                        InitializedLanguageServer element) {
+                      return element
+                          .getServer()
+                          .getTextDocumentService()
+                          .documentHighlight(textDocumentPositionParams);
+                    }
+
+                    @Override
+                    public boolean handleResult(
+                        InitializedLanguageServer element,
+                        List<? extends DocumentHighlight> result) {
+                      if (result != null) {
+                        result.forEach(highlight -> res.add(new DocumentHighlightDto(highlight)));
+                      }
+                      return false;
+                    }
+                  };
+              return OperationUtil.doInParallel(element, op2, 10000).thenApply(done -> res);
             }
 
             @Override
@@ -788,19 +886,15 @@ public class TextDocumentService {
               return !list.isEmpty();
             }
           };
-      OperationUtil.doInSequence(
-          languageServerRegistry.getApplicableLanguageServers(uri), op, 10000);
-
-      if (!result[0].isEmpty()) {
-        return result[0].get(0);
-      }
-      return null;
+      return OperationUtil.doInSequence(
+              languageServerRegistry.getApplicableLanguageServers(uri), op, 10000)
+          .thenApply(done -> result[0].isEmpty() ? null : result[0].get(0));
     } catch (LanguageServerException e) {
-      throw new JsonRpcException(-27000, e.getMessage());
+      throw new JsonRpcException(LANGUAGE_SERVER_ERROR, e.getMessage());
     }
   }
 
-  private RenameResultDto rename(RenameParams renameParams) {
+  private CompletableFuture<RenameResultDto> rename(RenameParams renameParams) {
     String uri = prefixURI(renameParams.getTextDocument().getUri());
     renameParams.getTextDocument().setUri(uri);
     Map<String, ExtendedWorkspaceEdit> edits = new ConcurrentHashMap<>();
@@ -832,11 +926,11 @@ public class TextDocumentService {
               return true;
             }
           };
-      OperationUtil.doInParallel(servers, op, TimeUnit.SECONDS.toMillis(30));
+      return OperationUtil.doInParallel(servers, op, TimeUnit.SECONDS.toMillis(30))
+          .thenApply(done -> new RenameResultDto(new RenameResult(edits)));
     } catch (LanguageServerException e) {
-      throw new JsonRpcException(-27000, e.getMessage());
+      throw new JsonRpcException(LANGUAGE_SERVER_ERROR, e.getMessage());
     }
-    return new RenameResultDto(new RenameResult(edits));
   }
 
   private void addRenameResult(
@@ -915,7 +1009,11 @@ public class TextDocumentService {
         .methodName("textDocument/" + name)
         .paramsAsDto(pClass)
         .noResult()
-        .withConsumer(consumer);
+        .withConsumer(
+            params -> {
+              changes.flush();
+              consumer.accept(params);
+            });
   }
 
   private <P, R> void dtoToDtoList(
@@ -925,7 +1023,11 @@ public class TextDocumentService {
         .methodName("textDocument/" + name)
         .paramsAsDto(pClass)
         .resultAsListOfDto(rClass)
-        .withFunction(function);
+        .withFunction(
+            params -> {
+              changes.flush();
+              return function.apply(params);
+            });
   }
 
   private <P, R> void dtoToDto(
@@ -935,7 +1037,45 @@ public class TextDocumentService {
         .methodName("textDocument/" + name)
         .paramsAsDto(pClass)
         .resultAsDto(rClass)
-        .withFunction(function);
+        .withFunction(
+            params -> {
+              changes.flush();
+              return function.apply(params);
+            });
+  }
+
+  private <P, R> void dtoToPromiseDtoList(
+      String name,
+      Class<P> pClass,
+      Class<R> rClass,
+      BiFunction<String, P, CompletableFuture<List<R>>> function) {
+    requestHandler
+        .newConfiguration()
+        .methodName("textDocument/" + name)
+        .paramsAsDto(pClass)
+        .resultAsPromiseListOfDto(rClass)
+        .withPromiseBiFunction(
+            (endpointId, params) -> {
+              changes.flush();
+              return OperationUtil.toJsonRpcPromise(function.apply(endpointId, params));
+            });
+  }
+
+  private <P, R> void dtoToPromiseDto(
+      String name,
+      Class<P> pClass,
+      Class<R> rClass,
+      BiFunction<String, P, CompletableFuture<R>> function) {
+    requestHandler
+        .newConfiguration()
+        .methodName("textDocument/" + name)
+        .paramsAsDto(pClass)
+        .resultAsPromiseDto(rClass)
+        .withPromiseBiFunction(
+            (endpointId, params) -> {
+              changes.flush();
+              return OperationUtil.toJsonRpcPromise(function.apply(endpointId, params));
+            });
   }
 
   private boolean truish(Boolean b) {
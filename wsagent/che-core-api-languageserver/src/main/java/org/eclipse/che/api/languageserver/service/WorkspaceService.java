@@ -14,6 +14,7 @@ import static org.eclipse.che.api.fs.server.WsPathUtils.absolutize;
 import static org.eclipse.che.api.languageserver.service.LanguageServiceUtils.prefixURI;
 import static org.eclipse.che.api.languageserver.service.LanguageServiceUtils.removePrefixUri;
 import static org.eclipse.che.api.languageserver.service.LanguageServiceUtils.truish;
+import static org.eclipse.che.api.languageserver.util.OperationUtil.LANGUAGE_SERVER_ERROR;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
@@ -62,15 +63,18 @@ public class WorkspaceService {
   private final FsManager fsManager;
   private LanguageServerRegistry registry;
   private RequestHandlerConfigurator requestHandler;
+  private final TextDocumentChangeCoalescer changes;
 
   @Inject
   public WorkspaceService(
       LanguageServerRegistry registry,
       RequestHandlerConfigurator requestHandler,
-      FsManager fsManager) {
+      FsManager fsManager,
+      TextDocumentChangeCoalescer changes) {
     this.registry = registry;
     this.requestHandler = requestHandler;
     this.fsManager = fsManager;
+    this.changes = changes;
   }
 
   @PostConstruct
@@ -79,8 +83,8 @@ public class WorkspaceService {
         .newConfiguration()
         .methodName("workspace/symbol")
         .paramsAsDto(ExtendedWorkspaceSymbolParams.class)
-        .resultAsListOfDto(SymbolInformationDto.class)
-        .withFunction(this::symbol);
+        .resultAsPromiseListOfDto(SymbolInformationDto.class)
+        .withPromise(params -> OperationUtil.toJsonRpcPromise(symbol(params)));
     requestHandler
         .newConfiguration()
         .methodName("workspace/editFile")
@@ -123,15 +127,18 @@ public class WorkspaceService {
         return undo.stream().map(TextEditDto::new).collect(Collectors.toList());
       } else {
         LOG.error("did not find file {} or it is a directory", params.getUri());
-        throw new JsonRpcException(-27000, "File not found for edit: " + params.getUri());
+        throw new JsonRpcException(
+            LANGUAGE_SERVER_ERROR, "File not found for edit: " + params.getUri());
       }
     } catch (ServerException | NotFoundException | ConflictException e) {
       LOG.error("error editing file", e);
-      throw new JsonRpcException(-27000, e.getMessage());
+      throw new JsonRpcException(LANGUAGE_SERVER_ERROR, e.getMessage());
     }
   }
 
-  private List<SymbolInformationDto> symbol(ExtendedWorkspaceSymbolParams workspaceSymbolParams) {
+  private CompletableFuture<List<SymbolInformationDto>> symbol(
+      ExtendedWorkspaceSymbolParams workspaceSymbolParams) {
+    changes.flush();
     List<SymbolInformationDto> result = new ArrayList<>();
     List<InitializedLanguageServer> servers;
     try {
@@ -141,38 +148,39 @@ public class WorkspaceService {
               .stream()
               .flatMap(Collection::stream)
               .collect(Collectors.toList());
-      OperationUtil.doInParallel(
-          servers,
-          new LSOperation<InitializedLanguageServer, List<? extends SymbolInformation>>() {
+      return OperationUtil.doInParallel(
+              servers,
+              new LSOperation<InitializedLanguageServer, List<? extends SymbolInformation>>() {
 
-            @Override
-            public boolean canDo(InitializedLanguageServer element) {
-              return truish(
-                  element.getInitializeResult().getCapabilities().getWorkspaceSymbolProvider());
-            }
+                @Override
+                public boolean canDo(InitializedLanguageServer element) {
+                  return truish(
+                      element.getInitializeResult().getCapabilities().getWorkspaceSymbolProvider());
+                }
 
-            @Override
-            public CompletableFuture<List<? extends SymbolInformation>> start(
-                InitializedLanguageServer element) {
-              return element.getServer().getWorkspaceService().symbol(workspaceSymbolParams);
-            }
+                @Override
+                public CompletableFuture<List<? extends SymbolInformation>> start(
+                    InitializedLanguageServer element) {
+                  return element.getServer().getWorkspaceService().symbol(workspaceSymbolParams);
+                }
 
-            @Override
-            public boolean handleResult(
-                InitializedLanguageServer element, List<? extends SymbolInformation> locations) {
-              locations.forEach(
-                  o -> {
-                    o.getLocation().setUri(removePrefixUri(o.getLocation().getUri()));
-                    result.add(new SymbolInformationDto(o));
-                  });
-              return true;
-            }
-          },
-          10000);
-      return result;
+                @Override
+                public boolean handleResult(
+                    InitializedLanguageServer element,
+                    List<? extends SymbolInformation> locations) {
+                  locations.forEach(
+                      o -> {
+                        o.getLocation().setUri(removePrefixUri(o.getLocation().getUri()));
+                        result.add(new SymbolInformationDto(o));
+                      });
+                  return true;
+                }
+              },
+              10000)
+          .thenApply(done -> result);
     } catch (LanguageServerException e) {
       LOG.error("error getting symbol", e);
-      throw new JsonRpcException(-27000, e.getMessage());
+      throw new JsonRpcException(LANGUAGE_SERVER_ERROR, e.getMessage());
     }
   }
 }
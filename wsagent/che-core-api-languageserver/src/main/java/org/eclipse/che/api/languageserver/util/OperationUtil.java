@@ -10,110 +10,183 @@
  */
 package org.eclipse.che.api.languageserver.util;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcError;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcException;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcPromise;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Executes operations against collections of language servers without blocking the calling thread.
+ * Each method returns a future that is completed when the operation is finished on all elements or
+ * when the timeout elapses, requests that are not answered before the timeout are cancelled.
+ */
 public class OperationUtil {
+  /** Code of JSON-RPC error that is sent when a language server request fails. */
+  public static final int LANGUAGE_SERVER_ERROR = -27000;
+
   private static final Logger LOG = LoggerFactory.getLogger(OperationUtil.class);
 
+  private static final ScheduledExecutorService TIMEOUTS =
+      Executors.newSingleThreadScheduledExecutor(
+          new ThreadFactoryBuilder()
+              .setNameFormat("LanguageServerOperationTimeouts")
+              .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+              .setDaemon(true)
+              .build());
+
   /**
    * Execute the given operation on each element of the collection in sequence. Stops as soon as
-   * {@link LSOperation#canDo(Object)} returns true.
+   * {@link LSOperation#handleResult(Object, Object)} returns true or the timeout elapses.
    *
-   * @param collection
-   * @param op
-   * @param timeoutMillis
+   * @param collection elements to execute the operation on
+   * @param op operation
+   * @param timeoutMillis timeout of the whole sequence
+   * @return future that is completed when the sequence is stopped
    */
-  public static <C, R> void doInSequence(
+  public static <C, R> CompletableFuture<Void> doInSequence(
       Collection<C> collection, LSOperation<C, R> op, long timeoutMillis) {
+    CompletableFuture<Void> done = new CompletableFuture<>();
     long endTime = System.currentTimeMillis() + timeoutMillis;
-    for (C element : collection) {
-      if (op.canDo(element)) {
-        CompletableFuture<R> future = op.start(element);
-        try {
-          R result = future.get(Math.max(endTime - timeoutMillis, 1), TimeUnit.MILLISECONDS);
-          if (op.handleResult(element, result)) {
-            return;
-          }
-        } catch (InterruptedException e) {
-          LOG.info("Thread interrupted", e);
-          Thread.currentThread().interrupt();
-        } catch (ExecutionException e) {
-          LOG.info("Exception occurred in op", e);
-        } catch (TimeoutException e) {
-          future.cancel(true);
+    doNext(collection.iterator(), op, endTime, done);
+    return done;
+  }
+
+  private static <C, R> void doNext(
+      Iterator<C> iterator, LSOperation<C, R> op, long endTime, CompletableFuture<Void> done) {
+    try {
+      while (iterator.hasNext()) {
+        C element = iterator.next();
+        long remaining = endTime - System.currentTimeMillis();
+        if (remaining <= 0) {
+          break;
+        }
+        if (op.canDo(element)) {
+          CompletableFuture<R> future = op.start(element);
+          ScheduledFuture<?> timeout =
+              TIMEOUTS.schedule(() -> future.cancel(true), remaining, TimeUnit.MILLISECONDS);
+          future.whenComplete(
+              (result, error) -> {
+                timeout.cancel(false);
+                try {
+                  if (error == null && op.handleResult(element, result)) {
+                    done.complete(null);
+                    return;
+                  }
+                  logFailure(error);
+                } catch (RuntimeException e) {
+                  done.completeExceptionally(e);
+                  return;
+                }
+                doNext(iterator, op, endTime, done);
+              });
+          return;
         }
       }
+      done.complete(null);
+    } catch (RuntimeException e) {
+      done.completeExceptionally(e);
     }
   }
 
   /**
    * Executes the given operation in parallel for each element in the collection. Failures in any of
-   * the operations are ignored.
+   * the operations are ignored. Results are handled one at a time, as soon as they are received.
    *
-   * @param collection
-   * @param op
-   * @param timeoutMillis
+   * @param collection elements to execute the operation on
+   * @param op operation
+   * @param timeoutMillis timeout after which requests that are not answered yet are cancelled
+   * @return future that is completed when all results are handled or the timeout elapses
    */
-  public static <C, R> void doInParallel(
+  public static <C, R> CompletableFuture<Void> doInParallel(
       Collection<C> collection, LSOperation<C, R> op, long timeoutMillis) {
     Object lock = new Object();
-    List<CompletableFuture<?>> pendingResponses = new ArrayList<>();
-
-    for (C element : collection) {
-      if (op.canDo(element)) {
-        CompletableFuture<R> future = op.start(element);
-        synchronized (lock) {
+    List<CompletableFuture<R>> pendingResponses = new ArrayList<>();
+    List<CompletableFuture<Void>> handledResponses = new ArrayList<>();
+    try {
+      for (C element : collection) {
+        if (op.canDo(element)) {
+          CompletableFuture<R> future = op.start(element);
           pendingResponses.add(future);
-          lock.notifyAll();
-        }
-        future
-            .thenAccept(
-                result -> {
-                  synchronized (lock) {
-                    if (!future.isCancelled()) {
-                      op.handleResult(element, result);
-                      pendingResponses.remove(future);
-                      lock.notifyAll();
+          handledResponses.add(
+              future.handle(
+                  (result, error) -> {
+                    if (error == null) {
+                      synchronized (lock) {
+                        op.handleResult(element, result);
+                      }
+                    } else {
+                      logFailure(error);
                     }
-                  }
-                })
-            .exceptionally(
-                (t) -> {
-                  LOG.info("Exception occurred in request", t);
-                  synchronized (lock) {
-                    pendingResponses.remove(future);
-                    lock.notifyAll();
-                  }
-                  return null;
-                });
+                    return null;
+                  }));
+        }
       }
+    } catch (RuntimeException e) {
+      pendingResponses.forEach(pending -> pending.cancel(true));
+      CompletableFuture<Void> failed = new CompletableFuture<>();
+      failed.completeExceptionally(e);
+      return failed;
     }
 
-    long endTime = System.currentTimeMillis() + 5000;
-
-    try {
-      synchronized (lock) {
-        while (System.currentTimeMillis() < endTime && pendingResponses.size() > 0) {
-          lock.wait(endTime - System.currentTimeMillis());
-        }
-      }
-    } catch (InterruptedException e) {
-      LOG.info("Thread interrupted", e);
-      Thread.currentThread().interrupt();
+    CompletableFuture<Void> all =
+        CompletableFuture.allOf(handledResponses.toArray(new CompletableFuture[0]));
+    if (!all.isDone()) {
+      ScheduledFuture<?> timeout =
+          TIMEOUTS.schedule(
+              () -> pendingResponses.forEach(pending -> pending.cancel(true)),
+              timeoutMillis,
+              TimeUnit.MILLISECONDS);
+      all.whenComplete((result, error) -> timeout.cancel(false));
     }
-    synchronized (lock) {
-      for (CompletableFuture<?> pending : new ArrayList<>(pendingResponses)) {
-        pending.cancel(true);
-      }
-      lock.notifyAll();
+    return all;
+  }
+
+  /**
+   * Adapts the future to the promise of JSON-RPC response, so the response is sent when the future
+   * is completed and no thread waits for it.
+   */
+  public static <R> JsonRpcPromise<R> toJsonRpcPromise(CompletableFuture<R> future) {
+    JsonRpcPromise<R> promise = new JsonRpcPromise<>();
+    future.whenComplete(
+        (result, error) -> {
+          if (error == null) {
+            promise.resolve(null, result);
+          } else {
+            Throwable cause = unwrap(error);
+            LOG.debug("Language server request failed", cause);
+            int code =
+                cause instanceof JsonRpcException
+                    ? ((JsonRpcException) cause).getCode()
+                    : LANGUAGE_SERVER_ERROR;
+            promise.reject(null, new JsonRpcError(code, String.valueOf(cause.getMessage())));
+          }
+        });
+    return promise;
+  }
+
+  private static void logFailure(Throwable error) {
+    if (error != null && !(unwrap(error) instanceof CancellationException)) {
+      LOG.info("Exception occurred in request", error);
     }
   }
+
+  private static Throwable unwrap(Throwable error) {
+    return error instanceof CompletionException && error.getCause() != null
+        ? error.getCause()
+        : error;
+  }
 }
@@ -25,6 +25,7 @@ import org.eclipse.che.api.languageserver.registry.LanguageServerDescription;
 import org.eclipse.che.api.languageserver.registry.LanguageServerFileWatcher;
 import org.eclipse.che.api.languageserver.registry.ServerInitializer;
 import org.eclipse.che.api.languageserver.registry.ServerInitializerObserver;
+import org.eclipse.che.api.languageserver.service.TextDocumentResponseCache;
 import org.eclipse.che.api.watcher.server.FileWatcherManager;
 import org.eclipse.lsp4j.services.LanguageServer;
 import org.eclipse.lsp4j.services.WorkspaceService;
@@ -44,6 +45,7 @@ public class LanguageServerFileWatcherTest {
   @Mock private LanguageServer server;
   @Mock private FileWatcherManager watcherManager;
   @Mock private ServerInitializer initializer;
+  @Mock private TextDocumentResponseCache responseCache;
   @Captor private ArgumentCaptor<Consumer<String>> changedCaptor;
 
   private LanguageServerFileWatcher watcher;
@@ -57,7 +59,7 @@ public class LanguageServerFileWatcherTest {
 
   @Test
   public void testShouldAddObserver() throws Exception {
-    watcher = new LanguageServerFileWatcher(watcherManager, initializer);
+    watcher = new LanguageServerFileWatcher(watcherManager, initializer, responseCache);
     verify(initializer).addObserver(any());
   }
 
@@ -65,7 +67,7 @@ public class LanguageServerFileWatcherTest {
   public void testRegisterFileWatcher() throws Exception {
     ArgumentCaptor<ServerInitializerObserver> argumentCaptor =
         ArgumentCaptor.forClass(ServerInitializerObserver.class);
-    watcher = new LanguageServerFileWatcher(watcherManager, initializer);
+    watcher = new LanguageServerFileWatcher(watcherManager, initializer, responseCache);
     verify(initializer).addObserver(argumentCaptor.capture());
     ServerInitializerObserver value = argumentCaptor.getValue();
 
@@ -87,7 +89,7 @@ public class LanguageServerFileWatcherTest {
   public void testSendNotification() throws Exception {
     ArgumentCaptor<ServerInitializerObserver> argumentCaptor =
         ArgumentCaptor.forClass(ServerInitializerObserver.class);
-    watcher = new LanguageServerFileWatcher(watcherManager, initializer);
+    watcher = new LanguageServerFileWatcher(watcherManager, initializer, responseCache);
     verify(initializer).addObserver(argumentCaptor.capture());
     ServerInitializerObserver value = argumentCaptor.getValue();
 
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.languageserver.messager;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import org.eclipse.che.api.core.jsonrpc.commons.RequestTransmitter;
+import org.eclipse.che.api.core.jsonrpc.commons.transmission.EndpointIdConfigurator;
+import org.eclipse.che.api.core.jsonrpc.commons.transmission.MethodNameConfigurator;
+import org.eclipse.che.api.core.jsonrpc.commons.transmission.ParamsConfigurator;
+import org.eclipse.che.api.core.jsonrpc.commons.transmission.SendConfiguratorFromOne;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/** Tests for {@link PartialResultJsonRpcTransmitter} */
+@Listeners(MockitoTestNGListener.class)
+public class PartialResultJsonRpcTransmitterTest {
+
+  private static final String URI = "file:///projects/project/test.txt";
+
+  @Mock private RequestTransmitter requestTransmitter;
+  @Mock private EndpointIdConfigurator endpointIdConfigurator;
+  @Mock private MethodNameConfigurator methodNameConfigurator;
+  @Mock private ParamsConfigurator paramsConfigurator;
+  @Mock private SendConfiguratorFromOne<Object> sendConfigurator;
+
+  private PartialResultJsonRpcTransmitter transmitter;
+
+  @BeforeMethod
+  public void setUp() {
+    transmitter = new PartialResultJsonRpcTransmitter(requestTransmitter);
+    transmitter.subscribeEndpoint("first");
+  }
+
+  @Test
+  public void shouldSendPartialResultOnlyToSubscribedEndpoint() {
+    when(requestTransmitter.newRequest()).thenReturn(endpointIdConfigurator);
+    when(endpointIdConfigurator.endpointId(anyString())).thenReturn(methodNameConfigurator);
+    when(methodNameConfigurator.methodName(anyString())).thenReturn(paramsConfigurator);
+    when(paramsConfigurator.paramsAsDto(any())).thenReturn(sendConfigurator);
+
+    transmitter.transmit("first", "textDocument/hover", URI, "server", null);
+    transmitter.transmit("second", "textDocument/hover", URI, "server", null);
+
+    verify(endpointIdConfigurator).endpointId("first");
+    verify(endpointIdConfigurator, never()).endpointId("second");
+    verify(methodNameConfigurator).methodName("textDocument/partialResult");
+    verify(sendConfigurator).sendAndSkipResult();
+    assertTrue(transmitter.isSubscribed("first"));
+    assertFalse(transmitter.isSubscribed("second"));
+  }
+
+  @Test
+  public void shouldNotSendPartialResultAfterEndpointUnsubscribed() {
+    transmitter.unsubscribeEndpoint("first");
+
+    transmitter.transmit("first", "textDocument/hover", URI, "server", null);
+
+    verify(requestTransmitter, never()).newRequest();
+    assertFalse(transmitter.isSubscribed("first"));
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.languageserver.messager;
+
+import static org.eclipse.che.api.project.shared.dto.event.FileTrackingOperationDto.Type.START;
+import static org.eclipse.che.api.project.shared.dto.event.FileTrackingOperationDto.Type.STOP;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.che.api.core.jsonrpc.commons.RequestTransmitter;
+import org.eclipse.che.api.core.jsonrpc.commons.transmission.EndpointIdConfigurator;
+import org.eclipse.che.api.core.jsonrpc.commons.transmission.MethodNameConfigurator;
+import org.eclipse.che.api.core.jsonrpc.commons.transmission.ParamsConfigurator;
+import org.eclipse.che.api.core.jsonrpc.commons.transmission.SendConfiguratorFromOne;
+import org.eclipse.che.api.languageserver.shared.model.ExtendedPublishDiagnosticsParams;
+import org.eclipse.che.api.project.shared.dto.event.FileTrackingOperationDto;
+import org.eclipse.che.api.project.shared.dto.event.FileTrackingOperationDto.Type;
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.PublishDiagnosticsParams;
+import org.eclipse.lsp4j.Range;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/** Tests for {@link PublishDiagnosticsParamsJsonRpcTransmitter} */
+@Listeners(MockitoTestNGListener.class)
+public class PublishDiagnosticsParamsJsonRpcTransmitterTest {
+
+  private static final String PATH = "/project/test.txt";
+  private static final String URI = "file:///projects" + PATH;
+
+  @Mock private RequestTransmitter requestTransmitter;
+  @Mock private EndpointIdConfigurator endpointIdConfigurator;
+  @Mock private MethodNameConfigurator methodNameConfigurator;
+  @Mock private ParamsConfigurator paramsConfigurator;
+  @Mock private SendConfiguratorFromOne<Object> sendConfigurator;
+
+  private PublishDiagnosticsParamsJsonRpcTransmitter transmitter;
+
+  @BeforeMethod
+  public void setUp() {
+    when(requestTransmitter.newRequest()).thenReturn(endpointIdConfigurator);
+    when(endpointIdConfigurator.endpointId(anyString())).thenReturn(methodNameConfigurator);
+    when(methodNameConfigurator.methodName(anyString())).thenReturn(paramsConfigurator);
+    when(paramsConfigurator.paramsAsDto(any())).thenReturn(sendConfigurator);
+
+    transmitter = new PublishDiagnosticsParamsJsonRpcTransmitter(requestTransmitter);
+    transmitter.subscribeEndpoint("first");
+    transmitter.subscribeEndpoint("second");
+  }
+
+  @Test
+  public void shouldSendDiagnosticsOnlyToEndpointsTrackingDocument() {
+    transmitter.onFileTrackingOperation("first", operation(START, PATH));
+
+    transmitter.publish(diagnostics("problem"));
+
+    verify(endpointIdConfigurator).endpointId("first");
+    verify(endpointIdConfigurator, never()).endpointId("second");
+  }
+
+  @Test
+  public void shouldNotSendDiagnosticsAfterEndpointStoppedTrackingDocument() {
+    transmitter.onFileTrackingOperation("first", operation(START, PATH));
+    transmitter.onFileTrackingOperation("first", operation(STOP, PATH));
+
+    transmitter.publish(diagnostics("problem"));
+
+    verify(endpointIdConfigurator, never()).endpointId(anyString());
+  }
+
+  @Test
+  public void shouldNotSendUnchangedDiagnosticsAgain() {
+    transmitter.onFileTrackingOperation("first", operation(START, PATH));
+
+    transmitter.publish(diagnostics("problem"));
+    transmitter.publish(diagnostics("problem"));
+    transmitter.publish(diagnostics("other problem"));
+
+    verify(endpointIdConfigurator, times(2)).endpointId("first");
+  }
+
+  @Test
+  public void shouldSendClearedDiagnostics() {
+    transmitter.onFileTrackingOperation("first", operation(START, PATH));
+
+    transmitter.publish(diagnostics());
+    transmitter.publish(diagnostics("problem"));
+    transmitter.publish(diagnostics());
+
+    verify(endpointIdConfigurator, times(2)).endpointId("first");
+  }
+
+  @Test
+  public void shouldSendLatestDiagnosticsWhenEndpointStartsTrackingDocument() {
+    transmitter.publish(diagnostics("problem"));
+
+    transmitter.onFileTrackingOperation("second", operation(START, PATH));
+
+    verify(endpointIdConfigurator).endpointId("second");
+    verify(endpointIdConfigurator, never()).endpointId("first");
+  }
+
+  @Test
+  public void shouldForgetEndpointWhenItIsRemoved() {
+    transmitter.onFileTrackingOperation("first", operation(START, PATH));
+
+    transmitter.removeEndpoint("first");
+    transmitter.subscribeEndpoint("first");
+    transmitter.publish(diagnostics("problem"));
+
+    verify(endpointIdConfigurator, never()).endpointId(anyString());
+  }
+
+  private static FileTrackingOperationDto operation(Type type, String path) {
+    FileTrackingOperationDto operation = mock(FileTrackingOperationDto.class);
+    when(operation.getType()).thenReturn(type);
+    when(operation.getPath()).thenReturn(path);
+    return operation;
+  }
+
+  private static ExtendedPublishDiagnosticsParams diagnostics(String... messages) {
+    List<Diagnostic> diagnostics = new ArrayList<>();
+    for (String message : messages) {
+      diagnostics.add(new Diagnostic(new Range(new Position(0, 0), new Position(0, 1)), message));
+    }
+    return new ExtendedPublishDiagnosticsParams(
+        "server", new PublishDiagnosticsParams(URI, diagnostics));
+  }
+}
@@ -19,9 +19,13 @@ import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import javax.inject.Provider;
 import org.eclipse.che.api.core.model.workspace.Workspace;
@@ -141,4 +145,46 @@ public class LanguageServerRegistryImplTest {
     Mockito.verify(initializer)
         .initialize(eq(languageServerLauncher), any(LanguageClient.class), eq(PROJECT_PATH));
   }
+
+  @Test
+  public void shouldReuseApplicableServersOfTheSameFile() throws Exception {
+    registry.initialize(PREFIX + FILE_PATH);
+
+    List<Collection<InitializedLanguageServer>> first =
+        registry.getApplicableLanguageServers(PREFIX + FILE_PATH);
+    List<Collection<InitializedLanguageServer>> second =
+        registry.getApplicableLanguageServers(PREFIX + FILE_PATH);
+
+    assertEquals(first.size(), 1);
+    assertSame(second, first);
+  }
+
+  @Test
+  public void shouldFindServersInitializedAfterFileWasRouted() throws Exception {
+    assertTrue(registry.getApplicableLanguageServers(PREFIX + FILE_PATH).isEmpty());
+
+    registry.initialize(PREFIX + FILE_PATH);
+
+    List<Collection<InitializedLanguageServer>> servers =
+        registry.getApplicableLanguageServers(PREFIX + FILE_PATH);
+    assertEquals(servers.size(), 1);
+    InitializedLanguageServer server = servers.get(0).iterator().next();
+    assertEquals(server.getServer(), languageServer);
+    assertSame(registry.getServer(server.getId()), server);
+  }
+
+  @Test
+  public void shouldMatchFileByPathRegexOfDocumentFilter() throws Exception {
+    serverDescription =
+        new LanguageServerDescription(
+            "foo",
+            Collections.singletonList("other"),
+            Collections.singletonList(new DocumentFilter(null, ".*\\.txt", null)));
+    when(languageServerLauncher.getDescription()).thenReturn(serverDescription);
+
+    registry.initialize(PREFIX + FILE_PATH);
+
+    assertEquals(registry.getApplicableLanguageServers(PREFIX + FILE_PATH).size(), 1);
+    assertTrue(registry.getApplicableLanguageServers(PREFIX + "/projects/1/test.md").isEmpty());
+  }
 }
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.languageserver.service;
+
+import static java.util.Arrays.asList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.lsp4j.DidChangeTextDocumentParams;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
+import org.eclipse.lsp4j.VersionedTextDocumentIdentifier;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+/** Tests for {@link TextDocumentChangeCoalescer} */
+public class TextDocumentChangeCoalescerTest {
+
+  private static final String URI = "file:///projects/test/test.txt";
+
+  private final List<DidChangeTextDocumentParams> sent = new ArrayList<>();
+  private TextDocumentChangeCoalescer coalescer;
+
+  @AfterMethod
+  public void tearDown() {
+    sent.clear();
+    coalescer.stop();
+  }
+
+  @Test
+  public void shouldMergeChangesOfDocumentUntilFlush() {
+    coalescer = start(60_000);
+    TextDocumentContentChangeEvent first = incremental("a");
+    TextDocumentContentChangeEvent second = incremental("b");
+
+    coalescer.change(change(URI, 1, first), sent::add);
+    coalescer.change(change(URI, 2, second), sent::add);
+    assertTrue(sent.isEmpty());
+
+    coalescer.flush();
+
+    assertEquals(sent.size(), 1);
+    assertEquals(sent.get(0).getTextDocument().getVersion(), Integer.valueOf(2));
+    assertEquals(sent.get(0).getContentChanges(), asList(first, second));
+    assertEquals(coalescer.getChangesIn(), 2);
+    assertEquals(coalescer.getChangesOut(), 1);
+    assertEquals(coalescer.getMergeRatio(), 0.5);
+  }
+
+  @Test
+  public void shouldDropChangesBeforeFullContentChange() {
+    coalescer = start(60_000);
+    TextDocumentContentChangeEvent full = new TextDocumentContentChangeEvent("content");
+    TextDocumentContentChangeEvent last = incremental("b");
+
+    coalescer.change(change(URI, 1, incremental("a")), sent::add);
+    coalescer.change(change(URI, 2, full), sent::add);
+    coalescer.change(change(URI, 3, last), sent::add);
+    coalescer.flush();
+
+    assertEquals(sent.size(), 1);
+    assertEquals(sent.get(0).getContentChanges(), asList(full, last));
+  }
+
+  @Test
+  public void shouldNotMergeChangesOfDifferentDocuments() {
+    coalescer = start(60_000);
+
+    coalescer.change(change(URI, 1, incremental("a")), sent::add);
+    coalescer.change(change("file:///projects/test/other.txt", 1, incremental("b")), sent::add);
+    coalescer.flush();
+
+    assertEquals(sent.size(), 2);
+  }
+
+  @Test
+  public void shouldSendChangesAfterWindow() throws Exception {
+    coalescer = start(10);
+
+    coalescer.change(change(URI, 1, incremental("a")), sent::add);
+
+    long deadline = System.currentTimeMillis() + 5_000;
+    while (coalescer.getChangesOut() == 0 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(coalescer.getChangesOut(), 1);
+  }
+
+  @Test
+  public void shouldSendChangesImmediatelyIfMergingIsDisabled() {
+    coalescer = start(0);
+
+    coalescer.change(change(URI, 1, incremental("a")), sent::add);
+
+    assertEquals(sent.size(), 1);
+  }
+
+  private static TextDocumentChangeCoalescer start(long windowMillis) {
+    TextDocumentChangeCoalescer coalescer = new TextDocumentChangeCoalescer(windowMillis);
+    coalescer.start();
+    return coalescer;
+  }
+
+  private static TextDocumentContentChangeEvent incremental(String text) {
+    return new TextDocumentContentChangeEvent(new Range(), text.length(), text);
+  }
+
+  private static DidChangeTextDocumentParams change(
+      String uri, int version, TextDocumentContentChangeEvent event) {
+    VersionedTextDocumentIdentifier textDocument = new VersionedTextDocumentIdentifier();
+    textDocument.setUri(uri);
+    textDocument.setVersion(version);
+    return new DidChangeTextDocumentParams(textDocument, new ArrayList<>(asList(event)));
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.languageserver.service;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.lsp4j.Position;
+import org.testng.annotations.Test;
+
+/** Tests for {@link TextDocumentResponseCache} */
+public class TextDocumentResponseCacheTest {
+
+  private static final String URI = "file:///projects/test/test.txt";
+
+  private final AtomicInteger requests = new AtomicInteger();
+
+  @Test
+  public void shouldReuseResponseOfTheSameRequest() {
+    TextDocumentResponseCache cache = new TextDocumentResponseCache(10, 1000);
+
+    CompletableFuture<String> first = cache.get("hover", URI, new Position(1, 2), this::request);
+    CompletableFuture<String> second = cache.get("hover", URI, new Position(1, 2), this::request);
+
+    assertSame(second, first);
+    assertEquals(requests.get(), 1);
+    assertEquals(cache.getHits("hover"), 1);
+    assertEquals(cache.getMisses("hover"), 1);
+    assertEquals(cache.getHitRate("hover"), 0.5);
+  }
+
+  @Test
+  public void shouldNotReuseResponseOfAnotherPositionOrMethod() {
+    TextDocumentResponseCache cache = new TextDocumentResponseCache(10, 1000);
+
+    cache.get("hover", URI, new Position(1, 2), this::request);
+    cache.get("hover", URI, new Position(1, 3), this::request);
+    cache.get("signatureHelp", URI, new Position(1, 2), this::request);
+
+    assertEquals(requests.get(), 3);
+  }
+
+  @Test
+  public void shouldSendRequestAgainAfterInvalidation() {
+    TextDocumentResponseCache cache = new TextDocumentResponseCache(10, 1000);
+
+    cache.get("documentSymbol", URI, null, this::request);
+    cache.invalidate();
+    cache.get("documentSymbol", URI, null, this::request);
+
+    assertEquals(requests.get(), 2);
+    assertEquals(cache.getHits("documentSymbol"), 0);
+  }
+
+  @Test
+  public void shouldNotCacheResponseOfRequestSentBeforeInvalidation() {
+    TextDocumentResponseCache cache = new TextDocumentResponseCache(10, 1000);
+
+    cache.get(
+        "hover",
+        URI,
+        new Position(1, 2),
+        () -> {
+          cache.invalidate();
+          return request();
+        });
+
+    assertEquals(cache.size(), 0);
+  }
+
+  @Test
+  public void shouldNotCacheFailedResponse() {
+    TextDocumentResponseCache cache = new TextDocumentResponseCache(10, 1000);
+    CompletableFuture<String> failed = new CompletableFuture<>();
+
+    cache.get("hover", URI, new Position(1, 2), () -> failed);
+    failed.completeExceptionally(new RuntimeException("failed"));
+
+    assertEquals(cache.size(), 0);
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsedResponses() {
+    TextDocumentResponseCache cache = new TextDocumentResponseCache(2, 1000);
+
+    cache.get("hover", URI, new Position(1, 1), this::request);
+    cache.get("hover", URI, new Position(1, 2), this::request);
+    cache.get("hover", URI, new Position(1, 1), this::request);
+    cache.get("hover", URI, new Position(1, 3), this::request);
+    cache.get("hover", URI, new Position(1, 1), this::request);
+
+    assertEquals(cache.size(), 2);
+    assertEquals(requests.get(), 3);
+  }
+
+  @Test
+  public void shouldEvictResponsesWhenTotalSizeIsExceeded() {
+    TextDocumentResponseCache cache = new TextDocumentResponseCache(10, 15);
+
+    cache.get("hover", URI, new Position(1, 1), this::request);
+    cache.get("hover", URI, new Position(1, 2), this::request);
+
+    assertEquals(cache.size(), 1);
+  }
+
+  private CompletableFuture<String> request() {
+    return completedFuture("response-" + requests.incrementAndGet());
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.languageserver.util;
+
+import static java.util.Arrays.asList;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.eclipse.che.api.languageserver.util.OperationUtil.LANGUAGE_SERVER_ERROR;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcError;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcException;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcPromise;
+import org.testng.annotations.Test;
+
+/** Tests for {@link OperationUtil} */
+public class OperationUtilTest {
+
+  @Test
+  public void shouldStopSequenceOnFirstHandledResult() throws Exception {
+    TestOperation op = new TestOperation("second");
+    op.responses.put("first", completedFuture("first result"));
+    op.responses.put("second", completedFuture("second result"));
+    op.responses.put("third", completedFuture("third result"));
+
+    OperationUtil.doInSequence(asList("first", "second", "third"), op, 5_000).get(5, SECONDS);
+
+    assertEquals(op.started, asList("first", "second"));
+    assertEquals(op.handled, asList("first result", "second result"));
+  }
+
+  @Test
+  public void shouldCancelRequestAndStopSequenceWhenTimeoutElapses() throws Exception {
+    TestOperation op = new TestOperation(null);
+    CompletableFuture<String> pending = new CompletableFuture<>();
+    op.responses.put("first", pending);
+    op.responses.put("second", completedFuture("second result"));
+
+    OperationUtil.doInSequence(asList("first", "second"), op, 50).get(5, SECONDS);
+
+    assertTrue(pending.isCancelled());
+    assertEquals(op.started, asList("first"));
+    assertTrue(op.handled.isEmpty());
+  }
+
+  @Test
+  public void shouldHandleResultsOfAllParallelRequests() throws Exception {
+    TestOperation op = new TestOperation(null);
+    CompletableFuture<String> late = new CompletableFuture<>();
+    op.responses.put("first", late);
+    op.responses.put("second", completedFuture("second result"));
+    op.responses.put("third", failedFuture(new RuntimeException("failed")));
+
+    CompletableFuture<Void> done =
+        OperationUtil.doInParallel(asList("first", "second", "third"), op, 5_000);
+    late.complete("first result");
+    done.get(5, SECONDS);
+
+    assertEquals(op.started, asList("first", "second", "third"));
+    assertEquals(op.handled, asList("second result", "first result"));
+  }
+
+  @Test
+  public void shouldCancelParallelRequestsWhenTimeoutElapses() throws Exception {
+    TestOperation op = new TestOperation(null);
+    CompletableFuture<String> pending = new CompletableFuture<>();
+    op.responses.put("first", pending);
+    op.responses.put("second", completedFuture("second result"));
+
+    OperationUtil.doInParallel(asList("first", "second"), op, 50).get(5, SECONDS);
+
+    assertTrue(pending.isCancelled());
+    assertEquals(op.handled, asList("second result"));
+  }
+
+  @Test
+  public void shouldResolvePromiseWithResultOfFuture() throws Exception {
+    AtomicReference<String> result = new AtomicReference<>();
+
+    JsonRpcPromise<String> promise = OperationUtil.toJsonRpcPromise(completedFuture("result"));
+    promise.onSuccess(result::set);
+
+    assertEquals(result.get(), "result");
+  }
+
+  @Test
+  public void shouldRejectPromiseWithCodeOfJsonRpcException() throws Exception {
+    AtomicReference<JsonRpcError> error = new AtomicReference<>();
+
+    JsonRpcPromise<String> promise =
+        OperationUtil.toJsonRpcPromise(failedFuture(new JsonRpcException(-32000, "busy")));
+    promise.onFailure(error::set);
+
+    assertEquals(error.get().getCode(), -32000);
+    assertEquals(error.get().getMessage(), "busy");
+  }
+
+  @Test
+  public void shouldRejectPromiseWithLanguageServerErrorCodeOfOtherException() throws Exception {
+    AtomicReference<JsonRpcError> error = new AtomicReference<>();
+    AtomicReference<String> result = new AtomicReference<>();
+
+    JsonRpcPromise<String> promise =
+        OperationUtil.toJsonRpcPromise(failedFuture(new IllegalStateException("failed")));
+    promise.onSuccess(result::set).onFailure(error::set);
+
+    assertEquals(error.get().getCode(), LANGUAGE_SERVER_ERROR);
+    assertEquals(error.get().getMessage(), "failed");
+    assertNull(result.get());
+  }
+
+  private static <T> CompletableFuture<T> failedFuture(Throwable error) {
+    CompletableFuture<T> future = new CompletableFuture<>();
+    future.completeExceptionally(error);
+    return future;
+  }
+
+  private static class TestOperation implements LSOperation<String, String> {
+    final Map<String, CompletableFuture<String>> responses = new HashMap<>();
+    final List<String> started = new ArrayList<>();
+    final List<String> handled = new ArrayList<>();
+    final String stopOn;
+
+    TestOperation(String stopOn) {
+      this.stopOn = stopOn;
+    }
+
+    @Override
+    public boolean canDo(String element) {
+      return true;
+    }
+
+    @Override
+    public CompletableFuture<String> start(String element) {
+      started.add(element);
+      return responses.get(element);
+    }
+
+    @Override
+    public boolean handleResult(String element, String result) {
+      handled.add(result);
+      return element.equals(stopOn);
+    }
+  }
+}
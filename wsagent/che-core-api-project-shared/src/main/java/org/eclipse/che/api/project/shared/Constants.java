@@ -36,6 +36,7 @@ public class Constants {
   public static final String COMMANDS_ATTRIBUTE_DESCRIPTION = "Project-related commands";
 
   public static final String EVENT_IMPORT_OUTPUT_PROGRESS = "importProject/progress";
+  public static final String EVENT_SEARCH_RESULT = "searchProject/result";
 
   public static final String WS_PATH_STRICT = "WS_PATH_STRICT";
 
@@ -33,4 +33,19 @@ public interface ProjectSearchRequestDto {
   int getSkipCount();
 
   ProjectSearchRequestDto withSkipCount(int skipCount);
+
+  /** Position of the end of previous page returned with it, when set skip count is not used. */
+  String getCursor();
+
+  ProjectSearchRequestDto withCursor(String cursor);
+
+  /** Send found items as separate events as soon as they are found. */
+  boolean isStreaming();
+
+  ProjectSearchRequestDto withStreaming(boolean streaming);
+
+  /** Client defined identifier of the search, it is sent back with streamed items. */
+  String getSearchId();
+
+  ProjectSearchRequestDto withSearchId(String searchId);
 }
@@ -22,4 +22,13 @@ public interface ProjectSearchResponseDto {
   long getTotalHits();
 
   ProjectSearchResponseDto withTotalHits(long totalHits);
+
+  /** Cursor for retrieving next page, absent if there are no more items. */
+  String getNextPageCursor();
+
+  ProjectSearchResponseDto withNextPageCursor(String nextPageCursor);
+
+  String getSearchId();
+
+  ProjectSearchResponseDto withSearchId(String searchId);
 }
@@ -11,26 +11,29 @@
 package org.eclipse.che.api.editor.server.impl;
 
 import static java.lang.String.format;
+import static java.nio.charset.Charset.defaultCharset;
 import static org.eclipse.che.api.project.shared.dto.EditorChangesDto.Type.INSERT;
 import static org.eclipse.che.api.project.shared.dto.EditorChangesDto.Type.REMOVE;
 
 import com.google.common.io.ByteStreams;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Arrays;
+import java.io.Reader;
+import org.apache.commons.io.input.ReaderInputStream;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.project.shared.dto.EditorChangesDto;
 
 /**
- * In-memory implementation of working copy for opened editor on client.
+ * In-memory implementation of working copy for opened editor on client. Content is kept as {@link
+ * Rope}, so editor changes are applied without copying the whole content and readers of the
+ * content get immutable snapshots of it, bytes are produced only when they are requested.
  *
  * @author Roman Nikitenko
  */
 public class EditorWorkingCopy {
   private String path;
   private String projectPath;
-  private byte[] content;
+  private volatile Rope content;
 
   /**
    * Creates a working copy for opened editor on client.
@@ -42,7 +45,7 @@ public class EditorWorkingCopy {
   public EditorWorkingCopy(String path, String projectPath, byte[] content) {
     this.path = path;
     this.projectPath = projectPath;
-    this.content = Arrays.copyOf(content, content.length);
+    updateContent(content);
   }
 
   /**
@@ -51,10 +54,7 @@ public class EditorWorkingCopy {
    * @return content ot the working copy
    */
   public byte[] getContentAsBytes() {
-    if (content == null) {
-      content = new byte[0];
-    }
-    return Arrays.copyOf(content, content.length);
+    return getContentAsString().getBytes();
   }
 
   /**
@@ -63,7 +63,26 @@ public class EditorWorkingCopy {
    * @return content ot the working copy
    */
   public String getContentAsString() {
-    return new String(getContentAsBytes());
+    return content.toString();
+  }
+
+  /**
+   * Gets snapshot of content of the working copy, the snapshot is not changed when the working
+   * copy is updated and its characters are not copied.
+   *
+   * @return content ot the working copy
+   */
+  public CharSequence getContentAsCharSequence() {
+    return content;
+  }
+
+  /**
+   * Gets reader of snapshot of content of the working copy.
+   *
+   * @return content ot the working copy
+   */
+  public Reader getContentAsReader() {
+    return content.reader();
   }
 
   /**
@@ -72,7 +91,7 @@ public class EditorWorkingCopy {
    * @return content ot the working copy
    */
   public InputStream getContent() {
-    return new ByteArrayInputStream(getContentAsBytes());
+    return new ReaderInputStream(getContentAsReader(), defaultCharset());
   }
 
   /**
@@ -82,8 +101,7 @@ public class EditorWorkingCopy {
    * @return current working copy after updating content
    */
   EditorWorkingCopy updateContent(byte[] content) {
-    this.content = content;
-    return this;
+    return updateContent(new String(content));
   }
 
   /**
@@ -93,7 +111,7 @@ public class EditorWorkingCopy {
    * @return current working copy after updating content
    */
   EditorWorkingCopy updateContent(String content) {
-    updateContent(content.getBytes());
+    this.content = Rope.of(content);
     return this;
   }
 
@@ -126,20 +144,18 @@ public class EditorWorkingCopy {
       int offset = changes.getOffset();
       int removedCharCount = changes.getRemovedCharCount();
 
-      String newContent = null;
-      String oldContent = getContentAsString();
+      Rope newContent = null;
       EditorChangesDto.Type type = changes.getType();
       if (type == INSERT) {
-        newContent = new StringBuilder(oldContent).insert(offset, text).toString();
+        newContent = content.insert(offset, text);
       }
 
       if (type == REMOVE && removedCharCount > 0) {
-        newContent =
-            new StringBuilder(oldContent).delete(offset, offset + removedCharCount).toString();
+        newContent = content.delete(offset, offset + removedCharCount);
       }
 
       if (newContent != null) {
-        updateContent(newContent);
+        content = newContent;
       }
     }
   }
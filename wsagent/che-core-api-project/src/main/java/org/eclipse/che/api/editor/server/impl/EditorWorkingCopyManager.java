@@ -14,13 +14,12 @@ import static java.io.File.separator;
 import static java.nio.charset.Charset.defaultCharset;
 import static org.eclipse.che.api.project.shared.Constants.CHE_DIR;
 
-import com.google.common.hash.Hashing;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.HashMap;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.util.Map;
-import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -57,7 +56,7 @@ public class EditorWorkingCopyManager {
 
   private final FsManager fsManager;
   private final ProjectManager projectManager;
-  private final Map<String, EditorWorkingCopy> workingCopiesStorage = new HashMap<>();
+  private final Map<String, EditorWorkingCopy> workingCopiesStorage = new ConcurrentHashMap<>();
 
   private EventService eventService;
   private RequestTransmitter transmitter;
@@ -224,29 +223,15 @@ public class EditorWorkingCopyManager {
   private boolean isWorkingCopyHasUnsavedData(String originalFilePath) {
     try {
       EditorWorkingCopy workingCopy = workingCopiesStorage.get(originalFilePath);
-      if (workingCopy == null) {
+      if (workingCopy == null || !fsManager.existsAsFile(originalFilePath)) {
         return false;
       }
-      String workingCopyContent = workingCopy.getContentAsString();
 
-      String originalFileContent;
-      if (fsManager.existsAsFile(originalFilePath)) {
-        InputStream inputStream = fsManager.read(originalFilePath);
-        originalFileContent = IOUtils.toString(inputStream);
-      } else {
-        return false;
+      try (Reader originalFileContent =
+              new InputStreamReader(fsManager.read(originalFilePath), defaultCharset());
+          Reader workingCopyContent = workingCopy.getContentAsReader()) {
+        return !IOUtils.contentEquals(workingCopyContent, originalFileContent);
       }
-
-      if (workingCopyContent == null || originalFileContent == null) {
-        return false;
-      }
-
-      String workingCopyHash =
-          Hashing.md5().hashString(workingCopyContent, defaultCharset()).toString();
-      String originalFileHash =
-          Hashing.md5().hashString(originalFileContent, defaultCharset()).toString();
-
-      return !Objects.equals(workingCopyHash, originalFileHash);
     } catch (NotFoundException | IOException | ServerException | ConflictException e) {
       LOG.error(e.getLocalizedMessage());
     }
@@ -271,9 +256,9 @@ public class EditorWorkingCopyManager {
 
     EditorWorkingCopy workingCopy =
         new EditorWorkingCopy(workingCopyPath, projectPath, fileContentAsBytes);
-    workingCopiesStorage.put(filePath, workingCopy);
+    EditorWorkingCopy existing = workingCopiesStorage.putIfAbsent(filePath, workingCopy);
 
-    return workingCopy;
+    return existing != null ? existing : workingCopy;
   }
 
   private void createPersistentWorkingCopy(String originalFilePath)
@@ -284,7 +269,6 @@ public class EditorWorkingCopyManager {
         throw new ServerException("Can not create recovery file for " + originalFilePath);
       }
 
-      byte[] content = workingCopy.getContentAsBytes();
       String projectPath = workingCopy.getProjectPath();
       String workingCopyStoragePath = projectPath + WORKING_COPIES_DIR;
 
@@ -299,9 +283,9 @@ public class EditorWorkingCopyManager {
       if (fsManager.existsAsFile(originalFilePath)) {
         String workingCopyFilePath =
             workingCopyStoragePath + separator + toWorkingCopyPath(originalFilePath);
-        fsManager.update(workingCopyFilePath, new ByteArrayInputStream(content));
+        fsManager.update(workingCopyFilePath, workingCopy.getContent());
       } else {
-        fsManager.createFile(workingCopy.getPath(), new ByteArrayInputStream(content));
+        fsManager.createFile(workingCopy.getPath(), workingCopy.getContent());
       }
 
     } catch (ConflictException | NotFoundException e) {
@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.editor.server.impl;
+
+import static java.lang.String.format;
+
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Immutable text represented as a height balanced tree of text chunks. Inserting and removing text
+ * creates a new rope that shares all untouched chunks with the original one and takes O(log n)
+ * time, so editing of a large text does not copy it.
+ */
+final class Rope implements CharSequence {
+  static final Rope EMPTY = new Rope(Leaf.EMPTY);
+
+  private static final int MAX_LEAF_LENGTH = 1024;
+
+  private final Node root;
+
+  /** Cached result of {@link #toString()}, racy but benign as the rope is immutable. */
+  private String string;
+
+  private Rope(Node root) {
+    this.root = root;
+  }
+
+  /** Creates a rope containing a copy of the text. */
+  static Rope of(CharSequence text) {
+    if (text.length() == 0) {
+      return EMPTY;
+    }
+    Rope rope = new Rope(build(text, 0, text.length()));
+    if (text instanceof String) {
+      rope.string = (String) text;
+    }
+    return rope;
+  }
+
+  /**
+   * Returns a rope with the text inserted at the offset.
+   *
+   * @throws IndexOutOfBoundsException if offset is negative or greater than length of the rope
+   */
+  Rope insert(int offset, CharSequence text) {
+    checkRange(offset, offset);
+    if (text.length() == 0) {
+      return this;
+    }
+    Node[] parts = split(root, offset);
+    return new Rope(join(join(parts[0], build(text, 0, text.length())), parts[1]));
+  }
+
+  /**
+   * Returns a rope with characters from start inclusive to end exclusive removed.
+   *
+   * @throws IndexOutOfBoundsException if range is not within the rope
+   */
+  Rope delete(int start, int end) {
+    checkRange(start, end);
+    if (start == end) {
+      return this;
+    }
+    Node[] head = split(root, start);
+    Node[] tail = split(head[1], end - start);
+    return new Rope(join(head[0], tail[1]));
+  }
+
+  @Override
+  public int length() {
+    return root.length;
+  }
+
+  @Override
+  public char charAt(int index) {
+    if (index < 0 || index >= root.length) {
+      throw new IndexOutOfBoundsException(
+          format("Index %d is out of rope of length %d", index, root.length));
+    }
+    Node node = root;
+    while (node instanceof Branch) {
+      Branch branch = (Branch) node;
+      if (index < branch.left.length) {
+        node = branch.left;
+      } else {
+        index -= branch.left.length;
+        node = branch.right;
+      }
+    }
+    return ((Leaf) node).text.charAt(index);
+  }
+
+  /** Returns a rope that shares chunks with this one, characters are not copied. */
+  @Override
+  public Rope subSequence(int start, int end) {
+    checkRange(start, end);
+    Node[] head = split(root, start);
+    return new Rope(split(head[1], end - start)[0]);
+  }
+
+  /** Returns a reader of the rope content, the reader reads chunks of the rope without copying. */
+  Reader reader() {
+    return new RopeReader(root);
+  }
+
+  @Override
+  public String toString() {
+    String result = string;
+    if (result == null) {
+      result = string = buildString();
+    }
+    return result;
+  }
+
+  private String buildString() {
+    StringBuilder sb = new StringBuilder(root.length);
+    Deque<Node> stack = new ArrayDeque<>();
+    stack.push(root);
+    while (!stack.isEmpty()) {
+      Node node = stack.pop();
+      if (node instanceof Branch) {
+        stack.push(((Branch) node).right);
+        stack.push(((Branch) node).left);
+      } else {
+        sb.append(((Leaf) node).text);
+      }
+    }
+    return sb.toString();
+  }
+
+  private void checkRange(int start, int end) {
+    if (start < 0 || end < start || end > root.length) {
+      throw new IndexOutOfBoundsException(
+          format("Range [%d, %d) is out of rope of length %d", start, end, root.length));
+    }
+  }
+
+  private static Node build(CharSequence text, int start, int end) {
+    if (end - start <= MAX_LEAF_LENGTH) {
+      return new Leaf(text.subSequence(start, end).toString());
+    }
+    int middle = (start + end) >>> 1;
+    return new Branch(build(text, start, middle), build(text, middle, end));
+  }
+
+  /** Splits node at the offset into two nodes. */
+  private static Node[] split(Node node, int offset) {
+    if (offset == 0) {
+      return new Node[] {Leaf.EMPTY, node};
+    }
+    if (offset == node.length) {
+      return new Node[] {node, Leaf.EMPTY};
+    }
+    if (node instanceof Leaf) {
+      String text = ((Leaf) node).text;
+      return new Node[] {new Leaf(text.substring(0, offset)), new Leaf(text.substring(offset))};
+    }
+    Branch branch = (Branch) node;
+    if (offset < branch.left.length) {
+      Node[] parts = split(branch.left, offset);
+      return new Node[] {parts[0], join(parts[1], branch.right)};
+    }
+    Node[] parts = split(branch.right, offset - branch.left.length);
+    return new Node[] {join(branch.left, parts[0]), parts[1]};
+  }
+
+  /** Concatenates two nodes keeping the resulting tree balanced. */
+  private static Node join(Node left, Node right) {
+    if (left.length == 0) {
+      return right;
+    }
+    if (right.length == 0) {
+      return left;
+    }
+    if (left instanceof Leaf
+        && right instanceof Leaf
+        && left.length + right.length <= MAX_LEAF_LENGTH) {
+      return new Leaf(((Leaf) left).text + ((Leaf) right).text);
+    }
+    if (left.height > right.height + 1) {
+      Branch branch = (Branch) left;
+      return balance(branch.left, join(branch.right, right));
+    }
+    if (right.height > left.height + 1) {
+      Branch branch = (Branch) right;
+      return balance(join(left, branch.left), branch.right);
+    }
+    return new Branch(left, right);
+  }
+
+  /** Creates a branch of two nodes which heights differ by two at most, rotating if needed. */
+  private static Node balance(Node left, Node right) {
+    if (left.height > right.height + 1) {
+      Branch branch = (Branch) left;
+      if (branch.left.height >= branch.right.height) {
+        return new Branch(branch.left, new Branch(branch.right, right));
+      }
+      Branch inner = (Branch) branch.right;
+      return new Branch(new Branch(branch.left, inner.left), new Branch(inner.right, right));
+    }
+    if (right.height > left.height + 1) {
+      Branch branch = (Branch) right;
+      if (branch.right.height >= branch.left.height) {
+        return new Branch(new Branch(left, branch.left), branch.right);
+      }
+      Branch inner = (Branch) branch.left;
+      return new Branch(new Branch(left, inner.left), new Branch(inner.right, branch.right));
+    }
+    return new Branch(left, right);
+  }
+
+  private abstract static class Node {
+    final int length;
+    final int height;
+
+    Node(int length, int height) {
+      this.length = length;
+      this.height = height;
+    }
+  }
+
+  private static final class Leaf extends Node {
+    static final Leaf EMPTY = new Leaf("");
+
+    final String text;
+
+    Leaf(String text) {
+      super(text.length(), 0);
+      this.text = text;
+    }
+  }
+
+  private static final class Branch extends Node {
+    final Node left;
+    final Node right;
+
+    Branch(Node left, Node right) {
+      super(left.length + right.length, Math.max(left.height, right.height) + 1);
+      this.left = left;
+      this.right = right;
+    }
+  }
+
+  private static final class RopeReader extends Reader {
+    private final Deque<Node> stack = new ArrayDeque<>();
+    private String chunk = "";
+    private int position;
+
+    RopeReader(Node root) {
+      stack.push(root);
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) {
+      if (length == 0) {
+        return 0;
+      }
+      while (position == chunk.length()) {
+        if (stack.isEmpty()) {
+          return -1;
+        }
+        Node node = stack.pop();
+        while (node instanceof Branch) {
+          stack.push(((Branch) node).right);
+          node = ((Branch) node).left;
+        }
+        chunk = ((Leaf) node).text;
+        position = 0;
+      }
+      int count = Math.min(length, chunk.length() - position);
+      chunk.getChars(position, position + count, buffer, offset);
+      position += count;
+      return count;
+    }
+
+    @Override
+    public void close() {
+      stack.clear();
+      chunk = "";
+      position = 0;
+    }
+  }
+}
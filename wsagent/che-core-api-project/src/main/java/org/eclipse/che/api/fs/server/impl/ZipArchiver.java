@@ -10,53 +10,162 @@
  */
 package org.eclipse.che.api.fs.server.impl;
 
-import static java.nio.file.Files.createTempFile;
-import static java.nio.file.Files.newInputStream;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static org.apache.commons.io.IOUtils.closeQuietly;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
-import java.util.zip.ZipOutputStream;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
-import org.apache.commons.io.IOUtils;
 import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.commons.annotation.Nullable;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * Zips and unzips file system items.
+ *
+ * <p>Archive is not buffered, it is written to a pipe by a background thread while the returned
+ * stream is consumed, content of entries is compressed in parallel by {@link ZipStreamWriter}.
+ * Files which names match configured excludes are not zipped, files with extensions of already
+ * compressed formats are stored without compression. Unzipped files are written in parallel.
+ */
 @Singleton
 class ZipArchiver {
+  private static final Logger LOG = LoggerFactory.getLogger(ZipArchiver.class);
+
+  private static final int PIPE_SIZE = 1 << 16;
+  private static final int MAX_BUFFERED_ENTRY_SIZE = 1 << 20;
 
-  private static void zip(File zipInFile, String fileName, ZipOutputStream zos) throws IOException {
-    if (zipInFile.isDirectory()) {
-      File[] files = zipInFile.listFiles();
-      for (File file : files == null ? new File[0] : files) {
-        zip(file, file.getAbsolutePath(), zos);
+  private final int threads;
+  private final Set<String> storedExtensions;
+  private final List<Exclude> excludes;
+  private final ExecutorService executor;
+  private final ExecutorService writers;
+
+  @Inject
+  ZipArchiver(
+      @Named("che.fs.zip.threads") int threads,
+      @Named("che.fs.zip.stored_extensions") String storedExtensions,
+      @Nullable @Named("che.fs.zip.excludes") String excludes) {
+    this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    this.storedExtensions = new HashSet<>();
+    for (String extension : storedExtensions.split(",")) {
+      if (!extension.trim().isEmpty()) {
+        this.storedExtensions.add(extension.trim().toLowerCase(Locale.ROOT));
       }
-      return;
     }
+    this.excludes = parseExcludes(excludes);
+    this.executor =
+        newFixedThreadPool(
+            this.threads,
+            new ThreadFactoryBuilder()
+                .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                .setNameFormat("ZipArchiver-%d")
+                .setDaemon(true)
+                .build());
+    this.writers =
+        newCachedThreadPool(
+            new ThreadFactoryBuilder()
+                .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                .setNameFormat("ZipArchiverWriter-%d")
+                .setDaemon(true)
+                .build());
+  }
 
-    try (FileInputStream fis = new FileInputStream(zipInFile); ) {
-      ZipEntry zipEntry = new ZipEntry(fileName);
-      zos.putNextEntry(zipEntry);
-      IOUtils.copy(fis, zos);
-    }
+  @PreDestroy
+  void stop() {
+    writers.shutdownNow();
+    executor.shutdownNow();
   }
 
+  /**
+   * Returns stream of zip archive of the item, the archive is produced while the stream is read.
+   * If zipping fails, reading of the stream fails with the cause of the failure.
+   */
   InputStream zip(Path fsPath) throws ServerException {
+    ZipPipe pipe = new ZipPipe();
+    PipedOutputStream out;
     try {
-      File inFile = fsPath.toFile();
-      File outFile = createTempFile(fsPath.getFileName().toString(), ".zip").toFile();
+      out = new PipedOutputStream(pipe);
+    } catch (IOException e) {
+      throw new ServerException("Failed to zip item: " + fsPath, e);
+    }
+    writers.execute(
+        () -> {
+          try {
+            zip(fsPath, out);
+          } catch (ServerException e) {
+            // set before the pipe is closed, so the reader doesn't take truncated archive for EOF
+            pipe.failure = e;
+            LOG.debug("Failed to zip item {}: {}", fsPath, e.getMessage());
+          } catch (Throwable e) {
+            pipe.failure = e;
+            LOG.error("Failed to zip item {}", fsPath, e);
+          } finally {
+            closeQuietly(out);
+          }
+        });
+    return pipe;
+  }
 
-      try (FileOutputStream fos = new FileOutputStream(outFile);
-          ZipOutputStream zos = new ZipOutputStream(fos)) {
-        zip(inFile, inFile.getName(), zos);
+  /** Writes zip archive of the item to the output stream, the stream is not closed. */
+  void zip(Path fsPath, OutputStream out) throws ServerException {
+    try (ZipStreamWriter writer = new ZipStreamWriter(out, executor, threads)) {
+      if (!Files.isDirectory(fsPath)) {
+        addFile(writer, fsPath, fsPath.getFileName().toString());
+        return;
       }
+      Files.walkFileTree(
+          fsPath,
+          new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+              return dir.equals(fsPath) || !isExcluded(fsPath.relativize(dir), true)
+                  ? FileVisitResult.CONTINUE
+                  : FileVisitResult.SKIP_SUBTREE;
+            }
 
-      return newInputStream(outFile.toPath());
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
+                throws IOException {
+              Path relative = fsPath.relativize(file);
+              if (attrs.isRegularFile() && !isExcluded(relative, false)) {
+                addFile(writer, file, relative.toString().replace('\\', '/'));
+              }
+              return FileVisitResult.CONTINUE;
+            }
+          });
     } catch (IOException e) {
       throw new ServerException("Failed to zip item: " + fsPath, e);
     }
@@ -65,43 +174,208 @@ class ZipArchiver {
   void unzip(
       Path fsPath, InputStream content, boolean overwrite, boolean withParents, boolean skipRoot)
       throws ServerException {
+    Deque<Future<?>> writes = new ArrayDeque<>();
     try {
       if (withParents) {
         Files.createDirectories(fsPath);
       }
+      Path root = fsPath.toAbsolutePath().normalize();
+      Set<Path> directories = new HashSet<>();
+      directories.add(root);
 
       try (ZipInputStream zis = new ZipInputStream(content)) {
         ZipEntry zipEntry = zis.getNextEntry();
 
         String prefixToSkip = null;
-        if (zipEntry.isDirectory() && skipRoot) {
+        if (zipEntry != null && zipEntry.isDirectory() && skipRoot) {
           prefixToSkip = zipEntry.getName();
           zipEntry = zis.getNextEntry();
         }
 
-        while (zipEntry != null) {
-          String name =
-              prefixToSkip != null
-                  ? zipEntry.getName().replaceFirst(prefixToSkip, "")
-                  : zipEntry.getName();
-          Path path = fsPath.resolve(name);
-
-          if (overwrite) {
-            Files.deleteIfExists(path);
+        for (; zipEntry != null; zipEntry = zis.getNextEntry()) {
+          String name = zipEntry.getName();
+          if (prefixToSkip != null && name.startsWith(prefixToSkip)) {
+            name = name.substring(prefixToSkip.length());
+          }
+          if (name.isEmpty()) {
+            continue;
           }
+          Path path = root.resolve(name).normalize();
+          if (!path.startsWith(root)) {
+            throw new IOException("Zip entry is outside of target directory: " + name);
+          }
+
           if (zipEntry.isDirectory()) {
-            Files.createDirectory(path);
-          } else {
-            try (FileOutputStream fos = new FileOutputStream(path.toFile())) {
-              IOUtils.copy(zis, fos);
-            }
+            createDirectories(path, directories);
+            continue;
           }
+          createDirectories(path.getParent(), directories);
 
-          zipEntry = zis.getNextEntry();
+          ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+          if (readUpTo(zis, buffer, MAX_BUFFERED_ENTRY_SIZE)) {
+            while (writes.size() >= threads * 2) {
+              await(writes.poll());
+            }
+            writes.offer(executor.submit(() -> write(path, buffer, null, overwrite)));
+          } else {
+            write(path, buffer, zis, overwrite);
+          }
         }
       }
+      while (!writes.isEmpty()) {
+        await(writes.poll());
+      }
     } catch (IOException e) {
+      for (Future<?> write : writes) {
+        write.cancel(false);
+      }
       throw new ServerException("Failed to unzip item " + fsPath, e);
     }
   }
+
+  private void addFile(ZipStreamWriter writer, Path file, String name) throws IOException {
+    String fileName = file.getFileName().toString();
+    int dot = fileName.lastIndexOf('.');
+    String extension = dot == -1 ? "" : fileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+    if (storedExtensions.contains(extension)) {
+      writer.addStored(name, file);
+    } else {
+      writer.addDeflated(name, file);
+    }
+  }
+
+  private boolean isExcluded(Path relative, boolean isDirectory) {
+    for (Exclude exclude : excludes) {
+      if ((isDirectory || !exclude.directoryOnly) && exclude.matcher.matches(relative)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Converts comma separated {@code .gitignore} like patterns to matchers of paths relative to the
+   * zipped item. Pattern that contains a slash is matched against the whole relative path,
+   * otherwise against name at any depth, trailing slash makes pattern match directories only.
+   * Negated patterns are not supported and ignored.
+   */
+  private static List<Exclude> parseExcludes(String excludes) {
+    List<Exclude> result = new ArrayList<>();
+    if (excludes == null) {
+      return result;
+    }
+    FileSystem fileSystem = FileSystems.getDefault();
+    for (String pattern : excludes.split(",")) {
+      pattern = pattern.trim();
+      if (pattern.isEmpty() || pattern.startsWith("#")) {
+        continue;
+      }
+      if (pattern.startsWith("!")) {
+        LOG.warn("Negated zip exclude pattern '{}' is not supported", pattern);
+        continue;
+      }
+      boolean directoryOnly = pattern.endsWith("/");
+      if (directoryOnly) {
+        pattern = pattern.substring(0, pattern.length() - 1);
+      }
+      boolean anchored = pattern.contains("/");
+      if (pattern.startsWith("/")) {
+        pattern = pattern.substring(1);
+      }
+      result.add(new Exclude(fileSystem.getPathMatcher("glob:" + pattern), directoryOnly));
+      if (!anchored) {
+        result.add(new Exclude(fileSystem.getPathMatcher("glob:**/" + pattern), directoryOnly));
+      }
+    }
+    return result;
+  }
+
+  private static void createDirectories(Path dir, Set<Path> created) throws IOException {
+    if (created.add(dir)) {
+      Files.createDirectories(dir);
+    }
+  }
+
+  /** Reads stream to the buffer, returns true if end of stream was reached within the limit. */
+  private static boolean readUpTo(InputStream in, ByteArrayOutputStream buffer, int limit)
+      throws IOException {
+    byte[] bytes = new byte[8192];
+    int read;
+    while (buffer.size() <= limit && (read = in.read(bytes)) != -1) {
+      buffer.write(bytes, 0, read);
+    }
+    return buffer.size() <= limit;
+  }
+
+  private static Void write(
+      Path path, ByteArrayOutputStream head, InputStream tail, boolean overwrite)
+      throws IOException {
+    if (overwrite) {
+      Files.deleteIfExists(path);
+    }
+    try (OutputStream out = Files.newOutputStream(path)) {
+      head.writeTo(out);
+      if (tail != null) {
+        byte[] bytes = new byte[8192];
+        int read;
+        while ((read = tail.read(bytes)) != -1) {
+          out.write(bytes, 0, read);
+        }
+      }
+    }
+    return null;
+  }
+
+  private static void await(Future<?> write) throws IOException {
+    try {
+      write.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while unzipping");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    }
+  }
+
+  private static class Exclude {
+    final PathMatcher matcher;
+    final boolean directoryOnly;
+
+    Exclude(PathMatcher matcher, boolean directoryOnly) {
+      this.matcher = matcher;
+      this.directoryOnly = directoryOnly;
+    }
+  }
+
+  /** Pipe which reports failure of zipping to the reader instead of a truncated archive. */
+  private static class ZipPipe extends PipedInputStream {
+    volatile Throwable failure;
+
+    ZipPipe() {
+      super(PIPE_SIZE);
+    }
+
+    @Override
+    public synchronized int read() throws IOException {
+      int result = super.read();
+      checkFailure(result);
+      return result;
+    }
+
+    @Override
+    public synchronized int read(byte[] b, int off, int len) throws IOException {
+      int result = super.read(b, off, len);
+      checkFailure(result);
+      return result;
+    }
+
+    private void checkFailure(int result) throws IOException {
+      if (result == -1 && failure != null) {
+        throw new IOException("Failed to zip item", failure);
+      }
+    }
+  }
 }
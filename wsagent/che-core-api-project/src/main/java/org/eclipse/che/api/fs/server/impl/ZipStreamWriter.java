@@ -0,0 +1,560 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.fs.server.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes zip archive of files directly to an output stream without buffering the archive.
+ *
+ * <p>Content of deflated entries is split into chunks which are compressed in parallel by the
+ * given executor, each chunk is compressed independently with the tail of the previous chunk as
+ * preset dictionary and flushed to byte boundary, so compressed chunks form a single deflate
+ * stream when written one after another. Sizes and checksums of deflated entries are written in
+ * data descriptors after their content. Stored entries are read twice, first to compute their
+ * checksum, which is required before content of a stored entry. ZIP64 extensions are used only
+ * when sizes, offsets or number of entries exceed limits of the basic format.
+ *
+ * <p>Number of chunks read ahead of the output is bounded, so memory used by the writer does not
+ * depend on size of the archive. Buffers are sized by sizes of files, small files are compressed in
+ * the calling thread and deflaters are reused for all entries. Not thread safe.
+ */
+class ZipStreamWriter implements Closeable {
+  private static final int CHUNK_SIZE = 1 << 20;
+  private static final int DICTIONARY_SIZE = 32 * 1024;
+  private static final int INLINE_SIZE = 64 * 1024;
+  private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+  private static final int ZIP64_MAGIC_COUNT = 0xFFFF;
+
+  private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+  private static final int DATA_DESCRIPTOR_SIGNATURE = 0x08074b50;
+  private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+  private static final int ZIP64_END_SIGNATURE = 0x06064b50;
+  private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+  private static final int END_SIGNATURE = 0x06054b50;
+
+  private static final int FLAG_DATA_DESCRIPTOR = 0x0008;
+  private static final int FLAG_UTF8 = 0x0800;
+  private static final int METHOD_STORED = 0;
+  private static final int METHOD_DEFLATED = 8;
+  private static final int VERSION = 20;
+  private static final int VERSION_ZIP64 = 45;
+
+  private final CountingOutputStream out;
+  private final ExecutorService executor;
+  private final int maxPendingChunks;
+  private final Deque<Segment> pending = new ArrayDeque<>();
+  private final List<Entry> entries = new ArrayList<>();
+  /** Compressors that are not in use, guarded by itself. */
+  private final Deque<Compressor> compressors = new ArrayDeque<>();
+
+  private boolean closed;
+  /** Whether compressors are ended when they are returned, guarded by {@link #compressors}. */
+  private boolean compressorsEnded;
+
+  /**
+   * @param out output stream the archive is written to, it is not closed by the writer
+   * @param executor executor which compresses chunks of entries
+   * @param parallelism number of chunks which are compressed at the same time
+   */
+  ZipStreamWriter(OutputStream out, ExecutorService executor, int parallelism) {
+    this.out = new CountingOutputStream(out);
+    this.executor = executor;
+    this.maxPendingChunks = Math.max(2, parallelism * 2);
+  }
+
+  /**
+   * Adds a deflated entry with content of a file.
+   *
+   * @param name name of the entry
+   * @param file file to read content from
+   */
+  void addDeflated(String name, Path file) throws IOException {
+    Entry entry =
+        new Entry(name, METHOD_DEFLATED, Files.getLastModifiedTime(file).toMillis(), false);
+    enqueue(new LocalHeader(entry));
+
+    CRC32 crc = new CRC32();
+    long size = 0;
+    byte[] previous = null;
+    // one byte more than the file size, so the end of the file is found with a single read
+    int chunkSize = (int) Math.min(CHUNK_SIZE, Files.size(file) + 1);
+    try (InputStream in = Files.newInputStream(file)) {
+      while (true) {
+        byte[] chunk = new byte[chunkSize];
+        int length = readFully(in, chunk);
+        crc.update(chunk, 0, length);
+        size += length;
+        boolean last = length < chunk.length;
+        byte[] dictionary = previous;
+        Future<byte[]> compressed;
+        if (last && previous == null && length < INLINE_SIZE) {
+          compressed = CompletableFuture.completedFuture(deflate(chunk, length, null, true));
+        } else {
+          compressed = executor.submit(() -> deflate(chunk, length, dictionary, last));
+        }
+        enqueue(new Chunk(entry, compressed));
+        if (last) {
+          break;
+        }
+        previous = chunk;
+        // file has grown since its size was read
+        chunkSize = CHUNK_SIZE;
+      }
+    }
+    entry.crc = crc.getValue();
+    entry.size = size;
+    enqueue(new DataDescriptor(entry));
+  }
+
+  /**
+   * Adds a stored entry with content of a file.
+   *
+   * @param name name of the entry
+   * @param file file to read content from
+   */
+  void addStored(String name, Path file) throws IOException {
+    CRC32 crc = new CRC32();
+    long size = 0;
+    try (InputStream in = Files.newInputStream(file)) {
+      byte[] buffer = new byte[(int) Math.min(CHUNK_SIZE, Files.size(file) + 1)];
+      int length;
+      while ((length = in.read(buffer)) != -1) {
+        crc.update(buffer, 0, length);
+        size += length;
+      }
+    }
+    Entry entry = new Entry(name, METHOD_STORED, Files.getLastModifiedTime(file).toMillis(), true);
+    entry.crc = crc.getValue();
+    entry.size = entry.compressedSize = size;
+    enqueue(new LocalHeader(entry));
+    enqueue(new StoredContent(file, size));
+  }
+
+  /** Writes all pending entries and central directory of the archive. */
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      while (!pending.isEmpty()) {
+        pending.poll().write();
+      }
+      writeCentralDirectory();
+      out.flush();
+    } finally {
+      for (Segment segment : pending) {
+        segment.cancel();
+      }
+      // compressors still used by cancelled chunks are ended when they are returned
+      synchronized (compressors) {
+        compressorsEnded = true;
+        compressors.forEach(Compressor::end);
+        compressors.clear();
+      }
+    }
+  }
+
+  private void enqueue(Segment segment) throws IOException {
+    pending.offer(segment);
+    int chunks = 0;
+    for (Segment item : pending) {
+      if (item instanceof Chunk) {
+        chunks++;
+      }
+    }
+    while (chunks > maxPendingChunks) {
+      Segment head = pending.poll();
+      head.write();
+      if (head instanceof Chunk) {
+        chunks--;
+      }
+    }
+  }
+
+  private static int readFully(InputStream in, byte[] buffer) throws IOException {
+    int total = 0;
+    int read;
+    while (total < buffer.length && (read = in.read(buffer, total, buffer.length - total)) != -1) {
+      total += read;
+    }
+    return total;
+  }
+
+  /** Compresses data with a pooled compressor, a new one is created if none is free. */
+  private byte[] deflate(byte[] data, int length, byte[] dictionary, boolean last) {
+    Compressor compressor;
+    synchronized (compressors) {
+      compressor = compressors.poll();
+    }
+    if (compressor == null) {
+      compressor = new Compressor();
+    }
+    try {
+      return compressor.deflate(data, length, dictionary, last);
+    } finally {
+      release(compressor);
+    }
+  }
+
+  /** Returns a compressor to the pool or ends it if the writer is already closed. */
+  private void release(Compressor compressor) {
+    synchronized (compressors) {
+      if (!compressorsEnded) {
+        compressors.offer(compressor);
+        return;
+      }
+    }
+    compressor.end();
+  }
+
+  private void writeCentralDirectory() throws IOException {
+    long start = out.count;
+    for (Entry entry : entries) {
+      boolean zip64Size = entry.size >= ZIP64_MAGIC;
+      boolean zip64CompressedSize = entry.compressedSize >= ZIP64_MAGIC;
+      boolean zip64Offset = entry.offset >= ZIP64_MAGIC;
+      int extraLength = (zip64Size ? 8 : 0) + (zip64CompressedSize ? 8 : 0) + (zip64Offset ? 8 : 0);
+      int version = extraLength > 0 ? VERSION_ZIP64 : VERSION;
+
+      out.writeInt(CENTRAL_HEADER_SIGNATURE);
+      out.writeShort(version);
+      out.writeShort(version);
+      out.writeShort(entry.flags());
+      out.writeShort(entry.method);
+      out.writeInt(entry.dosTime);
+      out.writeInt((int) entry.crc);
+      out.writeInt((int) (zip64CompressedSize ? ZIP64_MAGIC : entry.compressedSize));
+      out.writeInt((int) (zip64Size ? ZIP64_MAGIC : entry.size));
+      out.writeShort(entry.name.length);
+      out.writeShort(extraLength > 0 ? extraLength + 4 : 0);
+      out.writeShort(0); // comment length
+      out.writeShort(0); // disk number
+      out.writeShort(0); // internal attributes
+      out.writeInt(0); // external attributes
+      out.writeInt((int) (zip64Offset ? ZIP64_MAGIC : entry.offset));
+      out.write(entry.name);
+      if (extraLength > 0) {
+        out.writeShort(0x0001);
+        out.writeShort(extraLength);
+        if (zip64Size) {
+          out.writeLong(entry.size);
+        }
+        if (zip64CompressedSize) {
+          out.writeLong(entry.compressedSize);
+        }
+        if (zip64Offset) {
+          out.writeLong(entry.offset);
+        }
+      }
+    }
+    long end = out.count;
+    long size = end - start;
+
+    boolean zip64 =
+        entries.size() >= ZIP64_MAGIC_COUNT || start >= ZIP64_MAGIC || size >= ZIP64_MAGIC;
+    if (zip64) {
+      out.writeInt(ZIP64_END_SIGNATURE);
+      out.writeLong(44); // size of the remaining record
+      out.writeShort(VERSION_ZIP64);
+      out.writeShort(VERSION_ZIP64);
+      out.writeInt(0); // disk number
+      out.writeInt(0); // disk with central directory
+      out.writeLong(entries.size());
+      out.writeLong(entries.size());
+      out.writeLong(size);
+      out.writeLong(start);
+
+      out.writeInt(ZIP64_LOCATOR_SIGNATURE);
+      out.writeInt(0); // disk with zip64 end record
+      out.writeLong(end);
+      out.writeInt(1); // number of disks
+    }
+
+    int count = Math.min(entries.size(), ZIP64_MAGIC_COUNT);
+    out.writeInt(END_SIGNATURE);
+    out.writeShort(0); // disk number
+    out.writeShort(0); // disk with central directory
+    out.writeShort(count);
+    out.writeShort(count);
+    out.writeInt((int) Math.min(size, ZIP64_MAGIC));
+    out.writeInt((int) Math.min(start, ZIP64_MAGIC));
+    out.writeShort(0); // comment length
+  }
+
+  /** Zip entry being written, sizes and checksum are known after its content is read. */
+  private static class Entry {
+    final byte[] name;
+    final int method;
+    final int dosTime;
+    final boolean sizesInHeader;
+
+    long crc;
+    long size;
+    long compressedSize;
+    long offset;
+
+    Entry(String name, int method, long modified, boolean sizesInHeader) {
+      this.name = name.getBytes(UTF_8);
+      this.method = method;
+      this.dosTime = toDosTime(modified);
+      this.sizesInHeader = sizesInHeader;
+    }
+
+    int flags() {
+      return sizesInHeader ? FLAG_UTF8 : FLAG_UTF8 | FLAG_DATA_DESCRIPTOR;
+    }
+
+    private static int toDosTime(long millis) {
+      LocalDateTime time =
+          LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+      if (time.getYear() < 1980) {
+        return (1 << 21) | (1 << 16);
+      }
+      return (time.getYear() - 1980) << 25
+          | time.getMonthValue() << 21
+          | time.getDayOfMonth() << 16
+          | time.getHour() << 11
+          | time.getMinute() << 5
+          | time.getSecond() >> 1;
+    }
+  }
+
+  /** Deflater with its output buffer, reused for chunks of all entries of the archive. */
+  private static class Compressor {
+    final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    final byte[] buffer = new byte[64 * 1024];
+
+    byte[] deflate(byte[] data, int length, byte[] dictionary, boolean last) {
+      deflater.reset();
+      if (dictionary != null) {
+        int dictionarySize = Math.min(dictionary.length, DICTIONARY_SIZE);
+        deflater.setDictionary(dictionary, dictionary.length - dictionarySize, dictionarySize);
+      }
+      deflater.setInput(data, 0, length);
+      ByteArrayOutputStream result = new ByteArrayOutputStream(length / 2 + 64);
+      if (last) {
+        deflater.finish();
+        while (!deflater.finished()) {
+          result.write(buffer, 0, deflater.deflate(buffer));
+        }
+      } else {
+        int count;
+        do {
+          count = deflater.deflate(buffer, 0, buffer.length, Deflater.FULL_FLUSH);
+          result.write(buffer, 0, count);
+        } while (count == buffer.length);
+      }
+      return result.toByteArray();
+    }
+
+    void end() {
+      deflater.end();
+    }
+  }
+
+  /** Part of the archive which is written in the order it was added. */
+  private interface Segment {
+    void write() throws IOException;
+
+    default void cancel() {}
+  }
+
+  private class LocalHeader implements Segment {
+    final Entry entry;
+
+    LocalHeader(Entry entry) {
+      this.entry = entry;
+    }
+
+    @Override
+    public void write() throws IOException {
+      entry.offset = out.count;
+      entries.add(entry);
+
+      boolean zip64 = entry.sizesInHeader && entry.size >= ZIP64_MAGIC;
+      out.writeInt(LOCAL_HEADER_SIGNATURE);
+      out.writeShort(zip64 ? VERSION_ZIP64 : VERSION);
+      out.writeShort(entry.flags());
+      out.writeShort(entry.method);
+      out.writeInt(entry.dosTime);
+      if (entry.sizesInHeader) {
+        out.writeInt((int) entry.crc);
+        out.writeInt((int) (zip64 ? ZIP64_MAGIC : entry.compressedSize));
+        out.writeInt((int) (zip64 ? ZIP64_MAGIC : entry.size));
+      } else {
+        out.writeInt(0);
+        out.writeInt(0);
+        out.writeInt(0);
+      }
+      out.writeShort(entry.name.length);
+      out.writeShort(zip64 ? 20 : 0);
+      out.write(entry.name);
+      if (zip64) {
+        out.writeShort(0x0001);
+        out.writeShort(16);
+        out.writeLong(entry.size);
+        out.writeLong(entry.compressedSize);
+      }
+    }
+  }
+
+  private class Chunk implements Segment {
+    final Entry entry;
+    final Future<byte[]> compressed;
+
+    Chunk(Entry entry, Future<byte[]> compressed) {
+      this.entry = entry;
+      this.compressed = compressed;
+    }
+
+    @Override
+    public void write() throws IOException {
+      byte[] data;
+      try {
+        data = compressed.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while compressing zip entry");
+      } catch (ExecutionException e) {
+        throw new IOException("Failed to compress zip entry", e.getCause());
+      }
+      out.write(data);
+      entry.compressedSize += data.length;
+    }
+
+    @Override
+    public void cancel() {
+      compressed.cancel(false);
+    }
+  }
+
+  private class DataDescriptor implements Segment {
+    final Entry entry;
+
+    DataDescriptor(Entry entry) {
+      this.entry = entry;
+    }
+
+    @Override
+    public void write() throws IOException {
+      out.writeInt(DATA_DESCRIPTOR_SIGNATURE);
+      out.writeInt((int) entry.crc);
+      if (entry.size >= ZIP64_MAGIC || entry.compressedSize >= ZIP64_MAGIC) {
+        out.writeLong(entry.compressedSize);
+        out.writeLong(entry.size);
+      } else {
+        out.writeInt((int) entry.compressedSize);
+        out.writeInt((int) entry.size);
+      }
+    }
+  }
+
+  private class StoredContent implements Segment {
+    final Path file;
+    final long size;
+
+    StoredContent(Path file, long size) {
+      this.file = file;
+      this.size = size;
+    }
+
+    @Override
+    public void write() throws IOException {
+      try (InputStream in = Files.newInputStream(file)) {
+        byte[] buffer = new byte[(int) Math.min(64 * 1024, Math.max(1, size))];
+        long remaining = size;
+        while (remaining > 0) {
+          int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+          if (read == -1) {
+            throw new EOFException("File was changed while it was being zipped: " + file);
+          }
+          out.write(buffer, 0, read);
+          remaining -= read;
+        }
+      }
+    }
+  }
+
+  /** Output stream that counts written bytes and writes little endian numbers. */
+  private static class CountingOutputStream extends OutputStream {
+    private final OutputStream delegate;
+    private final byte[] buffer = new byte[8];
+
+    long count;
+
+    CountingOutputStream(OutputStream delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      delegate.write(b);
+      count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      delegate.write(b, off, len);
+      count += len;
+    }
+
+    @Override
+    public void flush() throws IOException {
+      delegate.flush();
+    }
+
+    void writeShort(int value) throws IOException {
+      writeLittleEndian(value, 2);
+    }
+
+    void writeInt(long value) throws IOException {
+      writeLittleEndian(value, 4);
+    }
+
+    void writeLong(long value) throws IOException {
+      writeLittleEndian(value, 8);
+    }
+
+    private void writeLittleEndian(long value, int bytes) throws IOException {
+      for (int i = 0; i < bytes; i++) {
+        buffer[i] = (byte) (value >>> (8 * i));
+      }
+      write(buffer, 0, bytes);
+    }
+  }
+}
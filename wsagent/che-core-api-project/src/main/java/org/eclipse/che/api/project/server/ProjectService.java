@@ -612,10 +612,18 @@ public class ProjectService {
           )
           @DefaultValue("false")
           @QueryParam("includeFiles")
-          boolean includeFiles)
+          boolean includeFiles,
+      @ApiParam(
+            value =
+                "include VCS status of children files. This parameter can be dropped"
+                    + ". If not specified ?includeVcsStatus=true is used by default"
+          )
+          @DefaultValue("true")
+          @QueryParam("includeVcsStatus")
+          boolean includeVcsStatus)
       throws NotFoundException, ForbiddenException, ServerException {
 
-    return getProjectServiceApi().getTree(wsPath, depth, includeFiles);
+    return getProjectServiceApi().getTree(wsPath, depth, includeFiles, includeVcsStatus);
   }
 
   @GET
@@ -665,9 +673,12 @@ public class ProjectService {
           @QueryParam("maxItems")
           @DefaultValue("-1")
           int maxItems,
-      @ApiParam(value = "Skip count") @QueryParam("skipCount") int skipCount)
+      @ApiParam(value = "Skip count") @QueryParam("skipCount") int skipCount,
+      @ApiParam(value = "Cursor of the page end returned with previous page")
+          @QueryParam("cursor")
+          String cursor)
       throws NotFoundException, ServerException, BadRequestException {
 
-    return getProjectServiceApi().search(wsPath, name, text, maxItems, skipCount);
+    return getProjectServiceApi().search(wsPath, name, text, maxItems, skipCount, cursor);
   }
 }
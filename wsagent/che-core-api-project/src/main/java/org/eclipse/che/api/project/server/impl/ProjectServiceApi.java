@@ -11,6 +11,7 @@
 package org.eclipse.che.api.project.server.impl;
 
 import static java.io.File.separator;
+import static java.util.Collections.singletonList;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
 import static java.util.stream.Collectors.toSet;
@@ -22,8 +23,10 @@ import static org.eclipse.che.api.project.server.impl.FileItemUtils.parseFile;
 import static org.eclipse.che.api.project.server.impl.ProjectDtoConverter.asDto;
 import static org.eclipse.che.api.project.server.notification.ProjectItemModifiedEvent.EventType.UPDATED;
 import static org.eclipse.che.api.project.shared.Constants.EVENT_IMPORT_OUTPUT_PROGRESS;
+import static org.eclipse.che.api.project.shared.Constants.EVENT_SEARCH_RESULT;
 import static org.eclipse.che.dto.server.DtoFactory.newDto;
 
+import com.google.common.base.Optional;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
 import java.io.IOException;
@@ -38,6 +41,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.ws.rs.core.HttpHeaders;
@@ -570,19 +574,28 @@ public class ProjectServiceApi {
     return vcsStatusInjector.injectVcsStatus(result);
   }
 
-  /** Get file system tree under specified location and depth */
-  public TreeElement getTree(String wsPath, int depth, boolean includeFiles)
+  /**
+   * Get file system tree under specified location and depth. VCS status of files of the whole tree
+   * is computed once per project, if requested.
+   */
+  public TreeElement getTree(
+      String wsPath, int depth, boolean includeFiles, boolean includeVcsStatus)
       throws NotFoundException, ForbiddenException, ServerException {
     wsPath = absolutize(wsPath);
 
     ItemReference asDto = fsDtoConverter.asDto(wsPath);
-    ItemReference asLinkedDto =
-        fsManager.isFile(wsPath)
-            ? injectFileLinks(vcsStatusInjector.injectVcsStatus(asDto))
-            : injectFolderLinks(asDto);
-    return newDto(TreeElement.class)
-        .withNode(asLinkedDto)
-        .withChildren(getTreeRecursively(wsPath, depth, includeFiles));
+    ItemReference asLinkedDto;
+    if (fsManager.isFile(wsPath)) {
+      asLinkedDto =
+          injectFileLinks(includeVcsStatus ? vcsStatusInjector.injectVcsStatus(asDto) : asDto);
+    } else {
+      asLinkedDto = injectFolderLinks(asDto);
+    }
+    List<TreeElement> children = getTreeRecursively(wsPath, depth, includeFiles);
+    if (includeVcsStatus && children != null) {
+      vcsStatusInjector.injectVcsStatusTreeElements(children);
+    }
+    return newDto(TreeElement.class).withNode(asLinkedDto).withChildren(children);
   }
 
   /** Get file system item defined by specific location */
@@ -604,9 +617,28 @@ public class ProjectServiceApi {
    * @param text text
    * @param maxItems maximum number of items
    * @param skipCount number of items to be skipped
+   * @param cursor position of the end of previous page, if set items are not skipped
    */
   public ProjectSearchResponseDto search(
-      String wsPath, String name, String text, int maxItems, int skipCount)
+      String wsPath, String name, String text, int maxItems, int skipCount, String cursor)
+      throws BadRequestException, ServerException, NotFoundException {
+    List<SearchResultDto> results = new ArrayList<>();
+    return search(wsPath, name, text, maxItems, skipCount, cursor, results::add)
+        .withItemReferences(results);
+  }
+
+  /**
+   * Preform search and pass found items to the consumer as soon as they are found, returned
+   * response contains no items.
+   */
+  private ProjectSearchResponseDto search(
+      String wsPath,
+      String name,
+      String text,
+      int maxItems,
+      int skipCount,
+      String cursor,
+      Consumer<SearchResultDto> consumer)
       throws BadRequestException, ServerException, NotFoundException {
     if (skipCount < 0) {
       throw new BadRequestException(String.format("Invalid 'skipCount' parameter: %d.", skipCount));
@@ -620,14 +652,15 @@ public class ProjectServiceApi {
             .setText(text)
             .setMaxItems(maxItems)
             .setSkipCount(skipCount)
+            .setCursor(cursor)
             .setIncludePositions(true);
 
     try {
-      SearchResult result = searcher.search(expr);
-      List<SearchResultEntry> searchResultEntries = result.getResults();
+      SearchResult result = searcher.search(expr, entry -> prepareResult(entry, consumer));
+      Optional<QueryExpression> nextPage = result.getNextPageQueryExpression();
       return DtoFactory.newDto(ProjectSearchResponseDto.class)
           .withTotalHits(result.getTotalHits())
-          .withItemReferences(prepareResults(searchResultEntries));
+          .withNextPageCursor(nextPage.isPresent() ? nextPage.get().getCursor() : null);
     } catch (InvalidQueryException e) {
       throw new BadRequestException(e.getMessage());
     } catch (QueryExecutionException e) {
@@ -640,36 +673,36 @@ public class ProjectServiceApi {
    * Prepare result for client, add additional information like line number and line content where
    * found given text
    */
-  private List<SearchResultDto> prepareResults(List<SearchResultEntry> searchResultEntries)
-      throws NotFoundException {
-    List<SearchResultDto> results = new ArrayList<>(searchResultEntries.size());
-    for (SearchResultEntry searchResultEntry : searchResultEntries) {
-      String path = searchResultEntry.getFilePath();
-      if (fsManager.existsAsFile(path)) {
-        ItemReference asDto = fsDtoConverter.asDto(path);
-        ItemReference itemReference = injectFileLinks(asDto);
-        List<OffsetData> datas = searchResultEntry.getData();
-        List<SearchOccurrenceDto> searchOccurrences = new ArrayList<>(datas.size());
-        for (OffsetData data : datas) {
-          SearchOccurrenceDto searchOccurrenceDto =
-              DtoFactory.getInstance()
-                  .createDto(SearchOccurrenceDto.class)
-                  .withPhrase(data.getPhrase())
-                  .withScore(data.getScore())
-                  .withStartOffset(data.getStartOffset())
-                  .withEndOffset(data.getEndOffset())
-                  .withLineNumber(data.getLineNum())
-                  .withLineContent(data.getLine());
-          searchOccurrences.add(searchOccurrenceDto);
-        }
-        SearchResultDto searchResultDto = DtoFactory.getInstance().createDto(SearchResultDto.class);
-        results.add(
-            searchResultDto
-                .withItemReference(itemReference)
-                .withSearchOccurrences(searchOccurrences));
-      }
+  private void prepareResult(
+      SearchResultEntry searchResultEntry, Consumer<SearchResultDto> consumer) {
+    String path = searchResultEntry.getFilePath();
+    if (!fsManager.existsAsFile(path)) {
+      return;
     }
-    return results;
+    ItemReference itemReference;
+    try {
+      itemReference = injectFileLinks(fsDtoConverter.asDto(path));
+    } catch (NotFoundException e) {
+      LOG.debug("File {} was removed during search", path);
+      return;
+    }
+    List<OffsetData> datas = searchResultEntry.getData();
+    List<SearchOccurrenceDto> searchOccurrences = new ArrayList<>(datas.size());
+    for (OffsetData data : datas) {
+      SearchOccurrenceDto searchOccurrenceDto =
+          DtoFactory.getInstance()
+              .createDto(SearchOccurrenceDto.class)
+              .withPhrase(data.getPhrase())
+              .withScore(data.getScore())
+              .withStartOffset(data.getStartOffset())
+              .withEndOffset(data.getEndOffset())
+              .withLineNumber(data.getLineNum())
+              .withLineContent(data.getLine());
+      searchOccurrences.add(searchOccurrenceDto);
+    }
+    SearchResultDto searchResultDto = DtoFactory.getInstance().createDto(SearchResultDto.class);
+    consumer.accept(
+        searchResultDto.withItemReference(itemReference).withSearchOccurrences(searchOccurrences));
   }
 
   @Inject
@@ -680,18 +713,40 @@ public class ProjectServiceApi {
         .methodName("project/search")
         .paramsAsDto(ProjectSearchRequestDto.class)
         .resultAsDto(ProjectSearchResponseDto.class)
-        .withFunction(this::search);
+        .withBiFunction(this::search);
   }
 
-  public ProjectSearchResponseDto search(ProjectSearchRequestDto request) {
+  public ProjectSearchResponseDto search(String endpointId, ProjectSearchRequestDto request) {
     String path = request.getPath();
     String name = request.getName();
     String text = request.getText();
     int maxItems = request.getMaxItems();
     int skipCount = request.getSkipCount();
+    String cursor = request.getCursor();
+    String searchId = request.getSearchId();
 
     try {
-      return search(path, name, text, maxItems, skipCount);
+      if (!request.isStreaming()) {
+        return search(path, name, text, maxItems, skipCount, cursor).withSearchId(searchId);
+      }
+      return search(
+              path,
+              name,
+              text,
+              maxItems,
+              skipCount,
+              cursor,
+              result ->
+                  transmitter
+                      .newRequest()
+                      .endpointId(endpointId)
+                      .methodName(EVENT_SEARCH_RESULT)
+                      .paramsAsDto(
+                          newDto(ProjectSearchResponseDto.class)
+                              .withSearchId(searchId)
+                              .withItemReferences(singletonList(result)))
+                      .sendAndSkipResult())
+          .withSearchId(searchId);
     } catch (ServerException | NotFoundException | BadRequestException e) {
       throw new JsonRpcException(-27000, e.getMessage());
     }
@@ -737,7 +792,7 @@ public class ProjectServiceApi {
       }
     }
 
-    return vcsStatusInjector.injectVcsStatusTreeElements(nodes);
+    return nodes;
   }
 
   private ItemReference injectFileLinks(ItemReference itemReference) {
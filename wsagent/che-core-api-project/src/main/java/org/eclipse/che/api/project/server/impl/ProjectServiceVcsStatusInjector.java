@@ -13,7 +13,9 @@ package org.eclipse.che.api.project.server.impl;
 import static org.eclipse.che.api.fs.server.WsPathUtils.absolutize;
 import static org.eclipse.che.api.project.shared.Constants.VCS_PROVIDER_NAME;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -105,48 +107,61 @@ public class ProjectServiceVcsStatusInjector {
 
   /**
    * Find related VCS provider and set VCS status of {@link TreeElement} file to it's attributes to
-   * each item of the given list, if VCS provider is present.
+   * each item of the given trees, if VCS provider is present. Status of all files of a project is
+   * requested from the provider at once, no matter how deep they are in the trees.
    *
-   * @param treeElements list of {@link TreeElement} files to update
+   * @param treeElements list of {@link TreeElement} trees to update
    */
   public List<TreeElement> injectVcsStatusTreeElements(List<TreeElement> treeElements)
       throws ServerException, NotFoundException {
-    Optional<TreeElement> treeElementOptional =
-        treeElements
-            .stream()
-            .filter(treeElement -> "file".equals(treeElement.getNode().getType()))
-            .findAny();
-    if (treeElementOptional.isPresent()) {
-      String project = normalizeProjectPath(treeElementOptional.get().getNode().getProject());
-      String projectWsPath = absolutize(project);
+    Map<String, List<ItemReference>> filesByProject = new LinkedHashMap<>();
+    collectFiles(treeElements, filesByProject);
+
+    for (Map.Entry<String, List<ItemReference>> entry : filesByProject.entrySet()) {
+      String projectWsPath = absolutize(normalizeProjectPath(entry.getKey()));
       Optional<VcsStatusProvider> vcsStatusProviderOptional = getVcsStatusProvider(projectWsPath);
-      if (vcsStatusProviderOptional.isPresent()) {
-        List<String> treeElementFiles =
-            treeElements
-                .stream()
-                .filter(treeElement -> "file".equals(treeElement.getNode().getType()))
-                .map(treeElement -> normalizeFilePath(treeElement.getNode().getPath()))
-                .collect(Collectors.toList());
-        Map<String, VcsStatusProvider.VcsStatus> status =
-            vcsStatusProviderOptional.get().getStatus(projectWsPath, treeElementFiles);
+      if (!vcsStatusProviderOptional.isPresent()) {
+        continue;
+      }
+      List<ItemReference> files = entry.getValue();
+      List<String> filePaths =
+          files
+              .stream()
+              .map(file -> normalizeFilePath(file.getPath()))
+              .collect(Collectors.toList());
+      Map<String, VcsStatusProvider.VcsStatus> status =
+          vcsStatusProviderOptional.get().getStatus(projectWsPath, filePaths);
 
-        treeElements
-            .stream()
-            .filter(itemReference -> "file".equals(itemReference.getNode().getType()))
-            .forEach(
-                itemReference -> {
-                  Map<String, String> attributes =
-                      new HashMap<>(itemReference.getNode().getAttributes());
-                  attributes.put(
-                      "vcs.status", status.get(itemReference.getNode().getPath()).toString());
-                  itemReference.getNode().setAttributes(attributes);
-                });
+      for (ItemReference file : files) {
+        VcsStatusProvider.VcsStatus fileStatus = status.get(file.getPath());
+        if (fileStatus != null) {
+          Map<String, String> attributes = new HashMap<>(file.getAttributes());
+          attributes.put("vcs.status", fileStatus.toString());
+          file.setAttributes(attributes);
+        }
       }
     }
 
     return treeElements;
   }
 
+  private void collectFiles(
+      List<TreeElement> treeElements, Map<String, List<ItemReference>> filesByProject) {
+    if (treeElements == null) {
+      return;
+    }
+    for (TreeElement treeElement : treeElements) {
+      ItemReference node = treeElement.getNode();
+      if ("file".equals(node.getType())) {
+        if (node.getProject() != null) {
+          filesByProject.computeIfAbsent(node.getProject(), k -> new ArrayList<>()).add(node);
+        }
+      } else {
+        collectFiles(treeElement.getChildren(), filesByProject);
+      }
+    }
+  }
+
   private String normalizeFilePath(String filePath) {
     String normalizedPath = filePath.startsWith("/") ? filePath.substring(1) : filePath;
     return normalizedPath.substring(normalizedPath.indexOf("/") + 1);
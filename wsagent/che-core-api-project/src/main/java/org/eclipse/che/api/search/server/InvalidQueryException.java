@@ -13,6 +13,10 @@ package org.eclipse.che.api.search.server;
 /** Razed in case if implementation specific format of search query is invalid */
 public class InvalidQueryException extends Exception {
 
+  public InvalidQueryException(String message) {
+    super(message);
+  }
+
   public InvalidQueryException(String message, Throwable cause) {
     super(message, cause);
   }
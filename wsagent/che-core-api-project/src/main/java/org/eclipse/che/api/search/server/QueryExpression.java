@@ -16,6 +16,7 @@ public class QueryExpression {
   private String path;
   private String text;
   private int skipCount;
+  private String cursor;
   private int maxItems;
   private boolean includePositions;
 
@@ -68,6 +69,21 @@ public class QueryExpression {
     return this;
   }
 
+  /**
+   * Opaque position of the end of previous page, it is provided with query expression for
+   * retrieving next page. When it is set results are not skipped, instead the search continues
+   * right after the position, so retrieving any page costs the same. Skip count is then the number
+   * of items retrieved before.
+   */
+  public String getCursor() {
+    return cursor;
+  }
+
+  public QueryExpression setCursor(String cursor) {
+    this.cursor = cursor;
+    return this;
+  }
+
   /** Max number of results that might be returned after executing this query. */
   public int getMaxItems() {
     return maxItems;
@@ -102,6 +118,9 @@ public class QueryExpression {
         + '\''
         + ", skipCount="
         + skipCount
+        + ", cursor='"
+        + cursor
+        + '\''
         + ", maxItems="
         + maxItems
         + '}';
@@ -11,7 +11,9 @@
 package org.eclipse.che.api.search.server;
 
 import java.nio.file.Path;
+import java.util.function.Consumer;
 import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.search.server.impl.SearchResultEntry;
 
 public interface Searcher {
   /**
@@ -23,6 +25,17 @@ public interface Searcher {
    */
   SearchResult search(QueryExpression query) throws InvalidQueryException, QueryExecutionException;
 
+  /**
+   * Passes matched items to the consumer one by one as soon as they are resolved, instead of
+   * collecting them into the result.
+   *
+   * @param query query expression
+   * @param consumer consumer of matched items
+   * @return results of search without matched items
+   */
+  SearchResult search(QueryExpression query, Consumer<SearchResultEntry> consumer)
+      throws InvalidQueryException, QueryExecutionException;
+
   /**
    * Add VirtualFile to index.
    *
@@ -11,10 +11,13 @@
 package org.eclipse.che.api.search.server.impl;
 
 import static com.google.common.collect.Lists.newArrayList;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static org.eclipse.che.api.fs.server.WsPathUtils.nameOf;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.io.CharStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
@@ -22,6 +25,7 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -29,12 +33,21 @@ import java.nio.file.PathMatcher;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Scanner;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
@@ -43,27 +56,33 @@ import org.apache.lucene.analysis.TokenStream;
 import org.apache.lucene.analysis.core.LowerCaseFilterFactory;
 import org.apache.lucene.analysis.core.WhitespaceTokenizerFactory;
 import org.apache.lucene.analysis.custom.CustomAnalyzer;
-import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
 import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
+import org.apache.lucene.document.FieldType;
 import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StoredField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.queryparser.classic.QueryParser;
 import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanClause.Occur;
 import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.FieldDoc;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.PrefixQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherLifetimeManager;
 import org.apache.lucene.search.SearcherManager;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.SortField;
@@ -71,8 +90,11 @@ import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.search.highlight.QueryScorer;
 import org.apache.lucene.search.highlight.TokenSources;
+import org.apache.lucene.store.ByteArrayDataInput;
+import org.apache.lucene.store.ByteArrayDataOutput;
 import org.apache.lucene.store.FSDirectory;
 import org.apache.lucene.store.SingleInstanceLockFactory;
+import org.apache.lucene.util.Bits;
 import org.apache.lucene.util.BytesRef;
 import org.eclipse.che.api.fs.server.PathTransformer;
 import org.eclipse.che.api.search.server.InvalidQueryException;
@@ -88,6 +110,11 @@ import org.slf4j.LoggerFactory;
 /**
  * Lucene based searcher.
  *
+ * <p>Index is kept between restarts. Modification time and size of indexed files are stored in the
+ * index, so initial indexing re-indexes only files that were added or changed since the index was
+ * committed and removes files that no longer exist. Files are read and tokenized by a pool of
+ * {@code che.search.indexing_threads} threads.
+ *
  * @author andrew00x
  * @author Sergii Kabashniuk
  */
@@ -97,18 +124,39 @@ public class LuceneSearcher implements Searcher {
   private static final Logger LOG = LoggerFactory.getLogger(LuceneSearcher.class);
 
   private static final int RESULT_LIMIT = 1000;
+  private static final int MAX_ANALYZED_OFFSET = 1_000_000;
+  private static final double CURSOR_TTL_SECONDS = 600;
   private static final String PATH_FIELD = "path";
   private static final String NAME_FIELD = "name";
   private static final String TEXT_FIELD = "text";
+  private static final String LINES_FIELD = "lines";
+  private static final String MODIFIED_FIELD = "modified";
+  private static final String SIZE_FIELD = "size";
+  private static final Set<String> STAMP_FIELDS =
+      ImmutableSet.of(PATH_FIELD, MODIFIED_FIELD, SIZE_FIELD);
+
+  /**
+   * Text of files is not stored, term vectors with offsets are used to find positions of matches.
+   */
+  private static final FieldType TEXT_TYPE = new FieldType(TextField.TYPE_NOT_STORED);
+
+  static {
+    TEXT_TYPE.setStoreTermVectors(true);
+    TEXT_TYPE.setStoreTermVectorPositions(true);
+    TEXT_TYPE.setStoreTermVectorOffsets(true);
+    TEXT_TYPE.freeze();
+  }
 
   private final Set<PathMatcher> excludePatterns;
   private final File indexDirectory;
   private final PathTransformer pathTransformer;
+  private final int indexingThreads;
 
   private final File root;
   private final IndexWriter luceneIndexWriter;
   private final SearcherManager searcherManager;
   private final Analyzer analyzer;
+  private final SearcherLifetimeManager searcherLifetimeManager = new SearcherLifetimeManager();
   private final CountDownLatch initialIndexingLatch = new CountDownLatch(1);
   private final Sort sort;
 
@@ -117,6 +165,7 @@ public class LuceneSearcher implements Searcher {
       @Named("vfs.index_filter_matcher") Set<PathMatcher> excludePatterns,
       @Named("vfs.local.fs_index_root_dir") File indexDirectory,
       @Named("che.user.workspaces.storage") File root,
+      @Named("che.search.indexing_threads") int indexingThreads,
       PathTransformer pathTransformer)
       throws IOException {
 
@@ -132,6 +181,8 @@ public class LuceneSearcher implements Searcher {
     this.root = root;
     this.excludePatterns = excludePatterns;
     this.pathTransformer = pathTransformer;
+    this.indexingThreads =
+        indexingThreads > 0 ? indexingThreads : Runtime.getRuntime().availableProcessors();
     this.analyzer =
         CustomAnalyzer.builder()
             .withTokenizer(WhitespaceTokenizerFactory.class)
@@ -154,9 +205,13 @@ public class LuceneSearcher implements Searcher {
             () -> {
               try {
                 long start = System.currentTimeMillis();
-                add(root.toPath());
+                synchronizeIndex();
                 LOG.info(
                     "Initial indexing complete after {} msec ", System.currentTimeMillis() - start);
+              } catch (IOException e) {
+                LOG.error("Initial indexing failed: {}", e.getMessage(), e);
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
               } finally {
                 initialIndexingLatch.countDown();
               }
@@ -171,25 +226,158 @@ public class LuceneSearcher implements Searcher {
     return initialIndexingLatch;
   }
 
+  @PreDestroy
+  void close() {
+    try {
+      searcherLifetimeManager.close();
+      searcherManager.close();
+      // committed on close, so files indexed since the last commit are not re-indexed on start
+      luceneIndexWriter.close();
+    } catch (IOException e) {
+      LOG.error("Can't close index: {}", e.getMessage(), e);
+    }
+  }
+
   @ScheduleRate(period = 30, initialDelay = 30)
   private void commitIndex() throws IOException {
     luceneIndexWriter.commit();
   }
 
+  /** Releases searchers kept for paging that were replaced by newer ones long enough ago. */
+  @ScheduleRate(period = 60, initialDelay = 60)
+  private void pruneSearchers() throws IOException {
+    searcherLifetimeManager.prune(new SearcherLifetimeManager.PruneByAge(CURSOR_TTL_SECONDS));
+  }
+
+  /**
+   * Brings index in line with the workspace storage. Files that are not indexed yet or whose
+   * modification time or size differ from the indexed ones are re-indexed in parallel, files that
+   * do not exist anymore are removed from index.
+   */
+  private void synchronizeIndex() throws IOException, InterruptedException {
+    Map<String, FileStamp> indexed = readIndexedFiles();
+    AtomicInteger indexedFiles = new AtomicInteger();
+    ExecutorService executor =
+        newFixedThreadPool(
+            indexingThreads,
+            new ThreadFactoryBuilder()
+                .setNameFormat("LuceneSearcherIndexer-%d")
+                .setDaemon(true)
+                .build());
+    boolean walkCompleted = false;
+    try {
+      Files.walkFileTree(
+          root.toPath(),
+          new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+              if (!isNotExcluded(file)) {
+                return FileVisitResult.CONTINUE;
+              }
+              FileStamp stamp = indexed.remove(pathTransformer.transform(file));
+              if (stamp == null || !stamp.matches(attrs)) {
+                executor.execute(
+                    () -> {
+                      addFile(file);
+                      indexedFiles.incrementAndGet();
+                    });
+              }
+              return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+              LOG.warn("Not able to index {} because {} ", file, e.getMessage());
+              return FileVisitResult.CONTINUE;
+            }
+          });
+      walkCompleted = true;
+    } finally {
+      executor.shutdown();
+      executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    }
+
+    // files of a tree that was not walked completely can't be told from removed ones
+    if (walkCompleted) {
+      for (String wsPath : indexed.keySet()) {
+        luceneIndexWriter.deleteDocuments(new Term(PATH_FIELD, wsPath));
+      }
+      LOG.info(
+          "Re-indexed {} files, removed {} files from index", indexedFiles.get(), indexed.size());
+    }
+    luceneIndexWriter.commit();
+    printStatistic();
+  }
+
+  /** Returns modification time and size of all files in the index mapped by their paths. */
+  private Map<String, FileStamp> readIndexedFiles() throws IOException {
+    Map<String, FileStamp> indexed = new HashMap<>();
+    IndexSearcher luceneSearcher = null;
+    try {
+      searcherManager.maybeRefresh();
+      luceneSearcher = searcherManager.acquire();
+      for (LeafReaderContext context : luceneSearcher.getIndexReader().leaves()) {
+        LeafReader reader = context.reader();
+        Bits liveDocs = reader.getLiveDocs();
+        for (int docId = 0; docId < reader.maxDoc(); docId++) {
+          if (liveDocs != null && !liveDocs.get(docId)) {
+            continue;
+          }
+          Document doc = reader.document(docId, STAMP_FIELDS);
+          IndexableField modified = doc.getField(MODIFIED_FIELD);
+          IndexableField size = doc.getField(SIZE_FIELD);
+          indexed.put(
+              doc.get(PATH_FIELD),
+              modified == null || size == null
+                  ? FileStamp.UNKNOWN
+                  : new FileStamp(
+                      modified.numericValue().longValue(), size.numericValue().longValue()));
+        }
+      }
+    } finally {
+      searcherManager.release(luceneSearcher);
+    }
+    return indexed;
+  }
+
   @Override
   public SearchResult search(QueryExpression query)
       throws InvalidQueryException, QueryExecutionException {
+    List<SearchResultEntry> results = newArrayList();
+    SearchResult result = search(query, results::add);
+    return SearchResult.aSearchResult()
+        .withResults(results)
+        .withTotalHits(result.getTotalHits())
+        .withNextPageQueryExpression(result.getNextPageQueryExpression().orNull())
+        .withElapsedTimeMillis(result.getElapsedTimeMillis())
+        .build();
+  }
+
+  @Override
+  public SearchResult search(QueryExpression query, Consumer<SearchResultEntry> consumer)
+      throws InvalidQueryException, QueryExecutionException {
     IndexSearcher luceneSearcher = null;
+    boolean pinnedSearcher = false;
     try {
       final long startTime = System.currentTimeMillis();
-      searcherManager.maybeRefresh();
-      luceneSearcher = searcherManager.acquire();
+      Cursor cursor = query.getCursor() != null ? Cursor.parse(query.getCursor()) : null;
+      if (cursor != null) {
+        // the same searcher as for the previous page, so pages are consistent
+        luceneSearcher = searcherLifetimeManager.acquire(cursor.version);
+        pinnedSearcher = luceneSearcher != null;
+      }
+      if (!pinnedSearcher) {
+        searcherManager.maybeRefresh();
+        luceneSearcher = searcherManager.acquire();
+      }
 
       Query luceneQuery = createLuceneQuery(query);
 
       ScoreDoc after = null;
       final int numSkipDocs = Math.max(0, query.getSkipCount());
-      if (numSkipDocs > 0) {
+      if (cursor != null) {
+        after = cursor.toScoreDoc();
+      } else if (numSkipDocs > 0) {
         after = skipScoreDocs(luceneSearcher, luceneQuery, numSkipDocs);
       }
 
@@ -198,95 +386,41 @@ public class LuceneSearcher implements Searcher {
       TopDocs topDocs = luceneSearcher.searchAfter(after, luceneQuery, numDocs, sort, true, true);
       final long totalHitsNum = topDocs.totalHits;
 
-      List<SearchResultEntry> results = newArrayList();
       List<OffsetData> offsetData = Collections.emptyList();
       for (int i = 0; i < topDocs.scoreDocs.length; i++) {
         ScoreDoc scoreDoc = topDocs.scoreDocs[i];
         int docId = scoreDoc.doc;
         Document doc = luceneSearcher.doc(docId);
         if (query.isIncludePositions()) {
-          offsetData = new ArrayList<>();
-          String txt = doc.get(TEXT_FIELD);
-          if (txt != null) {
-            IndexReader reader = luceneSearcher.getIndexReader();
-
-            TokenStream tokenStream =
-                TokenSources.getTokenStream(
-                    TEXT_FIELD,
-                    reader.getTermVectors(docId),
-                    txt,
-                    luceneIndexWriter.getAnalyzer(),
-                    -1);
-
-            CharTermAttribute termAtt = tokenStream.addAttribute(CharTermAttribute.class);
-            OffsetAttribute offsetAtt = tokenStream.addAttribute(OffsetAttribute.class);
-
-            QueryScorer queryScorer = new QueryScorer(luceneQuery);
-            // TODO think about this constant
-            queryScorer.setMaxDocCharsToAnalyze(1_000_000);
-            TokenStream newStream = queryScorer.init(tokenStream);
-            if (newStream != null) {
-              tokenStream = newStream;
-            }
-            queryScorer.startFragment(null);
-
-            tokenStream.reset();
-
-            int startOffset, endOffset;
-            // TODO think about this constant
-            for (boolean next = tokenStream.incrementToken();
-                next && (offsetAtt.startOffset() < 1_000_000);
-                next = tokenStream.incrementToken()) {
-              startOffset = offsetAtt.startOffset();
-              endOffset = offsetAtt.endOffset();
-
-              if ((endOffset > txt.length()) || (startOffset > txt.length())) {
-                throw new QueryExecutionException(
-                    "Token "
-                        + termAtt.toString()
-                        + " exceeds length of provided text size "
-                        + txt.length());
-              }
-
-              float res = queryScorer.getTokenScore();
-              if (res > 0.0F && startOffset <= endOffset) {
-                String tokenText = txt.substring(startOffset, endOffset);
-                Scanner sc = new Scanner(txt);
-                int lineNum = 1;
-                long len = 0;
-                String foundLine = "";
-                while (sc.hasNextLine()) {
-                  foundLine = sc.nextLine();
-
-                  len += foundLine.length();
-                  if (len > startOffset) {
-                    break;
-                  }
-                  lineNum++;
-                }
-                offsetData.add(
-                    new OffsetData(tokenText, startOffset, endOffset, res, lineNum, foundLine));
-              }
-            }
-          }
+          offsetData = getOffsetData(luceneSearcher.getIndexReader(), docId, doc, luceneQuery);
         }
 
         String filePath = doc.getField(PATH_FIELD).stringValue();
         LOG.debug("Doc {} path {} score {} ", docId, filePath, scoreDoc.score);
-        results.add(new SearchResultEntry(filePath, offsetData));
+        consumer.accept(new SearchResultEntry(filePath, offsetData));
       }
 
       final long elapsedTimeMillis = System.currentTimeMillis() - startTime;
 
-      boolean hasMoreToRetrieve = numSkipDocs + topDocs.scoreDocs.length + 1 < totalHitsNum;
+      boolean hasMoreToRetrieve = numSkipDocs + topDocs.scoreDocs.length < totalHitsNum;
       QueryExpression nextPageQueryExpression = null;
       if (hasMoreToRetrieve) {
         nextPageQueryExpression =
             createNextPageQuery(query, numSkipDocs + topDocs.scoreDocs.length);
+        if (topDocs.scoreDocs.length > 0) {
+          FieldDoc last = (FieldDoc) topDocs.scoreDocs[topDocs.scoreDocs.length - 1];
+          // searcher is kept for the next page only when there is one
+          long version =
+              pinnedSearcher ? cursor.version : searcherLifetimeManager.record(luceneSearcher);
+          nextPageQueryExpression.setCursor(
+              new Cursor(version, last.doc, last.score, ((BytesRef) last.fields[1]).utf8ToString())
+                  .toString());
+        } else {
+          nextPageQueryExpression.setCursor(query.getCursor());
+        }
       }
 
       return SearchResult.aSearchResult()
-          .withResults(results)
           .withTotalHits(totalHitsNum)
           .withNextPageQueryExpression(nextPageQueryExpression)
           .withElapsedTimeMillis(elapsedTimeMillis)
@@ -297,13 +431,195 @@ public class LuceneSearcher implements Searcher {
       throw new QueryExecutionException(e.getMessage(), e);
     } finally {
       try {
-        searcherManager.release(luceneSearcher);
+        if (pinnedSearcher) {
+          searcherLifetimeManager.release(luceneSearcher);
+        } else {
+          searcherManager.release(luceneSearcher);
+        }
       } catch (IOException e) {
         LOG.error(e.getMessage());
       }
     }
   }
 
+  /**
+   * Finds positions of query matches in the document. Offsets of matched tokens come from term
+   * vectors and line numbers from the line start table of the document. The file is read only if
+   * there are matches, and only up to the end of the last matched line, to get text of matched
+   * tokens and lines. Documents indexed without term vectors or line start table are analyzed from
+   * the whole file text.
+   */
+  private List<OffsetData> getOffsetData(
+      IndexReader reader, int docId, Document doc, Query luceneQuery) throws IOException {
+    String wsPath = doc.get(PATH_FIELD);
+    Path fsPath = pathTransformer.transform(wsPath);
+    BytesRef lines = doc.getBinaryValue(LINES_FIELD);
+    int[] lineStarts = lines != null ? decodeLineStarts(lines) : null;
+
+    String txt = null;
+    TokenStream tokenStream =
+        TokenSources.getTermVectorTokenStreamOrNull(
+            TEXT_FIELD, reader.getTermVectors(docId), MAX_ANALYZED_OFFSET);
+    if (tokenStream == null || lineStarts == null) {
+      try {
+        txt = readText(fsPath, Integer.MAX_VALUE);
+      } catch (IOException e) {
+        LOG.warn("Can't read positions of matches in file: {}", wsPath);
+        return Collections.emptyList();
+      }
+      lineStarts = getLineStarts(txt);
+      if (tokenStream == null) {
+        tokenStream = luceneIndexWriter.getAnalyzer().tokenStream(TEXT_FIELD, txt);
+      }
+    }
+
+    List<Match> matches = findMatches(tokenStream, luceneQuery);
+    if (matches.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    if (txt == null) {
+      int lastLine = getLineIndex(lineStarts, matches.get(matches.size() - 1).startOffset);
+      int limit = lastLine + 1 < lineStarts.length ? lineStarts[lastLine + 1] : Integer.MAX_VALUE;
+      try {
+        txt = readText(fsPath, limit);
+      } catch (IOException e) {
+        LOG.warn("Can't read positions of matches in file: {}", wsPath);
+        return Collections.emptyList();
+      }
+    }
+
+    List<OffsetData> offsetData = new ArrayList<>(matches.size());
+    for (Match match : matches) {
+      if (match.endOffset > txt.length()) {
+        // file was changed after it was indexed, index is updated on the change event
+        LOG.debug("Match {} exceeds length {} of file {}", match.endOffset, txt.length(), wsPath);
+        break;
+      }
+      int line = getLineIndex(lineStarts, match.startOffset);
+      offsetData.add(
+          new OffsetData(
+              txt.substring(match.startOffset, match.endOffset),
+              match.startOffset,
+              match.endOffset,
+              match.score,
+              line + 1,
+              getLine(txt, lineStarts, line)));
+    }
+    return offsetData;
+  }
+
+  /** Returns tokens of the stream that match the query, ordered by their offsets. */
+  private static List<Match> findMatches(TokenStream tokenStream, Query luceneQuery)
+      throws IOException {
+    OffsetAttribute offsetAtt = tokenStream.addAttribute(OffsetAttribute.class);
+
+    QueryScorer queryScorer = new QueryScorer(luceneQuery);
+    queryScorer.setMaxDocCharsToAnalyze(MAX_ANALYZED_OFFSET);
+    TokenStream newStream = queryScorer.init(tokenStream);
+    if (newStream != null) {
+      tokenStream = newStream;
+    }
+    queryScorer.startFragment(null);
+
+    List<Match> matches = new ArrayList<>();
+    try {
+      tokenStream.reset();
+      for (boolean next = tokenStream.incrementToken();
+          next && (offsetAtt.startOffset() < MAX_ANALYZED_OFFSET);
+          next = tokenStream.incrementToken()) {
+        float res = queryScorer.getTokenScore();
+        if (res > 0.0F && offsetAtt.startOffset() <= offsetAtt.endOffset()) {
+          matches.add(new Match(offsetAtt.startOffset(), offsetAtt.endOffset(), res));
+        }
+      }
+      tokenStream.end();
+    } finally {
+      tokenStream.close();
+    }
+    matches.sort(Comparator.comparingInt(match -> match.startOffset));
+    return matches;
+  }
+
+  /** Returns zero based index of the line that contains given offset. */
+  private static int getLineIndex(int[] lineStarts, int offset) {
+    int line = Arrays.binarySearch(lineStarts, offset);
+    return line < 0 ? -line - 2 : line;
+  }
+
+  /** Returns text of the line without line terminator. */
+  private static String getLine(String txt, int[] lineStarts, int line) {
+    int start = Math.min(lineStarts[line], txt.length());
+    int end = line + 1 < lineStarts.length ? lineStarts[line + 1] : txt.length();
+    end = Math.max(start, Math.min(end, txt.length()));
+    while (end > start && (txt.charAt(end - 1) == '\n' || txt.charAt(end - 1) == '\r')) {
+      end--;
+    }
+    return txt.substring(start, end);
+  }
+
+  /** Returns offsets of line starts, lines are terminated by '\n', '\r' or "\r\n". */
+  private static int[] getLineStarts(String txt) {
+    int[] lineStarts = new int[16];
+    int count = 1;
+    for (int i = 0; i < txt.length(); i++) {
+      char c = txt.charAt(i);
+      if (c == '\r' && i + 1 < txt.length() && txt.charAt(i + 1) == '\n') {
+        i++;
+      } else if (c != '\r' && c != '\n') {
+        continue;
+      }
+      if (i + 1 < txt.length()) {
+        if (count == lineStarts.length) {
+          lineStarts = Arrays.copyOf(lineStarts, count * 2);
+        }
+        lineStarts[count++] = i + 1;
+      }
+    }
+    return Arrays.copyOf(lineStarts, count);
+  }
+
+  /** Encodes line starts as variable length deltas, usually one or two bytes per line. */
+  private static BytesRef encodeLineStarts(int[] lineStarts) {
+    byte[] bytes = new byte[5 * (lineStarts.length + 1)];
+    ByteArrayDataOutput out = new ByteArrayDataOutput(bytes);
+    try {
+      out.writeVInt(lineStarts.length);
+      for (int i = 1; i < lineStarts.length; i++) {
+        out.writeVInt(lineStarts[i] - lineStarts[i - 1]);
+      }
+    } catch (IOException e) {
+      // never thrown by in memory output
+      throw new IllegalStateException(e);
+    }
+    return new BytesRef(bytes, 0, out.getPosition());
+  }
+
+  private static int[] decodeLineStarts(BytesRef encoded) {
+    ByteArrayDataInput in = new ByteArrayDataInput(encoded.bytes, encoded.offset, encoded.length);
+    int[] lineStarts = new int[in.readVInt()];
+    for (int i = 1; i < lineStarts.length; i++) {
+      lineStarts[i] = lineStarts[i - 1] + in.readVInt();
+    }
+    return lineStarts;
+  }
+
+  /** Reads at most {@code maxChars} first characters of the file. */
+  private static String readText(Path fsPath, int maxChars) throws IOException {
+    try (Reader reader =
+        new BufferedReader(new InputStreamReader(new FileInputStream(fsPath.toFile()), "utf-8"))) {
+      StringBuilder text = new StringBuilder();
+      char[] buffer = new char[8192];
+      int read;
+      while (text.length() < maxChars
+          && (read = reader.read(buffer, 0, Math.min(buffer.length, maxChars - text.length())))
+              != -1) {
+        text.append(buffer, 0, read);
+      }
+      return text.toString();
+    }
+  }
+
   private Query createLuceneQuery(QueryExpression query) throws ParseException, IOException {
     BooleanQuery.Builder luceneQueryBuilder = new BooleanQuery.Builder();
     final String name = query.getName();
@@ -399,13 +715,19 @@ public class LuceneSearcher implements Searcher {
 
     try (Reader reader =
         new BufferedReader(new InputStreamReader(new FileInputStream(fsPath.toFile()), "utf-8"))) {
+      // taken before reading, so a file changed while it is read is re-indexed on next start
+      BasicFileAttributes attrs = Files.readAttributes(fsPath, BasicFileAttributes.class);
       String name = nameOf(wsPath);
       Document doc = new Document();
       doc.add(new StringField(PATH_FIELD, wsPath, Field.Store.YES));
       doc.add(new SortedDocValuesField(PATH_FIELD, new BytesRef(wsPath)));
       doc.add(new TextField(NAME_FIELD, name, Field.Store.YES));
+      doc.add(new StoredField(MODIFIED_FIELD, attrs.lastModifiedTime().toMillis()));
+      doc.add(new StoredField(SIZE_FIELD, attrs.size()));
       try {
-        doc.add(new TextField(TEXT_FIELD, CharStreams.toString(reader), Field.Store.YES));
+        String text = CharStreams.toString(reader);
+        doc.add(new Field(TEXT_FIELD, text, TEXT_TYPE));
+        doc.add(new StoredField(LINES_FIELD, encodeLineStarts(getLineStarts(text))));
       } catch (MalformedInputException e) {
         LOG.warn("Can't index file: {}", wsPath);
       }
@@ -472,4 +794,79 @@ public class LuceneSearcher implements Searcher {
     }
     return true;
   }
+
+  /** Modification time and size of an indexed file. */
+  private static class FileStamp {
+    private static final FileStamp UNKNOWN = new FileStamp(-1, -1);
+
+    private final long modified;
+    private final long size;
+
+    private FileStamp(long modified, long size) {
+      this.modified = modified;
+      this.size = size;
+    }
+
+    private boolean matches(BasicFileAttributes attrs) {
+      return modified == attrs.lastModifiedTime().toMillis() && size == attrs.size();
+    }
+  }
+
+  /** Token of a file that matches a query: its offsets in the file text and score. */
+  private static class Match {
+    private final int startOffset;
+    private final int endOffset;
+    private final float score;
+
+    private Match(int startOffset, int endOffset, float score) {
+      this.startOffset = startOffset;
+      this.endOffset = endOffset;
+      this.score = score;
+    }
+  }
+
+  /**
+   * Position of the last item of a page: version of the searcher, the item was found with, and
+   * values the item was sorted by. Items are sorted by path as the last criteria, so the position
+   * stays correct even if the searcher is released and the search continues with a newer one.
+   */
+  private static class Cursor {
+    private final long version;
+    private final int doc;
+    private final float score;
+    private final String path;
+
+    private Cursor(long version, int doc, float score, String path) {
+      this.version = version;
+      this.doc = doc;
+      this.score = score;
+      this.path = path;
+    }
+
+    private static Cursor parse(String cursor) throws InvalidQueryException {
+      try {
+        String[] parts =
+            new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 4);
+        return new Cursor(
+            Long.parseLong(parts[0]),
+            Integer.parseInt(parts[1]),
+            Float.intBitsToFloat(Integer.parseInt(parts[2])),
+            parts[3]);
+      } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+        throw new InvalidQueryException("Invalid search cursor: " + cursor);
+      }
+    }
+
+    private ScoreDoc toScoreDoc() {
+      return new FieldDoc(doc, score, new Object[] {score, new BytesRef(path)});
+    }
+
+    @Override
+    public String toString() {
+      String value = version + ":" + doc + ":" + Float.floatToIntBits(score) + ":" + path;
+      return Base64.getUrlEncoder()
+          .withoutPadding()
+          .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+  }
 }
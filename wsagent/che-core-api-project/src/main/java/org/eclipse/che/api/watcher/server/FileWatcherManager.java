@@ -12,6 +12,7 @@ package org.eclipse.che.api.watcher.server;
 
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
+import java.util.List;
 import java.util.function.Consumer;
 
 /** Facade for all dynamic file watcher system related operations. */
@@ -39,6 +40,26 @@ public interface FileWatcherManager {
   int registerByPath(
       String wsPath, Consumer<String> create, Consumer<String> modify, Consumer<String> delete);
 
+  /**
+   * Start watching a file system item by specifying its path the same way as {@link
+   * #registerByPath(String, Consumer, Consumer, Consumer)} does, but each consumer is called once
+   * with paths of all corresponding events of a batch of coalesced file watcher events instead of
+   * being called for each path separately.
+   *
+   * <p>Registration is cancelled with {@link #unRegisterByPath(int)}.
+   *
+   * @param wsPath absolute workspace path
+   * @param create consumer for create events
+   * @param modify consumer for modify events
+   * @param delete consumer for delete events
+   * @return operation set identifier
+   */
+  int registerBatchByPath(
+      String wsPath,
+      Consumer<List<String>> create,
+      Consumer<List<String>> modify,
+      Consumer<List<String>> delete);
+
   /**
    * Stops watching a file system item. More accurately it cancels registration of an operation set
    * identified by a parameter to a specific path, so any event related to that path no longer calls
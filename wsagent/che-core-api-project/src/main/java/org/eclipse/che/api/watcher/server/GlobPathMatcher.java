@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.watcher.server;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+
+/**
+ * Path matcher of the default file system glob syntax that keeps its pattern. Matchers registered
+ * with {@link FileWatcherManager#registerByMatcher} that are instances of this class are indexed
+ * by their patterns, so a path is checked only against matchers that can match it, other matchers
+ * are checked against each path.
+ */
+public class GlobPathMatcher implements PathMatcher {
+  private static final String GLOB_SYNTAX = "glob:";
+
+  private final String glob;
+  private final PathMatcher delegate;
+
+  /** @param glob pattern in glob syntax without syntax prefix */
+  public GlobPathMatcher(String glob) {
+    this.glob = glob;
+    this.delegate = FileSystems.getDefault().getPathMatcher(GLOB_SYNTAX + glob);
+  }
+
+  /**
+   * Creates a path matcher the same way as {@link java.nio.file.FileSystem#getPathMatcher(String)}
+   * of the default file system does, but a matcher of glob syntax is created as {@link
+   * GlobPathMatcher}.
+   *
+   * @param syntaxAndPattern syntax and pattern
+   */
+  public static PathMatcher of(String syntaxAndPattern) {
+    if (syntaxAndPattern.startsWith(GLOB_SYNTAX)) {
+      return new GlobPathMatcher(syntaxAndPattern.substring(GLOB_SYNTAX.length()));
+    }
+    return FileSystems.getDefault().getPathMatcher(syntaxAndPattern);
+  }
+
+  /** Returns pattern of the matcher without syntax prefix. */
+  public String getGlob() {
+    return glob;
+  }
+
+  @Override
+  public boolean matches(Path path) {
+    return delegate.matches(path);
+  }
+
+  @Override
+  public String toString() {
+    return GLOB_SYNTAX + glob;
+  }
+}
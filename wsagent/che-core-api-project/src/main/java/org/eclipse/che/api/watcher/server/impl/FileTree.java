@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.watcher.server.impl;
+
+import static java.util.Collections.emptyList;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compact in-memory tree of file system items and their modification times. Node keeps only the
+ * name of an item instead of its full path, names are interned, so names that repeat across the
+ * tree (e.g. {@code src} or {@code pom.xml}) are stored once, modification times are kept as
+ * primitives. Not thread safe.
+ */
+class FileTree {
+  private final Interner<String> names = Interners.newWeakInterner();
+
+  private Node root;
+
+  Node getRoot() {
+    return root;
+  }
+
+  /**
+   * Returns node of an item.
+   *
+   * @param relative path of the item relative to the tree root
+   * @return node or null if there is no such item in the tree
+   */
+  Node get(Path relative) {
+    Node node = root;
+    if (node == null || relative.toString().isEmpty()) {
+      return node;
+    }
+    for (Path name : relative) {
+      node = node.getChild(name.toString());
+      if (node == null) {
+        return null;
+      }
+    }
+    return node;
+  }
+
+  /**
+   * Adds a node to the tree.
+   *
+   * @param parent parent node or null to add the root node
+   * @param name name of the item
+   * @param directory whether the item is a directory
+   * @param modified modification time of the item
+   * @return added node
+   */
+  Node add(Node parent, String name, boolean directory, long modified) {
+    Node node = new Node(parent, names.intern(name), directory, modified);
+    if (parent == null) {
+      root = node;
+    } else {
+      if (parent.children == null) {
+        parent.children = new HashMap<>(4);
+      }
+      parent.children.put(node.name, node);
+    }
+    return node;
+  }
+
+  /** Removes node with all its descendants from the tree. */
+  void remove(Node node) {
+    Node parent = node.parent;
+    if (parent == null) {
+      root = null;
+    } else if (parent.children != null) {
+      parent.children.remove(node.name);
+      if (parent.children.isEmpty()) {
+        parent.children = null;
+      }
+    }
+  }
+
+  static class Node {
+    final Node parent;
+    final String name;
+    final boolean directory;
+
+    long modified;
+    int generation;
+    int watchId = -1;
+    boolean registered;
+
+    private Map<String, Node> children;
+
+    private Node(Node parent, String name, boolean directory, long modified) {
+      this.parent = parent;
+      this.name = name;
+      this.directory = directory;
+      this.modified = modified;
+    }
+
+    Node getChild(String name) {
+      return children == null ? null : children.get(name);
+    }
+
+    Collection<Node> getChildren() {
+      return children == null ? emptyList() : children.values();
+    }
+  }
+}
@@ -13,8 +13,11 @@ package org.eclipse.che.api.watcher.server.impl;
 import static java.nio.file.FileVisitResult.CONTINUE;
 import static java.nio.file.FileVisitResult.SKIP_SUBTREE;
 import static java.nio.file.Files.exists;
+import static java.nio.file.Files.readAttributes;
 import static java.nio.file.Files.walkFileTree;
-import static java.util.stream.Collectors.toSet;
+import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
+import static org.eclipse.che.api.watcher.server.impl.FileWatcherUtils.isExcluded;
+import static org.eclipse.che.api.watcher.server.impl.FileWatcherUtils.toNormalPath;
 
 import com.google.inject.Inject;
 import java.io.File;
@@ -25,12 +28,17 @@ import java.nio.file.Path;
 import java.nio.file.PathMatcher;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import javax.inject.Named;
 import javax.inject.Singleton;
+import org.eclipse.che.api.watcher.server.impl.FileTree.Node;
 import org.eclipse.che.commons.schedule.ScheduleRate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,12 +46,20 @@ import org.slf4j.LoggerFactory;
 /**
  * Walks a file system tree, register addition, update and removal of file system items. On events
  * runs corresponding consumers that can be registered in DI configuration modules.
+ *
+ * <p>Known items are kept in a compact {@link FileTree}. By default the whole tree is walked every
+ * 10 seconds. In event driven mode every walked directory is watched with {@link
+ * FileWatcherService}, each new subtree is registered there with a single call, and changes are
+ * detected by its events, which are handled in batches of coalesced events. The tree is then
+ * walked only once in {@code che.fs.tree_walker.reconcile_period_sec} seconds to catch changes
+ * that were missed.
  */
 @Singleton
 public class FileTreeWalker {
   private static final Logger LOG = LoggerFactory.getLogger(FileTreeWalker.class);
 
   private final File root;
+  private final Path absoluteRoot;
 
   private final Set<Consumer<Path>> directoryUpdateConsumers;
   private final Set<Consumer<Path>> directoryCreateConsumers;
@@ -55,8 +71,18 @@ public class FileTreeWalker {
   private final Set<Consumer<Path>> fileDeleteConsumers;
   private final Set<PathMatcher> fileExcludes;
 
-  private final Map<Path, Long> files = new HashMap<>();
-  private final Map<Path, Long> directories = new HashMap<>();
+  private final FileWatcherService watcherService;
+  private final FileWatcherEventHandler watcherEventHandler;
+  private final boolean eventDriven;
+  private final long reconcilePeriodMillis;
+
+  private final FileTree tree = new FileTree();
+  /** Roots of subtrees registered in file watcher during current walk or batch of events. */
+  private final Set<Path> registeredRoots = new HashSet<>();
+  /** Directories registered in file watcher with their subtree root but not visited yet. */
+  private final Set<Path> registeredDirs = new HashSet<>();
+  private int generation;
+  private volatile long lastWalkTime;
 
   @Inject
   public FileTreeWalker(
@@ -68,8 +94,13 @@ public class FileTreeWalker {
       @Named("che.fs.file.update") Set<Consumer<Path>> fileUpdateConsumers,
       @Named("che.fs.file.create") Set<Consumer<Path>> fileCreateConsumers,
       @Named("che.fs.file.delete") Set<Consumer<Path>> fileDeleteConsumers,
-      @Named("che.fs.file.excludes") Set<PathMatcher> fileExcludes) {
+      @Named("che.fs.file.excludes") Set<PathMatcher> fileExcludes,
+      FileWatcherService watcherService,
+      FileWatcherEventHandler watcherEventHandler,
+      @Named("che.fs.tree_walker.event_driven") boolean eventDriven,
+      @Named("che.fs.tree_walker.reconcile_period_sec") long reconcilePeriodSec) {
     this.root = root;
+    this.absoluteRoot = root.toPath().toAbsolutePath();
 
     this.directoryUpdateConsumers = directoryUpdateConsumers;
     this.directoryCreateConsumers = directoryCreateConsumers;
@@ -81,81 +112,270 @@ public class FileTreeWalker {
 
     this.directoryExcludes = directoryExcludes;
     this.fileExcludes = fileExcludes;
+
+    this.watcherService = watcherService;
+    this.watcherEventHandler = watcherEventHandler;
+    this.eventDriven = eventDriven;
+    this.reconcilePeriodMillis = TimeUnit.SECONDS.toMillis(reconcilePeriodSec);
   }
 
   @ScheduleRate(period = 10)
   void walk() {
+    if (eventDriven
+        && tree.getRoot() != null
+        && System.currentTimeMillis() - lastWalkTime < reconcilePeriodMillis) {
+      return;
+    }
+    synchronized (tree) {
+      walkTree();
+      lastWalkTime = System.currentTimeMillis();
+    }
+  }
+
+  private void walkTree() {
     try {
       LOG.debug("Tree walk started");
+      int walkGeneration = ++generation;
+      walkFileTree(root.toPath(), new TreeVisitor(null));
 
-      Set<Path> deletedFiles = files.keySet().stream().filter(it -> !exists(it)).collect(toSet());
-      fileDeleteConsumers.forEach(deletedFiles::forEach);
-      files.keySet().removeAll(deletedFiles);
-
-      Set<Path> deletedDirectories =
-          directories.keySet().stream().filter(it -> !exists(it)).collect(toSet());
-      directoryDeleteConsumers.forEach(deletedDirectories::forEach);
-      directories.keySet().removeAll(deletedDirectories);
-
-      walkFileTree(
-          root.toPath(),
-          new SimpleFileVisitor<Path>() {
-            @Override
-            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs)
-                throws IOException {
-              for (PathMatcher matcher : directoryExcludes) {
-                if (matcher.matches(dir)) {
-                  return SKIP_SUBTREE;
-                }
-              }
-
-              updateFsTreeAndAcceptConsumables(
-                  directories, directoryUpdateConsumers, directoryCreateConsumers, dir, attrs);
-
-              return CONTINUE;
-            }
-
-            @Override
-            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
-              for (PathMatcher matcher : fileExcludes) {
-                if (matcher.matches(file)) {
-                  return CONTINUE;
-                }
-              }
-
-              updateFsTreeAndAcceptConsumables(
-                  files, fileUpdateConsumers, fileCreateConsumers, file, attrs);
-
-              return CONTINUE;
-            }
-          });
+      Node rootNode = tree.getRoot();
+      if (rootNode != null) {
+        if (rootNode.generation != walkGeneration) {
+          remove(rootNode, root.toPath());
+        } else {
+          removeNotVisited(rootNode, root.toPath(), walkGeneration);
+        }
+      }
       LOG.debug("Tree walk finished");
-    } catch (NoSuchFileException e) {
-      LOG.debug(
-          "Trying to process a file, however seems like it is already not present: {}",
-          e.getMessage());
     } catch (Exception e) {
       LOG.error("Error while walking file tree", e);
+    } finally {
+      unregisterNotVisited();
     }
   }
 
-  private void updateFsTreeAndAcceptConsumables(
-      Map<Path, Long> items,
-      Set<Consumer<Path>> updateConsumer,
-      Set<Consumer<Path>> createConsumer,
-      Path path,
-      BasicFileAttributes attrs) {
-    Long lastModifiedActual = attrs.lastModifiedTime().toMillis();
+  /**
+   * Registers visit of an item, runs create consumers if the item is new or update consumers if
+   * its modification time differs from the known one.
+   *
+   * @param parent node of the parent directory or null for the root
+   * @return node of the item
+   */
+  private Node visit(Node parent, Path path, BasicFileAttributes attrs) {
+    boolean directory = attrs.isDirectory();
+    long modified = attrs.lastModifiedTime().toMillis();
+    Node node = parent == null ? tree.getRoot() : parent.getChild(nameOf(path));
 
-    if (items.containsKey(path)) {
-      Long lastModifiedStored = items.get(path);
-      if (!lastModifiedActual.equals(lastModifiedStored)) {
-        items.put(path, lastModifiedActual);
-        updateConsumer.forEach(it -> it.accept(path));
+    if (node != null && node.directory != directory) {
+      remove(node, path);
+      node = null;
+    }
+
+    if (node == null) {
+      node = tree.add(parent, nameOf(path), directory, modified);
+      node.generation = generation;
+      if (directory) {
+        watch(node, path);
+        directoryCreateConsumers.forEach(it -> it.accept(path));
+      } else {
+        fileCreateConsumers.forEach(it -> it.accept(path));
       }
     } else {
-      items.put(path, lastModifiedActual);
-      createConsumer.forEach(it -> it.accept(path));
+      node.generation = generation;
+      if (node.modified != modified) {
+        node.modified = modified;
+        (directory ? directoryUpdateConsumers : fileUpdateConsumers).forEach(it -> it.accept(path));
+      }
+    }
+    return node;
+  }
+
+  /** Removes descendants of the node that were not visited during the walk. */
+  private void removeNotVisited(Node node, Path path, int walkGeneration) {
+    List<Node> notVisited = new ArrayList<>();
+    for (Node child : node.getChildren()) {
+      if (child.generation != walkGeneration) {
+        notVisited.add(child);
+      } else if (child.directory) {
+        removeNotVisited(child, path.resolve(child.name), walkGeneration);
+      }
+    }
+    for (Node child : notVisited) {
+      remove(child, path.resolve(child.name));
+    }
+  }
+
+  /** Removes the node with its descendants, runs delete consumers for files then directories. */
+  private void remove(Node node, Path path) {
+    List<Path> files = new ArrayList<>();
+    List<Path> directories = new ArrayList<>();
+    collect(node, path, files, directories);
+    tree.remove(node);
+
+    fileDeleteConsumers.forEach(files::forEach);
+    directoryDeleteConsumers.forEach(directories::forEach);
+  }
+
+  private void collect(Node node, Path path, List<Path> files, List<Path> directories) {
+    if (!node.directory) {
+      files.add(path);
+      return;
+    }
+    directories.add(path);
+    unwatch(node, path);
+    for (Node child : node.getChildren()) {
+      collect(child, path.resolve(child.name), files, directories);
+    }
+  }
+
+  private void watch(Node node, Path dir) {
+    if (eventDriven) {
+      Path absoluteDir = dir.toAbsolutePath();
+      if (!isWithinRegisteredRoot(absoluteDir)) {
+        // the first directory of a new subtree, the whole subtree is registered at once
+        registeredRoots.add(absoluteDir);
+        registeredDirs.addAll(
+            watcherService.registerRecursively(
+                absoluteDir, it -> isExcluded(directoryExcludes, toWalkedPath(it))));
+      }
+      node.registered = registeredDirs.remove(absoluteDir);
+      node.watchId =
+          watcherEventHandler.registerBatch(
+              absoluteDir, this::onChange, this::onChange, this::onDelete);
+    }
+  }
+
+  private boolean isWithinRegisteredRoot(Path dir) {
+    for (Path path = dir; path != null; path = path.getParent()) {
+      if (registeredRoots.contains(path)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Cancels registrations of directories that were registered with their subtree, but were not
+   * visited, e.g. removed meanwhile.
+   */
+  private void unregisterNotVisited() {
+    registeredDirs.forEach(watcherService::unRegister);
+    registeredDirs.clear();
+    registeredRoots.clear();
+  }
+
+  private void unwatch(Node node, Path dir) {
+    if (node.registered) {
+      watcherService.unRegister(dir.toAbsolutePath());
+      node.registered = false;
+    }
+    if (node.watchId != -1) {
+      watcherEventHandler.unRegister(node.watchId);
+      node.watchId = -1;
     }
   }
+
+  /** Handles creation or modification of a batch of items reported by file watcher. */
+  private void onChange(List<String> internalPaths) {
+    synchronized (tree) {
+      try {
+        internalPaths.forEach(this::change);
+      } finally {
+        unregisterNotVisited();
+      }
+    }
+  }
+
+  /** Handles deletion of a batch of items reported by file watcher. */
+  private void onDelete(List<String> internalPaths) {
+    synchronized (tree) {
+      internalPaths.forEach(this::delete);
+    }
+  }
+
+  private void change(String internalPath) {
+    Path path = toWalkedPath(toNormalPath(absoluteRoot, internalPath));
+    Node parent = tree.get(getRelativePath(path.getParent()));
+    if (parent == null || !parent.directory) {
+      // parent is excluded or not walked yet
+      return;
+    }
+    try {
+      BasicFileAttributes attrs = readAttributes(path, BasicFileAttributes.class, NOFOLLOW_LINKS);
+      if (attrs.isDirectory() && parent.getChild(nameOf(path)) == null) {
+        // entries may be created in the directory before it is watched
+        walkFileTree(path, new TreeVisitor(parent));
+      } else if (!isExcluded(attrs.isDirectory() ? directoryExcludes : fileExcludes, path)) {
+        visit(parent, path, attrs);
+      }
+    } catch (NoSuchFileException e) {
+      LOG.debug("Item {} is removed before its change is handled", path);
+    } catch (IOException e) {
+      LOG.error("Can't handle change of {}", path, e);
+    }
+  }
+
+  private void delete(String internalPath) {
+    Path path = toWalkedPath(toNormalPath(absoluteRoot, internalPath));
+    Node node = tree.get(getRelativePath(path));
+    if (node != null && node.parent != null && !exists(path, NOFOLLOW_LINKS)) {
+      remove(node, path);
+    }
+  }
+
+  /** Visits walked items, so they are added to the tree or updated. */
+  private class TreeVisitor extends SimpleFileVisitor<Path> {
+    private final Deque<Node> parents = new ArrayDeque<>();
+    private final Node start;
+
+    /** @param start parent node of the walk start directory, null if walk starts from the root */
+    private TreeVisitor(Node start) {
+      this.start = start;
+    }
+
+    @Override
+    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+      if (isExcluded(directoryExcludes, dir)) {
+        return SKIP_SUBTREE;
+      }
+
+      parents.push(visit(parents.isEmpty() ? start : parents.peek(), dir, attrs));
+      return CONTINUE;
+    }
+
+    @Override
+    public FileVisitResult postVisitDirectory(Path dir, IOException e) {
+      parents.pop();
+      return CONTINUE;
+    }
+
+    @Override
+    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+      if (!isExcluded(fileExcludes, file)) {
+        visit(parents.isEmpty() ? start : parents.peek(), file, attrs);
+      }
+      return CONTINUE;
+    }
+
+    @Override
+    public FileVisitResult visitFileFailed(Path file, IOException e) {
+      // item is removed from the tree as it is not visited
+      LOG.debug("Can't visit {}, most likely it was removed: {}", file, e.getMessage());
+      return CONTINUE;
+    }
+  }
+
+  /** Transforms path reported by file watcher to the form consumers get from the tree walk. */
+  private Path toWalkedPath(Path path) {
+    return root.toPath().resolve(absoluteRoot.relativize(path));
+  }
+
+  private Path getRelativePath(Path walkedPath) {
+    return root.toPath().relativize(walkedPath);
+  }
+
+  private static String nameOf(Path path) {
+    Path name = path.getFileName();
+    return name == null ? "" : name.toString();
+  }
 }
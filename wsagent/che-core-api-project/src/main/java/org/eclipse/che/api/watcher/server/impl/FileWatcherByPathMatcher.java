@@ -12,14 +12,13 @@ package org.eclipse.che.api.watcher.server.impl;
 
 import static com.google.common.collect.Sets.newConcurrentHashSet;
 import static java.nio.file.Files.exists;
+import static java.util.Collections.emptyMap;
 
 import com.google.inject.Inject;
 import java.io.File;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
-import java.util.Iterator;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -39,14 +38,17 @@ public class FileWatcherByPathMatcher implements Consumer<Path> {
 
   private final FileWatcherByPathValue watcher;
 
-  /** Operation ID -> Operation (create, modify, delete) */
+  /** Operation ID -> Operation (matcher, create, modify, delete) */
   private final Map<Integer, Operation> operations = new ConcurrentHashMap<>();
   /** Operation ID -> Registered paths */
   private final Map<Integer, Set<Path>> paths = new ConcurrentHashMap<>();
   /** Matcher -> Operation IDs */
   private final Map<PathMatcher, Set<Integer>> matchers = new ConcurrentHashMap<>();
-  /** Registered path -> Path watch operation IDs */
-  private final Map<Path, Set<Integer>> pathWatchRegistrations = new ConcurrentHashMap<>();
+  /** Registered path -> Operation ID -> Path watch operation ID */
+  private final Map<Path, Map<Integer, Integer>> pathWatchRegistrations =
+      new ConcurrentHashMap<>();
+
+  private final PathMatcherIndex index = new PathMatcherIndex();
 
   private final File root;
 
@@ -65,31 +67,33 @@ public class FileWatcherByPathMatcher implements Consumer<Path> {
   @Override
   public void accept(Path path) {
     if (!exists(path)) {
-      if (pathWatchRegistrations.containsKey(path)) {
-        pathWatchRegistrations.remove(path).forEach(watcher::unwatch);
+      Map<Integer, Integer> registrations = pathWatchRegistrations.remove(path);
+      if (registrations != null) {
+        registrations.values().forEach(watcher::unwatch);
       }
       paths.values().forEach(it -> it.remove(path));
       paths.entrySet().removeIf(it -> it.getValue().isEmpty());
       return;
     }
 
-    for (PathMatcher matcher : matchers.keySet()) {
-      if (matcher.matches(path)) {
-        for (int operationId : matchers.get(matcher)) {
-          paths.putIfAbsent(operationId, newConcurrentHashSet());
-          if (paths.get(operationId).contains(path)) {
-            return;
-          }
-
-          paths.get(operationId).add(path);
-
-          Operation operation = operations.get(operationId);
-          int pathWatcherOperationId =
-              watcher.watch(path, operation.create, operation.modify, operation.delete);
-          pathWatchRegistrations.putIfAbsent(path, newConcurrentHashSet());
-          pathWatchRegistrations.get(path).add(pathWatcherOperationId);
-          operation.create.accept(pathTransformer.transform(path));
+    for (PathMatcher matcher : index.match(path)) {
+      Set<Integer> operationIds = matchers.get(matcher);
+      if (operationIds == null) {
+        continue;
+      }
+      for (int operationId : operationIds) {
+        Operation operation = operations.get(operationId);
+        if (operation == null
+            || !paths.computeIfAbsent(operationId, it -> newConcurrentHashSet()).add(path)) {
+          continue;
         }
+
+        int pathWatcherOperationId =
+            watcher.watch(path, operation.create, operation.modify, operation.delete);
+        pathWatchRegistrations
+            .computeIfAbsent(path, it -> new ConcurrentHashMap<>())
+            .put(operationId, pathWatcherOperationId);
+        operation.create.accept(pathTransformer.transform(path));
       }
     }
   }
@@ -102,10 +106,17 @@ public class FileWatcherByPathMatcher implements Consumer<Path> {
     LOG.debug("Watching matcher '{}'", matcher);
     int operationId = operationIdCounter.getAndIncrement();
 
-    matchers.putIfAbsent(matcher, newConcurrentHashSet());
-    matchers.get(matcher).add(operationId);
-
-    operations.put(operationId, new Operation(create, modify, delete));
+    operations.put(operationId, new Operation(matcher, create, modify, delete));
+    matchers.compute(
+        matcher,
+        (key, ids) -> {
+          if (ids == null) {
+            ids = newConcurrentHashSet();
+            index.add(matcher);
+          }
+          ids.add(operationId);
+          return ids;
+        });
 
     LOG.debug("Registered matcher operation set with id '{}'", operationId);
     return operationId;
@@ -113,41 +124,51 @@ public class FileWatcherByPathMatcher implements Consumer<Path> {
 
   void unwatch(int operationId) {
     LOG.debug("Unwatching matcher operation set with id '{}'", operationId);
-    for (Entry<PathMatcher, Set<Integer>> entry : matchers.entrySet()) {
-      PathMatcher matcher = entry.getKey();
-      Set<Integer> operationsIdList = entry.getValue();
-      Iterator<Integer> iterator = operationsIdList.iterator();
-      while (iterator.hasNext()) {
-        if (iterator.next() == operationId) {
-          pathWatchRegistrations
-              .keySet()
-              .stream()
-              .filter(matcher::matches)
-              .flatMap(it -> pathWatchRegistrations.remove(it).stream())
-              .forEach(watcher::unwatch);
-
-          paths.values().forEach(it -> it.removeIf(matcher::matches));
-          paths.entrySet().removeIf(it -> it.getValue().isEmpty());
-          iterator.remove();
-          operations.remove(operationId);
-
-          break;
-        }
-      }
+    Operation operation = operations.remove(operationId);
+    if (operation == null) {
+      return;
+    }
+
+    matchers.computeIfPresent(
+        operation.matcher,
+        (key, ids) -> {
+          ids.remove(operationId);
+          if (ids.isEmpty()) {
+            index.remove(key);
+            return null;
+          }
+          return ids;
+        });
 
-      if (matchers.get(matcher) == null || matchers.get(matcher).isEmpty()) {
-        matchers.remove(matcher);
+    Set<Path> registeredPaths = paths.remove(operationId);
+    if (registeredPaths == null) {
+      return;
+    }
+    for (Path path : registeredPaths) {
+      Map<Integer, Integer> registrations = pathWatchRegistrations.get(path);
+      if (registrations != null) {
+        Integer pathWatcherOperationId = registrations.remove(operationId);
+        if (pathWatcherOperationId != null) {
+          watcher.unwatch(pathWatcherOperationId);
+        }
+        pathWatchRegistrations.remove(path, emptyMap());
       }
     }
   }
 
   private static class Operation {
 
+    final PathMatcher matcher;
     final Consumer<String> create;
     final Consumer<String> modify;
     final Consumer<String> delete;
 
-    private Operation(Consumer<String> create, Consumer<String> modify, Consumer<String> delete) {
+    private Operation(
+        PathMatcher matcher,
+        Consumer<String> create,
+        Consumer<String> modify,
+        Consumer<String> delete) {
+      this.matcher = matcher;
       this.create = create;
       this.modify = modify;
       this.delete = delete;
@@ -14,6 +14,7 @@ import static java.nio.file.Files.isDirectory;
 
 import com.google.inject.Inject;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.function.Consumer;
 import javax.inject.Singleton;
 import org.slf4j.Logger;
@@ -40,6 +41,18 @@ public class FileWatcherByPathValue {
     return operationId;
   }
 
+  int watchBatch(
+      Path path,
+      Consumer<List<String>> create,
+      Consumer<List<String>> modify,
+      Consumer<List<String>> delete) {
+    LOG.debug("Watching path '{}' with batch operations", path);
+    service.register(isDirectory(path) ? path : path.getParent());
+    int operationId = handler.registerBatch(path, create, modify, delete);
+    LOG.debug("Registered a batch operation set with id '{}'", operationId);
+    return operationId;
+  }
+
   void unwatch(int operationId) {
     LOG.debug("Unregisterng an operation set with id '{}'", operationId);
     Path dir = handler.unRegister(operationId);
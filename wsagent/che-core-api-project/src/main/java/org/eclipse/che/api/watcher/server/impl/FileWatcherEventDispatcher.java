@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.watcher.server.impl;
+
+import static java.lang.Thread.currentThread;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent.Kind;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stage between {@link FileWatcherService} and {@link FileWatcherEventHandler}. Events reported by
+ * file watcher service are collected during a configurable window and coalesced per path, e.g.
+ * creation followed by modifications is reported as a single creation and creation followed by
+ * deletion is not reported at all. Collected events are passed to the handler as a single batch on
+ * a separate thread, so watch loop of the file watcher service is never blocked by consumers.
+ */
+@Singleton
+public class FileWatcherEventDispatcher {
+  private static final Logger LOG = LoggerFactory.getLogger(FileWatcherEventDispatcher.class);
+
+  private final FileWatcherEventHandler handler;
+  private final long windowMillis;
+
+  private final AtomicLong eventsIn = new AtomicLong();
+  private final AtomicLong eventsOut = new AtomicLong();
+  private final AtomicLong inFlight = new AtomicLong();
+
+  private Map<Path, Kind<?>> pending = new LinkedHashMap<>();
+  private boolean flushScheduled;
+
+  private ScheduledExecutorService executor;
+
+  @Inject
+  public FileWatcherEventDispatcher(
+      FileWatcherEventHandler handler, @Named("che.fs.watcher.event_window_ms") long windowMillis) {
+    this.handler = handler;
+    this.windowMillis = windowMillis;
+  }
+
+  @PostConstruct
+  void start() {
+    executor =
+        newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                .setNameFormat(FileWatcherEventDispatcher.class.getSimpleName())
+                .setDaemon(true)
+                .build());
+  }
+
+  @PreDestroy
+  void stop() {
+    executor.shutdown();
+    try {
+      if (!executor.awaitTermination(5, SECONDS)) {
+        executor.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      executor.shutdownNow();
+      currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Adds an event to the current window, the window is started by the first event added after the
+   * previous batch was taken.
+   *
+   * @param path path that the event is originated from
+   * @param kind kind of event (e.g. created, modified, removed)
+   */
+  void dispatch(Path path, Kind<?> kind) {
+    eventsIn.incrementAndGet();
+    synchronized (this) {
+      Kind<?> coalesced = coalesce(pending.remove(path), kind);
+      if (coalesced != null) {
+        pending.put(path, coalesced);
+      }
+      if (!flushScheduled && !pending.isEmpty()) {
+        try {
+          executor.schedule(this::flush, windowMillis, MILLISECONDS);
+          flushScheduled = true;
+        } catch (RejectedExecutionException e) {
+          LOG.debug("Event dispatcher is stopped, skipping event of '{}'", path);
+          pending.clear();
+        }
+      }
+    }
+  }
+
+  /**
+   * Coalesces kind of the pending event of a path with kind of a new event of the same path.
+   *
+   * @return kind of the resulting event or null if the events cancel each other
+   */
+  private static Kind<?> coalesce(Kind<?> previous, Kind<?> next) {
+    if (previous == null || previous == next) {
+      return next;
+    }
+    if (previous == ENTRY_CREATE) {
+      return next == ENTRY_DELETE ? null : ENTRY_CREATE;
+    }
+    if (previous == ENTRY_DELETE) {
+      // item was re-created or its deletion was not noticed by the file system
+      return ENTRY_MODIFY;
+    }
+    return next == ENTRY_DELETE ? ENTRY_DELETE : ENTRY_MODIFY;
+  }
+
+  private void flush() {
+    Map<Path, Kind<?>> batch;
+    synchronized (this) {
+      batch = pending;
+      pending = new LinkedHashMap<>();
+      flushScheduled = false;
+      inFlight.set(batch.size());
+    }
+
+    eventsOut.addAndGet(batch.size());
+    try {
+      handler.handle(batch);
+    } catch (RuntimeException e) {
+      LOG.error("Failed to handle batch of {} file events", batch.size(), e);
+    } finally {
+      inFlight.set(0);
+    }
+    LOG.debug(
+        "Dispatched {} file events, events in: {}, events out: {}",
+        batch.size(),
+        eventsIn.get(),
+        eventsOut.get());
+  }
+
+  /** Returns number of events received from file watcher service. */
+  public long getEventsIn() {
+    return eventsIn.get();
+  }
+
+  /** Returns number of coalesced events passed to the handler. */
+  public long getEventsOut() {
+    return eventsOut.get();
+  }
+
+  /** Returns number of coalesced events that are collected or being handled at the moment. */
+  public synchronized long getBacklog() {
+    return pending.size() + inFlight.get();
+  }
+}
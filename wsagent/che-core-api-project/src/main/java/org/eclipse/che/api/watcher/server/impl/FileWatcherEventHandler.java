@@ -17,6 +17,9 @@ import static org.eclipse.che.api.watcher.server.impl.FileWatcherUtils.toInterna
 import java.io.File;
 import java.nio.file.Path;
 import java.nio.file.WatchEvent;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
@@ -65,12 +68,33 @@ public class FileWatcherEventHandler {
       Path path, Consumer<String> create, Consumer<String> modify, Consumer<String> delete) {
     LOG.debug("Registering operations for path '{}'");
     int id = idCounter.incrementAndGet();
-    FileWatcherOperation operation = new FileWatcherOperation(id, create, modify, delete);
+    return add(path, new FileWatcherOperation(id, create, modify, delete));
+  }
 
-    operations.putIfAbsent(path, newConcurrentHashSet());
-    operations.get(path).add(operation);
+  /**
+   * Registers create, modify and delete operations the same way as {@link #register(Path,
+   * Consumer, Consumer, Consumer)} does, but each operation is called once for all paths of a
+   * batch of events passed to {@link #handle(Map)} instead of being called for each path.
+   *
+   * @param path path
+   * @param create consumer for entries create events
+   * @param modify consumer for entries modify events
+   * @param delete consumer for entries delete events
+   * @return number identifier of operations set
+   */
+  int registerBatch(
+      Path path,
+      Consumer<List<String>> create,
+      Consumer<List<String>> modify,
+      Consumer<List<String>> delete) {
+    LOG.debug("Registering batch operations for path '{}'", path);
+    int id = idCounter.incrementAndGet();
+    return add(path, FileWatcherOperation.batched(id, create, modify, delete));
+  }
 
-    return id;
+  private int add(Path path, FileWatcherOperation operation) {
+    operations.computeIfAbsent(path, it -> newConcurrentHashSet()).add(operation);
+    return operation.getId();
   }
 
   /**
@@ -101,35 +125,69 @@ public class FileWatcherEventHandler {
   }
 
   /**
-   * Handles event passed form file watcher system. Path parameter is expected to be passed in a
-   * normal operation system file system form and is transformed into internal virtual file system
-   * format before further processing.
+   * Returns paths that have operations registered and are direct entries of the directory.
+   *
+   * @param dir directory
+   * @return paths of registered directory entries
+   */
+  List<Path> getRegisteredChildren(Path dir) {
+    List<Path> children = new ArrayList<>();
+    for (Path path : operations.keySet()) {
+      if (dir.equals(path.getParent())) {
+        children.add(path);
+      }
+    }
+    return children;
+  }
+
+  /**
+   * Handles a batch of coalesced events passed from file watcher system. Each registered operation
+   * is called once per event kind with internal paths of all corresponding events of the batch, in
+   * the order the events are iterated. Failure of an operation does not prevent other operations
+   * from being called.
    *
-   * @param path path that the event is originated from
-   * @param kind kind of event (e.g. created, modified, removed)
+   * @param events kinds of events by paths they are originated from
    */
-  void handle(Path path, WatchEvent.Kind<?> kind) {
-    Path dir = path.getParent();
-    String internalPath = toInternalPath(root.toPath(), path);
-    Set<FileWatcherOperation> dirOperations = operations.get(dir);
-    Set<FileWatcherOperation> itemOperations = operations.get(path);
-
-    if (dirOperations != null) {
-      dirOperations
-          .stream()
-          .map(it -> it.get(kind))
-          .filter(Optional::isPresent)
-          .map(Optional::get)
-          .forEach(it -> it.accept(internalPath));
+  void handle(Map<Path, WatchEvent.Kind<?>> events) {
+    Map<FileWatcherOperation, Map<WatchEvent.Kind<?>, List<String>>> batches =
+        new LinkedHashMap<>();
+    for (Entry<Path, WatchEvent.Kind<?>> event : events.entrySet()) {
+      Path path = event.getKey();
+      String internalPath = toInternalPath(root.toPath(), path);
+      addToBatches(batches, operations.get(path.getParent()), event.getValue(), internalPath);
+      addToBatches(batches, operations.get(path), event.getValue(), internalPath);
     }
 
-    if (itemOperations != null) {
-      itemOperations
-          .stream()
-          .map(it -> it.get(kind))
-          .filter(Optional::isPresent)
-          .map(Optional::get)
-          .forEach(it -> it.accept(internalPath));
+    for (Entry<FileWatcherOperation, Map<WatchEvent.Kind<?>, List<String>>> entry :
+        batches.entrySet()) {
+      FileWatcherOperation operation = entry.getKey();
+      for (Entry<WatchEvent.Kind<?>, List<String>> batch : entry.getValue().entrySet()) {
+        Optional<Consumer<List<String>>> consumer = operation.getBatch(batch.getKey());
+        if (consumer.isPresent()) {
+          try {
+            consumer.get().accept(batch.getValue());
+          } catch (RuntimeException e) {
+            LOG.error(
+                "Operation {} failed to handle {} events", operation.getId(), batch.getKey(), e);
+          }
+        }
+      }
+    }
+  }
+
+  private static void addToBatches(
+      Map<FileWatcherOperation, Map<WatchEvent.Kind<?>, List<String>>> batches,
+      Set<FileWatcherOperation> pathOperations,
+      WatchEvent.Kind<?> kind,
+      String internalPath) {
+    if (pathOperations == null) {
+      return;
+    }
+    for (FileWatcherOperation operation : pathOperations) {
+      batches
+          .computeIfAbsent(operation, it -> new LinkedHashMap<>())
+          .computeIfAbsent(kind, it -> new ArrayList<>())
+          .add(internalPath);
     }
   }
 }
@@ -15,36 +15,61 @@ import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
 
 import java.nio.file.WatchEvent;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Consumer;
 
-/** Simple class to keep all consumers in one place with ability to identify them */
+/**
+ * Simple class to keep all consumers in one place with ability to identify them. Consumers are
+ * either notified about each path separately or about all paths of a batch of events at once.
+ */
 class FileWatcherOperation {
   private final int id;
-  private final Consumer<String> create;
-  private final Consumer<String> modify;
-  private final Consumer<String> delete;
+  private final Consumer<List<String>> batchCreate;
+  private final Consumer<List<String>> batchModify;
+  private final Consumer<List<String>> batchDelete;
 
   FileWatcherOperation(
       int id, Consumer<String> create, Consumer<String> modify, Consumer<String> delete) {
+    this(id, forEach(create), forEach(modify), forEach(delete));
+  }
+
+  private FileWatcherOperation(
+      int id,
+      Consumer<List<String>> batchCreate,
+      Consumer<List<String>> batchModify,
+      Consumer<List<String>> batchDelete) {
     this.id = id;
-    this.create = create;
-    this.modify = modify;
-    this.delete = delete;
+    this.batchCreate = batchCreate;
+    this.batchModify = batchModify;
+    this.batchDelete = batchDelete;
+  }
+
+  /** Creates an operation which consumers are notified once per batch of events. */
+  static FileWatcherOperation batched(
+      int id,
+      Consumer<List<String>> create,
+      Consumer<List<String>> modify,
+      Consumer<List<String>> delete) {
+    return new FileWatcherOperation(id, create, modify, delete);
+  }
+
+  private static Consumer<List<String>> forEach(Consumer<String> consumer) {
+    return consumer == null ? null : paths -> paths.forEach(consumer);
   }
 
   int getId() {
     return id;
   }
 
-  Optional<Consumer<String>> get(WatchEvent.Kind<?> kind) {
-    Consumer<String> result = null;
+  Optional<Consumer<List<String>>> getBatch(WatchEvent.Kind<?> kind) {
+    Consumer<List<String>> result = null;
     if (ENTRY_CREATE.name().equals(kind.name())) {
-      result = create;
+      result = batchCreate;
     } else if (ENTRY_MODIFY.name().equals(kind.name())) {
-      result = modify;
+      result = batchModify;
     } else if (ENTRY_DELETE.name().equals(kind.name())) {
-      result = delete;
+      result = batchDelete;
     }
     return Optional.ofNullable(result);
   }
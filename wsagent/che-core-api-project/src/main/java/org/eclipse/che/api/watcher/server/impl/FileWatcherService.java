@@ -11,6 +11,8 @@
 package org.eclipse.che.api.watcher.server.impl;
 
 import static java.lang.Thread.currentThread;
+import static java.nio.file.FileVisitResult.CONTINUE;
+import static java.nio.file.FileVisitResult.SKIP_SUBTREE;
 import static java.nio.file.Files.exists;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
@@ -23,16 +25,21 @@ import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
 import java.nio.file.WatchEvent;
 import java.nio.file.WatchEvent.Kind;
 import java.nio.file.WatchEvent.Modifier;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadFactory;
@@ -52,7 +59,8 @@ import org.slf4j.LoggerFactory;
  * filesystem items) except for tracking and notification the upper layers. Service operates with
  * ordinary java file system paths in counter to che virtual file system which may have custom root
  * element and structure. Transforming one we of path representation into another and backwards is
- * the responsibility of upper services.
+ * the responsibility of upper services. Events are passed to consumers through {@link
+ * FileWatcherEventDispatcher}, so the watch loop is not blocked by them.
  */
 @Singleton
 public class FileWatcherService {
@@ -61,11 +69,15 @@ public class FileWatcherService {
   private final AtomicBoolean suspended = new AtomicBoolean(true);
   private final AtomicBoolean running = new AtomicBoolean();
 
+  /** Watched directories by their watch keys, guarded by its own monitor for modifications. */
   private final Map<WatchKey, Path> keys = new ConcurrentHashMap<>();
+  /** Watch keys by watched directories, inverse of {@link #keys}. */
+  private final Map<Path, WatchKey> paths = new ConcurrentHashMap<>();
   private final Map<Path, Integer> registrations = new ConcurrentHashMap<>();
 
   private final FileWatcherExcludePatternsRegistry excludePatternsRegistry;
   private final FileWatcherEventHandler handler;
+  private final FileWatcherEventDispatcher dispatcher;
   private final WatchService service;
   private final Modifier[] eventModifiers;
   private final Kind<?>[] eventKinds;
@@ -76,9 +88,11 @@ public class FileWatcherService {
   public FileWatcherService(
       FileWatcherExcludePatternsRegistry excludePatternsRegistry,
       FileWatcherEventHandler handler,
+      FileWatcherEventDispatcher dispatcher,
       WatchService service) {
     this.excludePatternsRegistry = excludePatternsRegistry;
     this.handler = handler;
+    this.dispatcher = dispatcher;
     this.service = service;
 
     this.eventModifiers = getWatchEventModifiers();
@@ -182,23 +196,76 @@ public class FileWatcherService {
       return;
     }
     LOG.debug("Registering directory '{}'", dir);
-    if (keys.values().contains(dir)) {
-      int previous = registrations.get(dir);
+    synchronized (keys) {
+      doRegister(dir);
+    }
+  }
+
+  /**
+   * Registers a directory and all its subdirectories in a single walk of the directory tree.
+   * Directories that are within excludes of {@link FileWatcherExcludePatternsRegistry} or are
+   * matched by the filter are skipped together with their subtrees. Registration counter of each
+   * registered directory is increased the same way as it is done by {@link #register(Path)}.
+   *
+   * @param dir root directory of the subtree
+   * @param excluded filter of directories that must not be registered
+   * @return registered directories
+   */
+  public Set<Path> registerRecursively(Path dir, Predicate<Path> excluded) {
+    Set<Path> registered = new HashSet<>();
+    if (!Files.exists(dir)) {
+      LOG.debug("Trying to register directory tree '{}' but it does not exist", dir);
+      return registered;
+    }
+    LOG.debug("Registering directory tree '{}'", dir);
+    try {
+      Files.walkFileTree(
+          dir,
+          new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path subDir, BasicFileAttributes attrs) {
+              if (excludePatternsRegistry.isExcluded(subDir) || excluded.test(subDir)) {
+                return SKIP_SUBTREE;
+              }
+              synchronized (keys) {
+                if (doRegister(subDir)) {
+                  registered.add(subDir);
+                }
+              }
+              return CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+              LOG.debug("Can't visit '{}' while registering directory tree", file, e);
+              return CONTINUE;
+            }
+          });
+    } catch (IOException e) {
+      LOG.error("Can't register directory tree {} in file watch service", dir, e);
+    }
+    return registered;
+  }
+
+  private boolean doRegister(Path dir) {
+    Integer previous = registrations.get(dir);
+    if (previous != null) {
       LOG.debug(
           "Directory is already being watched, increasing watch counter, previous value: {}",
           previous);
       registrations.put(dir, previous + 1);
-    } else {
-      try {
-        LOG.debug("Starting watching directory '{}'", dir);
-        synchronized (keys) {
-          WatchKey watchKey = dir.register(service, eventKinds, eventModifiers);
-          keys.put(watchKey, dir);
-          registrations.put(dir, 1);
-        }
-      } catch (IOException e) {
-        LOG.error("Can't register dir {} in file watch service", dir, e);
-      }
+      return true;
+    }
+    try {
+      LOG.debug("Starting watching directory '{}'", dir);
+      WatchKey watchKey = dir.register(service, eventKinds, eventModifiers);
+      keys.put(watchKey, dir);
+      paths.put(dir, watchKey);
+      registrations.put(dir, 1);
+      return true;
+    } catch (IOException e) {
+      LOG.error("Can't register dir {} in file watch service", dir, e);
+      return false;
     }
   }
 
@@ -207,7 +274,8 @@ public class FileWatcherService {
    * one registration counter that corresponds to directory specified by the argument. If
    * registration counter comes to zero directory watching is totally cancelled.
    *
-   * <p>If this method is called for not existing directory nothing happens.
+   * <p>If this method is called for not existing directory its watching is cancelled regardless of
+   * the registration counter.
    *
    * <p>If this method is called for not registered directory nothing happens.
    *
@@ -216,36 +284,35 @@ public class FileWatcherService {
   void unRegister(Path dir) {
     LOG.debug("Canceling directory '{}' registration", dir);
 
-    Predicate<Entry<WatchKey, Path>> equalsDir = it -> it.getValue().equals(dir);
-
-    if (!exists(dir)) {
-      LOG.debug("Trying to unregister directory '{}' while it does not exist", dir);
-
-      registrations.remove(dir);
-
-      keys.entrySet().stream().filter(equalsDir).map(Entry::getKey).forEach(WatchKey::cancel);
-      keys.entrySet().removeIf(equalsDir);
-
-      return;
-    }
+    synchronized (keys) {
+      if (!exists(dir)) {
+        LOG.debug("Trying to unregister directory '{}' while it does not exist", dir);
+        cancel(dir);
+        return;
+      }
 
-    if (!registrations.containsKey(dir)) {
-      LOG.debug("Trying to unregister directory '{}' while it is not registered", dir);
-      return;
+      Integer previous = registrations.get(dir);
+      if (previous == null) {
+        LOG.debug("Trying to unregister directory '{}' while it is not registered", dir);
+      } else if (previous == 1) {
+        LOG.debug("Stopping watching directory '{}'", dir);
+        cancel(dir);
+      } else {
+        LOG.debug(
+            "Directory is being watched by someone else, decreasing watch counter, "
+                + "previous value: {}",
+            previous);
+        registrations.put(dir, previous - 1);
+      }
     }
+  }
 
-    int previous = registrations.get(dir);
-    if (previous == 1) {
-      LOG.debug("Stopping watching directory '{}'", dir);
-      registrations.remove(dir);
-
-      keys.entrySet().stream().filter(equalsDir).map(Entry::getKey).forEach(WatchKey::cancel);
-      keys.entrySet().removeIf(equalsDir);
-    } else {
-      LOG.debug(
-          "Directory is being watched by someone else, decreasing watch counter, previous value: {}",
-          previous);
-      registrations.put(dir, previous - 1);
+  private void cancel(Path dir) {
+    registrations.remove(dir);
+    WatchKey watchKey = paths.remove(dir);
+    if (watchKey != null) {
+      keys.remove(watchKey);
+      watchKey.cancel();
     }
   }
 
@@ -256,10 +323,7 @@ public class FileWatcherService {
     while (running.get()) {
       try {
         WatchKey watchKey = service.take();
-        Path dir;
-        synchronized (keys) {
-          dir = keys.get(watchKey);
-        }
+        Path dir = keys.get(watchKey);
 
         if (dir == null) {
           resetAndRemove(watchKey, dir);
@@ -281,7 +345,8 @@ public class FileWatcherService {
           Kind<?> kind = event.kind();
 
           if (kind == OVERFLOW) {
-            LOG.warn("Detected file system events overflowing");
+            LOG.warn("Detected file system events overflowing, rescanning directory '{}'", dir);
+            rescan(dir);
             continue;
           }
 
@@ -294,7 +359,7 @@ public class FileWatcherService {
             continue;
           }
 
-          handler.handle(path, kind);
+          dispatcher.dispatch(path, kind);
         }
 
         resetAndRemove(watchKey, dir);
@@ -309,12 +374,52 @@ public class FileWatcherService {
     }
   }
 
+  /**
+   * Recovers events of a directory that were lost due to overflow. Modification is reported for
+   * each existing entry of the directory and deletion is reported for each entry that was watched
+   * or had operations registered but does not exist anymore.
+   */
+  private void rescan(Path dir) {
+    Set<Path> entries = new HashSet<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+      for (Path entry : stream) {
+        entries.add(entry.toAbsolutePath());
+      }
+    } catch (IOException e) {
+      LOG.debug("Can't rescan directory '{}'", dir, e);
+      return;
+    }
+
+    for (Path entry : entries) {
+      if (!excludePatternsRegistry.isExcluded(entry)) {
+        dispatcher.dispatch(entry, ENTRY_MODIFY);
+      }
+    }
+
+    Set<Path> known = new HashSet<>(handler.getRegisteredChildren(dir));
+    synchronized (keys) {
+      for (Path path : paths.keySet()) {
+        if (dir.equals(path.getParent())) {
+          known.add(path);
+        }
+      }
+    }
+    for (Path path : known) {
+      Path entry = path.toAbsolutePath();
+      if (!entries.contains(entry) && !exists(entry)) {
+        dispatcher.dispatch(entry, ENTRY_DELETE);
+      }
+    }
+  }
+
   private void resetAndRemove(WatchKey watchKey, Path dir) {
     if (!watchKey.reset()) {
-      if (dir != null) {
-        registrations.remove(dir);
+      synchronized (keys) {
+        keys.remove(watchKey);
+        if (dir != null && paths.remove(dir, watchKey)) {
+          registrations.remove(dir);
+        }
       }
-      keys.remove(watchKey);
     }
   }
 }
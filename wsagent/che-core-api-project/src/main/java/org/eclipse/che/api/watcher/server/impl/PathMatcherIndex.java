@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.watcher.server.impl;
+
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.che.api.watcher.server.GlobPathMatcher;
+
+/**
+ * Index of path matchers that allows to find all matchers matching a path without checking each of
+ * them. Patterns of {@link GlobPathMatcher} instances are analyzed and matchers are put into:
+ *
+ * <ul>
+ *   <li>trie of path segments, if pattern starts with literal segments, e.g. {@code /projects/**}
+ *   <li>file name buckets, if the last segment of pattern is literal, e.g. {@code **}{@code
+ *       /pom.xml}
+ *   <li>file extension buckets, if the last segment of pattern is a wildcard followed by literal
+ *       suffix with extension, e.g. {@code **}{@code /*.java}
+ * </ul>
+ *
+ * Patterns with brace groups are expanded to their alternatives first. Other matchers are checked
+ * against each path. Buckets only select candidates, each candidate is still checked by its
+ * matcher, so results are the same as if all matchers were checked. Thread safe.
+ */
+class PathMatcherIndex {
+  private static final int MAX_ALTERNATIVES = 64;
+
+  private final Map<String, Set<PathMatcher>> byName = new HashMap<>();
+  private final Map<String, Set<PathMatcher>> byExtension = new HashMap<>();
+  private final Node absolute = new Node();
+  private final Node relative = new Node();
+  private final Set<PathMatcher> unindexed = new LinkedHashSet<>();
+
+  /** Matcher -> Buckets it is put into */
+  private final Map<PathMatcher, List<Set<PathMatcher>>> buckets = new HashMap<>();
+
+  /** Adds a matcher to the index, adding a matcher that is already indexed does nothing. */
+  synchronized void add(PathMatcher matcher) {
+    if (buckets.containsKey(matcher)) {
+      return;
+    }
+    List<Set<PathMatcher>> matcherBuckets = new ArrayList<>();
+    List<String> alternatives =
+        matcher instanceof GlobPathMatcher
+            ? expand(((GlobPathMatcher) matcher).getGlob())
+            : Collections.emptyList();
+    for (String alternative : alternatives) {
+      Set<PathMatcher> bucket = getBucket(alternative);
+      if (bucket == null) {
+        matcherBuckets.clear();
+        break;
+      }
+      matcherBuckets.add(bucket);
+    }
+    if (matcherBuckets.isEmpty()) {
+      matcherBuckets.add(unindexed);
+    }
+    for (Set<PathMatcher> bucket : matcherBuckets) {
+      bucket.add(matcher);
+    }
+    buckets.put(matcher, matcherBuckets);
+  }
+
+  /** Removes a matcher from the index. */
+  synchronized void remove(PathMatcher matcher) {
+    List<Set<PathMatcher>> matcherBuckets = buckets.remove(matcher);
+    if (matcherBuckets != null) {
+      for (Set<PathMatcher> bucket : matcherBuckets) {
+        bucket.remove(matcher);
+      }
+      byName.values().removeIf(Set::isEmpty);
+      byExtension.values().removeIf(Set::isEmpty);
+    }
+  }
+
+  /**
+   * Returns indexed matchers that match the path.
+   *
+   * @param path path being examined
+   * @return matching matchers in no particular order
+   */
+  List<PathMatcher> match(Path path) {
+    Set<PathMatcher> candidates = new LinkedHashSet<>();
+    synchronized (this) {
+      candidates.addAll(unindexed);
+
+      Path fileName = path.getFileName();
+      if (fileName != null) {
+        String name = fileName.toString();
+        addAll(candidates, byName.get(name));
+        int dot = name.lastIndexOf('.');
+        if (dot != -1) {
+          addAll(candidates, byExtension.get(name.substring(dot)));
+        }
+      }
+
+      Node node = path.isAbsolute() ? absolute : relative;
+      for (Path segment : path) {
+        node = node.children.get(segment.toString());
+        if (node == null) {
+          break;
+        }
+        candidates.addAll(node.matchers);
+      }
+    }
+
+    List<PathMatcher> result = new ArrayList<>();
+    for (PathMatcher candidate : candidates) {
+      if (candidate.matches(path)) {
+        result.add(candidate);
+      }
+    }
+    return result;
+  }
+
+  private static void addAll(Set<PathMatcher> candidates, Collection<PathMatcher> matchers) {
+    if (matchers != null) {
+      candidates.addAll(matchers);
+    }
+  }
+
+  /**
+   * Returns bucket for matchers of a glob without brace groups, the bucket is created if it does
+   * not exist yet.
+   *
+   * @return bucket or null if glob can't be indexed
+   */
+  private Set<PathMatcher> getBucket(String glob) {
+    if (glob.indexOf('\\') != -1) {
+      return null;
+    }
+    boolean isAbsolute = glob.startsWith("/");
+    String[] segments = (isAbsolute ? glob.substring(1) : glob).split("/", -1);
+
+    int literal = 0;
+    while (literal < segments.length && !hasWildcard(segments[literal])) {
+      literal++;
+    }
+    if (literal > 0) {
+      Node node = isAbsolute ? absolute : relative;
+      for (int i = 0; i < literal; i++) {
+        node = node.children.computeIfAbsent(segments[i], it -> new Node());
+      }
+      return node.matchers;
+    }
+
+    String last = segments[segments.length - 1];
+    if (!hasWildcard(last)) {
+      return byName.computeIfAbsent(last, it -> new LinkedHashSet<>());
+    }
+    if (last.charAt(0) == '*') {
+      String suffix = last.substring(1);
+      int dot = suffix.lastIndexOf('.');
+      if (!hasWildcard(suffix) && dot != -1) {
+        return byExtension.computeIfAbsent(suffix.substring(dot), it -> new LinkedHashSet<>());
+      }
+    }
+    return null;
+  }
+
+  private static boolean hasWildcard(String segment) {
+    for (int i = 0; i < segment.length(); i++) {
+      char c = segment.charAt(i);
+      if (c == '*' || c == '?' || c == '[') {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Expands brace groups of a glob, e.g. {@code **}{@code /*.{ts,js}} is expanded to {@code
+   * **}{@code /*.ts} and {@code **}{@code /*.js}.
+   *
+   * @return alternatives or empty list if the glob has too many alternatives or can't be parsed
+   */
+  private static List<String> expand(String glob) {
+    List<String> result = new ArrayList<>();
+    if (!expand(glob, result)) {
+      return Collections.emptyList();
+    }
+    return result;
+  }
+
+  private static boolean expand(String glob, List<String> result) {
+    int open = glob.indexOf('{');
+    if (open == -1) {
+      if (glob.indexOf('}') != -1 || result.size() == MAX_ALTERNATIVES) {
+        return false;
+      }
+      result.add(glob);
+      return true;
+    }
+    int close = glob.indexOf('}', open);
+    if (close == -1 || glob.lastIndexOf('{', close) != open || glob.indexOf('\\') != -1) {
+      // unbalanced or nested groups
+      return false;
+    }
+    String prefix = glob.substring(0, open);
+    String suffix = glob.substring(close + 1);
+    for (String alternative : glob.substring(open + 1, close).split(",", -1)) {
+      if (!expand(prefix + alternative + suffix, result)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static class Node {
+    final Map<String, Node> children = new HashMap<>();
+    final Set<PathMatcher> matchers = new LinkedHashSet<>();
+  }
+}
@@ -16,6 +16,7 @@ import com.google.inject.Inject;
 import java.io.File;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
+import java.util.List;
 import java.util.function.Consumer;
 import javax.inject.Named;
 import javax.inject.Singleton;
@@ -53,6 +54,17 @@ public class SimpleFileWatcherManager implements FileWatcherManager {
     return fileWatcherByPathValue.watch(toNormalPath(root, path), create, modify, delete);
   }
 
+  @Override
+  public int registerBatchByPath(
+      String path,
+      Consumer<List<String>> create,
+      Consumer<List<String>> modify,
+      Consumer<List<String>> delete) {
+    LOG.debug("Registering batch operations to an item with path '{}'", path);
+
+    return fileWatcherByPathValue.watchBatch(toNormalPath(root, path), create, modify, delete);
+  }
+
   @Override
   public void unRegisterByPath(int id) {
     LOG.debug(
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.editor.server.impl;
+
+import static org.testng.Assert.assertEquals;
+
+import java.io.Reader;
+import java.util.Random;
+import org.apache.commons.io.IOUtils;
+import org.testng.annotations.Test;
+
+/** Tests for {@link Rope} */
+public class RopeTest {
+
+  @Test
+  public void shouldInsertText() throws Exception {
+    Rope rope = Rope.of("Hello world").insert(5, ",").insert(12, "!");
+
+    assertEquals(rope.toString(), "Hello, world!");
+    assertEquals(rope.length(), 13);
+  }
+
+  @Test
+  public void shouldDeleteText() throws Exception {
+    Rope rope = Rope.of("Hello, world!").delete(5, 6).delete(11, 12);
+
+    assertEquals(rope.toString(), "Hello world");
+  }
+
+  @Test
+  public void shouldNotChangeOriginalRope() throws Exception {
+    Rope original = Rope.of("text");
+
+    original.insert(0, "new ").delete(0, 2);
+
+    assertEquals(original.toString(), "text");
+  }
+
+  @Test(expectedExceptions = IndexOutOfBoundsException.class)
+  public void shouldFailToInsertOutOfRope() throws Exception {
+    Rope.of("text").insert(5, "!");
+  }
+
+  @Test(expectedExceptions = IndexOutOfBoundsException.class)
+  public void shouldFailToDeleteOutOfRope() throws Exception {
+    Rope.of("text").delete(2, 5);
+  }
+
+  @Test
+  public void shouldMatchStringBuilderAfterManyEdits() throws Exception {
+    Random random = new Random(0);
+    StringBuilder expected = new StringBuilder(randomText(random, 100_000));
+    Rope rope = Rope.of(expected);
+
+    for (int i = 0; i < 10_000; i++) {
+      if (random.nextBoolean() || expected.length() == 0) {
+        int offset = random.nextInt(expected.length() + 1);
+        String text = randomText(random, random.nextInt(10) == 0 ? 3_000 : 3);
+        expected.insert(offset, text);
+        rope = rope.insert(offset, text);
+      } else {
+        int start = random.nextInt(expected.length());
+        int end = Math.min(expected.length(), start + random.nextInt(10));
+        expected.delete(start, end);
+        rope = rope.delete(start, end);
+      }
+    }
+
+    assertEquals(rope.toString(), expected.toString());
+    assertEquals(rope.length(), expected.length());
+    int index = random.nextInt(expected.length());
+    assertEquals(rope.charAt(index), expected.charAt(index));
+    assertEquals(rope.subSequence(100, 5_000).toString(), expected.substring(100, 5_000));
+    try (Reader reader = rope.reader()) {
+      assertEquals(IOUtils.toString(reader), expected.toString());
+    }
+  }
+
+  private static String randomText(Random random, int length) {
+    char[] chars = new char[length];
+    for (int i = 0; i < length; i++) {
+      chars[i] = (char) ('a' + random.nextInt(26));
+    }
+    return new String(chars);
+  }
+}
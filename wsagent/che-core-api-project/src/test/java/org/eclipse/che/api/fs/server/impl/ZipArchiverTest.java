@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.fs.server.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Tests for {@link ZipArchiver} */
+public class ZipArchiverTest {
+
+  private static final byte[] LARGE_CONTENT = new byte[3 * 1024 * 1024 + 17];
+
+  static {
+    Random random = new Random(0);
+    for (int i = 0; i < LARGE_CONTENT.length; i++) {
+      LARGE_CONTENT[i] = (byte) ('a' + random.nextInt(8));
+    }
+  }
+
+  private ZipArchiver zipArchiver;
+  private Path srcDir;
+  private Path dstDir;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    zipArchiver = new ZipArchiver(2, "png,zip", "node_modules/, /target, *.log");
+    srcDir = Files.createTempDirectory("zip-src");
+    dstDir = Files.createTempDirectory("zip-dst");
+
+    write("src/main/App.java", "class App {}".getBytes(UTF_8));
+    write("src/main/large.txt", LARGE_CONTENT);
+    write("src/empty.txt", new byte[0]);
+    write("image.png", LARGE_CONTENT);
+    write("node_modules/lib/index.js", "module".getBytes(UTF_8));
+    write("target/App.class", "class".getBytes(UTF_8));
+    write("build.log", "log".getBytes(UTF_8));
+  }
+
+  @AfterMethod
+  public void tearDown() throws Exception {
+    zipArchiver.stop();
+    FileUtils.deleteQuietly(srcDir.toFile());
+    FileUtils.deleteQuietly(dstDir.toFile());
+  }
+
+  @Test
+  public void shouldZipNotExcludedFilesWithRelativeNames() throws Exception {
+    Map<String, ZipEntry> entries = new HashMap<>();
+    Map<String, byte[]> contents = new HashMap<>();
+    try (ZipInputStream zis = new ZipInputStream(zipArchiver.zip(srcDir))) {
+      for (ZipEntry entry = zis.getNextEntry(); entry != null; entry = zis.getNextEntry()) {
+        entries.put(entry.getName(), entry);
+        contents.put(entry.getName(), IOUtils.toByteArray(zis));
+      }
+    }
+
+    assertEquals(
+        entries.keySet(),
+        new HashSet<>(
+            asList("src/main/App.java", "src/main/large.txt", "src/empty.txt", "image.png")));
+    assertEquals(contents.get("src/main/large.txt"), LARGE_CONTENT);
+    assertEquals(contents.get("src/empty.txt"), new byte[0]);
+    assertEquals(contents.get("image.png"), LARGE_CONTENT);
+    assertEquals(entries.get("image.png").getMethod(), ZipEntry.STORED);
+    assertEquals(entries.get("src/main/large.txt").getMethod(), ZipEntry.DEFLATED);
+  }
+
+  @Test
+  public void shouldUnzipZippedFiles() throws Exception {
+    ByteArrayOutputStream zip = new ByteArrayOutputStream();
+    zipArchiver.zip(srcDir, zip);
+
+    zipArchiver.unzip(dstDir, new ByteArrayInputStream(zip.toByteArray()), true, true, false);
+
+    assertEquals(read(dstDir, "src/main/App.java"), "class App {}".getBytes(UTF_8));
+    assertEquals(read(dstDir, "src/main/large.txt"), LARGE_CONTENT);
+    assertEquals(read(dstDir, "src/empty.txt"), new byte[0]);
+    assertEquals(read(dstDir, "image.png"), LARGE_CONTENT);
+    assertFalse(Files.exists(dstDir.resolve("node_modules")));
+    assertFalse(Files.exists(dstDir.resolve("target")));
+    assertFalse(Files.exists(dstDir.resolve("build.log")));
+  }
+
+  @Test
+  public void shouldZipSingleFileWithItsName() throws Exception {
+    try (ZipInputStream zis =
+        new ZipInputStream(zipArchiver.zip(srcDir.resolve("src/main/App.java")))) {
+      assertEquals(zis.getNextEntry().getName(), "App.java");
+      assertEquals(IOUtils.toByteArray(zis), "class App {}".getBytes(UTF_8));
+    }
+  }
+
+  @Test(expectedExceptions = IOException.class)
+  public void shouldFailReadingOfArchiveWhenZippingFails() throws Exception {
+    try (InputStream in = zipArchiver.zip(srcDir.resolve("missing"))) {
+      IOUtils.toByteArray(in);
+    }
+  }
+
+  @Test(expectedExceptions = IOException.class)
+  public void shouldFailReadingOfArchiveWhenZippingFailsUnexpectedly() throws Exception {
+    zipArchiver.stop();
+    zipArchiver =
+        new ZipArchiver(2, "", null) {
+          @Override
+          void zip(Path fsPath, OutputStream out) {
+            throw new IllegalStateException("unexpected");
+          }
+        };
+
+    try (InputStream in = zipArchiver.zip(srcDir)) {
+      IOUtils.toByteArray(in);
+    }
+  }
+
+  private void write(String relative, byte[] content) throws IOException {
+    Path path = srcDir.resolve(relative);
+    Files.createDirectories(path.getParent());
+    Files.write(path, content);
+  }
+
+  private static byte[] read(Path dir, String relative) throws IOException {
+    return Files.readAllBytes(dir.resolve(relative));
+  }
+}
@@ -46,12 +46,14 @@ public class ProjectServiceTest {
   private static final String PROJECT_TYPE = "project-type";
   private static final String NAME = "name";
   private static final String TEXT = "text";
+  private static final String CURSOR = "cursor";
 
   private static final int MAX_ITEMS = 0;
   private static final int SKIP_COUNT = 0;
   private static final int DEPTH = 0;
 
   private static final boolean INCLUDE_FILES = false;
+  private static final boolean INCLUDE_VCS_STATUS = true;
   private static final boolean SKIP_FIRST_LEVEL = false;
   private static final boolean FORCE = false;
   private static final boolean REWRITE = false;
@@ -235,9 +237,9 @@ public class ProjectServiceTest {
 
   @Test
   public void shouldCallGetTree() throws Exception {
-    projectService.getTree(WS_PATH, DEPTH, INCLUDE_FILES);
+    projectService.getTree(WS_PATH, DEPTH, INCLUDE_FILES, INCLUDE_VCS_STATUS);
 
-    verify(projectServiceApi).getTree(WS_PATH, DEPTH, INCLUDE_FILES);
+    verify(projectServiceApi).getTree(WS_PATH, DEPTH, INCLUDE_FILES, INCLUDE_VCS_STATUS);
   }
 
   @Test
@@ -249,8 +251,8 @@ public class ProjectServiceTest {
 
   @Test
   public void shouldCallSearch() throws Exception {
-    projectService.search(WS_PATH, NAME, TEXT, MAX_ITEMS, SKIP_COUNT);
+    projectService.search(WS_PATH, NAME, TEXT, MAX_ITEMS, SKIP_COUNT, CURSOR);
 
-    verify(projectServiceApi).search(WS_PATH, NAME, TEXT, MAX_ITEMS, SKIP_COUNT);
+    verify(projectServiceApi).search(WS_PATH, NAME, TEXT, MAX_ITEMS, SKIP_COUNT, CURSOR);
   }
 }
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.project.server.impl;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.eclipse.che.api.project.server.VcsStatusProvider.VcsStatus.ADDED;
+import static org.eclipse.che.api.project.server.VcsStatusProvider.VcsStatus.MODIFIED;
+import static org.eclipse.che.api.project.server.VcsStatusProvider.VcsStatus.NOT_MODIFIED;
+import static org.eclipse.che.api.project.shared.Constants.VCS_PROVIDER_NAME;
+import static org.eclipse.che.dto.server.DtoFactory.newDto;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Collections;
+import java.util.Optional;
+import org.eclipse.che.api.project.server.ProjectManager;
+import org.eclipse.che.api.project.server.VcsStatusProvider;
+import org.eclipse.che.api.project.shared.dto.ItemReference;
+import org.eclipse.che.api.project.shared.dto.TreeElement;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/** Tests for {@link ProjectServiceVcsStatusInjector} */
+@Listeners(MockitoTestNGListener.class)
+public class ProjectServiceVcsStatusInjectorTest {
+
+  @Mock private ProjectManager projectManager;
+  @Mock private RegisteredProject firstProject;
+  @Mock private RegisteredProject secondProject;
+  @Mock private VcsStatusProvider vcsStatusProvider;
+
+  private ProjectServiceVcsStatusInjector vcsStatusInjector;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    vcsStatusInjector =
+        new ProjectServiceVcsStatusInjector(
+            projectManager, Collections.singleton(vcsStatusProvider));
+  }
+
+  @Test
+  public void shouldGetStatusOfAllNestedFilesWithOneCallPerProject() throws Exception {
+    when(projectManager.get("/first")).thenReturn(Optional.of(firstProject));
+    when(projectManager.get("/second")).thenReturn(Optional.of(secondProject));
+    when(firstProject.getAttributes())
+        .thenReturn(singletonMap(VCS_PROVIDER_NAME, singletonList("git")));
+    when(secondProject.getAttributes())
+        .thenReturn(singletonMap(VCS_PROVIDER_NAME, singletonList("git")));
+    when(vcsStatusProvider.getVcsName()).thenReturn("git");
+    when(vcsStatusProvider.getStatus("/first", asList("a.txt", "src/b.txt", "src/main/c.txt")))
+        .thenReturn(
+            ImmutableMap.of(
+                "/first/a.txt", MODIFIED,
+                "/first/src/b.txt", NOT_MODIFIED,
+                "/first/src/main/c.txt", ADDED));
+    when(vcsStatusProvider.getStatus("/second", singletonList("lib/d.txt")))
+        .thenReturn(singletonMap("/second/lib/d.txt", MODIFIED));
+    TreeElement c = file("/first", "/first/src/main/c.txt");
+    TreeElement b = file("/first", "/first/src/b.txt");
+    TreeElement a = file("/first", "/first/a.txt");
+    TreeElement d = file("/second", "/second/lib/d.txt");
+    TreeElement main = folder("/first", "/first/src/main", c);
+    TreeElement first = folder("/first", "/first", a, folder("/first", "/first/src", b, main));
+    TreeElement second = folder("/second", "/second", folder("/second", "/second/lib", d));
+
+    vcsStatusInjector.injectVcsStatusTreeElements(asList(first, second));
+
+    verify(vcsStatusProvider, times(2)).getStatus(anyString(), anyList());
+    verify(vcsStatusProvider).getStatus("/first", asList("a.txt", "src/b.txt", "src/main/c.txt"));
+    verify(vcsStatusProvider).getStatus("/second", singletonList("lib/d.txt"));
+    assertEquals(a.getNode().getAttributes().get("vcs.status"), "MODIFIED");
+    assertEquals(b.getNode().getAttributes().get("vcs.status"), "NOT_MODIFIED");
+    assertEquals(c.getNode().getAttributes().get("vcs.status"), "ADDED");
+    assertEquals(d.getNode().getAttributes().get("vcs.status"), "MODIFIED");
+    assertFalse(first.getNode().getAttributes().containsKey("vcs.status"));
+  }
+
+  @Test
+  public void shouldNotGetStatusOfProjectWithoutVcsProvider() throws Exception {
+    when(projectManager.get("/second")).thenReturn(Optional.of(secondProject));
+    when(secondProject.getAttributes()).thenReturn(Collections.emptyMap());
+    when(vcsStatusProvider.getVcsName()).thenReturn("git");
+
+    vcsStatusInjector.injectVcsStatusTreeElements(
+        singletonList(folder("/second", "/second", file("/second", "/second/d.txt"))));
+
+    verify(vcsStatusProvider, never()).getStatus(anyString(), anyList());
+  }
+
+  private static TreeElement file(String project, String path) {
+    return newDto(TreeElement.class).withNode(item("file", project, path));
+  }
+
+  private static TreeElement folder(String project, String path, TreeElement... children) {
+    return newDto(TreeElement.class)
+        .withNode(item("folder", project, path))
+        .withChildren(asList(children));
+  }
+
+  private static ItemReference item(String type, String project, String path) {
+    return newDto(ItemReference.class)
+        .withType(type)
+        .withProject(project)
+        .withPath(path)
+        .withAttributes(Collections.emptyMap());
+  }
+}
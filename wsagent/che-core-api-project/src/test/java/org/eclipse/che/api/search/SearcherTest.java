@@ -76,7 +76,7 @@ public class SearcherTest {
     excludePatterns = Collections.emptySet();
     pathTransformer = new RootAwarePathTransformer(workspaceStorage);
     searcher =
-        new LuceneSearcher(excludePatterns, indexDirectory, workspaceStorage, pathTransformer);
+        new LuceneSearcher(excludePatterns, indexDirectory, workspaceStorage, 2, pathTransformer);
     contentBuilder = new ContentBuilder(workspaceStorage.toPath());
   }
 
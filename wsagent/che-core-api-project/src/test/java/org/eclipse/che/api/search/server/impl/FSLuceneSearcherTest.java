@@ -21,18 +21,26 @@ package org.eclipse.che.api.search.server.impl;
  */
 
 import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Sets.newHashSet;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.eclipse.che.api.search.SearcherTest.TEST_CONTENT;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 import com.google.common.io.Files;
 import java.io.File;
+import java.nio.file.Path;
 import java.nio.file.PathMatcher;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import org.eclipse.che.api.fs.server.impl.RootAwarePathTransformer;
 import org.eclipse.che.api.search.SearcherTest.ContentBuilder;
+import org.eclipse.che.api.search.server.InvalidQueryException;
+import org.eclipse.che.api.search.server.OffsetData;
 import org.eclipse.che.api.search.server.QueryExpression;
+import org.eclipse.che.api.search.server.SearchResult;
 import org.eclipse.che.commons.lang.IoUtil;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
@@ -55,12 +63,13 @@ public class FSLuceneSearcherTest {
     excludePatterns = new HashSet<>();
     pathTransformer = new RootAwarePathTransformer(workspaceStorage);
     searcher =
-        new LuceneSearcher(excludePatterns, indexDirectory, workspaceStorage, pathTransformer);
+        new LuceneSearcher(excludePatterns, indexDirectory, workspaceStorage, 2, pathTransformer);
     contentBuilder = new ContentBuilder(workspaceStorage.toPath());
   }
 
   @AfterMethod
   public void tearDown() throws Exception {
+    searcher.close();
     IoUtil.deleteRecursive(indexDirectory);
     IoUtil.deleteRecursive(workspaceStorage);
   }
@@ -99,4 +108,110 @@ public class FSLuceneSearcherTest {
     // then
     assertEquals(newArrayList("/folder/xxx.txt", "/folder/zzz.txt"), paths);
   }
+
+  @Test
+  public void shouldReindexOnlyChangedFilesOnRestart() throws Exception {
+    // given
+    contentBuilder
+        .createFolder("folder")
+        .createFile("xxx.txt", TEST_CONTENT[1])
+        .createFile("yyy.txt", TEST_CONTENT[2])
+        .createFile("zzz.txt", TEST_CONTENT[3]);
+    searcher.initialize();
+    searcher.getInitialIndexingLatch().await();
+    searcher.close();
+
+    Path folder = contentBuilder.getCurrentFolder();
+    // same size and modification time, so new content must not be read
+    File unchanged = folder.resolve("xxx.txt").toFile();
+    long modified = unchanged.lastModified();
+    Files.asCharSink(unchanged, UTF_8).write(TEST_CONTENT[1].replace("think", "blink"));
+    unchanged.setLastModified(modified);
+    Files.asCharSink(folder.resolve("yyy.txt").toFile(), UTF_8).write(TEST_CONTENT[4]);
+    contentBuilder.deleteFileInCurrentFolder("zzz.txt");
+
+    // when
+    searcher =
+        new LuceneSearcher(excludePatterns, indexDirectory, workspaceStorage, 2, pathTransformer);
+    searcher.initialize();
+    searcher.getInitialIndexingLatch().await();
+
+    // then
+    List<String> paths = searcher.search(new QueryExpression().setText("think")).getFilePaths();
+    assertEquals(newHashSet(paths), newHashSet("/folder/xxx.txt", "/folder/yyy.txt"));
+    assertEquals(searcher.search(new QueryExpression().setText("blink")).getTotalHits(), 0);
+    assertEquals(searcher.search(new QueryExpression().setText("NASA")).getTotalHits(), 0);
+  }
+
+  @Test
+  public void shouldResolveLinesOfMatchesWithoutStoredText() throws Exception {
+    // given
+    contentBuilder
+        .createFolder("folder")
+        .createFile("xxx.txt", "first\r\nsecond\n\n  target line\rlast target");
+    searcher.add(contentBuilder.getLastUpdatedFile());
+
+    // when
+    List<OffsetData> offsets =
+        searcher
+            .search(new QueryExpression().setText("target").setIncludePositions(true))
+            .getResults()
+            .get(0)
+            .getData();
+
+    // then
+    assertEquals(
+        offsets,
+        newArrayList(
+            new OffsetData("target", 17, 23, 1.0f, 4, "  target line"),
+            new OffsetData("target", 34, 40, 1.0f, 5, "last target")));
+  }
+
+  @Test
+  public void shouldRetrievePagesWithCursor() throws Exception {
+    // given
+    for (int i = 0; i < 30; i++) {
+      contentBuilder.createFile(String.format("file%02d", i), TEST_CONTENT[i % 2]);
+    }
+    searcher.add(contentBuilder.getCurrentFolder());
+
+    // when
+    List<String> paths = new ArrayList<>();
+    QueryExpression query = new QueryExpression().setText("think").setMaxItems(4);
+    SearchResult page;
+    do {
+      page = searcher.search(query);
+      paths.addAll(page.getFilePaths());
+      query = page.getNextPageQueryExpression().orNull();
+    } while (query != null);
+
+    // then
+    assertEquals(paths.size(), 15);
+    assertEquals(newHashSet(paths).size(), 15);
+  }
+
+  @Test
+  public void shouldPassFoundItemsToConsumer() throws Exception {
+    // given
+    contentBuilder
+        .createFolder("folder")
+        .createFile("xxx.txt", TEST_CONTENT[1])
+        .createFile("zzz.txt", TEST_CONTENT[4]);
+    searcher.add(contentBuilder.getCurrentFolder());
+
+    // when
+    List<String> paths = new ArrayList<>();
+    SearchResult result =
+        searcher.search(new QueryExpression().setText("think"), e -> paths.add(e.getFilePath()));
+
+    // then
+    assertEquals(newHashSet(paths), newHashSet("/folder/xxx.txt", "/folder/zzz.txt"));
+    assertEquals(result.getTotalHits(), 2);
+    assertTrue(result.getResults().isEmpty());
+  }
+
+  @Test(expectedExceptions = InvalidQueryException.class)
+  public void shouldRejectInvalidCursor() throws Exception {
+    searcher.search(new QueryExpression().setText("think").setCursor("invalid"));
+  }
 }
@@ -13,6 +13,7 @@ package org.eclipse.che.api.watcher.server.impl;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.util.Collections.singletonMap;
 import static java.util.concurrent.Executors.newFixedThreadPool;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.junit.Assert.assertEquals;
@@ -64,7 +65,7 @@ public class ConcurrentHandleTest {
       public Void call() {
         final Path path = root.resolve(PROJECT_FILE);
         handler.register(path, create, modify, delete);
-        handler.handle(path, eventType);
+        handler.handle(singletonMap(path, eventType));
         return null;
       }
     }
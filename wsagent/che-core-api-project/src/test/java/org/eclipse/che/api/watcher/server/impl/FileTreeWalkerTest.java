@@ -12,14 +12,20 @@ package org.eclipse.che.api.watcher.server.impl;
 
 import static java.io.File.createTempFile;
 import static java.lang.Thread.sleep;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static org.apache.commons.io.FileUtils.write;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.function.Consumer;
 import org.junit.After;
@@ -28,6 +34,8 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
@@ -39,6 +47,7 @@ public class FileTreeWalkerTest {
   static final String TEST_FILE_NAME = "test-file-name";
   static final String TEST_FILE_CONTENT = "test-file-content";
   static final String TEST_FOLDER_NAME = "test-folder-name";
+  static final long RECONCILE_PERIOD_SEC = 600;
 
   @Rule public TemporaryFolder rootFolder = new TemporaryFolder();
 
@@ -62,6 +71,11 @@ public class FileTreeWalkerTest {
 
   @Mock Consumer<Path> directoryDeleteConsumerMock;
 
+  @Mock FileWatcherService watcherService;
+  @Mock FileWatcherEventHandler watcherEventHandler;
+  @Captor ArgumentCaptor<Consumer<List<String>>> createCaptor;
+  @Captor ArgumentCaptor<Consumer<List<String>>> deleteCaptor;
+
   @Before
   public void setUp() throws Exception {
     fileTreeWalker =
@@ -74,7 +88,11 @@ public class FileTreeWalkerTest {
             fileUpdateConsumers,
             fileCreateConsumers,
             fileDeleteConsumers,
-            fileExcludes);
+            fileExcludes,
+            watcherService,
+            watcherEventHandler,
+            false,
+            RECONCILE_PERIOD_SEC);
   }
 
   @After
@@ -190,4 +208,85 @@ public class FileTreeWalkerTest {
     fileTreeWalker.walk();
     verify(directoryCreatedConsumerMock, never()).accept(file.toPath());
   }
+
+  @Test
+  public void shouldRegisterWalkedTreeWithSingleCallInEventDrivenMode() throws Exception {
+    fileTreeWalker = newEventDrivenWalker();
+    Path root = rootFolder.getRoot().toPath();
+    Path folder = rootFolder.newFolder(TEST_FOLDER_NAME).toPath();
+    when(watcherService.registerRecursively(eq(root), any()))
+        .thenReturn(new HashSet<>(asList(root, folder)));
+
+    fileTreeWalker.walk();
+
+    verify(watcherService).registerRecursively(eq(root), any());
+    verify(watcherService, never()).registerRecursively(eq(folder), any());
+    verify(watcherEventHandler).registerBatch(eq(folder), any(), any(), any());
+  }
+
+  @Test
+  public void shouldUnregisterDirectoriesThatAreNotWalkedInEventDrivenMode() throws Exception {
+    fileTreeWalker = newEventDrivenWalker();
+    Path root = rootFolder.getRoot().toPath();
+    Path folder = rootFolder.newFolder(TEST_FOLDER_NAME).toPath();
+    directoryExcludes.add(it -> it.getFileName().toString().equals(TEST_FOLDER_NAME));
+    when(watcherService.registerRecursively(eq(root), any()))
+        .thenReturn(new HashSet<>(asList(root, folder)));
+
+    fileTreeWalker.walk();
+
+    verify(watcherService).unRegister(folder);
+    verify(watcherService, never()).unRegister(root);
+  }
+
+  @Test
+  public void shouldRunFileConsumersOnWatcherEventsInEventDrivenMode() throws Exception {
+    fileTreeWalker = newEventDrivenWalker();
+    fileCreateConsumers.add(fileCreatedConsumerMock);
+    fileDeleteConsumers.add(fileDeleteConsumerMock);
+    fileTreeWalker.walk();
+    verify(watcherEventHandler)
+        .registerBatch(
+            eq(rootFolder.getRoot().toPath()),
+            createCaptor.capture(),
+            any(),
+            deleteCaptor.capture());
+
+    File file = rootFolder.newFile(TEST_FILE_NAME);
+    createCaptor.getValue().accept(singletonList("/" + TEST_FILE_NAME));
+    verify(fileCreatedConsumerMock).accept(file.toPath());
+
+    file.delete();
+    deleteCaptor.getValue().accept(singletonList("/" + TEST_FILE_NAME));
+    verify(fileDeleteConsumerMock).accept(file.toPath());
+  }
+
+  @Test
+  public void shouldNotWalkTreeBeforeReconcilePeriodInEventDrivenMode() throws Exception {
+    fileTreeWalker = newEventDrivenWalker();
+    fileCreateConsumers.add(fileCreatedConsumerMock);
+    fileTreeWalker.walk();
+
+    File file = rootFolder.newFile(TEST_FILE_NAME);
+    fileTreeWalker.walk();
+
+    verify(fileCreatedConsumerMock, never()).accept(file.toPath());
+  }
+
+  private FileTreeWalker newEventDrivenWalker() {
+    return new FileTreeWalker(
+        rootFolder.getRoot(),
+        directoryUpdateConsumers,
+        directoryCreateConsumers,
+        directoryDeleteConsumers,
+        directoryExcludes,
+        fileUpdateConsumers,
+        fileCreateConsumers,
+        fileDeleteConsumers,
+        fileExcludes,
+        watcherService,
+        watcherEventHandler,
+        true,
+        RECONCILE_PERIOD_SEC);
+  }
 }
@@ -16,6 +16,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.nio.file.Path;
+import java.util.List;
 import java.util.function.Consumer;
 import org.junit.Before;
 import org.junit.Rule;
@@ -41,6 +42,9 @@ public class FileWatcherByPathValueTest {
   @Mock Consumer<String> create;
   @Mock Consumer<String> modify;
   @Mock Consumer<String> delete;
+  @Mock Consumer<List<String>> batchCreate;
+  @Mock Consumer<List<String>> batchModify;
+  @Mock Consumer<List<String>> batchDelete;
 
   Path root;
 
@@ -76,6 +80,16 @@ public class FileWatcherByPathValueTest {
     verify(handler).register(path, create, modify, delete);
   }
 
+  @Test
+  public void shouldRegisterBatchInServiceAndHandlerWhenWatchBatch() throws Exception {
+    Path path = root.resolve(FILE_NAME);
+
+    watcher.watchBatch(path, batchCreate, batchModify, batchDelete);
+
+    verify(service).register(path.getParent());
+    verify(handler).registerBatch(path, batchCreate, batchModify, batchDelete);
+  }
+
   @Test
   public void shouldUnRegisterInServiceWhenUnWatch() throws Exception {
     Path path = mock(Path.class);
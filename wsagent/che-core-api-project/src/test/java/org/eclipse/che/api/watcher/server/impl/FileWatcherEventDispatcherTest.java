@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.watcher.server.impl;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.collect.ImmutableMap;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.WatchEvent.Kind;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/** Tests for {@link FileWatcherEventDispatcher} */
+@RunWith(MockitoJUnitRunner.class)
+public class FileWatcherEventDispatcherTest {
+  private static final int TIMEOUT_VALUE = 3_000;
+  private static final long WINDOW_MILLIS = 200;
+
+  private static final Path CREATED = Paths.get("/projects/created");
+  private static final Path MODIFIED = Paths.get("/projects/modified");
+  private static final Path DELETED = Paths.get("/projects/deleted");
+  private static final Path TEMPORARY = Paths.get("/projects/temporary");
+
+  @Mock FileWatcherEventHandler handler;
+  @Captor ArgumentCaptor<Map<Path, Kind<?>>> batchCaptor;
+
+  FileWatcherEventDispatcher dispatcher;
+
+  @Before
+  public void setUp() throws Exception {
+    dispatcher = new FileWatcherEventDispatcher(handler, WINDOW_MILLIS);
+    dispatcher.start();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    dispatcher.stop();
+  }
+
+  @Test
+  public void shouldCoalesceEventsOfWindowIntoSingleBatch() throws Exception {
+    dispatcher.dispatch(CREATED, ENTRY_CREATE);
+    dispatcher.dispatch(CREATED, ENTRY_MODIFY);
+    dispatcher.dispatch(MODIFIED, ENTRY_MODIFY);
+    dispatcher.dispatch(MODIFIED, ENTRY_MODIFY);
+    dispatcher.dispatch(DELETED, ENTRY_MODIFY);
+    dispatcher.dispatch(DELETED, ENTRY_DELETE);
+    dispatcher.dispatch(TEMPORARY, ENTRY_CREATE);
+    dispatcher.dispatch(TEMPORARY, ENTRY_DELETE);
+
+    verify(handler, timeout(TIMEOUT_VALUE)).handle(batchCaptor.capture());
+    assertEquals(
+        ImmutableMap.of(CREATED, ENTRY_CREATE, MODIFIED, ENTRY_MODIFY, DELETED, ENTRY_DELETE),
+        batchCaptor.getValue());
+  }
+
+  @Test
+  public void shouldReportRecreatedItemAsModified() throws Exception {
+    dispatcher.dispatch(MODIFIED, ENTRY_DELETE);
+    dispatcher.dispatch(MODIFIED, ENTRY_CREATE);
+
+    verify(handler, timeout(TIMEOUT_VALUE)).handle(batchCaptor.capture());
+    assertEquals(ImmutableMap.of(MODIFIED, ENTRY_MODIFY), batchCaptor.getValue());
+  }
+
+  @Test
+  public void shouldCountIncomingAndOutgoingEvents() throws Exception {
+    dispatcher.dispatch(CREATED, ENTRY_CREATE);
+    dispatcher.dispatch(CREATED, ENTRY_MODIFY);
+    assertEquals(1, dispatcher.getBacklog());
+
+    verify(handler, timeout(TIMEOUT_VALUE)).handle(batchCaptor.capture());
+    assertEquals(2, dispatcher.getEventsIn());
+    assertEquals(1, dispatcher.getEventsOut());
+  }
+}
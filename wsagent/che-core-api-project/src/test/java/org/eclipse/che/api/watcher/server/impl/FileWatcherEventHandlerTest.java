@@ -13,12 +13,19 @@ package org.eclipse.che.api.watcher.server.impl;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
 import static org.eclipse.che.api.watcher.server.impl.FileWatcherUtils.toInternalPath;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 import org.junit.Before;
 import org.junit.Rule;
@@ -40,6 +47,9 @@ public class FileWatcherEventHandlerTest {
   @Mock Consumer<String> create;
   @Mock Consumer<String> modify;
   @Mock Consumer<String> delete;
+  @Mock Consumer<List<String>> batchCreate;
+  @Mock Consumer<List<String>> batchModify;
+  @Mock Consumer<List<String>> batchDelete;
 
   Path root;
 
@@ -55,7 +65,7 @@ public class FileWatcherEventHandlerTest {
     Path path = root.resolve(PROJECT_FILE);
     handler.register(path, create, modify, delete);
 
-    handler.handle(path, ENTRY_CREATE);
+    handler.handle(singletonMap(path, ENTRY_CREATE));
 
     verify(create).accept(toInternalPath(root, path));
   }
@@ -65,7 +75,7 @@ public class FileWatcherEventHandlerTest {
     Path path = root.resolve(PROJECT_FILE);
     handler.register(path, create, modify, delete);
 
-    handler.handle(path, ENTRY_MODIFY);
+    handler.handle(singletonMap(path, ENTRY_MODIFY));
 
     verify(modify).accept(toInternalPath(root, path));
   }
@@ -75,7 +85,7 @@ public class FileWatcherEventHandlerTest {
     Path path = root.resolve(PROJECT_FILE);
     handler.register(path, create, modify, delete);
 
-    handler.handle(path, ENTRY_DELETE);
+    handler.handle(singletonMap(path, ENTRY_DELETE));
 
     verify(delete).accept(toInternalPath(root, path));
   }
@@ -86,7 +96,7 @@ public class FileWatcherEventHandlerTest {
     handler.register(path, create, modify, delete);
     handler.register(path.getParent(), create, modify, delete);
 
-    handler.handle(path, ENTRY_CREATE);
+    handler.handle(singletonMap(path, ENTRY_CREATE));
 
     verify(create, times(2)).accept(toInternalPath(root, path));
   }
@@ -97,7 +107,7 @@ public class FileWatcherEventHandlerTest {
     handler.register(path.resolve("one"), create, modify, delete);
     handler.register(path.resolve("two"), create, modify, delete);
 
-    handler.handle(path, ENTRY_CREATE);
+    handler.handle(singletonMap(path, ENTRY_CREATE));
 
     verify(create, never()).accept(toInternalPath(root, path));
   }
@@ -109,7 +119,7 @@ public class FileWatcherEventHandlerTest {
 
     handler.unRegister(id);
 
-    handler.handle(path, ENTRY_CREATE);
+    handler.handle(singletonMap(path, ENTRY_CREATE));
 
     verify(create, never()).accept(toInternalPath(root, path));
   }
@@ -121,8 +131,23 @@ public class FileWatcherEventHandlerTest {
     int id = handler.register(path, create, modify, delete);
     handler.unRegister(id);
 
-    handler.handle(path, ENTRY_CREATE);
+    handler.handle(singletonMap(path, ENTRY_CREATE));
 
     verify(create).accept(toInternalPath(root, path));
   }
+
+  @Test
+  public void shouldHandleBatchOfEventsWithSingleCallOfBatchOperation() throws Exception {
+    Path first = root.resolve(PROJECT_FILE);
+    Path second = root.resolve(PROJECT_FILE + "2");
+    handler.registerBatch(first.getParent(), batchCreate, batchModify, batchDelete);
+    Map<Path, WatchEvent.Kind<?>> events = new LinkedHashMap<>();
+    events.put(first, ENTRY_CREATE);
+    events.put(second, ENTRY_CREATE);
+
+    handler.handle(events);
+
+    verify(batchCreate).accept(asList(toInternalPath(root, first), toInternalPath(root, second)));
+    verify(batchModify, never()).accept(anyList());
+  }
 }
@@ -15,6 +15,7 @@ import static org.mockito.Mockito.verify;
 
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
+import java.util.List;
 import java.util.function.Consumer;
 import org.eclipse.che.api.watcher.server.FileWatcherManager;
 import org.junit.Before;
@@ -43,6 +44,9 @@ public class FileWatcherManagerTest {
   @Mock Consumer<String> create;
   @Mock Consumer<String> modify;
   @Mock Consumer<String> delete;
+  @Mock Consumer<List<String>> batchCreate;
+  @Mock Consumer<List<String>> batchModify;
+  @Mock Consumer<List<String>> batchDelete;
   @Mock PathMatcher pathMatcher;
 
   @Before
@@ -64,6 +68,15 @@ public class FileWatcherManagerTest {
     verify(fileWatcherByPathValue).watch(path, create, modify, delete);
   }
 
+  @Test
+  public void shouldWatchBatchByPath() throws Exception {
+    manager.registerBatchByPath(PATH, batchCreate, batchModify, batchDelete);
+
+    Path path = toNormalPath(rootFolder.getRoot().toPath(), PATH);
+
+    verify(fileWatcherByPathValue).watchBatch(path, batchCreate, batchModify, batchDelete);
+  }
+
   @Test
   public void shouldUnWatchByPath() throws Exception {
     manager.unRegisterByPath(ID);
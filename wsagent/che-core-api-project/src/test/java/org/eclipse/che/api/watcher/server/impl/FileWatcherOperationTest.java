@@ -13,9 +13,11 @@ package org.eclipse.che.api.watcher.server.impl;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
-import static org.junit.Assert.assertEquals;
+import static java.util.Collections.singletonList;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.verify;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Consumer;
 import org.junit.Before;
@@ -29,6 +31,8 @@ import org.mockito.junit.MockitoJUnitRunner;
 public class FileWatcherOperationTest {
 
   private static final int ID = 0;
+  private static final String PATH = "/project/file";
+
   @Mock Consumer<String> create;
   @Mock Consumer<String> modify;
   @Mock Consumer<String> delete;
@@ -42,34 +46,28 @@ public class FileWatcherOperationTest {
 
   @Test
   public void shouldProperlyGetCreateEventKindConsumer() throws Exception {
-    Optional<Consumer<String>> consumer = operation.get(ENTRY_CREATE);
+    Optional<Consumer<List<String>>> consumer = operation.getBatch(ENTRY_CREATE);
 
     assertTrue(consumer.isPresent());
-    if (consumer.isPresent()) {
-      Consumer<String> actual = consumer.get();
-      assertEquals(create, actual);
-    }
+    consumer.get().accept(singletonList(PATH));
+    verify(create).accept(PATH);
   }
 
   @Test
   public void shouldProperlyGetModifyEventKindConsumer() throws Exception {
-    Optional<Consumer<String>> consumer = operation.get(ENTRY_MODIFY);
+    Optional<Consumer<List<String>>> consumer = operation.getBatch(ENTRY_MODIFY);
 
     assertTrue(consumer.isPresent());
-    if (consumer.isPresent()) {
-      Consumer<String> actual = consumer.get();
-      assertEquals(modify, actual);
-    }
+    consumer.get().accept(singletonList(PATH));
+    verify(modify).accept(PATH);
   }
 
   @Test
   public void shouldProperlyGetDeleteEventKindConsumer() throws Exception {
-    Optional<Consumer<String>> consumer = operation.get(ENTRY_DELETE);
+    Optional<Consumer<List<String>>> consumer = operation.getBatch(ENTRY_DELETE);
 
     assertTrue(consumer.isPresent());
-    if (consumer.isPresent()) {
-      Consumer<String> actual = consumer.get();
-      assertEquals(delete, actual);
-    }
+    consumer.get().accept(singletonList(PATH));
+    verify(delete).accept(PATH);
   }
 }
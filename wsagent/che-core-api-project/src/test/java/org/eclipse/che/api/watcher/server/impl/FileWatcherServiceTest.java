@@ -11,22 +11,29 @@
 package org.eclipse.che.api.watcher.server.impl;
 
 import static java.nio.file.Files.createDirectory;
+import static java.nio.file.Files.createFile;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
 import static org.apache.commons.io.FileUtils.write;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.after;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.FileSystems;
 import java.nio.file.Path;
 import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.Set;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Rule;
@@ -46,6 +53,7 @@ public class FileWatcherServiceTest {
   @Rule public TemporaryFolder rootFolder = new TemporaryFolder();
 
   @Mock FileWatcherEventHandler handler;
+  @Mock FileWatcherEventDispatcher dispatcher;
   @Mock FileWatcherExcludePatternsRegistry fileWatcherExcludePatternsRegistry;
   WatchService watchService = FileSystems.getDefault().newWatchService();
 
@@ -55,7 +63,9 @@ public class FileWatcherServiceTest {
 
   @BeforeClass
   public void setUp() throws Exception {
-    service = new FileWatcherService(fileWatcherExcludePatternsRegistry, handler, watchService);
+    service =
+        new FileWatcherService(
+            fileWatcherExcludePatternsRegistry, handler, dispatcher, watchService);
 
     service.start();
   }
@@ -70,14 +80,14 @@ public class FileWatcherServiceTest {
 
     Path path = rootFolder.newFile(FILE_NAME).toPath();
 
-    verify(handler, timeout(TIMEOUT_VALUE)).handle(path, ENTRY_CREATE);
+    verify(dispatcher, timeout(TIMEOUT_VALUE)).dispatch(path, ENTRY_CREATE);
   }
 
   @AfterClass
   public void tearDown() throws Exception {
     service.stop();
 
-    reset(handler);
+    reset(dispatcher);
 
     for (int i = 0; i < 10; i++) {
       if (service.isStopped()) {
@@ -94,11 +104,11 @@ public class FileWatcherServiceTest {
 
     File file = rootFolder.newFile(FILE_NAME);
     Path path = file.toPath();
-    verify(handler, timeout(TIMEOUT_VALUE)).handle(path, ENTRY_CREATE);
+    verify(dispatcher, timeout(TIMEOUT_VALUE)).dispatch(path, ENTRY_CREATE);
 
     boolean deleted = file.delete();
     assertTrue(deleted);
-    verify(handler, timeout(TIMEOUT_VALUE)).handle(path, ENTRY_DELETE);
+    verify(dispatcher, timeout(TIMEOUT_VALUE)).dispatch(path, ENTRY_DELETE);
   }
 
   @Test
@@ -107,7 +117,7 @@ public class FileWatcherServiceTest {
 
     Path path = rootFolder.newFolder(FOLDER_NAME).toPath();
 
-    verify(handler, timeout(TIMEOUT_VALUE)).handle(path, ENTRY_CREATE);
+    verify(dispatcher, timeout(TIMEOUT_VALUE)).dispatch(path, ENTRY_CREATE);
   }
 
   @Test
@@ -116,10 +126,10 @@ public class FileWatcherServiceTest {
 
     File file = rootFolder.newFile(FILE_NAME);
     Path path = file.toPath();
-    verify(handler, timeout(TIMEOUT_VALUE)).handle(path, ENTRY_CREATE);
+    verify(dispatcher, timeout(TIMEOUT_VALUE)).dispatch(path, ENTRY_CREATE);
 
     write(file, "");
-    verify(handler, timeout(TIMEOUT_VALUE)).handle(path, ENTRY_MODIFY);
+    verify(dispatcher, timeout(TIMEOUT_VALUE)).dispatch(path, ENTRY_MODIFY);
   }
 
   @Test
@@ -128,18 +138,18 @@ public class FileWatcherServiceTest {
 
     File file = rootFolder.newFolder(FOLDER_NAME);
     Path path = file.toPath();
-    verify(handler, timeout(TIMEOUT_VALUE)).handle(path, ENTRY_CREATE);
+    verify(dispatcher, timeout(TIMEOUT_VALUE)).dispatch(path, ENTRY_CREATE);
 
     boolean deleted = file.delete();
     assertTrue(deleted);
-    verify(handler, timeout(TIMEOUT_VALUE)).handle(path, ENTRY_DELETE);
+    verify(dispatcher, timeout(TIMEOUT_VALUE)).dispatch(path, ENTRY_DELETE);
   }
 
   @Test
   public void shouldNotWatchUnRegisteredFolderForFileCreation() throws Exception {
     Path path = rootFolder.newFile(FILE_NAME).toPath();
 
-    verify(handler, after(TIMEOUT_VALUE).never()).handle(path, ENTRY_CREATE);
+    verify(dispatcher, after(TIMEOUT_VALUE).never()).dispatch(path, ENTRY_CREATE);
   }
 
   @Test
@@ -152,10 +162,10 @@ public class FileWatcherServiceTest {
 
     File file = rootFolder.newFolder(FOLDER_NAME);
     Path path = file.toPath();
-    verify(handler, timeout(TIMEOUT_VALUE)).handle(path, ENTRY_CREATE);
+    verify(dispatcher, timeout(TIMEOUT_VALUE)).dispatch(path, ENTRY_CREATE);
 
     createDirectory(path.resolve(FOLDER_NAME));
-    verify(handler, timeout(TIMEOUT_VALUE)).handle(path, ENTRY_MODIFY);
+    verify(dispatcher, timeout(TIMEOUT_VALUE)).dispatch(path, ENTRY_MODIFY);
   }
 
   @Test
@@ -164,20 +174,20 @@ public class FileWatcherServiceTest {
 
     File file = rootFolder.newFile(FILE_NAME);
     Path path = file.toPath();
-    verify(handler, timeout(TIMEOUT_VALUE)).handle(path, ENTRY_CREATE);
+    verify(dispatcher, timeout(TIMEOUT_VALUE)).dispatch(path, ENTRY_CREATE);
 
     service.unRegister(rootFolder.getRoot().toPath());
 
     boolean deleted = file.delete();
     assertTrue(deleted);
-    verify(handler, after(TIMEOUT_VALUE).never()).handle(path, ENTRY_DELETE);
+    verify(dispatcher, after(TIMEOUT_VALUE).never()).dispatch(path, ENTRY_DELETE);
   }
 
   @Test
   public void shouldNotWatchUnRegisteredFolderForDirectoryCreation() throws Exception {
     Path path = rootFolder.newFolder(FOLDER_NAME).toPath();
 
-    verify(handler, after(TIMEOUT_VALUE).never()).handle(path, ENTRY_CREATE);
+    verify(dispatcher, after(TIMEOUT_VALUE).never()).dispatch(path, ENTRY_CREATE);
   }
 
   @Test
@@ -186,12 +196,12 @@ public class FileWatcherServiceTest {
 
     File file = rootFolder.newFile(FILE_NAME);
     Path path = file.toPath();
-    verify(handler, timeout(TIMEOUT_VALUE)).handle(path, ENTRY_CREATE);
+    verify(dispatcher, timeout(TIMEOUT_VALUE)).dispatch(path, ENTRY_CREATE);
 
     service.unRegister(rootFolder.getRoot().toPath());
 
     write(file, "");
-    verify(handler, after(TIMEOUT_VALUE).never()).handle(path, ENTRY_MODIFY);
+    verify(dispatcher, after(TIMEOUT_VALUE).never()).dispatch(path, ENTRY_MODIFY);
   }
 
   @Test
@@ -200,13 +210,13 @@ public class FileWatcherServiceTest {
 
     File file = rootFolder.newFolder(FOLDER_NAME);
     Path path = file.toPath();
-    verify(handler, timeout(TIMEOUT_VALUE)).handle(path, ENTRY_CREATE);
+    verify(dispatcher, timeout(TIMEOUT_VALUE)).dispatch(path, ENTRY_CREATE);
 
     service.unRegister(rootFolder.getRoot().toPath());
 
     boolean deleted = file.delete();
     assertTrue(deleted);
-    verify(handler, after(TIMEOUT_VALUE).never()).handle(path, ENTRY_DELETE);
+    verify(dispatcher, after(TIMEOUT_VALUE).never()).dispatch(path, ENTRY_DELETE);
   }
 
   @Test
@@ -220,7 +230,7 @@ public class FileWatcherServiceTest {
 
     Path path = rootFolder.newFile(FILE_NAME).toPath();
 
-    verify(handler, timeout(TIMEOUT_VALUE)).handle(path, ENTRY_CREATE);
+    verify(dispatcher, timeout(TIMEOUT_VALUE)).dispatch(path, ENTRY_CREATE);
   }
 
   @Test
@@ -235,7 +245,7 @@ public class FileWatcherServiceTest {
 
     Path path = rootFolder.newFile(FILE_NAME).toPath();
 
-    verify(handler, after(TIMEOUT_VALUE).never()).handle(path, ENTRY_CREATE);
+    verify(dispatcher, after(TIMEOUT_VALUE).never()).dispatch(path, ENTRY_CREATE);
   }
 
   @Test
@@ -244,11 +254,47 @@ public class FileWatcherServiceTest {
 
     File file = rootFolder.newFolder(FOLDER_NAME);
     Path path = file.toPath();
-    verify(handler, timeout(TIMEOUT_VALUE)).handle(path, ENTRY_CREATE);
+    verify(dispatcher, timeout(TIMEOUT_VALUE)).dispatch(path, ENTRY_CREATE);
 
     service.unRegister(rootFolder.getRoot().toPath());
 
     createDirectory(path.resolve(FILE_NAME));
-    verify(handler, after(TIMEOUT_VALUE).never()).handle(path, ENTRY_MODIFY);
+    verify(dispatcher, after(TIMEOUT_VALUE).never()).dispatch(path, ENTRY_MODIFY);
+  }
+
+  @Test
+  public void shouldWatchRecursivelyRegisteredSubfolders() throws Exception {
+    Path root = rootFolder.getRoot().toPath();
+    Path folder = rootFolder.newFolder(FOLDER_NAME).toPath();
+
+    Set<Path> registered = service.registerRecursively(root, it -> false);
+
+    assertEquals(registered, new HashSet<>(asList(root, folder)));
+
+    Path path = createFile(folder.resolve(FILE_NAME));
+    verify(dispatcher, timeout(TIMEOUT_VALUE)).dispatch(path, ENTRY_CREATE);
+  }
+
+  @Test
+  public void shouldNotWatchRecursivelyRegisteredExcludedSubfolders() throws Exception {
+    Path root = rootFolder.getRoot().toPath();
+    Path folder = rootFolder.newFolder(FOLDER_NAME).toPath();
+    when(fileWatcherExcludePatternsRegistry.isExcluded(folder)).thenReturn(true);
+
+    assertEquals(service.registerRecursively(root, it -> false), singleton(root));
+
+    Path path = createFile(folder.resolve(FILE_NAME));
+    verify(dispatcher, after(TIMEOUT_VALUE).never()).dispatch(path, ENTRY_CREATE);
+  }
+
+  @Test
+  public void shouldNotWatchRecursivelyRegisteredFilteredSubfolders() throws Exception {
+    Path root = rootFolder.getRoot().toPath();
+    Path folder = rootFolder.newFolder(FOLDER_NAME).toPath();
+
+    assertEquals(service.registerRecursively(root, folder::equals), singleton(root));
+
+    Path path = createFile(folder.resolve(FILE_NAME));
+    verify(dispatcher, after(TIMEOUT_VALUE).never()).dispatch(path, ENTRY_CREATE);
   }
 }
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.watcher.server.impl;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import org.eclipse.che.api.watcher.server.GlobPathMatcher;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Tests for {@link PathMatcherIndex} */
+public class PathMatcherIndexTest {
+  private static final List<String> GLOBS =
+      asList(
+          "**/*.java",
+          "**/*Test.java",
+          "**/pom.xml",
+          "**/package.json",
+          "**/*.{ts,tsx,js}",
+          "/projects/web/**",
+          "/projects/*/src/**/*.go",
+          "**/.git/{HEAD,index}",
+          "**/node_modules/**",
+          "*.foo");
+
+  private static final List<String> PATHS =
+      asList(
+          "/projects/app/src/main/java/App.java",
+          "/projects/app/src/test/java/AppTest.java",
+          "/projects/app/pom.xml",
+          "/projects/web/package.json",
+          "/projects/web/src/index.tsx",
+          "/projects/web/node_modules/lib/index.js",
+          "/projects/go/src/cmd/main.go",
+          "/projects/app/.git/HEAD",
+          "/projects/app/.git/config",
+          "/projects/app/README.md",
+          "bar.foo");
+
+  private PathMatcherIndex index;
+  private List<PathMatcher> matchers;
+
+  @Before
+  public void setUp() throws Exception {
+    index = new PathMatcherIndex();
+    matchers = new ArrayList<>();
+    for (String glob : GLOBS) {
+      PathMatcher matcher = GlobPathMatcher.of("glob:" + glob);
+      matchers.add(matcher);
+      index.add(matcher);
+    }
+  }
+
+  @Test
+  public void shouldMatchSameMatchersAsCheckingEachMatcher() throws Exception {
+    for (String value : PATHS) {
+      Path path = Paths.get(value);
+      List<PathMatcher> expected = new ArrayList<>();
+      for (PathMatcher matcher : matchers) {
+        if (matcher.matches(path)) {
+          expected.add(matcher);
+        }
+      }
+
+      assertEquals(value, new HashSet<>(expected), new HashSet<>(index.match(path)));
+    }
+  }
+
+  @Test
+  public void shouldMatchNotIndexableMatchers() throws Exception {
+    PathMatcher matcher = path -> path.getFileName().toString().startsWith("READ");
+    index.add(matcher);
+
+    List<PathMatcher> matched = index.match(Paths.get("/projects/app/README.md"));
+
+    assertTrue(matched.contains(matcher));
+  }
+
+  @Test
+  public void shouldNotMatchRemovedMatchers() throws Exception {
+    for (PathMatcher matcher : matchers) {
+      index.remove(matcher);
+    }
+
+    for (String value : PATHS) {
+      assertEquals(emptyList(), index.match(Paths.get(value)));
+    }
+  }
+
+  @Test
+  public void shouldMatchBraceAlternatives() throws Exception {
+    PathMatcher matcher = matchers.get(GLOBS.indexOf("**/*.{ts,tsx,js}"));
+
+    assertEquals(singletonList(matcher), index.match(Paths.get("/projects/app/src/index.ts")));
+  }
+}
@@ -56,14 +56,16 @@ import java.io.FilenameFilter;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.nio.file.attribute.PosixFilePermission;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -166,6 +168,8 @@ import org.eclipse.jgit.diff.DiffEntry;
 import org.eclipse.jgit.diff.DiffFormatter;
 import org.eclipse.jgit.diff.EditList;
 import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.errors.IncorrectObjectTypeException;
+import org.eclipse.jgit.errors.MissingObjectException;
 import org.eclipse.jgit.lib.BatchingProgressMonitor;
 import org.eclipse.jgit.lib.ConfigConstants;
 import org.eclipse.jgit.lib.ObjectId;
@@ -311,6 +315,9 @@ class JGitConnection implements GitConnection {
   private final GitUserResolver userResolver;
   private final Repository repository;
 
+  private JGitRepositoryCache repositoryCache;
+  private boolean closed;
+
   @Inject
   JGitConnection(
       Repository repository,
@@ -624,6 +631,7 @@ class JGitConnection implements GitConnection {
             gitUser.getEmail());
       }
       repositoryConfig.save();
+      invalidateCachedRepository(new File(params.getWorkingDir()));
     } catch (IOException | GitAPIException exception) {
       // Delete .git directory in case it was created
       if (removeIfFailed) {
@@ -975,6 +983,7 @@ class JGitConnection implements GitConnection {
 
     try {
       repository.create(isBare);
+      invalidateCachedRepository(workDir);
       eventService.publish(
           newDto(GitRepositoryInitializedEvent.class)
               .withProjectName(repository.getWorkTree().getName()));
@@ -1002,12 +1011,18 @@ class JGitConnection implements GitConnection {
       if (!isNullOrEmpty(filePath)) {
         logCommand.addPath(filePath);
       }
-      Iterator<RevCommit> revIterator = logCommand.call().iterator();
-      List<Revision> commits = new ArrayList<>();
-      while (revIterator.hasNext()) {
-        RevCommit commit = revIterator.next();
-        Revision revision = getRevision(commit, filePath);
-        commits.add(revision);
+      List<RevCommit> revCommits = new ArrayList<>();
+      logCommand.call().forEach(revCommits::add);
+      Map<ObjectId, List<Branch>> branches = getBranchesOfCommits(revCommits);
+      List<Revision> commits = new ArrayList<>(revCommits.size());
+      try (RevWalk revWalk = new RevWalk(repository)) {
+        for (RevCommit commit : revCommits) {
+          Revision revision = getRevision(commit, branches.getOrDefault(commit, emptyList()));
+          if (params.isDiffCommitFiles()) {
+            revision.setDiffCommitFile(getCommitDiffFiles(revWalk, commit, filePath));
+          }
+          commits.add(revision);
+        }
       }
       return new LogPage(commits);
     } catch (GitAPIException | IOException exception) {
@@ -1021,8 +1036,7 @@ class JGitConnection implements GitConnection {
     }
   }
 
-  private Revision getRevision(RevCommit commit, String filePath)
-      throws GitAPIException, IOException {
+  private Revision getRevision(RevCommit commit, List<Branch> branches) {
     List<String> commitParentsList =
         Stream.of(commit.getParents()).map(RevCommit::getName).collect(Collectors.toList());
 
@@ -1032,9 +1046,8 @@ class JGitConnection implements GitConnection {
         .withCommitTime((long) commit.getCommitTime() * 1000)
         .withCommitter(getCommitCommitter(commit))
         .withAuthor(getCommitAuthor(commit))
-        .withBranches(getBranchesOfCommit(commit, ListMode.ALL))
-        .withCommitParent(commitParentsList)
-        .withDiffCommitFile(getCommitDiffFiles(commit, filePath));
+        .withBranches(branches)
+        .withCommitParent(commitParentsList);
   }
 
   private GitUser getCommitCommitter(RevCommit commit) {
@@ -1051,17 +1064,106 @@ class JGitConnection implements GitConnection {
         .withEmail(authorIdentity.getEmailAddress());
   }
 
-  private List<Branch> getBranchesOfCommit(RevCommit commit, ListMode mode) throws GitAPIException {
-    List<Ref> branches =
-        getGit().branchList().setListMode(mode).setContains(commit.getName()).call();
-    return branches
-        .stream()
-        .map(branch -> newDto(Branch.class).withName(branch.getName()))
-        .collect(toList());
+  /**
+   * Returns local and remote branches which contain given commits.
+   *
+   * <p>Instead of a reachability check from every branch for every commit, history is walked once
+   * from all branch heads in commit time order, and the set of branches reaching a commit is the
+   * union of sets of its children. Walk is stopped as soon as all given commits are visited, so
+   * only history that is newer than the oldest given commit is read. A commit that is older than
+   * its parent because of a clock skew may be visited after the parent, then its branches are
+   * added to the already visited ancestors. Such a commit that is visited only after the walk is
+   * stopped is not taken into account.
+   */
+  private Map<ObjectId, List<Branch>> getBranchesOfCommits(List<RevCommit> commits)
+      throws GitAPIException, IOException {
+    Set<ObjectId> remaining = new HashSet<>();
+    commits.forEach(commit -> remaining.add(commit.copy()));
+    List<Ref> branches = getGit().branchList().setListMode(ListMode.ALL).call();
+    Map<ObjectId, List<Branch>> result = new HashMap<>();
+    if (remaining.isEmpty() || branches.isEmpty()) {
+      return result;
+    }
+
+    Set<ObjectId> targets = new HashSet<>(remaining);
+    Map<RevCommit, BitSet> visited = new HashMap<>();
+    try (RevWalk revWalk = new RevWalk(repository)) {
+      revWalk.setRetainBody(false);
+      Map<RevCommit, BitSet> reachedBy = new HashMap<>();
+      for (int i = 0; i < branches.size(); i++) {
+        ObjectId head = branches.get(i).getObjectId();
+        if (head == null) {
+          continue;
+        }
+        RevCommit headCommit;
+        try {
+          headCommit = revWalk.parseCommit(head);
+        } catch (IncorrectObjectTypeException | MissingObjectException e) {
+          continue;
+        }
+        reachedBy.computeIfAbsent(headCommit, commit -> new BitSet()).set(i);
+        revWalk.markStart(headCommit);
+      }
+
+      for (RevCommit commit : revWalk) {
+        BitSet commitBranches = reachedBy.remove(commit);
+        if (commitBranches == null) {
+          continue;
+        }
+        visited.put(commit, commitBranches);
+        for (RevCommit parent : commit.getParents()) {
+          addBranches(parent, commitBranches, visited, reachedBy);
+        }
+        if (remaining.remove(commit) && remaining.isEmpty()) {
+          break;
+        }
+      }
+    }
+
+    visited.forEach(
+        (commit, commitBranches) -> {
+          if (targets.contains(commit)) {
+            result.put(
+                commit.copy(),
+                commitBranches
+                    .stream()
+                    .mapToObj(i -> newDto(Branch.class).withName(branches.get(i).getName()))
+                    .collect(toList()));
+          }
+        });
+    return result;
+  }
+
+  /**
+   * Adds branches to the commit that is not visited yet, or to the already visited commit and its
+   * ancestors.
+   */
+  private void addBranches(
+      RevCommit commit,
+      BitSet branches,
+      Map<RevCommit, BitSet> visited,
+      Map<RevCommit, BitSet> reachedBy) {
+    Deque<RevCommit> queue = new ArrayDeque<>();
+    queue.add(commit);
+    while (!queue.isEmpty()) {
+      RevCommit next = queue.poll();
+      BitSet nextBranches = visited.get(next);
+      if (nextBranches == null) {
+        reachedBy.computeIfAbsent(next, c -> new BitSet()).or(branches);
+        continue;
+      }
+      BitSet added = (BitSet) branches.clone();
+      added.andNot(nextBranches);
+      if (added.isEmpty()) {
+        continue;
+      }
+      nextBranches.or(added);
+      queue.addAll(Arrays.asList(next.getParents()));
+    }
   }
 
-  private List<DiffCommitFile> getCommitDiffFiles(RevCommit revCommit, String pattern)
-      throws IOException {
+  private List<DiffCommitFile> getCommitDiffFiles(
+      RevWalk revWalk, RevCommit revCommit, String pattern) throws IOException {
     List<DiffEntry> diffs;
     TreeFilter filter = null;
     if (!isNullOrEmpty(pattern)) {
@@ -1076,7 +1178,7 @@ class JGitConnection implements GitConnection {
       // get the current commit parent in order to compare it with the current commit
       // and to get the list of DiffEntry.
       if (revCommit.getParentCount() > 0) {
-        RevCommit parent = parseCommit(revCommit.getParent(0));
+        RevCommit parent = revWalk.parseCommit(revCommit.getParent(0));
         tw.reset(parent.getTree(), revCommit.getTree());
         if (filter != null) {
           tw.setFilter(filter);
@@ -1088,8 +1190,7 @@ class JGitConnection implements GitConnection {
         // If the current commit has no parents (which means it is the initial commit),
         // then create an empty tree and compare it to the current commit to get the
         // list of DiffEntry.
-        try (RevWalk rw = new RevWalk(repository);
-            DiffFormatter diffFormat = new DiffFormatter(NullOutputStream.INSTANCE)) {
+        try (DiffFormatter diffFormat = new DiffFormatter(NullOutputStream.INSTANCE)) {
           diffFormat.setRepository(repository);
           if (filter != null) {
             diffFormat.setPathFilter(filter);
@@ -1097,7 +1198,7 @@ class JGitConnection implements GitConnection {
           diffs =
               diffFormat.scan(
                   new EmptyTreeIterator(),
-                  new CanonicalTreeParser(null, rw.getObjectReader(), revCommit.getTree()));
+                  new CanonicalTreeParser(null, revWalk.getObjectReader(), revCommit.getTree()));
         }
       }
     }
@@ -1116,15 +1217,6 @@ class JGitConnection implements GitConnection {
     return commitFilesList;
   }
 
-  private RevCommit parseCommit(RevCommit revCommit) {
-    try (RevWalk rw = new RevWalk(repository)) {
-      return rw.parseCommit(revCommit);
-    } catch (IOException exception) {
-      LOG.error("Failed to parse commit. ", exception);
-      return revCommit;
-    }
-  }
-
   private void setRevisionRange(LogCommand logCommand, LogParams params) throws IOException {
     if (params != null && logCommand != null) {
       String revisionRangeSince = params.getRevisionRangeSince();
@@ -1969,7 +2061,12 @@ class JGitConnection implements GitConnection {
 
   @Override
   public void close() {
-    repository.close();
+    if (repositoryCache == null) {
+      repository.close();
+    } else if (!closed) {
+      repositoryCache.release(repository);
+    }
+    closed = true;
   }
 
   @Override
@@ -2014,6 +2111,11 @@ class JGitConnection implements GitConnection {
     this.lineConsumerFactory = lineConsumerFactory;
   }
 
+  /** Sets cache the repository is acquired from, it is released to the cache on close. */
+  void setRepositoryCache(JGitRepositoryCache repositoryCache) {
+    this.repositoryCache = repositoryCache;
+  }
+
   private Git getGit() {
     if (git != null) {
       return git;
@@ -2232,6 +2334,13 @@ class JGitConnection implements GitConnection {
     return repository;
   }
 
+  /** Drops repository of the work dir from cache, so the next connection opens it again. */
+  private void invalidateCachedRepository(File workDir) {
+    if (repositoryCache != null) {
+      repositoryCache.invalidate(workDir);
+    }
+  }
+
   private String getRepositoryPath() {
     return getRepository().getDirectory().getPath();
   }
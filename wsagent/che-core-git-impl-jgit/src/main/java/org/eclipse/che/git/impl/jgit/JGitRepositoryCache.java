@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.git.impl.jgit;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import org.eclipse.jgit.internal.storage.file.FileRepository;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Reference counted cache of repositories keyed by work dir, so config, refs and pack indexes of a
+ * repository are not read from disk again for each connection.
+ *
+ * <p>Repository is acquired by a connection and released when the connection is closed. Repository
+ * that is not used by any connection is closed after the idle timeout. Cached repository is
+ * replaced if its {@code .git} directory was removed or recreated since the repository was opened,
+ * and is dropped on {@link #invalidate(File)}, e.g. after init or clone. Repository that is
+ * replaced or dropped while used is closed when its last connection is closed.
+ */
+@Singleton
+public class JGitRepositoryCache {
+
+  private final long idleTimeoutMillis;
+
+  /** Canonical work dir -> Cached repository */
+  private final Map<File, Entry> entries = new HashMap<>();
+  /** Repository -> Entry, includes repositories which are not cached anymore but still used */
+  private final Map<Repository, Entry> acquired = new IdentityHashMap<>();
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  private long lastEvictionTime;
+
+  @Inject
+  public JGitRepositoryCache(
+      @Named("che.git.repository_cache.idle_timeout_sec") long idleTimeoutSec) {
+    this.idleTimeoutMillis = TimeUnit.SECONDS.toMillis(idleTimeoutSec);
+  }
+
+  /**
+   * Returns repository of the work dir, the repository must be released with {@link
+   * #release(Repository)} when it is not needed anymore.
+   */
+  synchronized Repository acquire(File workDir) throws IOException {
+    evictIdle();
+
+    File key = workDir.getCanonicalFile();
+    File gitDir = new File(key, Constants.DOT_GIT);
+    Object gitDirKey = fileKey(gitDir);
+
+    Entry entry = entries.get(key);
+    if (entry != null && !Objects.equals(entry.gitDirKey, gitDirKey)) {
+      drop(entry);
+      entry = null;
+    }
+    if (entry == null) {
+      misses.incrementAndGet();
+      entry = new Entry(key, open(gitDir), gitDirKey);
+      entries.put(key, entry);
+    } else {
+      hits.incrementAndGet();
+    }
+
+    entry.references++;
+    acquired.put(entry.repository, entry);
+    return entry.repository;
+  }
+
+  /** Releases repository acquired with {@link #acquire(File)}. */
+  synchronized void release(Repository repository) {
+    Entry entry = acquired.get(repository);
+    if (entry == null || entry.references == 0) {
+      return;
+    }
+    entry.references--;
+    entry.releaseTime = System.currentTimeMillis();
+    if (entry.references == 0) {
+      acquired.remove(repository);
+      if (entries.get(entry.workDir) != entry) {
+        entry.repository.close();
+      }
+    }
+  }
+
+  /** Drops cached repository of the work dir, e.g. when repository is initialized or cloned. */
+  synchronized void invalidate(File workDir) {
+    File key;
+    try {
+      key = workDir.getCanonicalFile();
+    } catch (IOException e) {
+      key = workDir.getAbsoluteFile();
+    }
+    Entry entry = entries.get(key);
+    if (entry != null) {
+      drop(entry);
+    }
+  }
+
+  /** Opens repository of the git dir. */
+  Repository open(File gitDir) throws IOException {
+    return new FileRepository(gitDir);
+  }
+
+  /** Returns number of requests served with already opened repository. */
+  public long getHits() {
+    return hits.get();
+  }
+
+  /** Returns number of requests that required opening of repository. */
+  public long getMisses() {
+    return misses.get();
+  }
+
+  /** Returns ratio of requests served with already opened repository. */
+  public double getHitRate() {
+    long hitCount = hits.get();
+    long total = hitCount + misses.get();
+    return total == 0 ? 0 : (double) hitCount / total;
+  }
+
+  /** Returns number of repositories that are opened, cached or still used by connections. */
+  public synchronized int getOpenRepositories() {
+    int result = entries.size();
+    for (Entry entry : acquired.values()) {
+      if (entries.get(entry.workDir) != entry) {
+        result++;
+      }
+    }
+    return result;
+  }
+
+  private void drop(Entry entry) {
+    entries.remove(entry.workDir);
+    if (entry.references == 0) {
+      entry.repository.close();
+    }
+  }
+
+  private void evictIdle() {
+    long now = System.currentTimeMillis();
+    if (now - lastEvictionTime < Math.min(idleTimeoutMillis, TimeUnit.MINUTES.toMillis(1))) {
+      return;
+    }
+    lastEvictionTime = now;
+    for (Iterator<Entry> it = entries.values().iterator(); it.hasNext(); ) {
+      Entry entry = it.next();
+      if (entry.references == 0 && now - entry.releaseTime >= idleTimeoutMillis) {
+        it.remove();
+        entry.repository.close();
+      }
+    }
+  }
+
+  /** Returns key identifying the directory, it is changed when the directory is recreated. */
+  private static Object fileKey(File dir) {
+    try {
+      BasicFileAttributes attributes =
+          Files.readAttributes(dir.toPath(), BasicFileAttributes.class);
+      Object fileKey = attributes.fileKey();
+      return fileKey != null ? fileKey : attributes.creationTime();
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  private static class Entry {
+    final File workDir;
+    final Repository repository;
+    final Object gitDirKey;
+
+    int references;
+    long releaseTime = System.currentTimeMillis();
+
+    Entry(File workDir, Repository repository, Object gitDirKey) {
+      this.workDir = workDir;
+      this.repository = repository;
+      this.gitDirKey = gitDirKey;
+    }
+  }
+}
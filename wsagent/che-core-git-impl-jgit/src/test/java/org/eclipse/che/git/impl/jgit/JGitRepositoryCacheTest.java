@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.git.impl.jgit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import org.eclipse.jgit.lib.Repository;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Tests for {@link JGitRepositoryCache} */
+public class JGitRepositoryCacheTest {
+
+  private JGitRepositoryCache repositoryCache;
+  private Path workDir;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    workDir = Files.createTempDirectory("repository-cache");
+    repositoryCache = new JGitRepositoryCache(300);
+  }
+
+  @AfterMethod
+  public void tearDown() throws Exception {
+    try (Stream<Path> paths = Files.walk(workDir)) {
+      paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+  }
+
+  @Test
+  public void shouldReuseRepositoryOfTheSameWorkDir() throws Exception {
+    Repository first = repositoryCache.acquire(workDir.toFile());
+    repositoryCache.release(first);
+    Repository second = repositoryCache.acquire(workDir.resolve(".").toFile());
+
+    assertSame(second, first);
+    assertEquals(repositoryCache.getMisses(), 1);
+    assertEquals(repositoryCache.getHits(), 1);
+    assertEquals(repositoryCache.getHitRate(), 0.5);
+    assertEquals(repositoryCache.getOpenRepositories(), 1);
+  }
+
+  @Test
+  public void shouldOpenRepositoryAgainAfterInvalidation() throws Exception {
+    Repository first = repositoryCache.acquire(workDir.toFile());
+
+    repositoryCache.invalidate(workDir.toFile());
+    Repository second = repositoryCache.acquire(workDir.toFile());
+
+    assertNotSame(second, first);
+    assertEquals(repositoryCache.getMisses(), 2);
+    assertEquals(repositoryCache.getOpenRepositories(), 2);
+
+    repositoryCache.release(first);
+    assertEquals(repositoryCache.getOpenRepositories(), 1);
+  }
+
+  @Test
+  public void shouldCloseRepositoryWhenItIsReleasedAfterInvalidation() throws Exception {
+    repositoryCache = new MockRepositoryCache();
+    Repository repository = repositoryCache.acquire(workDir.toFile());
+
+    repositoryCache.invalidate(workDir.toFile());
+    verify(repository, never()).close();
+    repositoryCache.release(repository);
+
+    verify(repository).close();
+    assertEquals(repositoryCache.getOpenRepositories(), 0);
+  }
+
+  @Test
+  public void shouldCloseRepositoryWhenItIsInvalidatedAfterRelease() throws Exception {
+    repositoryCache = new MockRepositoryCache();
+    Repository repository = repositoryCache.acquire(workDir.toFile());
+
+    repositoryCache.release(repository);
+    verify(repository, never()).close();
+    repositoryCache.invalidate(workDir.toFile());
+
+    verify(repository).close();
+    assertEquals(repositoryCache.getOpenRepositories(), 0);
+  }
+
+  private static class MockRepositoryCache extends JGitRepositoryCache {
+    MockRepositoryCache() {
+      super(300);
+    }
+
+    @Override
+    Repository open(File gitDir) {
+      return mock(Repository.class);
+    }
+  }
+}